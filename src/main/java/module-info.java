@@ -21,6 +21,7 @@ module javalaboratories.java.extensions {
   requires org.apache.commons.lang3;
   requires org.slf4j;
     requires java.desktop;
+    requires java.management;
 
     opens org.javalaboratories.core.cryptography.json to com.google.gson;
 
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Computes or retrieves values on behalf of a {@link LoadingLRUCache}.
+ * <p>
+ * Only {@link CacheLoader#load(Object)} must be implemented. Override
+ * {@link CacheLoader#loadAll(Set)} when values can be retrieved more
+ * efficiently in bulk, for example with a single database query, rather than
+ * one key at a time.
+ *
+ * @param <K> type of Key
+ * @param <V> type of Value
+ */
+@FunctionalInterface
+public interface CacheLoader<K,V> {
+
+    /**
+     * Computes or retrieves the value of the {@code key}.
+     *
+     * @param key to load.
+     * @return the value, or {@code null} if there is no value, in which case
+     * nothing is cached.
+     */
+    V load(K key);
+
+    /**
+     * Computes or retrieves the values of the {@code keys}.
+     * <p>
+     * The default implementation invokes {@link CacheLoader#load(Object)} for
+     * each key.
+     *
+     * @param keys to load, never empty.
+     * @return a {@link Map} of the loaded values. Keys without a value may be
+     * omitted.
+     */
+    default Map<K,V> loadAll(final Set<? extends K> keys) {
+        Map<K,V> result = new HashMap<>();
+        for (K key : keys) {
+            V value = load(key);
+            if (value != null)
+                result.put(key,value);
+        }
+        return result;
+    }
+}
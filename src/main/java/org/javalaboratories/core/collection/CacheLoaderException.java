@@ -0,0 +1,41 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+import java.io.Serial;
+
+/**
+ * Exception raised by a {@link LoadingLRUCache} when its {@link CacheLoader}
+ * fails to load a value.
+ * <p>
+ * The underlying exception thrown by the {@link CacheLoader} is available as
+ * the {@code cause}.
+ */
+public class CacheLoaderException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = -2981340815702295718L;
+
+    /**
+     * Constructs an instance of this {@code exception} object.
+     *
+     * @param message the message describing the exception.
+     * @param cause the underlying cause of the exception.
+     */
+    public CacheLoaderException(String message, Throwable cause) {
+        super(message,cause);
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An immutable snapshot of the statistics of a cache.
+ * <p>
+ * Snapshots are taken with {@link StatsCounter#snapshot()}, typically via the
+ * {@code stats()} method of the cache. The difference between two snapshots,
+ * the statistics of the interval between them, is calculated with
+ * {@link CacheStats#minus(CacheStats)}:
+ * <pre>
+ * {@code
+ *      CacheStats before = cache.stats();
+ *      ...
+ *      CacheStats delta = cache.stats().minus(before);
+ *      logger.info("Hit rate over the last interval: {}",delta.getHitRate());
+ * }
+ * </pre>
+ * Counts are never negative.
+ */
+@Getter
+@EqualsAndHashCode
+public final class CacheStats {
+
+    private static final CacheStats EMPTY = new CacheStats(0,0,0,0,0,Collections.emptyMap());
+
+    private final long hitCount;
+    private final long missCount;
+    private final long loadSuccessCount;
+    private final long loadFailureCount;
+    private final long totalLoadTime;
+    private final Map<EvictionCause,Long> evictionCounts;
+
+    /**
+     * Constructs an instance of {@link CacheStats}.
+     *
+     * @param hitCount number of lookups that found a value.
+     * @param missCount number of lookups that did not find a value.
+     * @param loadSuccessCount number of values loaded successfully.
+     * @param loadFailureCount number of failed loads.
+     * @param totalLoadTime nanoseconds spent loading values.
+     * @param evictionCounts number of evictions for each {@link EvictionCause},
+     *                       causes that are absent are considered zero.
+     * @throws IllegalArgumentException if any count is negative.
+     * @throws NullPointerException if {@code evictionCounts} is null.
+     */
+    public CacheStats(final long hitCount, final long missCount, final long loadSuccessCount,
+                      final long loadFailureCount, final long totalLoadTime,
+                      final Map<EvictionCause,Long> evictionCounts) {
+        Objects.requireNonNull(evictionCounts,"Expected evictionCounts");
+        if (hitCount < 0 || missCount < 0 || loadSuccessCount < 0 || loadFailureCount < 0 || totalLoadTime < 0)
+            throw new IllegalArgumentException("Expected >= 0 counts");
+        Map<EvictionCause,Long> evictions = new EnumMap<>(EvictionCause.class);
+        for (EvictionCause cause : EvictionCause.values()) {
+            long count = evictionCounts.getOrDefault(cause,0L);
+            if (count < 0)
+                throw new IllegalArgumentException("Expected >= 0 counts");
+            evictions.put(cause,count);
+        }
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.loadSuccessCount = loadSuccessCount;
+        this.loadFailureCount = loadFailureCount;
+        this.totalLoadTime = totalLoadTime;
+        this.evictionCounts = Collections.unmodifiableMap(evictions);
+    }
+
+    /**
+     * @return a {@link CacheStats} object where all counts are zero.
+     */
+    public static CacheStats empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return average number of nanoseconds spent loading a value, or zero if
+     * there were no loads.
+     */
+    public double getAverageLoadPenalty() {
+        long loads = getLoadCount();
+        return loads == 0 ? 0.0 : (double) totalLoadTime / loads;
+    }
+
+    /**
+     * @return total number of evictions, for any cause.
+     */
+    public long getEvictionCount() {
+        return evictionCounts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * @param cause of eviction.
+     * @return number of evictions for the given {@code cause}.
+     */
+    public long getEvictionCount(final EvictionCause cause) {
+        return evictionCounts.get(Objects.requireNonNull(cause,"Expected cause"));
+    }
+
+    /**
+     * @return ratio of hits to lookups, or {@code 1.0} if there were no
+     * lookups.
+     */
+    public double getHitRate() {
+        long requests = getRequestCount();
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    /**
+     * @return number of loads, successful or otherwise.
+     */
+    public long getLoadCount() {
+        return loadSuccessCount + loadFailureCount;
+    }
+
+    /**
+     * @return ratio of misses to lookups, or {@code 0.0} if there were no
+     * lookups.
+     */
+    public double getMissRate() {
+        long requests = getRequestCount();
+        return requests == 0 ? 0.0 : (double) missCount / requests;
+    }
+
+    /**
+     * @return number of lookups, that is, hits and misses.
+     */
+    public long getRequestCount() {
+        return hitCount + missCount;
+    }
+
+    /**
+     * Returns the difference between this snapshot and an {@code other},
+     * earlier snapshot: the statistics recorded in the interval between them.
+     * <p>
+     * Counts are floored at zero, should the {@code other} snapshot be the
+     * later of the two.
+     *
+     * @param other earlier snapshot.
+     * @return statistics of the interval.
+     * @throws NullPointerException if {@code other} is null.
+     */
+    public CacheStats minus(final CacheStats other) {
+        Objects.requireNonNull(other,"Expected other");
+        Map<EvictionCause,Long> evictions = new EnumMap<>(EvictionCause.class);
+        for (EvictionCause cause : EvictionCause.values())
+            evictions.put(cause,Math.max(0L,getEvictionCount(cause) - other.getEvictionCount(cause)));
+        return new CacheStats(
+                Math.max(0L,hitCount - other.hitCount),
+                Math.max(0L,missCount - other.missCount),
+                Math.max(0L,loadSuccessCount - other.loadSuccessCount),
+                Math.max(0L,loadFailureCount - other.loadFailureCount),
+                Math.max(0L,totalLoadTime - other.totalLoadTime),
+                evictions);
+    }
+
+    /**
+     * Returns the sum of this snapshot and an {@code other} snapshot, for
+     * example to aggregate the statistics of several caches.
+     *
+     * @param other snapshot.
+     * @return aggregated statistics.
+     * @throws NullPointerException if {@code other} is null.
+     */
+    public CacheStats plus(final CacheStats other) {
+        Objects.requireNonNull(other,"Expected other");
+        Map<EvictionCause,Long> evictions = new EnumMap<>(EvictionCause.class);
+        for (EvictionCause cause : EvictionCause.values())
+            evictions.put(cause,getEvictionCount(cause) + other.getEvictionCount(cause));
+        return new CacheStats(
+                hitCount + other.hitCount,
+                missCount + other.missCount,
+                loadSuccessCount + other.loadSuccessCount,
+                loadFailureCount + other.loadFailureCount,
+                totalLoadTime + other.totalLoadTime,
+                evictions);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[hitCount=%d,missCount=%d,loadSuccessCount=%d,loadFailureCount=%d,totalLoadTime=%d," +
+                "evictionCounts=%s]",hitCount,missCount,loadSuccessCount,loadFailureCount,totalLoadTime,evictionCounts);
+    }
+}
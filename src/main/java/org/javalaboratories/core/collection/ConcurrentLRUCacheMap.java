@@ -0,0 +1,636 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link ConcurrentLRUCacheMap} is a thread-safe sibling of the
+ * {@link LRUCacheMap}, designed for read-heavy workloads on multi-core
+ * machines. It approximates the {@code Least Recently Used} policy: when the
+ * number of entries exceeds {@code capacity}, the least recently used entries
+ * are evicted.
+ * <p>
+ * Entries are held in a {@link ConcurrentHashMap}, so lookups never block.
+ * Rather than reordering the LRU queue under a lock on every {@code get}, each
+ * read records an access event in one of several striped ring buffers, the
+ * stripe being chosen by the calling thread. The buffers are lossy: if a
+ * buffer is full or contended, the event is simply dropped, which only makes
+ * the recency order slightly less precise. Writes are recorded in an unbounded
+ * write buffer, and are never lost. Both buffers are drained in batches under
+ * a single eviction lock that is acquired with {@code tryLock}, so at most one
+ * thread performs the maintenance work while the others carry on.
+ * <p>
+ * Consequently, {@link ConcurrentLRUCacheMap#size()} may momentarily exceed
+ * {@code capacity} until the pending writes are drained. Use
+ * {@link ConcurrentLRUCacheMap#cleanUp()} to perform pending maintenance
+ * immediately.
+ * <p>
+ * Like {@link ConcurrentHashMap}, this {@code Map} does not permit
+ * {@code null} keys or values, and the iterators of its views are weakly
+ * consistent; they do not iterate in recency order.
+ *
+ * @param <K> type of Key
+ * @param <V> type of Value
+ * @see LRUCacheMap
+ */
+public class ConcurrentLRUCacheMap<K,V> extends AbstractMap<K,V> implements ConcurrentMap<K,V> {
+
+    public static final int DEFAULT_CAPACITY = 16;
+
+    static final int READ_BUFFER_SIZE = 16;
+    static final int WRITE_BUFFER_THRESHOLD = 128;
+
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+    private static final int NUMBER_OF_READ_BUFFERS = ceilingPowerOfTwo(Runtime.getRuntime().availableProcessors());
+
+    private final int capacity;
+    private final ConcurrentHashMap<K,Node<K,V>> data;
+    private final ReadBuffer<K,V>[] readBuffers;
+    private final Queue<Runnable> writeBuffer;
+    private final AtomicInteger pendingWrites;
+    private final ReentrantLock evictionLock;
+    private Set<Entry<K,V>> entrySet;
+
+    // Guarded by evictionLock
+    private Node<K,V> head;
+    private Node<K,V> tail;
+    private int linked;
+
+    /**
+     * Constructs this {@link ConcurrentLRUCacheMap} with {@code DEFAULT_CAPACITY}
+     * of 16 entries.
+     */
+    public ConcurrentLRUCacheMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs this {@link ConcurrentLRUCacheMap} with given capacity.
+     * <p>
+     * An {@link IllegalArgumentException} exception is thrown if the capacity
+     * is less than or equal to zero.
+     *
+     * @param capacity Non-zero, positive value.
+     */
+    public ConcurrentLRUCacheMap(final int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Expected > 0 capacity");
+        this.capacity = capacity;
+        this.data = new ConcurrentHashMap<>();
+        this.writeBuffer = new ConcurrentLinkedQueue<>();
+        this.pendingWrites = new AtomicInteger();
+        this.evictionLock = new ReentrantLock();
+        @SuppressWarnings("unchecked")
+        ReadBuffer<K,V>[] buffers = new ReadBuffer[NUMBER_OF_READ_BUFFERS];
+        for (int i = 0; i < buffers.length; i++)
+            buffers[i] = new ReadBuffer<>();
+        this.readBuffers = buffers;
+    }
+
+    /**
+     * Returns current capacity of this {@link ConcurrentLRUCacheMap}.
+     *
+     * @return current capacity. This is always a non-zero, positive value.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Performs any pending maintenance work immediately.
+     * <p>
+     * Buffered access events and writes are applied to the LRU queue, and
+     * entries are evicted until the {@code Map} is within its {@code capacity}.
+     * This is normally performed in batches, piggybacking on reads and writes,
+     * and so it is rarely necessary to call this method.
+     */
+    public void cleanUp() {
+        evictionLock.lock();
+        try {
+            maintenance();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        evictionLock.lock();
+        try {
+            maintenance();
+            for (Node<K,V> node = head; node != null;) {
+                Node<K,V> next = node.next;
+                if (data.remove(node.key,node))
+                    retire(node);
+                node.prev = node.next = null;
+                node.linked = false;
+                node = next;
+            }
+            head = tail = null;
+            linked = 0;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsKey(final Object key) {
+        return data.containsKey(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsValue(final Object value) {
+        Objects.requireNonNull(value);
+        for (Node<K,V> node : data.values()) {
+            if (value.equals(node.value))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The iterators of this view are weakly consistent and do not affect the
+     * LRU queue.
+     */
+    @Override
+    public Set<Entry<K,V>> entrySet() {
+        Set<Entry<K,V>> result = entrySet;
+        if (result == null)
+            entrySet = result = new EntrySet();
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The access is recorded in a lossy read buffer and applied to the LRU queue
+     * later, in a batch.
+     */
+    @Override
+    public V get(final Object key) {
+        Node<K,V> node = data.get(key);
+        if (node == null)
+            return null;
+        afterRead(node);
+        return node.value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty() {
+        return data.isEmpty();
+    }
+
+    /**
+     * Records an access of the {@code key}, thus moving it towards the "front"
+     * of the LRU queue.
+     * <p>
+     * Like {@link ConcurrentLRUCacheMap#get(Object)}, the access is recorded in
+     * a lossy buffer, and so the promotion is not guaranteed.
+     *
+     * @param key to nudge
+     * @return true if the {@code key} exists.
+     */
+    public boolean nudge(final K key) {
+        Node<K,V> node = data.get(key);
+        if (node == null)
+            return false;
+        afterRead(node);
+        return true;
+    }
+
+    /**
+     * Similar to the {@link ConcurrentLRUCacheMap#get(Object)}, except the
+     * access is not recorded and therefore the LRU queue is not affected.
+     *
+     * @param key of object.
+     * @return value mapped to {@code key}, or {@code null} if there is no
+     * mapping.
+     */
+    public V peek(final K key) {
+        Node<K,V> node = data.get(key);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V put(final K key, final V value) {
+        return put(key,value,false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V putIfAbsent(final K key, final V value) {
+        return put(key,value,true);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V remove(final Object key) {
+        Node<K,V> node = data.remove(key);
+        if (node == null)
+            return null;
+        V result = retire(node);
+        afterWrite(() -> onRemove(node));
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean remove(final Object key, final Object value) {
+        Node<K,V> node = data.get(key);
+        if (node == null || value == null)
+            return false;
+        synchronized (node) {
+            if (!node.alive || !value.equals(node.value) || !data.remove(key,node))
+                return false;
+            node.alive = false;
+        }
+        afterWrite(() -> onRemove(node));
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V replace(final K key, final V value) {
+        Objects.requireNonNull(value);
+        Node<K,V> node = data.get(key);
+        if (node == null)
+            return null;
+        V result;
+        synchronized (node) {
+            if (!node.alive)
+                return null;
+            result = node.value;
+            node.value = value;
+        }
+        afterRead(node);
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean replace(final K key, final V oldValue, final V newValue) {
+        Objects.requireNonNull(oldValue);
+        Objects.requireNonNull(newValue);
+        Node<K,V> node = data.get(key);
+        if (node == null)
+            return false;
+        synchronized (node) {
+            if (!node.alive || !oldValue.equals(node.value))
+                return false;
+            node.value = newValue;
+        }
+        afterRead(node);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return data.size();
+    }
+
+    private void afterRead(final Node<K,V> node) {
+        ReadBuffer<K,V> buffer = readBuffers[probe() & (readBuffers.length - 1)];
+        if (buffer.offer(node))
+            tryToDrain();
+    }
+
+    private void afterWrite(final Runnable task) {
+        writeBuffer.add(task);
+        if (pendingWrites.incrementAndGet() > WRITE_BUFFER_THRESHOLD) {
+            // Writers are outpacing the maintenance work, apply back-pressure
+            cleanUp();
+        }
+        tryToDrain();
+    }
+
+    private void drainReadBuffers() {
+        for (ReadBuffer<K,V> buffer : readBuffers)
+            buffer.drain(this);
+    }
+
+    private void drainWriteBuffer() {
+        Runnable task;
+        int i = 0;
+        while (i++ < WRITE_BUFFER_THRESHOLD && (task = writeBuffer.poll()) != null) {
+            task.run();
+            pendingWrites.decrementAndGet();
+        }
+    }
+
+    private void evict() {
+        while (linked > capacity) {
+            Node<K,V> node = tail;
+            unlink(node);
+            if (data.remove(node.key,node))
+                retire(node);
+        }
+    }
+
+    private void linkFirst(final Node<K,V> node) {
+        node.next = head;
+        if (head == null) tail = node;
+        else head.prev = node;
+        head = node;
+        node.linked = true;
+        linked++;
+    }
+
+    private void maintenance() {
+        drainReadBuffers();
+        drainWriteBuffer();
+        evict();
+    }
+
+    private void moveToFirst(final Node<K,V> node) {
+        if (node != head) {
+            unlink(node);
+            linkFirst(node);
+        }
+    }
+
+    private void onAccess(final Node<K,V> node) {
+        if (node.linked)
+            moveToFirst(node);
+    }
+
+    private void onAdd(final Node<K,V> node) {
+        if (node.alive && !node.linked)
+            linkFirst(node);
+    }
+
+    private void onRemove(final Node<K,V> node) {
+        if (node.linked)
+            unlink(node);
+    }
+
+    private V put(final K key, final V value, final boolean onlyIfAbsent) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        Node<K,V> node = null;
+        for (;;) {
+            Node<K,V> prior = data.get(key);
+            if (prior == null) {
+                if (node == null)
+                    node = new Node<>(key,value);
+                prior = data.putIfAbsent(key,node);
+                if (prior == null) {
+                    Node<K,V> added = node;
+                    afterWrite(() -> onAdd(added));
+                    return null;
+                }
+            }
+            V result;
+            synchronized (prior) {
+                if (!prior.alive)
+                    continue; // Removed concurrently, retry
+                result = prior.value;
+                if (!onlyIfAbsent)
+                    prior.value = value;
+            }
+            afterRead(prior);
+            return result;
+        }
+    }
+
+    private V retire(final Node<K,V> node) {
+        synchronized (node) {
+            node.alive = false;
+            return node.value;
+        }
+    }
+
+    private void tryToDrain() {
+        do {
+            if (!evictionLock.tryLock())
+                return;
+            try {
+                maintenance();
+            } finally {
+                evictionLock.unlock();
+            }
+        } while (pendingWrites.get() > 0);
+    }
+
+    private void unlink(final Node<K,V> node) {
+        Node<K,V> prev = node.prev;
+        Node<K,V> next = node.next;
+        if (prev == null) head = next;
+        else prev.next = next;
+        if (next == null) tail = prev;
+        else next.prev = prev;
+        node.prev = null;
+        node.next = null;
+        node.linked = false;
+        linked--;
+    }
+
+    private static int ceilingPowerOfTwo(final int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    private static int probe() {
+        long id = Thread.currentThread().threadId();
+        int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /*************************** INTERNAL CLASSES *****************************/
+
+    /**
+     * Represents an entry of the {@link ConcurrentLRUCacheMap}.
+     * <p>
+     * The {@code value} and {@code alive} fields are read without locking but
+     * are only modified while holding the node's monitor. The links of the LRU
+     * queue are guarded by the eviction lock.
+     *
+     * @param <K> type of Key
+     * @param <V> type of Value
+     */
+    static final class Node<K,V> {
+        final K key;
+        volatile V value;
+        volatile boolean alive;
+
+        Node<K,V> prev;
+        Node<K,V> next;
+        boolean linked;
+
+        Node(final K key, final V value) {
+            this.key = key;
+            this.value = value;
+            this.alive = true;
+        }
+    }
+
+    /**
+     * A bounded, lossy ring buffer of access events.
+     * <p>
+     * Many threads may offer events, but only the holder of the eviction lock
+     * drains them. An event is dropped rather than blocking the reader if the
+     * buffer is full or another thread won the race for the slot.
+     *
+     * @param <K> type of Key
+     * @param <V> type of Value
+     */
+    private static final class ReadBuffer<K,V> {
+        private final AtomicReferenceArray<Node<K,V>> buffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+        private final AtomicLong writeCounter = new AtomicLong();
+        private volatile long readCounter;
+
+        /**
+         * @return {@code true} if the buffer is full and should be drained.
+         */
+        boolean offer(final Node<K,V> node) {
+            long head = readCounter;
+            long tail = writeCounter.get();
+            long size = tail - head;
+            if (size >= READ_BUFFER_SIZE)
+                return true;
+            if (writeCounter.compareAndSet(tail,tail + 1)) {
+                buffer.lazySet((int) tail & READ_BUFFER_MASK,node);
+                return size + 1 >= READ_BUFFER_SIZE;
+            }
+            return false;
+        }
+
+        void drain(final ConcurrentLRUCacheMap<K,V> map) {
+            long head = readCounter;
+            long tail = writeCounter.get();
+            for (; head != tail; head++) {
+                int index = (int) head & READ_BUFFER_MASK;
+                Node<K,V> node = buffer.get(index);
+                if (node == null)
+                    break; // Slot claimed but not yet published
+                buffer.lazySet(index,null);
+                map.onAccess(node);
+            }
+            readCounter = head;
+        }
+    }
+
+    /**
+     * A weakly consistent view of the entries of this {@link ConcurrentLRUCacheMap}.
+     */
+    private final class EntrySet extends AbstractSet<Entry<K,V>> {
+        @Override
+        public void clear() {
+            ConcurrentLRUCacheMap.this.clear();
+        }
+
+        @Override
+        public boolean contains(final Object o) {
+            if (!(o instanceof Entry<?,?> e)) return false;
+            Node<K,V> node = data.get(e.getKey());
+            return node != null && node.value.equals(e.getValue());
+        }
+
+        @Override
+        public Iterator<Entry<K,V>> iterator() {
+            Iterator<Node<K,V>> iterator = data.values().iterator();
+            return new Iterator<>() {
+                private Node<K,V> current;
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Entry<K,V> next() {
+                    current = iterator.next();
+                    return new WriteThroughEntry(current.key,current.value);
+                }
+
+                @Override
+                public void remove() {
+                    if (current == null)
+                        throw new IllegalStateException();
+                    ConcurrentLRUCacheMap.this.remove(current.key,current.value);
+                    current = null;
+                }
+            };
+        }
+
+        @Override
+        public boolean remove(final Object o) {
+            return o instanceof Entry<?,?> e && ConcurrentLRUCacheMap.this.remove(e.getKey(),e.getValue());
+        }
+
+        @Override
+        public int size() {
+            return ConcurrentLRUCacheMap.this.size();
+        }
+    }
+
+    /**
+     * An entry that writes its value through to the {@code Map}.
+     */
+    private final class WriteThroughEntry extends SimpleEntry<K,V> {
+        private WriteThroughEntry(final K key, final V value) {
+            super(key,value);
+        }
+
+        @Override
+        public V setValue(final V value) {
+            ConcurrentLRUCacheMap.this.put(getKey(),value);
+            return super.setValue(value);
+        }
+    }
+}
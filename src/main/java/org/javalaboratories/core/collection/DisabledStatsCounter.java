@@ -0,0 +1,52 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+/**
+ * A {@link StatsCounter} that records nothing.
+ * <p>
+ * This is the default counter of caches, hence statistics are not recorded
+ * unless explicitly enabled. All methods are empty so that the JIT compiler is
+ * able to eliminate calls to them.
+ */
+enum DisabledStatsCounter implements StatsCounter {
+    INSTANCE;
+
+    @Override
+    public void recordHits(final int count) {}
+
+    @Override
+    public void recordMisses(final int count) {}
+
+    @Override
+    public void recordLoadSuccess(final long loadTime) {}
+
+    @Override
+    public void recordLoadFailure(final long loadTime) {}
+
+    @Override
+    public void recordEviction(final EvictionCause cause) {}
+
+    @Override
+    public CacheStats snapshot() {
+        return CacheStats.empty();
+    }
+
+    @Override
+    public String toString() {
+        return "[disabled]";
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Describes when an entry of a cache expires, if at all.
+ * <p>
+ * An {@link Expiry} may apply to all entries of a cache or, where supported,
+ * to an individual entry. There are three policies:
+ * <ol>
+ *     <li>{@link Policy#NEVER}: the entry is only ever evicted on capacity.</li>
+ *     <li>{@link Policy#AFTER_WRITE}: the entry expires once the
+ *     {@code duration} has elapsed since its value was last written.</li>
+ *     <li>{@link Policy#AFTER_ACCESS}: the entry expires once the
+ *     {@code duration} has elapsed since it was last read or written, also
+ *     known as time-to-idle.</li>
+ * </ol>
+ */
+@Getter
+@EqualsAndHashCode
+public final class Expiry implements Serializable {
+    @Serial
+    private static final long serialVersionUID = -4233640253306101537L;
+
+    private static final Expiry NEVER = new Expiry(Policy.NEVER,Duration.ZERO);
+    private static final long MAXIMUM_NANOS = Long.MAX_VALUE >>> 1;
+
+    public enum Policy { NEVER, AFTER_WRITE, AFTER_ACCESS }
+
+    private final Policy policy;
+    private final Duration duration;
+
+    private Expiry(final Policy policy, final Duration duration) {
+        this.policy = policy;
+        this.duration = duration;
+    }
+
+    /**
+     * Entries expire once the {@code duration} has elapsed since they were last
+     * read or written.
+     *
+     * @param duration time-to-idle, must be positive.
+     * @return an {@link Expiry} with {@link Policy#AFTER_ACCESS} policy.
+     * @throws NullPointerException if {@code duration} is null.
+     * @throws IllegalArgumentException if {@code duration} is not positive.
+     */
+    public static Expiry afterAccess(final Duration duration) {
+        return new Expiry(Policy.AFTER_ACCESS,positive(duration));
+    }
+
+    /**
+     * Entries expire once the {@code duration} has elapsed since they were last
+     * written.
+     *
+     * @param duration time-to-live, must be positive.
+     * @return an {@link Expiry} with {@link Policy#AFTER_WRITE} policy.
+     * @throws NullPointerException if {@code duration} is null.
+     * @throws IllegalArgumentException if {@code duration} is not positive.
+     */
+    public static Expiry afterWrite(final Duration duration) {
+        return new Expiry(Policy.AFTER_WRITE,positive(duration));
+    }
+
+    /**
+     * @return an {@link Expiry} with {@link Policy#NEVER} policy.
+     */
+    public static Expiry never() {
+        return NEVER;
+    }
+
+    /**
+     * @return true if entries with this {@link Expiry} never expire.
+     */
+    public boolean isNever() {
+        return policy == Policy.NEVER;
+    }
+
+    @Override
+    public String toString() {
+        return isNever() ? "[policy=NEVER]" : String.format("[policy=%s,duration=%s]",policy,duration);
+    }
+
+    /**
+     * @return duration in nanoseconds, saturated to approximately 146 years to
+     * avoid overflow when calculating deadlines.
+     */
+    long toNanos() {
+        return duration.compareTo(Duration.ofNanos(MAXIMUM_NANOS)) > 0 ? MAXIMUM_NANOS : duration.toNanos();
+    }
+
+    private static Duration positive(final Duration duration) {
+        Objects.requireNonNull(duration,"Expected duration");
+        if (duration.isNegative() || duration.isZero())
+            throw new IllegalArgumentException("Expected > 0 duration");
+        return duration;
+    }
+
+    @Serial
+    private Object readResolve() {
+        return policy == Policy.NEVER ? NEVER : this;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+import java.util.Objects;
+
+/**
+ * A compact, probabilistic estimate of the popularity of elements within a
+ * time window, implemented as a count-min sketch of 4-bit counters.
+ * <p>
+ * Each element is mapped to four counters, one in each of four rows, and its
+ * frequency is the minimum of those counters. Sixteen counters are packed
+ * into each {@code long} of the table, the table having at least as many
+ * {@code longs} as the maximum number of elements being tracked.
+ * <p>
+ * To keep the sketch fresh, all counters are halved once the number of
+ * increments reaches a sample size of ten times the maximum, allowing the
+ * popularity of elements to decay over time.
+ * <p>
+ * This implementation is not thread-safe.
+ *
+ * @param <E> type of element
+ */
+final class FrequencySketch<E> {
+
+    static final int MAXIMUM_FREQUENCY = 15;
+
+    private static final long[] SEED = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int size;
+
+    /**
+     * Constructs a sketch to track the popularity of up to {@code maximum}
+     * elements.
+     *
+     * @param maximum number of elements to track, typically the cache capacity.
+     */
+    FrequencySketch(final int maximum) {
+        if (maximum < 1)
+            throw new IllegalArgumentException("Expected > 0 maximum");
+        int length = maximum <= 1 ? 1 : Integer.highestOneBit(maximum - 1) << 1;
+        this.table = new long[length];
+        this.tableMask = length - 1;
+        this.sampleSize = (int) Math.min(10L * maximum, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the estimated number of occurrences of the {@code element}, up to
+     * the {@code MAXIMUM_FREQUENCY} of 15.
+     *
+     * @param element to estimate.
+     * @return estimated frequency.
+     */
+    int frequency(final E element) {
+        int hash = spread(Objects.hashCode(element));
+        int start = (hash & 3) << 2;
+        int result = MAXIMUM_FREQUENCY;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash,i);
+            int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+            result = Math.min(result,count);
+        }
+        return result;
+    }
+
+    /**
+     * Increments the popularity of the {@code element}, unless it is already
+     * at its maximum. The sketch ages once the sample size has been reached.
+     *
+     * @param element to increment.
+     */
+    void increment(final E element) {
+        int hash = spread(Objects.hashCode(element));
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++)
+            added |= incrementAt(indexOf(hash,i),start + i);
+        if (added && ++size == sampleSize)
+            reset();
+    }
+
+    /**
+     * @return number of increments since the sketch was last aged.
+     */
+    int sampled() {
+        return size;
+    }
+
+    private int indexOf(final int item, final int i) {
+        long hash = (item + SEED[i]) * SEED[i];
+        hash += hash >>> 32;
+        return ((int) hash) & tableMask;
+    }
+
+    private boolean incrementAt(final int i, final int j) {
+        int offset = j << 2;
+        long mask = 0xfL << offset;
+        if ((table[i] & mask) != mask) {
+            table[i] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    private void reset() {
+        int count = 0;
+        for (int i = 0; i < table.length; i++) {
+            count += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size = (size >>> 1) - (count >>> 2);
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+}
@@ -15,8 +15,16 @@
  */
 package org.javalaboratories.core.collection;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serial;
 import java.io.Serializable;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.util.*;
 import java.util.function.BiFunction;
 
@@ -25,19 +33,72 @@ import java.util.function.BiFunction;
  * policy. The least recently used cache {@code entry} will be evicted from
  * the {@code Map}. This {@code Map} has a fixed {@code capacity} that is set
  * in the constructor and cannot be altered.
+ * <p>
+ * Entries are indexed by a {@link HashMap} and threaded onto an intrusive
+ * doubly linked list that records the order of access, the most recently used
+ * entry being at the {@code head} of the list and the least recently used at
+ * the {@code tail}. Consequently, lookup, insertion, promotion to the
+ * {@code head} and eviction from the {@code tail} are all performed in
+ * constant time. Iteration of the {@link LRUCacheMap#entrySet()} visits
+ * entries from the most to the least recently used.
+ * <p>
+ * Positional queries, {@link LRUCacheMap#peekAt(int)} and
+ * {@link LRUCacheMap#indexOf(Object)}, are answered in logarithmic time by an
+ * order-statistics index of the LRU queue. The index is only built on the
+ * first positional query, and thereafter promotion, insertion and removal
+ * update it in logarithmic time.
+ * <p>
+ * Optionally, entries may also expire after a period of time, as described by
+ * an {@link Expiry}: either a {@code time-to-live} measured from when the
+ * entry was last written, or a {@code time-to-idle} measured from when the
+ * entry was last read or written. An {@link Expiry} may be set for the whole
+ * {@code Map} in the constructor, or for an individual entry with
+ * {@link LRUCacheMap#put(Object,Object,Expiry)}. Deadlines are scheduled on a
+ * hierarchical timer wheel, and expired entries are removed as a side effect
+ * of reads and writes, in amortized constant time; there is no background
+ * thread and the {@code Map} is never scanned. Time is read from a
+ * {@link Ticker}, which may be substituted for testing purposes. Expired
+ * entries are never returned, but because they are removed in batches,
+ * {@link LRUCacheMap#size()} may briefly include entries that have expired.
+ * When serialized, deadlines are not retained: deserialized entries expire as
+ * though newly written with the {@code Map}'s {@link Expiry}, as read from
+ * the system {@link Ticker}.
+ * <p>
+ * Statistics of hits, misses and evictions are not recorded unless enabled
+ * with {@link LRUCacheMap#recordStats()}, and are not serialized.
+ * <p>
+ * For a warm restart, the entries and their LRU order may be saved to a
+ * compact binary file with {@link LRUCacheMap#snapshot(Path,Serializer,Serializer)},
+ * and later loaded with {@link LRUCacheMap#restore(Path,Serializer,Serializer)}.
+ * <p>
+ * This implementation is not thread-safe, consider {@link ConcurrentLRUCacheMap}
+ * for concurrent access.
  *
  * @param <K> type of Key
  * @param <V> type of Value
  */
 public class LRUCacheMap<K,V> extends AbstractMap<K,V> implements Cloneable, Serializable {
+    // Changed with the serial form, which no longer holds the queue and set of entries
     @Serial
-    private static final long serialVersionUID = 2605224651817155131L;
+    private static final long serialVersionUID = 7150508581875649883L;
 
     public static final int DEFAULT_CAPACITY = 16;
 
-    private final Deque<K> queue;
-    private final Set<Entry<K,V>> set;
+    private static final int SNAPSHOT_MAGIC = 0x4C525543;
+    private static final int SNAPSHOT_VERSION = 1;
+
     private final int capacity;
+    private final Expiry expiry;
+
+    private transient Map<K,Node<K,V>> index;
+    private transient Ticker ticker;
+    private transient StatsCounter statsCounter;
+    private transient TimerWheel<K,V> timerWheel;
+    private transient RecencyIndex<Node<K,V>> recency;
+    private transient Node<K,V> head;
+    private transient Node<K,V> tail;
+    private transient Set<Entry<K,V>> entrySet;
+    private transient int modCount;
 
     /**
      * Constructs this {@link LRUCacheMap} with {@code DEFAULT_CAPACITY} of 16
@@ -56,12 +117,49 @@ public class LRUCacheMap<K,V> extends AbstractMap<K,V> implements Cloneable, Ser
      * @param capacity Non-zero, positive value.
      */
     public LRUCacheMap(final int capacity) {
+        this(capacity,Expiry.never());
+    }
+
+    /**
+     * Constructs this {@link LRUCacheMap} with given capacity, whose entries
+     * expire according to the {@code expiry} policy, unless overridden by the
+     * entry itself.
+     * <p>
+     * An {@link IllegalArgumentException} exception is thrown if the capacity
+     * is less than or equal to zero.
+     *
+     * @param capacity Non-zero, positive value.
+     * @param expiry default expiry policy of entries.
+     * @throws NullPointerException if {@code expiry} is null.
+     */
+    public LRUCacheMap(final int capacity, final Expiry expiry) {
+        this(capacity,expiry,Ticker.system());
+    }
+
+    /**
+     * Constructs this {@link LRUCacheMap} with given capacity, whose entries
+     * expire according to the {@code expiry} policy, unless overridden by the
+     * entry itself. Time is read from the {@code ticker}.
+     * <p>
+     * An {@link IllegalArgumentException} exception is thrown if the capacity
+     * is less than or equal to zero.
+     *
+     * @param capacity Non-zero, positive value.
+     * @param expiry default expiry policy of entries.
+     * @param ticker time source, typically {@link Ticker#system()}.
+     * @throws NullPointerException if {@code expiry} or {@code ticker} is null.
+     */
+    public LRUCacheMap(final int capacity, final Expiry expiry, final Ticker ticker) {
         super();
         if (capacity < 1)
             throw new IllegalArgumentException("Expected > 0 capacity");
-        this.queue = new LinkedList<>();
-        this.set = new HashSet<>();
         this.capacity = capacity;
+        this.expiry = Objects.requireNonNull(expiry,"Expected expiry");
+        this.ticker = Objects.requireNonNull(ticker,"Expected ticker");
+        this.statsCounter = StatsCounter.disabled();
+        this.index = new HashMap<>();
+        if (!expiry.isNever())
+            this.timerWheel = new TimerWheel<>(ticker.read());
     }
 
     /**
@@ -72,9 +170,19 @@ public class LRUCacheMap<K,V> extends AbstractMap<K,V> implements Cloneable, Ser
      * @throws NullPointerException if parameters is {@code null}
      */
     public LRUCacheMap(final LRUCacheMap<K,V> map) {
-        this(Objects.requireNonNull(map,"Requires map parameter").capacity);
-        this.set.addAll(map.set);
-        this.queue.addAll(map.queue);
+        this(Objects.requireNonNull(map,"Requires map parameter").capacity,map.expiry,map.ticker);
+        if (map.timerWheel != null && timerWheel == null)
+            timerWheel = new TimerWheel<>(ticker.read());
+        long now = expireEntries();
+        for (Node<K,V> node = map.head; node != null; node = node.next) {
+            if (map.isExpired(node,now))
+                continue;
+            Node<K,V> copy = linkLast(node.key,node.value);
+            copy.expiry = node.expiry;
+            copy.deadline = node.deadline;
+            if (!expiryOf(copy).isNever())
+                timerWheel.schedule(copy);
+        }
     }
 
     /**
@@ -86,14 +194,25 @@ public class LRUCacheMap<K,V> extends AbstractMap<K,V> implements Cloneable, Ser
         return this.capacity;
     }
 
-
     /**
      * {@inheritDoc}
      */
     @Override
     public void clear() {
-        super.clear();
-        queue.clear();
+        for (Node<K,V> node = head; node != null;) {
+            Node<K,V> nx = node.next;
+            node.prev = null;
+            node.next = null;
+            node.prevInTimer = null;
+            node.nextInTimer = null;
+            node = nx;
+        }
+        head = tail = null;
+        index.clear();
+        recency = null;
+        if (timerWheel != null)
+            timerWheel = new TimerWheel<>(ticker.read());
+        modCount++;
     }
 
     /**
@@ -109,8 +228,22 @@ public class LRUCacheMap<K,V> extends AbstractMap<K,V> implements Cloneable, Ser
      * {@inheritDoc}
      */
     @Override
+    public boolean containsKey(final Object key) {
+        return getNode(key,false) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Entries are iterated from the most recently used to the least recently
+     * used. Iterating the entries does not affect the LRU queue.
+     */
+    @Override
     public Set<Entry<K,V>> entrySet() {
-        return set;
+        Set<Entry<K,V>> result = entrySet;
+        if (result == null)
+            entrySet = result = new EntrySet();
+        return result;
     }
 
     /**
@@ -120,9 +253,17 @@ public class LRUCacheMap<K,V> extends AbstractMap<K,V> implements Cloneable, Ser
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
-        if (!shallowEquals(o)) return false;
         LRUCacheMap<?, ?> that = (LRUCacheMap<?, ?>) o;
-        return capacity == that.capacity && queue.equals(that.queue) && set.equals(that.set);
+        if (capacity != that.capacity || size() != that.size()) return false;
+        Node<?,?> a = head;
+        Node<?,?> b = that.head;
+        while (a != null && b != null) {
+            if (!Objects.equals(a.key,b.key) || !Objects.equals(a.value,b.value))
+                return false;
+            a = a.next;
+            b = b.next;
+        }
+        return a == null && b == null;
     }
 
     /**
@@ -130,15 +271,24 @@ public class LRUCacheMap<K,V> extends AbstractMap<K,V> implements Cloneable, Ser
      */
     @Override
     public V get(final Object key) {
-        if (this.containsKey(key)) {
-            @SuppressWarnings("unchecked")
-            K k = (K) key;
-            V result = super.get(k);
-            queue.remove(k);
-            queue.addFirst(k);
-            return result;
+        Node<K,V> node = getNode(key,true);
+        if (node == null) {
+            statsCounter.recordMisses(1);
+            return null;
         }
-        return null;
+        statsCounter.recordHits(1);
+        moveToFirst(node);
+        return node.value;
+    }
+
+    /**
+     * Returns the {@link Expiry} policy that applies to entries that do not
+     * override it.
+     *
+     * @return default expiry policy.
+     */
+    public Expiry expiry() {
+        return expiry;
     }
 
     /**
@@ -146,9 +296,33 @@ public class LRUCacheMap<K,V> extends AbstractMap<K,V> implements Cloneable, Ser
      */
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), queue, set, capacity);
+        int order = 1;
+        for (Node<K,V> node = head; node != null; node = node.next)
+            order = 31 * order + Objects.hashCode(node.key);
+        return Objects.hash(super.hashCode(), order, capacity);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty() {
+        expireEntries();
+        return index.isEmpty();
+    }
+
+    /**
+     * Returns the position of the {@code key} in the {@code LRU queue}, where
+     * position {@code 0} is the most recently used, without affecting the
+     * queue. This is the inverse of {@link LRUCacheMap#peekAt(int)}.
+     *
+     * @param key of object.
+     * @return position of {@code key}, or {@code -1} if there is no mapping.
+     */
+    public int indexOf(final K key) {
+        Node<K,V> node = getNode(key,false);
+        return node == null ? -1 : recency().rank(node.stamp);
+    }
 
     /**
      * Moves the key to the "front", thus making it the most recently used
@@ -161,7 +335,11 @@ public class LRUCacheMap<K,V> extends AbstractMap<K,V> implements Cloneable, Ser
      * @return true if successfully nudged.
      */
     public boolean nudge(final K key) {
-        return get(key) != null;
+        Node<K,V> node = getNode(key,true);
+        if (node == null)
+            return false;
+        moveToFirst(node);
+        return true;
     }
 
     /**
@@ -176,12 +354,16 @@ public class LRUCacheMap<K,V> extends AbstractMap<K,V> implements Cloneable, Ser
      * @return value mapped to {@code key}
      */
     public V peek(final K key) {
-        return super.get(key);
+        Node<K,V> node = getNode(key,false);
+        return node == null ? null : node.value;
     }
 
     /**
      * Retrieves a {@code value} from this {@link LRUCacheMap} that is at
      * {@code index} position in the {@code LRU queue}.
+     * <p>
+     * The value is found in logarithmic time with an order-statistics
+     * index, which is built on the first call.
      *
      * @param index of subscript in LRU queue.
      * @return value value in {@code index} position.
@@ -189,13 +371,10 @@ public class LRUCacheMap<K,V> extends AbstractMap<K,V> implements Cloneable, Ser
      * @throws IndexOutOfBoundsException if {@code index} is out of bounds.
      */
     public V peekAt(final int index) {
-        if (index < 0 || index > this.size() -1)
+        int size = this.size();
+        if (index < 0 || index > size -1)
             throw new IndexOutOfBoundsException();
-        K key = null;
-        Iterator<K> iter = queue.iterator();
-        for (int i = 0; i <= index && iter.hasNext(); i++)
-            key = iter.next();
-        return super.get(key);
+        return recency().get(index).value;
     }
 
     /**
@@ -203,7 +382,55 @@ public class LRUCacheMap<K,V> extends AbstractMap<K,V> implements Cloneable, Ser
      */
     @Override
     public V put(final K key, final V value) {
-        return put(key, value, true);
+        return put(key,value,null,true);
+    }
+
+    /**
+     * Associates the {@code value} with the {@code key}, similar to the
+     * {@link LRUCacheMap#put(Object,Object)}, except the entry expires
+     * according to the given {@code expiry} policy rather than the default
+     * policy of this {@link LRUCacheMap}.
+     * <p>
+     * The policy applies until the {@code key} is written again.
+     *
+     * @param key with which the value is to be associated.
+     * @param value to be associated with the {@code key}.
+     * @param expiry policy of this entry.
+     * @return the previous value associated with the {@code key}, or
+     * {@code null} if there was no mapping.
+     * @throws NullPointerException if {@code expiry} is null.
+     */
+    public V put(final K key, final V value, final Expiry expiry) {
+        Objects.requireNonNull(expiry,"Expected expiry");
+        if (timerWheel == null && !expiry.isNever())
+            timerWheel = new TimerWheel<>(ticker.read());
+        return put(key,value,expiry,true);
+    }
+
+    /**
+     * Enables the recording of statistics to a new, thread-safe
+     * {@link StatsCounter#striped()} counter, replacing the current counter.
+     * <p>
+     * Lookups with {@link LRUCacheMap#get(Object)} are recorded as hits or
+     * misses, and evictions are recorded with their {@link EvictionCause}.
+     *
+     * @return this {@link LRUCacheMap}.
+     */
+    public LRUCacheMap<K,V> recordStats() {
+        return recordStats(StatsCounter.striped());
+    }
+
+    /**
+     * Records statistics to the given {@code statsCounter}, replacing the
+     * current counter. Use {@link StatsCounter#disabled()} to stop recording.
+     *
+     * @param statsCounter counter to record statistics to.
+     * @return this {@link LRUCacheMap}.
+     * @throws NullPointerException if {@code statsCounter} is null.
+     */
+    public LRUCacheMap<K,V> recordStats(final StatsCounter statsCounter) {
+        this.statsCounter = Objects.requireNonNull(statsCounter,"Expected statsCounter");
+        return this;
     }
 
     /**
@@ -211,14 +438,102 @@ public class LRUCacheMap<K,V> extends AbstractMap<K,V> implements Cloneable, Ser
      */
     @Override
     public V remove(final Object key) {
-        if (this.containsKey(key)) {
-            @SuppressWarnings("unchecked")
-            K k = (K) key;
-            V result = super.remove(k);
-            queue.remove(k);
+        long now = expireEntries();
+        Node<K,V> node = index.get(key);
+        if (node == null)
+            return null;
+        if (isExpired(node,now)) {
+            evict(node,EvictionCause.EXPIRED);
+            return null;
+        }
+        removeNode(node);
+        return node.value;
+    }
+
+    /**
+     * Restores an {@link LRUCacheMap} from a snapshot {@code file} written by
+     * {@link LRUCacheMap#snapshot(Path,Serializer,Serializer)}, reading time
+     * from the system {@link Ticker}.
+     *
+     * @param file snapshot file.
+     * @param keySerializer converts keys from bytes.
+     * @param valueSerializer converts values from bytes.
+     * @param <K> type of Key
+     * @param <V> type of Value
+     * @return a new {@link LRUCacheMap} with the entries of the snapshot.
+     * @throws IOException if the file cannot be read or is not a valid
+     * snapshot.
+     * @throws NullPointerException if any parameter is null.
+     * @see LRUCacheMap#restore(Path,Serializer,Serializer,Ticker)
+     */
+    public static <K,V> LRUCacheMap<K,V> restore(final Path file, final Serializer<K> keySerializer,
+                                                 final Serializer<V> valueSerializer) throws IOException {
+        return restore(file,keySerializer,valueSerializer,Ticker.system());
+    }
+
+    /**
+     * Restores an {@link LRUCacheMap} from a snapshot {@code file} written by
+     * {@link LRUCacheMap#snapshot(Path,Serializer,Serializer)}.
+     * <p>
+     * The file is memory-mapped and read in a single sequential pass. Entries
+     * are appended directly to the LRU queue in the order they were saved,
+     * into an index sized for them up front, rather than by replaying a
+     * {@code put} for each entry. The capacity and {@link Expiry} policies of
+     * the snapshot are restored, and entries that expire continue to do so
+     * after the time that remained when the snapshot was taken; entries that
+     * had already expired are discarded.
+     *
+     * @param file snapshot file.
+     * @param keySerializer converts keys from bytes.
+     * @param valueSerializer converts values from bytes.
+     * @param ticker time source, typically {@link Ticker#system()}.
+     * @param <K> type of Key
+     * @param <V> type of Value
+     * @return a new {@link LRUCacheMap} with the entries of the snapshot.
+     * @throws IOException if the file cannot be read or is not a valid
+     * snapshot.
+     * @throws NullPointerException if any parameter is null.
+     */
+    public static <K,V> LRUCacheMap<K,V> restore(final Path file, final Serializer<K> keySerializer,
+                                                 final Serializer<V> valueSerializer, final Ticker ticker)
+            throws IOException {
+        Objects.requireNonNull(file,"Expected file");
+        Objects.requireNonNull(keySerializer,"Expected keySerializer");
+        Objects.requireNonNull(valueSerializer,"Expected valueSerializer");
+        Objects.requireNonNull(ticker,"Expected ticker");
+        try (SnapshotReader reader = new SnapshotReader(file)) {
+            if (reader.getInt() != SNAPSHOT_MAGIC || reader.getInt() != SNAPSHOT_VERSION)
+                throw new IOException("Invalid snapshot " + file);
+            int capacity = reader.getInt();
+            Expiry expiry = readExpiry(reader);
+            int size = reader.getInt();
+            if (capacity < 1 || size < 0 || size > capacity)
+                throw new IOException("Invalid snapshot " + file);
+            LRUCacheMap<K,V> result = new LRUCacheMap<>(capacity,expiry,ticker);
+            result.index = new HashMap<>((int) (size / 0.75f) + 1);
+            long now = ticker.read();
+            for (int i = 0; i < size; i++) {
+                Expiry override = reader.getByte() == 0 ? null : readExpiry(reader);
+                long remaining = reader.getLong();
+                byte[] key = reader.getBytes();
+                byte[] value = reader.getBytes();
+                Expiry effective = override != null ? override : expiry;
+                if (!effective.isNever() && remaining <= 0)
+                    continue;
+                Node<K,V> node = result.linkLast(key == null ? null : keySerializer.deserialize(key),
+                        value == null ? null : valueSerializer.deserialize(value));
+                node.expiry = override;
+                if (!effective.isNever()) {
+                    if (result.timerWheel == null)
+                        result.timerWheel = new TimerWheel<>(now);
+                    node.deadline = now + remaining;
+                    result.timerWheel.schedule(node);
+                }
+            }
+            if (reader.getInt() != SNAPSHOT_MAGIC)
+                throw new IOException("Invalid snapshot " + file);
             return result;
         }
-        return null;
     }
 
     /**
@@ -236,68 +551,449 @@ public class LRUCacheMap<K,V> extends AbstractMap<K,V> implements Cloneable, Ser
      */
     public <R extends K> LRUCacheMap<K,V> resetKeys(final BiFunction<? super K,? super V,? extends R> function) {
         BiFunction<? super K,? super V,? extends R> f = Objects.requireNonNull(function,"Expected function");
-        LRUCacheMap<K,V> result = new LRUCacheMap<>(capacity);
+        LRUCacheMap<K,V> result = new LRUCacheMap<>(capacity,expiry,ticker);
         for (Entry<K,V> e : entrySet()) {
             R key = Objects.requireNonNull(f.apply(e.getKey(),e.getValue()));
-            result.put(key,e.getValue(),false);
+            result.put(key,e.getValue(),null,false);
         }
         return result;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        expireEntries();
+        return index.size();
+    }
+
+    /**
+     * Saves the entries of this {@link LRUCacheMap}, in LRU order, to a
+     * compact binary snapshot {@code file}, from which it may be restored with
+     * {@link LRUCacheMap#restore(Path,Serializer,Serializer)}.
+     * <p>
+     * The snapshot is written sequentially through a {@link java.nio.channels.FileChannel}
+     * to a temporary file in the same directory, which then replaces the
+     * {@code file}, atomically where the file system supports it; hence a
+     * failure part way through does not corrupt an earlier snapshot. Along
+     * with the keys and values, the capacity, the {@link Expiry} policies and
+     * the time remaining before each entry expires are saved. Statistics are
+     * not saved.
+     *
+     * @param file snapshot file to create or replace.
+     * @param keySerializer converts keys to bytes.
+     * @param valueSerializer converts values to bytes.
+     * @throws IOException if the file cannot be written.
+     * @throws NullPointerException if any parameter is null.
+     */
+    public void snapshot(final Path file, final Serializer<K> keySerializer, final Serializer<V> valueSerializer)
+            throws IOException {
+        Objects.requireNonNull(file,"Expected file");
+        Objects.requireNonNull(keySerializer,"Expected keySerializer");
+        Objects.requireNonNull(valueSerializer,"Expected valueSerializer");
+        long now = expireEntries();
+        int size = 0;
+        for (Node<K,V> node = head; node != null; node = node.next) {
+            if (!isExpired(node,now)) size++;
+        }
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (SnapshotWriter writer = new SnapshotWriter(temporary)) {
+            writer.putInt(SNAPSHOT_MAGIC);
+            writer.putInt(SNAPSHOT_VERSION);
+            writer.putInt(capacity);
+            writeExpiry(writer,expiry);
+            writer.putInt(size);
+            for (Node<K,V> node = head; node != null; node = node.next) {
+                if (isExpired(node,now))
+                    continue;
+                writer.putByte((byte) (node.expiry == null ? 0 : 1));
+                if (node.expiry != null)
+                    writeExpiry(writer,node.expiry);
+                writer.putLong(expiryOf(node).isNever() ? 0L : node.deadline - now);
+                writer.putBytes(node.key == null ? null : keySerializer.serialize(node.key));
+                writer.putBytes(node.value == null ? null : valueSerializer.serialize(node.value));
+            }
+            writer.putInt(SNAPSHOT_MAGIC);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        try {
+            Files.move(temporary,file,StandardCopyOption.REPLACE_EXISTING,StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary,file,StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Returns an immutable snapshot of the statistics recorded by this
+     * {@link LRUCacheMap}. The snapshot is empty unless statistics have been
+     * enabled with {@link LRUCacheMap#recordStats()}.
+     *
+     * @return statistics snapshot.
+     */
+    public CacheStats stats() {
+        return statsCounter.snapshot();
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public String toString() {
         StringJoiner joiner = new StringJoiner(",","[","]");
-        queue.forEach(e -> joiner.add(String.format("[%s -> %s]",e.toString(),
-                toString(super.get(e)))));
+        for (Node<K,V> node = head; node != null; node = node.next)
+            joiner.add(String.format("[%s -> %s]",node.key,toString(node.value)));
         return joiner.toString();
     }
 
-    private V put(final K key, final V value, boolean lru) {
-        if (this.containsKey(key)) {
-            queue.remove(key);
+    private void evict(final Node<K,V> node, final EvictionCause cause) {
+        removeNode(node);
+        statsCounter.recordEviction(cause);
+    }
+
+    private long expireEntries() {
+        if (timerWheel == null)
+            return 0L;
+        long now = ticker.read();
+        timerWheel.advance(now,node -> evict(node,EvictionCause.EXPIRED));
+        return now;
+    }
+
+    private Expiry expiryOf(final Node<K,V> node) {
+        return node.expiry != null ? node.expiry : expiry;
+    }
+
+    private Node<K,V> getNode(final Object key, final boolean access) {
+        long now = expireEntries();
+        Node<K,V> node = index.get(key);
+        if (node == null)
+            return null;
+        if (isExpired(node,now)) {
+            evict(node,EvictionCause.EXPIRED);
+            return null;
+        }
+        if (access && expiryOf(node).getPolicy() == Expiry.Policy.AFTER_ACCESS)
+            schedule(node,now);
+        return node;
+    }
+
+    private boolean isExpired(final Node<K,V> node, final long now) {
+        return timerWheel != null && !expiryOf(node).isNever() && node.deadline - now <= 0;
+    }
+
+    private V put(final K key, final V value, final Expiry expiry, final boolean lru) {
+        long now = expireEntries();
+        Node<K,V> node = index.get(key);
+        if (node != null && isExpired(node,now)) {
+            evict(node,EvictionCause.EXPIRED);
+            node = null;
+        }
+        V result = null;
+        if (node != null) {
+            result = node.value;
+            node.value = value;
+            if (lru) moveToFirst(node);
+            else moveToLast(node);
         } else {
-            if (queue.size() == capacity) {
-                K lastKey = queue.removeLast();
-                this.remove(lastKey);
-            }
+            if (index.size() == capacity)
+                evict(tail,EvictionCause.CAPACITY);
+            node = lru ? linkFirst(key,value) : linkLast(key,value);
+        }
+        node.expiry = expiry;
+        schedule(node,now);
+        return result;
+    }
+
+    private RecencyIndex<Node<K,V>> recency() {
+        RecencyIndex<Node<K,V>> result = recency;
+        if (result == null) {
+            recency = result = new RecencyIndex<>((node,stamp) -> node.stamp = stamp);
+            for (Node<K,V> node = tail; node != null; node = node.prev)
+                node.stamp = result.add(node);
         }
-        V result = putValue(key,value);
-        if (lru) queue.addFirst(key);
-        else queue.addLast(key);
         return result;
     }
 
-    private V putValue(final K key, final V value) {
-        return set.stream()
-            .filter(k -> k.getKey().equals(key))
-            .map(e -> e.setValue(value))
-            .findAny()
-            .orElseGet(() -> {set.add(new SimpleEntry<>(key,value));return null;});
+    private void removeNode(final Node<K,V> node) {
+        index.remove(node.key);
+        unlink(node);
+        if (recency != null)
+            recency.remove(node.stamp);
+        if (timerWheel != null)
+            timerWheel.deschedule(node);
+        modCount++;
     }
 
-    private boolean shallowEquals(final Object o) {
-        @SuppressWarnings("unchecked")
-        LRUCacheMap<K,V> m = (LRUCacheMap<K,V>) o;
-        if (m.size() != size())
-            return false;
-        for (Entry<K,V> e : entrySet()) {
-            K key = e.getKey();
-            V value = e.getValue();
-            if (value == null) {
-                if (!(m.peek(key) == null && m.containsKey(key)))
-                    return false;
-            } else {
-                if (!value.equals(m.peek(key)))
-                    return false;
-            }
+    private void schedule(final Node<K,V> node, final long now) {
+        Expiry expiry = expiryOf(node);
+        if (expiry.isNever()) {
+            if (timerWheel != null)
+                timerWheel.deschedule(node);
+            return;
+        }
+        node.deadline = now + expiry.toNanos();
+        timerWheel.schedule(node);
+    }
+
+    private Node<K,V> linkFirst(final K key, final V value) {
+        Node<K,V> node = new Node<>(key,value);
+        index.put(key,node);
+        node.next = head;
+        if (head == null) tail = node;
+        else head.prev = node;
+        head = node;
+        if (recency != null)
+            node.stamp = recency.add(node);
+        modCount++;
+        return node;
+    }
+
+    private Node<K,V> linkLast(final K key, final V value) {
+        Node<K,V> node = new Node<>(key,value);
+        index.put(key,node);
+        node.prev = tail;
+        if (tail == null) head = node;
+        else tail.next = node;
+        tail = node;
+        recency = null;
+        modCount++;
+        return node;
+    }
+
+    private void moveToFirst(final Node<K,V> node) {
+        if (node != head) {
+            unlink(node);
+            node.next = head;
+            if (head == null) tail = node;
+            else head.prev = node;
+            head = node;
+            if (recency != null)
+                node.stamp = recency.promote(node.stamp);
+            modCount++;
+        }
+    }
+
+    private void moveToLast(final Node<K,V> node) {
+        if (node != tail) {
+            unlink(node);
+            node.prev = tail;
+            if (tail == null) head = node;
+            else tail.next = node;
+            tail = node;
+            recency = null;
+            modCount++;
+        }
+    }
+
+    private void unlink(final Node<K,V> node) {
+        Node<K,V> prev = node.prev;
+        Node<K,V> next = node.next;
+        if (prev == null) head = next;
+        else prev.next = next;
+        if (next == null) tail = prev;
+        else next.prev = prev;
+        node.prev = null;
+        node.next = null;
+    }
+
+    @Serial
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        index = new HashMap<>();
+        ticker = Ticker.system();
+        statsCounter = StatsCounter.disabled();
+        long now = ticker.read();
+        if (!expiry.isNever())
+            timerWheel = new TimerWheel<>(now);
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            @SuppressWarnings("unchecked")
+            K key = (K) in.readObject();
+            @SuppressWarnings("unchecked")
+            V value = (V) in.readObject();
+            schedule(linkLast(key,value),now);
         }
-        return true;
     }
 
     private String toString(final V value) {
         return value == null ? "Null" : value.toString();
     }
-}
\ No newline at end of file
+
+    private static Expiry readExpiry(final SnapshotReader reader) throws IOException {
+        byte policy = reader.getByte();
+        long nanos = reader.getLong();
+        if (policy < 0 || policy >= Expiry.Policy.values().length)
+            throw new IOException("Invalid expiry");
+        Expiry.Policy result = Expiry.Policy.values()[policy];
+        if (result != Expiry.Policy.NEVER && nanos <= 0)
+            throw new IOException("Invalid expiry");
+        return switch (result) {
+            case NEVER -> Expiry.never();
+            case AFTER_WRITE -> Expiry.afterWrite(Duration.ofNanos(nanos));
+            case AFTER_ACCESS -> Expiry.afterAccess(Duration.ofNanos(nanos));
+        };
+    }
+
+    private static void writeExpiry(final SnapshotWriter writer, final Expiry expiry) throws IOException {
+        writer.putByte((byte) expiry.getPolicy().ordinal());
+        writer.putLong(expiry.isNever() ? 0L : expiry.toNanos());
+    }
+
+    @Serial
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(size());
+        for (Node<K,V> node = head; node != null; node = node.next) {
+            out.writeObject(node.key);
+            out.writeObject(node.value);
+        }
+    }
+
+    /*************************** INTERNAL CLASSES *****************************/
+
+    /**
+     * Represents an entry of the {@link LRUCacheMap}.
+     * <p>
+     * Each entry is both the value of the hash index and a link of the
+     * doubly linked LRU queue, hence promotion and eviction do not require
+     * a search of the queue. Likewise, entries that expire are linked into a
+     * bucket of the {@link TimerWheel}, and when positional queries are made,
+     * stamped with its position in the {@link RecencyIndex}.
+     *
+     * @param <K> type of Key
+     * @param <V> type of Value
+     */
+    static class Node<K,V> implements Entry<K,V> {
+        final K key;
+        V value;
+        Node<K,V> prev;
+        Node<K,V> next;
+        Expiry expiry;
+        long deadline;
+        Node<K,V> prevInTimer;
+        Node<K,V> nextInTimer;
+        int stamp;
+
+        Node(final K key, final V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(final V value) {
+            V result = this.value;
+            this.value = value;
+            return result;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Entry<?,?> e)) return false;
+            return Objects.equals(key,e.getKey()) && Objects.equals(value,e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /**
+     * A view of the entries of this {@link LRUCacheMap}, ordered from the
+     * most recently used to the least recently used entry.
+     */
+    private final class EntrySet extends AbstractSet<Entry<K,V>> {
+        @Override
+        public void clear() {
+            LRUCacheMap.this.clear();
+        }
+
+        @Override
+        public boolean contains(final Object o) {
+            if (!(o instanceof Entry<?,?> e)) return false;
+            Node<K,V> node = getNode(e.getKey(),false);
+            return node != null && Objects.equals(node.value,e.getValue());
+        }
+
+        @Override
+        public Iterator<Entry<K,V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public boolean remove(final Object o) {
+            if (contains(o)) {
+                LRUCacheMap.this.remove(((Entry<?,?>) o).getKey());
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public int size() {
+            return LRUCacheMap.this.size();
+        }
+    }
+
+    /**
+     * Iterates the LRU queue from the {@code head} (most recently used) to the
+     * {@code tail}. The iterator is fail-fast.
+     */
+    private final class EntryIterator implements Iterator<Entry<K,V>> {
+        private final long now = expireEntries();
+        private Node<K,V> next = skipExpired(head);
+        private Node<K,V> current;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<K,V> next() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (next == null)
+                throw new NoSuchElementException();
+            current = next;
+            next = skipExpired(next.next);
+            return current;
+        }
+
+        private Node<K,V> skipExpired(Node<K,V> node) {
+            while (node != null && isExpired(node,now))
+                node = node.next;
+            return node;
+        }
+
+        @Override
+        public void remove() {
+            if (current == null)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            removeNode(current);
+            current = null;
+            expectedModCount = modCount;
+        }
+    }
+}
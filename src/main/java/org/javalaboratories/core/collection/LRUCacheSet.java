@@ -15,19 +15,26 @@
  */
 package org.javalaboratories.core.collection;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serial;
 import java.io.Serializable;
-import java.util.Iterator;
-import java.util.LinkedHashSet;
-import java.util.LinkedList;
-import java.util.Objects;
-import java.util.StringJoiner;
+import java.util.*;
 
 /**
  * {@link LRUCacheSet} is a cache that implements the {@code Least Recently Used}
  * policy. The least recently used cache {@code entry} will be evicted from
  * the {@code Set}. This {@code Set} has a fixed {@code capacity} that is set
  * in the constructor and cannot be altered.
+ * <p>
+ * Positional queries, {@link LRUCacheSet#peekAt(int)} and
+ * {@link LRUCacheSet#indexOf(Object)}, are answered in logarithmic time by an
+ * order-statistics index of the LRU queue. The index is only built on the
+ * first positional query, and thereafter is updated in logarithmic time as
+ * elements are added, nudged or removed.
+ * <p>
+ * Statistics of hits, misses and evictions are not recorded unless enabled
+ * with {@link LRUCacheSet#recordStats()}, and are not serialized.
  *
  * @param <T> type of Key
  */
@@ -38,6 +45,9 @@ public class LRUCacheSet<T> extends LinkedHashSet<T> implements Cloneable, Seria
     public static final int DEFAULT_CAPACITY = 16;
 
     private final int capacity;
+    private transient StatsCounter statsCounter = StatsCounter.disabled();
+    private transient RecencyIndex<T> recency;
+    private transient Map<T,Integer> stamps;
 
     /**
      * Constructs this {@link LRUCacheSet} with {@code DEFAULT_CAPACITY} of 16
@@ -75,16 +85,55 @@ public class LRUCacheSet<T> extends LinkedHashSet<T> implements Cloneable, Seria
     @Override
     public boolean add(final T key) {
         if (!nudge(key)) {
-            if (this.size() == this.capacity) {
-                T k = this.iterator().next();
-                this.remove(k);
-            }
-            return super.add(key);
+            if (this.size() == this.capacity)
+                evictEldest();
+            boolean result = super.add(key);
+            if (recency != null)
+                stamps.put(key,recency.add(key));
+            return result;
         } else {
             return true;
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The {@code key} becomes the least recently used element. If this
+     * {@code Set} is at capacity and does not contain the {@code key}, the
+     * least recently used element is evicted beforehand.
+     */
+    @Override
+    public void addFirst(final T key) {
+        if (!contains(key) && this.size() == this.capacity)
+            evictEldest();
+        super.addFirst(key);
+        // Every element is re-ranked, so the index is rebuilt on the next positional query
+        recency = null;
+        stamps = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Equivalent to {@link LRUCacheSet#add(Object)}: the {@code key} becomes
+     * the most recently used element.
+     */
+    @Override
+    public void addLast(final T key) {
+        add(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        super.clear();
+        recency = null;
+        stamps = null;
+    }
+
     /**
      * Returns current capacity of this {@link LRUCacheSet}.
      *
@@ -124,7 +173,12 @@ public class LRUCacheSet<T> extends LinkedHashSet<T> implements Cloneable, Seria
      * returned.
      */
     public T get(final T key) {
-        return nudge(key) ? key : null;
+        if (nudge(key)) {
+            statsCounter.recordHits(1);
+            return key;
+        }
+        statsCounter.recordMisses(1);
+        return null;
     }
 
     /**
@@ -135,6 +189,50 @@ public class LRUCacheSet<T> extends LinkedHashSet<T> implements Cloneable, Seria
         return Objects.hash(super.hashCode(), capacity);
     }
 
+    /**
+     * Returns the position of the {@code key} in the {@code LRU queue}, where
+     * position {@code 0} is the most recently used, without affecting the
+     * queue. This is the inverse of {@link LRUCacheSet#peekAt(int)}.
+     *
+     * @param key element
+     * @return position of {@code key}, or {@code -1} if it does not exist.
+     */
+    public int indexOf(final T key) {
+        if (!contains(key))
+            return -1;
+        return recency().rank(stamps.get(key));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Elements are iterated from the least recently used to the most recently
+     * used.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        Iterator<T> iterator = super.iterator();
+        return new Iterator<>() {
+            private T current;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return current = iterator.next();
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                untrack(current);
+            }
+        };
+    }
+
     /**
      * Moves the key to the "front", thus making it the most recently used
      * {@code key}.
@@ -157,6 +255,9 @@ public class LRUCacheSet<T> extends LinkedHashSet<T> implements Cloneable, Seria
     /**
      * Retrieves a {@code value} from this {@link LRUCacheSet} that is at
      * {@code index} position in the {@code LRU queue}.
+     * <p>
+     * The value is found in logarithmic time with an order-statistics
+     * index, which is built on the first call.
      *
      * @param index of subscript in LRU queue.
      * @return value value in {@code index} position.
@@ -166,11 +267,79 @@ public class LRUCacheSet<T> extends LinkedHashSet<T> implements Cloneable, Seria
     public T peekAt(final int index) {
         if (index < 0 || index > this.size() -1)
             throw new IndexOutOfBoundsException();
-        T key = null;
-        Iterator<T> iter = iterator();
-        for (int i = size() -1; i >= index && iter.hasNext(); i--)
-            key = iter.next();
-        return key;
+        return recency().get(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean remove(final Object o) {
+        boolean result = super.remove(o);
+        if (result)
+            untrack(o);
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Removes the least recently used element.
+     */
+    @Override
+    public T removeFirst() {
+        T result = super.removeFirst();
+        untrack(result);
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Removes the most recently used element.
+     */
+    @Override
+    public T removeLast() {
+        T result = super.removeLast();
+        untrack(result);
+        return result;
+    }
+
+    /**
+     * Enables the recording of statistics to a new, thread-safe
+     * {@link StatsCounter#striped()} counter, replacing the current counter.
+     * <p>
+     * Lookups with {@link LRUCacheSet#get(Object)} are recorded as hits or
+     * misses, and evictions are recorded with their {@link EvictionCause}.
+     *
+     * @return this {@link LRUCacheSet}.
+     */
+    public LRUCacheSet<T> recordStats() {
+        return recordStats(StatsCounter.striped());
+    }
+
+    /**
+     * Records statistics to the given {@code statsCounter}, replacing the
+     * current counter. Use {@link StatsCounter#disabled()} to stop recording.
+     *
+     * @param statsCounter counter to record statistics to.
+     * @return this {@link LRUCacheSet}.
+     * @throws NullPointerException if {@code statsCounter} is null.
+     */
+    public LRUCacheSet<T> recordStats(final StatsCounter statsCounter) {
+        this.statsCounter = Objects.requireNonNull(statsCounter,"Expected statsCounter");
+        return this;
+    }
+
+    /**
+     * Returns an immutable snapshot of the statistics recorded by this
+     * {@link LRUCacheSet}. The snapshot is empty unless statistics have been
+     * enabled with {@link LRUCacheSet#recordStats()}.
+     *
+     * @return statistics snapshot.
+     */
+    public CacheStats stats() {
+        return statsCounter.snapshot();
     }
 
     /**
@@ -184,7 +353,44 @@ public class LRUCacheSet<T> extends LinkedHashSet<T> implements Cloneable, Seria
         return joiner.toString();
     }
 
+    @Serial
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        statsCounter = StatsCounter.disabled();
+    }
+
+    private RecencyIndex<T> recency() {
+        // Elements added or removed without passing through this class, for
+        // example through the reversed() view, change the size and so
+        // invalidate the index. Reordering is always routed through this class.
+        if (recency != null && recency.size() != size())
+            recency = null;
+        RecencyIndex<T> result = recency;
+        if (result == null) {
+            Map<T,Integer> map = new HashMap<>();
+            recency = result = new RecencyIndex<>(map::put);
+            stamps = map;
+            for (T key : this)
+                map.put(key,result.add(key));
+        }
+        return result;
+    }
+
+    private void evictEldest() {
+        T k = this.iterator().next();
+        this.remove(k);
+        statsCounter.recordEviction(EvictionCause.CAPACITY);
+    }
+
     private String toString(final T element) {
         return element == null ? "Null" : element.toString();
     }
+
+    private void untrack(final Object key) {
+        if (recency != null) {
+            Integer stamp = stamps.remove(key);
+            if (stamp != null)
+                recency.remove(stamp);
+        }
+    }
 }
@@ -0,0 +1,459 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+import org.javalaboratories.core.concurrency.ManagedPromiseService;
+import org.javalaboratories.core.concurrency.PrimaryAction;
+import org.javalaboratories.core.concurrency.Promise;
+import org.javalaboratories.core.concurrency.Promises;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link LoadingLRUCache} is a thread-safe cache that loads values on demand
+ * with a {@link CacheLoader}, evicting the least recently used entries once
+ * its {@code capacity} is reached.
+ * <p>
+ * Loads are asynchronous {@link Promise} objects, executed by the
+ * {@link ManagedPromiseService} of the {@link Promises} factory, unless a
+ * service is given at construction. Concurrent
+ * requests for a missing key are coalesced into a single in-flight load, on
+ * which all the requesting threads wait, so a hot key that
+ * misses results in one invocation of the {@link CacheLoader} rather than one
+ * per thread.
+ * <p>
+ * Optionally, entries may be refreshed a period of time after they were
+ * written. Once the {@code refreshAfterWrite} period has elapsed, the next
+ * request for the entry triggers an asynchronous reload, and the current,
+ * stale value continues to be served until the reload completes. Refreshes
+ * are also coalesced, and should a refresh fail, the stale value is retained.
+ * <p>
+ * {@link LoadingLRUCache#getAll(Collection)} loads all the missing keys in a
+ * single batch with {@link CacheLoader#loadAll(Set)}.
+ * <p>
+ * Entries are held in a {@link ConcurrentLRUCacheMap}, so {@code null} keys
+ * are not permitted, and a {@code null} value returned by the
+ * {@link CacheLoader} is not cached.
+ * <p>
+ * Statistics of hits, misses and loads are not recorded unless enabled with
+ * {@link LoadingLRUCache#recordStats()}.
+ *
+ * @param <K> type of Key
+ * @param <V> type of Value
+ * @see CacheLoader
+ * @see ConcurrentLRUCacheMap
+ */
+public class LoadingLRUCache<K,V> {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadingLRUCache.class);
+
+    private final ConcurrentLRUCacheMap<K,Written<V>> cache;
+    private final CacheLoader<K,V> loader;
+    private final long refreshAfterWrite;
+    private final Ticker ticker;
+    private final ManagedPromiseService service;
+    private final ConcurrentMap<K,CompletableFuture<Map<K,V>>> loading;
+    private final Set<K> refreshing;
+    private volatile StatsCounter statsCounter;
+
+    /**
+     * Constructs this {@link LoadingLRUCache} with given capacity, whose
+     * entries are not refreshed.
+     *
+     * @param capacity Non-zero, positive value.
+     * @param loader loads values on demand.
+     * @throws NullPointerException if {@code loader} is null.
+     * @throws IllegalArgumentException if the capacity is less than or equal
+     * to zero.
+     */
+    public LoadingLRUCache(final int capacity, final CacheLoader<K,V> loader) {
+        this(capacity,Duration.ZERO,loader);
+    }
+
+    /**
+     * Constructs this {@link LoadingLRUCache} with given capacity, whose
+     * entries are refreshed asynchronously once {@code refreshAfterWrite} has
+     * elapsed since they were loaded.
+     *
+     * @param capacity Non-zero, positive value.
+     * @param refreshAfterWrite period after which entries are refreshed, or
+     *                          {@link Duration#ZERO} to never refresh.
+     * @param loader loads values on demand.
+     * @throws NullPointerException if {@code refreshAfterWrite} or
+     * {@code loader} is null.
+     * @throws IllegalArgumentException if the capacity is less than or equal
+     * to zero, or the {@code refreshAfterWrite} is negative.
+     */
+    public LoadingLRUCache(final int capacity, final Duration refreshAfterWrite, final CacheLoader<K,V> loader) {
+        this(capacity,refreshAfterWrite,loader,Ticker.system());
+    }
+
+    /**
+     * Constructs this {@link LoadingLRUCache} with given capacity, whose
+     * entries are refreshed asynchronously once {@code refreshAfterWrite} has
+     * elapsed since they were loaded. Time is read from the {@code ticker}.
+     *
+     * @param capacity Non-zero, positive value.
+     * @param refreshAfterWrite period after which entries are refreshed, or
+     *                          {@link Duration#ZERO} to never refresh.
+     * @param loader loads values on demand.
+     * @param ticker time source, typically {@link Ticker#system()}.
+     * @throws NullPointerException if {@code refreshAfterWrite},
+     * {@code loader} or {@code ticker} is null.
+     * @throws IllegalArgumentException if the capacity is less than or equal
+     * to zero, or the {@code refreshAfterWrite} is negative.
+     */
+    public LoadingLRUCache(final int capacity, final Duration refreshAfterWrite, final CacheLoader<K,V> loader,
+                           final Ticker ticker) {
+        this(capacity,refreshAfterWrite,loader,ticker,null);
+    }
+
+    /**
+     * Constructs this {@link LoadingLRUCache} with given capacity, whose
+     * entries are refreshed asynchronously once {@code refreshAfterWrite} has
+     * elapsed since they were loaded. Time is read from the {@code ticker},
+     * and loads are executed by the {@code service}, whose lifecycle is the
+     * responsibility of the caller.
+     *
+     * @param capacity Non-zero, positive value.
+     * @param refreshAfterWrite period after which entries are refreshed, or
+     *                          {@link Duration#ZERO} to never refresh.
+     * @param loader loads values on demand.
+     * @param ticker time source, typically {@link Ticker#system()}.
+     * @param service executes loads and refreshes, or {@code null} for the
+     *                service of the {@link Promises} factory.
+     * @throws NullPointerException if {@code refreshAfterWrite},
+     * {@code loader} or {@code ticker} is null.
+     * @throws IllegalArgumentException if the capacity is less than or equal
+     * to zero, or the {@code refreshAfterWrite} is negative.
+     */
+    public LoadingLRUCache(final int capacity, final Duration refreshAfterWrite, final CacheLoader<K,V> loader,
+                           final Ticker ticker, final ManagedPromiseService service) {
+        Objects.requireNonNull(refreshAfterWrite,"Expected refreshAfterWrite");
+        if (refreshAfterWrite.isNegative())
+            throw new IllegalArgumentException("Expected >= 0 refreshAfterWrite");
+        this.cache = new ConcurrentLRUCacheMap<>(capacity);
+        this.loader = Objects.requireNonNull(loader,"Expected loader");
+        this.refreshAfterWrite = refreshAfterWrite.toNanos();
+        this.ticker = Objects.requireNonNull(ticker,"Expected ticker");
+        this.service = service;
+        this.loading = new ConcurrentHashMap<>();
+        this.refreshing = ConcurrentHashMap.newKeySet();
+        this.statsCounter = StatsCounter.disabled();
+    }
+
+    /**
+     * Returns current capacity of this {@link LoadingLRUCache}.
+     *
+     * @return current capacity. This is always a non-zero, positive value.
+     */
+    public int capacity() {
+        return cache.capacity();
+    }
+
+    /**
+     * Returns the value of the {@code key}, loading it if necessary.
+     * <p>
+     * If the value is not cached and another thread is already loading it,
+     * the current thread waits for that load rather than starting its own.
+     * This method blocks until the value is available. If the entry is due to
+     * be refreshed, a refresh is started and the current value is returned
+     * immediately.
+     *
+     * @param key of the value.
+     * @return the value, or {@code null} if the {@link CacheLoader} has no
+     * value for the {@code key}.
+     * @throws NullPointerException if {@code key} is null.
+     * @throws CacheLoaderException if the {@link CacheLoader} failed.
+     */
+    public V get(final K key) {
+        Objects.requireNonNull(key,"Expected key");
+        Written<V> written = cache.get(key);
+        if (written != null) {
+            statsCounter.recordHits(1);
+            return refreshIfDue(key,written);
+        }
+        statsCounter.recordMisses(1);
+        CompletableFuture<Map<K,V>> claim = new CompletableFuture<>();
+        CompletableFuture<Map<K,V>> future = loading.putIfAbsent(key,claim);
+        if (future == null)
+            load(Collections.singleton(key),future = claim);
+        return await(Collections.singletonMap(key,future)).get(key);
+    }
+
+    /**
+     * Returns the values of the {@code keys}, loading those that are missing in
+     * a single batch with {@link CacheLoader#loadAll(Set)}.
+     * <p>
+     * Keys that are already being loaded by other threads are not loaded
+     * again; their in-flight loads are awaited instead. This method blocks
+     * until all the values are available.
+     *
+     * @param keys of the values.
+     * @return an unmodifiable {@link Map} of the values in the iteration order
+     * of the {@code keys}. Keys for which the {@link CacheLoader} has no value
+     * are omitted.
+     * @throws NullPointerException if {@code keys} or any key is null.
+     * @throws CacheLoaderException if the {@link CacheLoader} failed.
+     */
+    public Map<K,V> getAll(final Collection<? extends K> keys) {
+        Objects.requireNonNull(keys,"Expected keys");
+        Map<K,V> result = new LinkedHashMap<>();
+        Map<K,CompletableFuture<Map<K,V>>> futures = new LinkedHashMap<>();
+        CompletableFuture<Map<K,V>> batch = new CompletableFuture<>();
+        Set<K> claimed = new LinkedHashSet<>();
+        int hits = 0;
+        for (K key : keys) {
+            Objects.requireNonNull(key,"Expected key");
+            Written<V> written = cache.get(key);
+            if (written != null) {
+                result.put(key,refreshIfDue(key,written));
+                hits++;
+            } else if (!futures.containsKey(key)) {
+                // Keys are claimed before the batch starts, so only those won are loaded by it
+                CompletableFuture<Map<K,V>> future = loading.putIfAbsent(key,batch);
+                if (future == null)
+                    claimed.add(key);
+                futures.put(key,future != null ? future : batch);
+            }
+        }
+        statsCounter.recordHits(hits);
+        statsCounter.recordMisses(keys.size() - hits);
+        if (!claimed.isEmpty())
+            load(claimed,batch);
+        Map<K,V> loaded = await(futures);
+        Map<K,V> ordered = new LinkedHashMap<>();
+        for (K key : keys) {
+            V value = result.containsKey(key) ? result.get(key) : loaded.get(key);
+            if (value != null)
+                ordered.put(key,value);
+        }
+        return Collections.unmodifiableMap(ordered);
+    }
+
+    /**
+     * Returns the cached value of the {@code key} without loading it.
+     *
+     * @param key of the value.
+     * @return the value, or {@code null} if it is not cached.
+     */
+    public V getIfPresent(final K key) {
+        Written<V> written = cache.get(key);
+        return written == null ? null : written.value;
+    }
+
+    /**
+     * Discards the cached value of the {@code key}, if any.
+     *
+     * @param key of the value.
+     */
+    public void invalidate(final K key) {
+        cache.remove(key);
+    }
+
+    /**
+     * Discards all cached values.
+     */
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    /**
+     * Caches the {@code value} of the {@code key}, replacing any current value.
+     *
+     * @param key of the value.
+     * @param value to cache.
+     * @throws NullPointerException if {@code key} or {@code value} is null.
+     */
+    public void put(final K key, final V value) {
+        cache.put(key,new Written<>(value,ticker.read()));
+    }
+
+    /**
+     * Enables the recording of statistics to a new, thread-safe
+     * {@link StatsCounter#striped()} counter, replacing the current counter.
+     * <p>
+     * Lookups with {@link LoadingLRUCache#get(Object)} and
+     * {@link LoadingLRUCache#getAll(Collection)} are recorded as hits or
+     * misses, and every invocation of the {@link CacheLoader}, including
+     * refreshes, is recorded as a load success or failure with its duration.
+     *
+     * @return this {@link LoadingLRUCache}.
+     */
+    public LoadingLRUCache<K,V> recordStats() {
+        return recordStats(StatsCounter.striped());
+    }
+
+    /**
+     * Records statistics to the given {@code statsCounter}, replacing the
+     * current counter. Use {@link StatsCounter#disabled()} to stop recording.
+     *
+     * @param statsCounter counter to record statistics to.
+     * @return this {@link LoadingLRUCache}.
+     * @throws NullPointerException if {@code statsCounter} is null.
+     */
+    public LoadingLRUCache<K,V> recordStats(final StatsCounter statsCounter) {
+        this.statsCounter = Objects.requireNonNull(statsCounter,"Expected statsCounter");
+        return this;
+    }
+
+    /**
+     * Reloads the value of the {@code key} asynchronously, unless it is already
+     * being refreshed.
+     * <p>
+     * Until the reload completes, the current value, if any, continues to be
+     * served. Should the reload fail, or be refused by the service, the current
+     * value is retained.
+     *
+     * @param key of the value.
+     * @throws NullPointerException if {@code key} is null.
+     */
+    public void refresh(final K key) {
+        Objects.requireNonNull(key,"Expected key");
+        if (!refreshing.add(key))
+            return;
+        try {
+            newPromise(PrimaryAction.of(() -> loadAndCache(Collections.singleton(key)),(value,exception) -> {
+                // Also handles a rejection by the service after submission, when the task never runs
+                refreshing.remove(key);
+                if (exception != null)
+                    logger.warn("Failed to refresh key {}, retaining current value",key,exception);
+            }));
+        } catch (RuntimeException e) {
+            refreshing.remove(key);
+            logger.warn("Refresh of key {} refused, retaining current value",key,e);
+        }
+    }
+
+    /**
+     * @return number of cached values.
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Returns an immutable snapshot of the statistics recorded by this
+     * {@link LoadingLRUCache}. The snapshot is empty unless statistics have
+     * been enabled with {@link LoadingLRUCache#recordStats()}.
+     *
+     * @return statistics snapshot.
+     */
+    public CacheStats stats() {
+        return statsCounter.snapshot();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[capacity=%d,size=%d,loading=%d,refreshing=%d]",
+                capacity(),size(),loading.size(),refreshing.size());
+    }
+
+    private Map<K,V> await(final Map<K,CompletableFuture<Map<K,V>>> futures) {
+        Map<K,V> result = new HashMap<>();
+        Map<CompletableFuture<Map<K,V>>,Map<K,V>> awaited = new IdentityHashMap<>();
+        try {
+            for (Map.Entry<K,CompletableFuture<Map<K,V>>> entry : futures.entrySet()) {
+                K key = entry.getKey();
+                Map<K,V> values = awaited.computeIfAbsent(entry.getValue(),future -> {
+                    try {
+                        return future.join();
+                    } catch (CompletionException e) {
+                        throw new CacheLoaderException(String.format("Failed to load key %s",key),e.getCause());
+                    } catch (CancellationException e) {
+                        throw new CacheLoaderException(String.format("Failed to load key %s",key),e);
+                    }
+                });
+                V value = values.get(key);
+                if (value != null)
+                    result.put(key,value);
+            }
+        } finally {
+            futures.forEach(loading::remove);
+        }
+        return result;
+    }
+
+    /**
+     * Loads the {@code keys} in a {@link Promise}, completing the
+     * {@code future} with which they were claimed.
+     */
+    private void load(final Set<K> keys, final CompletableFuture<Map<K,V>> future) {
+        try {
+            newPromise(PrimaryAction.of(() -> loadAndCache(keys),(value,exception) -> {
+                if (exception != null) future.completeExceptionally(exception);
+                else future.complete(value);
+            }));
+        } catch (RuntimeException e) {
+            // The load was refused, so release the threads waiting on the claim
+            future.completeExceptionally(new CompletionException(e));
+        }
+    }
+
+    private <T> Promise<T> newPromise(final PrimaryAction<T> action) {
+        return service == null ? Promises.newPromise(action) : Promises.newPromise(action,service);
+    }
+
+    private Map<K,V> loadAndCache(final Set<K> keys) {
+        StatsCounter stats = statsCounter;
+        long start = ticker.read();
+        Map<K,V> result;
+        try {
+            if (keys.size() == 1) {
+                K key = keys.iterator().next();
+                V value = loader.load(key);
+                result = value == null ? Collections.emptyMap() : Collections.singletonMap(key,value);
+            } else {
+                result = Objects.requireNonNull(loader.loadAll(keys),"Expected loaded values");
+            }
+        } catch (RuntimeException | Error e) {
+            stats.recordLoadFailure(ticker.read() - start);
+            throw e;
+        }
+        long now = ticker.read();
+        stats.recordLoadSuccess(now - start);
+        result.forEach((key,value) -> {
+            if (value != null)
+                cache.put(key,new Written<>(value,now));
+        });
+        return result;
+    }
+
+    private V refreshIfDue(final K key, final Written<V> written) {
+        if (refreshAfterWrite > 0 && ticker.read() - written.time >= refreshAfterWrite)
+            refresh(key);
+        return written.value;
+    }
+
+    /*************************** INTERNAL CLASSES *****************************/
+
+    /**
+     * A cached value and the time it was written.
+     */
+    private record Written<V>(V value, long time) {
+        private Written {
+            Objects.requireNonNull(value,"Expected value");
+        }
+    }
+}
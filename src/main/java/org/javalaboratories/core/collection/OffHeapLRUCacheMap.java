@@ -0,0 +1,612 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * {@link OffHeapLRUCacheMap} is a cache that implements the
+ * {@code Least Recently Used} policy, whose keys and values are stored as
+ * serialized bytes outside the Java heap.
+ * <p>
+ * A large {@link LRUCacheMap} holding millions of small entries places
+ * considerable pressure on the garbage collector, which must trace every
+ * entry, key and value object. Instead, this {@code Map} converts keys and
+ * values to bytes with a pluggable {@link Serializer} and copies them into
+ * direct {@link ByteBuffer} slabs, allocated on demand up to the
+ * {@code maximumMemory}. Slabs are divided into fixed-size blocks, and each
+ * entry occupies a chain of blocks; because all blocks are the same size, the
+ * blocks of any evicted entry can be reused by any other, and so eviction
+ * strictly follows the LRU order.
+ * <p>
+ * The hash index, an open-addressing table with linear probing, and the LRU
+ * queue are held in a handful of primitive arrays that are allocated up front
+ * for the {@code capacity}. The garbage collector does not trace the contents
+ * of primitive arrays or direct buffers, so the number of live objects
+ * remains constant however many entries are cached.
+ * <p>
+ * The {@code Map} is bounded by both its {@code capacity}, the maximum number
+ * of entries, and its {@code maximumMemory}, the maximum number of bytes of
+ * slab memory; the least recently used entries are evicted when either bound
+ * would be exceeded. An entry too large for the {@code maximumMemory} is not
+ * retained, and any existing mapping of its key is removed.
+ * <p>
+ * Every read deserializes a new copy of the value, and so mutating a returned
+ * value does not affect the cached value. Lookups serialize the key, and keys
+ * are matched byte for byte. Iteration of the
+ * {@link OffHeapLRUCacheMap#entrySet()} visits entries from the most to the
+ * least recently used, without affecting the LRU queue, and its entries are
+ * immutable. {@code null} keys and values are not permitted.
+ * <p>
+ * Slab memory is released when this {@code Map} is no longer reachable.
+ * <p>
+ * This implementation is not thread-safe.
+ *
+ * @param <K> type of Key
+ * @param <V> type of Value
+ * @see Serializer
+ * @see LRUCacheMap
+ */
+public class OffHeapLRUCacheMap<K,V> extends AbstractMap<K,V> {
+
+    public static final int DEFAULT_BLOCK_SIZE = 64;
+
+    static final int MAXIMUM_CAPACITY = 1 << 29;
+    static final int MINIMUM_BLOCK_SIZE = 16;
+    static final int SLAB_SIZE = 1 << 20;
+
+    private static final int NIL = -1;
+    private static final int BLOCK_HEADER = Integer.BYTES;
+
+    private final int capacity;
+    private final int blockSize;
+    private final int payloadSize;
+    private final int blocksPerSlab;
+    private final int maximumBlocks;
+    private final Serializer<K> keySerializer;
+    private final Serializer<V> valueSerializer;
+
+    private final ByteBuffer[] slabs;
+    private int freeBlock;
+    private int nextBlock;
+    private int usedBlocks;
+
+    private final int[] table;
+    private final int tableMask;
+    private final int[] hashes;
+    private final int[] firstBlocks;
+    private final int[] keyLengths;
+    private final int[] valueLengths;
+    private final int[] prev;
+    private final int[] next;
+    private int freeEntry;
+    private int nextEntry;
+    private int head;
+    private int tail;
+    private int size;
+    private int modCount;
+    private Set<Entry<K,V>> entrySet;
+
+    /**
+     * Constructs this {@link OffHeapLRUCacheMap} with given capacity and
+     * maximum memory, and a {@code DEFAULT_BLOCK_SIZE} of 64 bytes.
+     *
+     * @param capacity Non-zero, positive value, the maximum number of entries.
+     * @param maximumMemory maximum number of bytes of slab memory.
+     * @param keySerializer converts keys to and from bytes.
+     * @param valueSerializer converts values to and from bytes.
+     * @throws NullPointerException if either serializer is null.
+     * @throws IllegalArgumentException if the capacity is less than or equal
+     * to zero, or the {@code maximumMemory} is less than the block size.
+     */
+    public OffHeapLRUCacheMap(final int capacity, final long maximumMemory, final Serializer<K> keySerializer,
+                              final Serializer<V> valueSerializer) {
+        this(capacity,maximumMemory,DEFAULT_BLOCK_SIZE,keySerializer,valueSerializer);
+    }
+
+    /**
+     * Constructs this {@link OffHeapLRUCacheMap} with given capacity, maximum
+     * memory and block size.
+     * <p>
+     * Each block reserves four bytes to link to the next block of its entry,
+     * and on average half a block per entry is unused. Choose a
+     * {@code blockSize} close to the typical size of a serialized key and
+     * value.
+     *
+     * @param capacity Non-zero, positive value, the maximum number of entries.
+     * @param maximumMemory maximum number of bytes of slab memory.
+     * @param blockSize size of each block in bytes, at least 16.
+     * @param keySerializer converts keys to and from bytes.
+     * @param valueSerializer converts values to and from bytes.
+     * @throws NullPointerException if either serializer is null.
+     * @throws IllegalArgumentException if the capacity is less than or equal
+     * to zero, the {@code blockSize} is less than 16, or the
+     * {@code maximumMemory} is less than the {@code blockSize}.
+     */
+    public OffHeapLRUCacheMap(final int capacity, final long maximumMemory, final int blockSize,
+                              final Serializer<K> keySerializer, final Serializer<V> valueSerializer) {
+        if (capacity < 1 || capacity > MAXIMUM_CAPACITY)
+            throw new IllegalArgumentException("Expected > 0 capacity");
+        if (blockSize < MINIMUM_BLOCK_SIZE || blockSize > SLAB_SIZE)
+            throw new IllegalArgumentException("Expected blockSize between 16 and slab size");
+        if (maximumMemory < blockSize)
+            throw new IllegalArgumentException("Expected maximumMemory >= blockSize");
+        this.capacity = capacity;
+        this.blockSize = blockSize;
+        this.payloadSize = blockSize - BLOCK_HEADER;
+        this.blocksPerSlab = SLAB_SIZE / blockSize;
+        this.maximumBlocks = (int) Math.min(maximumMemory / blockSize,Integer.MAX_VALUE - 1);
+        this.keySerializer = Objects.requireNonNull(keySerializer,"Expected keySerializer");
+        this.valueSerializer = Objects.requireNonNull(valueSerializer,"Expected valueSerializer");
+        this.slabs = new ByteBuffer[(maximumBlocks + blocksPerSlab - 1) / blocksPerSlab];
+        int length = Integer.highestOneBit(2 * capacity - 1) << 1;
+        this.table = new int[length];
+        this.tableMask = length - 1;
+        this.hashes = new int[capacity];
+        this.firstBlocks = new int[capacity];
+        this.keyLengths = new int[capacity];
+        this.valueLengths = new int[capacity];
+        this.prev = new int[capacity];
+        this.next = new int[capacity];
+        reset();
+    }
+
+    /**
+     * Returns current capacity of this {@link OffHeapLRUCacheMap}.
+     *
+     * @return current capacity. This is always a non-zero, positive value.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Slabs already allocated are retained for reuse.
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(table,0);
+        reset();
+        modCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsKey(final Object key) {
+        return find(key) != NIL;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Entries are iterated from the most recently used to the least recently
+     * used. Iterating the entries does not affect the LRU queue.
+     */
+    @Override
+    public Set<Entry<K,V>> entrySet() {
+        Set<Entry<K,V>> result = entrySet;
+        if (result == null)
+            entrySet = result = new EntrySet();
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A successful lookup makes the entry the most recently used.
+     */
+    @Override
+    public V get(final Object key) {
+        int entry = find(key);
+        if (entry == NIL)
+            return null;
+        moveToFirst(entry);
+        return readValue(entry);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the maximum number of bytes of slab memory of this
+     * {@link OffHeapLRUCacheMap}, rounded down to a whole number of blocks.
+     *
+     * @return maximum slab memory in bytes.
+     */
+    public long maximumMemory() {
+        return (long) maximumBlocks * blockSize;
+    }
+
+    /**
+     * Returns the number of bytes of slab memory occupied by entries,
+     * including unused space at the end of their last block.
+     *
+     * @return occupied slab memory in bytes.
+     */
+    public long memoryUsed() {
+        return (long) usedBlocks * blockSize;
+    }
+
+    /**
+     * Moves the key to the "front", thus making it the most recently used
+     * {@code key}.
+     *
+     * @param key to nudge
+     * @return true if successfully nudged.
+     */
+    public boolean nudge(final K key) {
+        int entry = find(key);
+        if (entry == NIL)
+            return false;
+        moveToFirst(entry);
+        return true;
+    }
+
+    /**
+     * Similar to the {@link OffHeapLRUCacheMap#get(Object)}, except the LRU
+     * queue is not affected.
+     *
+     * @param key of object.
+     * @return value mapped to {@code key}, or {@code null} if there is no
+     * mapping.
+     */
+    public V peek(final K key) {
+        int entry = find(key);
+        return entry == NIL ? null : readValue(entry);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The entry becomes the most recently used, and the least recently used
+     * entries are evicted as necessary to make room for it.
+     *
+     * @throws NullPointerException if {@code key} or {@code value} is null.
+     * @throws SerializerException if the {@code key} or {@code value} cannot
+     * be serialized.
+     */
+    @Override
+    public V put(final K key, final V value) {
+        Objects.requireNonNull(key,"Expected key");
+        Objects.requireNonNull(value,"Expected value");
+        byte[] keyBytes = keySerializer.serialize(key);
+        byte[] valueBytes = valueSerializer.serialize(value);
+        int hash = hash(keyBytes);
+        V result = null;
+        int position = positionOf(keyBytes,hash);
+        if (position != NIL) {
+            int entry = table[position] - 1;
+            result = readValue(entry);
+            removeEntry(position,entry);
+        }
+        long length = (long) keyBytes.length + valueBytes.length;
+        long blocks = Math.max(1L,(length + payloadSize - 1) / payloadSize);
+        if (blocks > maximumBlocks)
+            return result;
+        while (size == capacity || maximumBlocks - usedBlocks < blocks)
+            removeEntry(positionOf(tail),tail);
+        int entry = allocateEntry();
+        hashes[entry] = hash;
+        keyLengths[entry] = keyBytes.length;
+        valueLengths[entry] = valueBytes.length;
+        firstBlocks[entry] = write(keyBytes,valueBytes);
+        int i = hash & tableMask;
+        while (table[i] != 0)
+            i = (i + 1) & tableMask;
+        table[i] = entry + 1;
+        linkFirst(entry);
+        size++;
+        modCount++;
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V remove(final Object key) {
+        byte[] keyBytes = serializeKey(key);
+        if (keyBytes == null)
+            return null;
+        int position = positionOf(keyBytes,hash(keyBytes));
+        if (position == NIL)
+            return null;
+        int entry = table[position] - 1;
+        V result = readValue(entry);
+        removeEntry(position,entry);
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private int allocateBlock() {
+        int result;
+        if (freeBlock != NIL) {
+            result = freeBlock;
+            freeBlock = slabOf(result).getInt(offsetOf(result));
+        } else {
+            result = nextBlock++;
+            int slab = result / blocksPerSlab;
+            if (slabs[slab] == null)
+                slabs[slab] = ByteBuffer.allocateDirect(Math.min(blocksPerSlab,maximumBlocks - slab * blocksPerSlab)
+                        * blockSize);
+        }
+        usedBlocks++;
+        return result;
+    }
+
+    private int allocateEntry() {
+        if (freeEntry != NIL) {
+            int result = freeEntry;
+            freeEntry = next[result];
+            return result;
+        }
+        return nextEntry++;
+    }
+
+    private int find(final Object key) {
+        byte[] keyBytes = serializeKey(key);
+        if (keyBytes == null)
+            return NIL;
+        int position = positionOf(keyBytes,hash(keyBytes));
+        return position == NIL ? NIL : table[position] - 1;
+    }
+
+    private void freeBlocks(int block) {
+        while (block != NIL) {
+            ByteBuffer slab = slabOf(block);
+            int offset = offsetOf(block);
+            int nx = slab.getInt(offset);
+            slab.putInt(offset,freeBlock);
+            freeBlock = block;
+            usedBlocks--;
+            block = nx;
+        }
+    }
+
+    private void linkFirst(final int entry) {
+        prev[entry] = NIL;
+        next[entry] = head;
+        if (head == NIL) tail = entry;
+        else prev[head] = entry;
+        head = entry;
+    }
+
+    private boolean matches(final int entry, final byte[] key) {
+        int block = firstBlocks[entry];
+        int i = 0;
+        while (i < key.length) {
+            ByteBuffer slab = slabOf(block);
+            int offset = offsetOf(block);
+            int n = Math.min(payloadSize,key.length - i);
+            for (int j = 0; j < n; j++) {
+                if (slab.get(offset + BLOCK_HEADER + j) != key[i + j])
+                    return false;
+            }
+            i += n;
+            block = slab.getInt(offset);
+        }
+        return true;
+    }
+
+    private void moveToFirst(final int entry) {
+        if (entry != head) {
+            unlink(entry);
+            linkFirst(entry);
+            modCount++;
+        }
+    }
+
+    private int offsetOf(final int block) {
+        return (block % blocksPerSlab) * blockSize;
+    }
+
+    private int positionOf(final byte[] key, final int hash) {
+        for (int i = hash & tableMask; table[i] != 0; i = (i + 1) & tableMask) {
+            int entry = table[i] - 1;
+            if (hashes[entry] == hash && keyLengths[entry] == key.length && matches(entry,key))
+                return i;
+        }
+        return NIL;
+    }
+
+    private int positionOf(final int entry) {
+        int i = hashes[entry] & tableMask;
+        while (table[i] != entry + 1)
+            i = (i + 1) & tableMask;
+        return i;
+    }
+
+    private byte[] read(final int entry, final int from, final int length) {
+        byte[] result = new byte[length];
+        int block = firstBlocks[entry];
+        for (int skip = from / payloadSize; skip > 0; skip--)
+            block = slabOf(block).getInt(offsetOf(block));
+        int offset = from % payloadSize;
+        int i = 0;
+        while (i < length) {
+            ByteBuffer slab = slabOf(block);
+            int n = Math.min(payloadSize - offset,length - i);
+            slab.get(offsetOf(block) + BLOCK_HEADER + offset,result,i,n);
+            i += n;
+            offset = 0;
+            block = slab.getInt(offsetOf(block));
+        }
+        return result;
+    }
+
+    private K readKey(final int entry) {
+        return keySerializer.deserialize(read(entry,0,keyLengths[entry]));
+    }
+
+    private V readValue(final int entry) {
+        return valueSerializer.deserialize(read(entry,keyLengths[entry],valueLengths[entry]));
+    }
+
+    private void removeEntry(int position, final int entry) {
+        // Backward-shift deletion: close the gap left in the probe sequence
+        // rather than leave a tombstone.
+        int i = position;
+        for (int j = (i + 1) & tableMask; table[j] != 0; j = (j + 1) & tableMask) {
+            int ideal = hashes[table[j] - 1] & tableMask;
+            boolean reachable = i <= j ? (i < ideal && ideal <= j) : (i < ideal || ideal <= j);
+            if (!reachable) {
+                table[i] = table[j];
+                i = j;
+            }
+        }
+        table[i] = 0;
+        unlink(entry);
+        freeBlocks(firstBlocks[entry]);
+        next[entry] = freeEntry;
+        freeEntry = entry;
+        size--;
+        modCount++;
+    }
+
+    private void reset() {
+        freeBlock = NIL;
+        nextBlock = 0;
+        usedBlocks = 0;
+        freeEntry = NIL;
+        nextEntry = 0;
+        head = tail = NIL;
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] serializeKey(final Object key) {
+        if (key == null)
+            return null;
+        try {
+            return keySerializer.serialize((K) key);
+        } catch (ClassCastException e) {
+            return null;
+        }
+    }
+
+    private ByteBuffer slabOf(final int block) {
+        return slabs[block / blocksPerSlab];
+    }
+
+    private void unlink(final int entry) {
+        int p = prev[entry];
+        int n = next[entry];
+        if (p == NIL) head = n;
+        else next[p] = n;
+        if (n == NIL) tail = p;
+        else prev[n] = p;
+    }
+
+    private int write(final byte[] key, final byte[] value) {
+        int first = allocateBlock();
+        int block = first;
+        int offset = 0;
+        for (byte[] bytes : new byte[][] {key,value}) {
+            int i = 0;
+            while (i < bytes.length) {
+                if (offset == payloadSize) {
+                    int nx = allocateBlock();
+                    slabOf(block).putInt(offsetOf(block),nx);
+                    block = nx;
+                    offset = 0;
+                }
+                int n = Math.min(payloadSize - offset,bytes.length - i);
+                slabOf(block).put(offsetOf(block) + BLOCK_HEADER + offset,bytes,i,n);
+                i += n;
+                offset += n;
+            }
+        }
+        slabOf(block).putInt(offsetOf(block),NIL);
+        return first;
+    }
+
+    private static int hash(final byte[] bytes) {
+        int h = Arrays.hashCode(bytes);
+        return h ^ (h >>> 16);
+    }
+
+    /*************************** INTERNAL CLASSES *****************************/
+
+    /**
+     * A view of the entries of this {@link OffHeapLRUCacheMap}, ordered from
+     * the most recently used to the least recently used entry. Entries are
+     * deserialized as they are iterated.
+     */
+    private final class EntrySet extends AbstractSet<Entry<K,V>> {
+        @Override
+        public void clear() {
+            OffHeapLRUCacheMap.this.clear();
+        }
+
+        @Override
+        public Iterator<Entry<K,V>> iterator() {
+            return new Iterator<>() {
+                private int nextEntry = head;
+                private int current = NIL;
+                private int expectedModCount = modCount;
+
+                @Override
+                public boolean hasNext() {
+                    return nextEntry != NIL;
+                }
+
+                @Override
+                public Entry<K,V> next() {
+                    if (modCount != expectedModCount)
+                        throw new ConcurrentModificationException();
+                    if (nextEntry == NIL)
+                        throw new NoSuchElementException();
+                    current = nextEntry;
+                    nextEntry = next[current];
+                    return new SimpleImmutableEntry<>(readKey(current),readValue(current));
+                }
+
+                @Override
+                public void remove() {
+                    if (current == NIL)
+                        throw new IllegalStateException();
+                    if (modCount != expectedModCount)
+                        throw new ConcurrentModificationException();
+                    removeEntry(positionOf(current),current);
+                    current = NIL;
+                    expectedModCount = modCount;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
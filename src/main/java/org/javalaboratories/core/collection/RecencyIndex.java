@@ -0,0 +1,178 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+import java.util.function.ObjIntConsumer;
+
+/**
+ * An order-statistics index of elements by recency of use, answering "which
+ * element is the {@code n}th most recently used" and "how recently used is
+ * this element" in logarithmic time.
+ * <p>
+ * Each use of an element is given a stamp from a monotonically increasing
+ * counter, and a Fenwick tree (binary indexed tree) over the stamps counts
+ * the live ones. Adding, removing or promoting an element updates one or two
+ * counts, and the element at a given rank is found by descending the tree.
+ * <p>
+ * When the stamps are exhausted, the live elements are renumbered in order
+ * into a table of at least twice their number, so renumbering is amortized
+ * over as many uses as there are elements. Owners of elements are notified of
+ * their new stamp via the {@code restamp} callback.
+ * <p>
+ * {@code null} elements are permitted. This implementation is not
+ * thread-safe.
+ *
+ * @param <E> type of element
+ */
+final class RecencyIndex<E> {
+
+    private static final int MINIMUM_LENGTH = 16;
+    private static final Object NULL = new Object();
+
+    private final ObjIntConsumer<E> restamp;
+    private Object[] elements;
+    private int[] tree;
+    private int next;
+    private int size;
+
+    /**
+     * Constructs an empty index.
+     *
+     * @param restamp notified of the element and its new stamp whenever
+     *                elements are renumbered.
+     */
+    RecencyIndex(final ObjIntConsumer<E> restamp) {
+        this.restamp = restamp;
+        this.elements = new Object[MINIMUM_LENGTH];
+        this.tree = new int[MINIMUM_LENGTH + 1];
+    }
+
+    /**
+     * Adds the {@code element} as the most recently used.
+     *
+     * @param element to add.
+     * @return stamp of the element.
+     */
+    int add(final E element) {
+        if (next == elements.length)
+            renumber();
+        int stamp = next++;
+        elements[stamp] = element == null ? NULL : element;
+        update(stamp,1);
+        size++;
+        return stamp;
+    }
+
+    /**
+     * Returns the element at {@code rank}, where rank {@code 0} is the most
+     * recently used.
+     *
+     * @param rank of element, between zero and {@code size - 1}.
+     * @return element at {@code rank}.
+     */
+    @SuppressWarnings("unchecked")
+    E get(final int rank) {
+        // Descend the tree for the smallest stamp whose prefix count reaches
+        // the position counted from the least recently used.
+        int remaining = size - rank;
+        int position = 0;
+        for (int step = Integer.highestOneBit(elements.length); step > 0; step >>= 1) {
+            int i = position + step;
+            if (i <= elements.length && tree[i] < remaining) {
+                position = i;
+                remaining -= tree[i];
+            }
+        }
+        Object result = elements[position];
+        return result == NULL ? null : (E) result;
+    }
+
+    /**
+     * Moves the element with {@code stamp} to the most recently used.
+     *
+     * @param stamp current stamp of the element.
+     * @return new stamp of the element.
+     */
+    @SuppressWarnings("unchecked")
+    int promote(final int stamp) {
+        if (stamp == next - 1)
+            return stamp;
+        Object element = elements[stamp];
+        remove(stamp);
+        return add(element == NULL ? null : (E) element);
+    }
+
+    /**
+     * Returns the rank of the element with {@code stamp}, where rank
+     * {@code 0} is the most recently used.
+     *
+     * @param stamp of the element.
+     * @return rank of the element.
+     */
+    int rank(final int stamp) {
+        int count = 0;
+        for (int i = stamp + 1; i > 0; i -= i & -i)
+            count += tree[i];
+        return size - count;
+    }
+
+    /**
+     * Removes the element with {@code stamp}.
+     *
+     * @param stamp of the element.
+     */
+    void remove(final int stamp) {
+        elements[stamp] = null;
+        update(stamp,-1);
+        size--;
+    }
+
+    /**
+     * @return number of elements in the index.
+     */
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void renumber() {
+        int length = Math.max(MINIMUM_LENGTH,Integer.highestOneBit(Math.max(1,size)) << 2);
+        Object[] live = new Object[length];
+        int[] counts = new int[length + 1];
+        int j = 0;
+        for (int i = 0; i < next; i++) {
+            if (elements[i] != null) {
+                live[j] = elements[i];
+                restamp.accept(live[j] == NULL ? null : (E) live[j],j);
+                counts[++j] = 1;
+            }
+        }
+        // Linear construction: each node passes its count to its parent.
+        for (int i = 1; i <= length; i++) {
+            int parent = i + (i & -i);
+            if (parent <= length)
+                counts[parent] += counts[i];
+        }
+        elements = live;
+        tree = counts;
+        next = j;
+    }
+
+    private void update(final int stamp, final int delta) {
+        for (int i = stamp + 1; i <= elements.length; i += i & -i)
+            tree[i] += delta;
+    }
+}
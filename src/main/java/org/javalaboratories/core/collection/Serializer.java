@@ -0,0 +1,159 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts objects to and from bytes, so that they may be stored outside the
+ * Java heap.
+ * <p>
+ * Implementations must be symmetric: deserializing the bytes of an object
+ * must return an object equal to it. Moreover, keys whose objects are equal
+ * must serialize to identical bytes, because stored keys are compared byte
+ * for byte.
+ *
+ * @param <T> type of object
+ * @see OffHeapLRUCacheMap
+ */
+public interface Serializer<T> {
+
+    /**
+     * Serializes the {@code object} to bytes.
+     *
+     * @param object to serialize, never {@code null}.
+     * @return serialized form of the {@code object}.
+     * @throws SerializerException if the {@code object} cannot be serialized.
+     */
+    byte[] serialize(T object);
+
+    /**
+     * Deserializes an object from the {@code bytes} returned by
+     * {@link Serializer#serialize(Object)}.
+     *
+     * @param bytes serialized form of the object.
+     * @return the object.
+     * @throws SerializerException if the object cannot be deserialized.
+     */
+    T deserialize(byte[] bytes);
+
+    /**
+     * @return a {@link Serializer} of {@code byte[]} objects, which are
+     * stored as is.
+     */
+    static Serializer<byte[]> bytes() {
+        return new Serializer<>() {
+            @Override
+            public byte[] serialize(final byte[] object) {
+                return object;
+            }
+
+            @Override
+            public byte[] deserialize(final byte[] bytes) {
+                return bytes;
+            }
+        };
+    }
+
+    /**
+     * @return a {@link Serializer} of {@link Integer} objects, each stored in
+     * four bytes.
+     */
+    static Serializer<Integer> integers() {
+        return new Serializer<>() {
+            @Override
+            public byte[] serialize(final Integer object) {
+                return ByteBuffer.allocate(Integer.BYTES).putInt(object).array();
+            }
+
+            @Override
+            public Integer deserialize(final byte[] bytes) {
+                return ByteBuffer.wrap(bytes).getInt();
+            }
+        };
+    }
+
+    /**
+     * Returns a {@link Serializer} that uses Java serialization. This is the
+     * most general, but least compact and slowest, of the serializers;
+     * consider a custom {@link Serializer} for frequently cached types.
+     *
+     * @param <T> type of object
+     * @return a {@link Serializer} of {@link Serializable} objects.
+     */
+    static <T extends Serializable> Serializer<T> java() {
+        return new Serializer<>() {
+            @Override
+            public byte[] serialize(final T object) {
+                ByteArrayOutputStream result = new ByteArrayOutputStream();
+                try (ObjectOutputStream out = new ObjectOutputStream(result)) {
+                    out.writeObject(object);
+                } catch (IOException e) {
+                    throw new SerializerException("Failed to serialize object",e);
+                }
+                return result.toByteArray();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T deserialize(final byte[] bytes) {
+                try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                    return (T) in.readObject();
+                } catch (IOException | ClassNotFoundException e) {
+                    throw new SerializerException("Failed to deserialize object",e);
+                }
+            }
+        };
+    }
+
+    /**
+     * @return a {@link Serializer} of {@link Long} objects, each stored in
+     * eight bytes.
+     */
+    static Serializer<Long> longs() {
+        return new Serializer<>() {
+            @Override
+            public byte[] serialize(final Long object) {
+                return ByteBuffer.allocate(Long.BYTES).putLong(object).array();
+            }
+
+            @Override
+            public Long deserialize(final byte[] bytes) {
+                return ByteBuffer.wrap(bytes).getLong();
+            }
+        };
+    }
+
+    /**
+     * @return a {@link Serializer} of {@link String} objects, encoded in
+     * {@code UTF-8}.
+     */
+    static Serializer<String> strings() {
+        return new Serializer<>() {
+            @Override
+            public byte[] serialize(final String object) {
+                return object.getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public String deserialize(final byte[] bytes) {
+                return new String(bytes,StandardCharsets.UTF_8);
+            }
+        };
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the primitive values and byte arrays written by a
+ * {@link SnapshotWriter}, sequentially, from a memory-mapped file.
+ * <p>
+ * The file is mapped in windows of up to 1 GiB, so files larger than a
+ * single {@link MappedByteBuffer} can address are supported. Reads are
+ * served directly from the page cache without system calls, and the
+ * sequential access pattern allows the operating system to read ahead.
+ */
+final class SnapshotReader implements Closeable {
+
+    static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+
+    private final FileChannel channel;
+    private final long size;
+    private final int windowSize;
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    /**
+     * Opens the {@code file} for reading.
+     *
+     * @param file to read.
+     * @throws IOException if the file cannot be opened.
+     */
+    SnapshotReader(final Path file) throws IOException {
+        this(file,DEFAULT_WINDOW_SIZE);
+    }
+
+    SnapshotReader(final Path file, final int windowSize) throws IOException {
+        this.channel = FileChannel.open(file,StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windowSize = windowSize;
+        this.window = channel.map(FileChannel.MapMode.READ_ONLY,0,Math.min(size,windowSize));
+        this.windowStart = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    byte getByte() throws IOException {
+        ensure(Byte.BYTES);
+        return window.get();
+    }
+
+    /**
+     * Reads a byte array written by {@link SnapshotWriter#putBytes(byte[])}.
+     *
+     * @return the byte array, or {@code null}.
+     * @throws IOException if the end of file is reached or the length is
+     * invalid.
+     */
+    byte[] getBytes() throws IOException {
+        int length = getInt();
+        if (length == -1)
+            return null;
+        if (length < -1)
+            throw new IOException("Invalid length " + length);
+        ensure(length);
+        byte[] result = new byte[length];
+        window.get(result);
+        return result;
+    }
+
+    int getInt() throws IOException {
+        ensure(Integer.BYTES);
+        return window.getInt();
+    }
+
+    long getLong() throws IOException {
+        ensure(Long.BYTES);
+        return window.getLong();
+    }
+
+    private void ensure(final int length) throws IOException {
+        if (window.remaining() >= length)
+            return;
+        long position = windowStart + window.position();
+        if (size - position < length)
+            throw new EOFException("Unexpected end of file");
+        windowStart = position;
+        window = channel.map(FileChannel.MapMode.READ_ONLY,position,Math.min(size - position,
+                Math.max(windowSize,length)));
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes primitive values and byte arrays sequentially to a file through a
+ * {@link FileChannel}, buffered in a direct {@link ByteBuffer} so that each
+ * write to the channel transfers a large block without an intermediate copy.
+ * <p>
+ * Values are written in big-endian order, and are read back with a
+ * {@link SnapshotReader}.
+ */
+final class SnapshotWriter implements Closeable {
+
+    static final int BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    /**
+     * Creates or truncates the {@code file} for writing.
+     *
+     * @param file to write.
+     * @throws IOException if the file cannot be opened.
+     */
+    SnapshotWriter(final Path file) throws IOException {
+        this.channel = FileChannel.open(file,StandardOpenOption.CREATE,StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+
+    /**
+     * Flushes the buffer, forces the content to the storage device, and closes
+     * the file.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            flush();
+            channel.force(false);
+        }
+    }
+
+    void putByte(final byte value) throws IOException {
+        ensure(Byte.BYTES);
+        buffer.put(value);
+    }
+
+    /**
+     * Writes the length of the {@code bytes} followed by the bytes themselves,
+     * or a length of {@code -1} if {@code bytes} is {@code null}.
+     */
+    void putBytes(final byte[] bytes) throws IOException {
+        if (bytes == null) {
+            putInt(-1);
+            return;
+        }
+        putInt(bytes.length);
+        int i = 0;
+        while (i < bytes.length) {
+            if (!buffer.hasRemaining())
+                flush();
+            int n = Math.min(buffer.remaining(),bytes.length - i);
+            buffer.put(bytes,i,n);
+            i += n;
+        }
+    }
+
+    void putInt(final int value) throws IOException {
+        ensure(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    void putLong(final long value) throws IOException {
+        ensure(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    private void ensure(final int length) throws IOException {
+        if (buffer.remaining() < length)
+            flush();
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+}
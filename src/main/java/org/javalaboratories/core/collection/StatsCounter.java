@@ -0,0 +1,91 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+/**
+ * Records the statistics of a cache: hits, misses, loads and evictions.
+ * <p>
+ * Statistics are opt-in. Caches record to the {@link StatsCounter#disabled()}
+ * counter by default, whose methods do nothing; when it is the only
+ * implementation in use, calls to it are trivially inlined and eliminated by
+ * the JIT compiler. Use {@link StatsCounter#striped()} to enable recording,
+ * which is safe for concurrent use and designed to avoid contention.
+ *
+ * @see CacheStats
+ */
+public interface StatsCounter {
+
+    /**
+     * Records cache hits.
+     *
+     * @param count number of hits.
+     */
+    void recordHits(int count);
+
+    /**
+     * Records cache misses.
+     *
+     * @param count number of misses.
+     */
+    void recordMisses(int count);
+
+    /**
+     * Records the successful load of a value.
+     *
+     * @param loadTime time taken to load the value, in nanoseconds.
+     */
+    void recordLoadSuccess(long loadTime);
+
+    /**
+     * Records the failure to load a value.
+     *
+     * @param loadTime time taken before the load failed, in nanoseconds.
+     */
+    void recordLoadFailure(long loadTime);
+
+    /**
+     * Records the eviction of an entry.
+     *
+     * @param cause reason for the eviction.
+     */
+    void recordEviction(EvictionCause cause);
+
+    /**
+     * Returns an immutable snapshot of the statistics recorded so far.
+     * <p>
+     * Use {@link CacheStats#minus(CacheStats)} on two snapshots to calculate
+     * the statistics of the interval between them.
+     *
+     * @return statistics snapshot.
+     */
+    CacheStats snapshot();
+
+    /**
+     * @return a {@link StatsCounter} that records nothing, and whose snapshots
+     * are always empty.
+     */
+    static StatsCounter disabled() {
+        return DisabledStatsCounter.INSTANCE;
+    }
+
+    /**
+     * @return a new, thread-safe {@link StatsCounter} built on striped
+     * counters.
+     */
+    static StatsCounter striped() {
+        return new StripedStatsCounter();
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe {@link StatsCounter} built on {@link LongAdder} counters.
+ * <p>
+ * Each {@link LongAdder} spreads contended updates across several cells,
+ * so that threads recording statistics concurrently do not contend on a
+ * single memory location. The cells are only summed when a
+ * {@link CacheStats} snapshot is requested, and so the snapshot is not an
+ * atomic view if statistics are being recorded concurrently.
+ */
+final class StripedStatsCounter implements StatsCounter {
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder loadSuccessCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder totalLoadTime = new LongAdder();
+    private final LongAdder[] evictionCounts;
+
+    StripedStatsCounter() {
+        evictionCounts = new LongAdder[EvictionCause.values().length];
+        for (int i = 0; i < evictionCounts.length; i++)
+            evictionCounts[i] = new LongAdder();
+    }
+
+    @Override
+    public void recordHits(final int count) {
+        hitCount.add(count);
+    }
+
+    @Override
+    public void recordMisses(final int count) {
+        missCount.add(count);
+    }
+
+    @Override
+    public void recordLoadSuccess(final long loadTime) {
+        loadSuccessCount.increment();
+        totalLoadTime.add(loadTime);
+    }
+
+    @Override
+    public void recordLoadFailure(final long loadTime) {
+        loadFailureCount.increment();
+        totalLoadTime.add(loadTime);
+    }
+
+    @Override
+    public void recordEviction(final EvictionCause cause) {
+        evictionCounts[cause.ordinal()].increment();
+    }
+
+    @Override
+    public CacheStats snapshot() {
+        Map<EvictionCause,Long> evictions = new EnumMap<>(EvictionCause.class);
+        for (EvictionCause cause : EvictionCause.values())
+            evictions.put(cause,evictionCounts[cause.ordinal()].sum());
+        return new CacheStats(hitCount.sum(),missCount.sum(),loadSuccessCount.sum(),loadFailureCount.sum(),
+                totalLoadTime.sum(),evictions);
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+/**
+ * A time source that returns the number of nanoseconds elapsed since a fixed
+ * but arbitrary point in time.
+ * <p>
+ * Caches that support time-based expiry read the time from a {@link Ticker},
+ * allowing tests to advance time deterministically rather than sleeping.
+ */
+@FunctionalInterface
+public interface Ticker {
+
+    /**
+     * @return number of nanoseconds elapsed since this ticker's fixed point of
+     * reference.
+     */
+    long read();
+
+    /**
+     * @return a {@link Ticker} that reads {@link System#nanoTime()}.
+     */
+    static Ticker system() {
+        return System::nanoTime;
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+import org.javalaboratories.core.collection.LRUCacheMap.Node;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timer wheel that schedules the expiration of cache entries
+ * in amortized constant time.
+ * <p>
+ * The wheel consists of several levels of buckets, each level spanning a
+ * coarser unit of time than the one below it: roughly seconds, minutes, hours
+ * and days. An entry is placed in a bucket of the lowest level that can
+ * accommodate its deadline. As time advances, the buckets that have elapsed
+ * are emptied: entries whose deadlines have passed are expired, and the
+ * remainder cascade down to a finer level. Scheduling, rescheduling and
+ * descheduling are constant time operations that do not require a scan of
+ * the cache.
+ * <p>
+ * Because buckets are coarse, an entry may be expired slightly after its
+ * deadline; caches must therefore also check the deadline of an entry when it
+ * is read.
+ * <p>
+ * This implementation is not thread-safe.
+ *
+ * @param <K> type of Key
+ * @param <V> type of Value
+ */
+final class TimerWheel<K,V> {
+
+    static final int[] BUCKETS = { 64, 64, 32, 4, 1 };
+    static final long[] SPANS = {
+            ceilingPowerOfTwo(TimeUnit.SECONDS.toNanos(1)), // 1.07s
+            ceilingPowerOfTwo(TimeUnit.MINUTES.toNanos(1)), // 1.14m
+            ceilingPowerOfTwo(TimeUnit.HOURS.toNanos(1)),   // 1.22h
+            ceilingPowerOfTwo(TimeUnit.DAYS.toNanos(1)),    // 1.63d
+            BUCKETS[3] * ceilingPowerOfTwo(TimeUnit.DAYS.toNanos(1)), // 6.5d
+            BUCKETS[3] * ceilingPowerOfTwo(TimeUnit.DAYS.toNanos(1)), // 6.5d
+    };
+
+    private static final long[] SHIFT = {
+            Long.numberOfTrailingZeros(SPANS[0]),
+            Long.numberOfTrailingZeros(SPANS[1]),
+            Long.numberOfTrailingZeros(SPANS[2]),
+            Long.numberOfTrailingZeros(SPANS[3]),
+            Long.numberOfTrailingZeros(SPANS[4]),
+    };
+
+    private final Node<K,V>[][] wheel;
+    private long nanos;
+
+    /**
+     * Constructs a timer wheel whose current time is {@code nanos}.
+     *
+     * @param nanos current time, as read from a {@link Ticker}.
+     */
+    @SuppressWarnings("unchecked")
+    TimerWheel(final long nanos) {
+        this.nanos = nanos;
+        this.wheel = new Node[BUCKETS.length][];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Node[BUCKETS[i]];
+            for (int j = 0; j < wheel[i].length; j++) {
+                Node<K,V> sentinel = new Node<>(null,null);
+                sentinel.prevInTimer = sentinel;
+                sentinel.nextInTimer = sentinel;
+                wheel[i][j] = sentinel;
+            }
+        }
+    }
+
+    /**
+     * Advances the wheel to the {@code currentTime}, handing each entry whose
+     * deadline has passed to the {@code expirer}. Entries in elapsed buckets
+     * that have not yet expired are cascaded to finer buckets.
+     *
+     * @param currentTime current time, as read from a {@link Ticker}.
+     * @param expirer removes the expired entry from the cache.
+     */
+    void advance(final long currentTime, final Consumer<Node<K,V>> expirer) {
+        long previousTime = nanos;
+        nanos = currentTime;
+        for (int i = 0; i < SHIFT.length; i++) {
+            long previousTicks = previousTime >>> SHIFT[i];
+            long currentTicks = currentTime >>> SHIFT[i];
+            if (currentTicks - previousTicks <= 0L)
+                break;
+            expire(i,previousTicks,currentTicks,expirer);
+        }
+    }
+
+    /**
+     * Removes the {@code node} from the wheel, if scheduled.
+     *
+     * @param node to deschedule.
+     */
+    void deschedule(final Node<K,V> node) {
+        if (node.nextInTimer != null) {
+            node.nextInTimer.prevInTimer = node.prevInTimer;
+            node.prevInTimer.nextInTimer = node.nextInTimer;
+            node.nextInTimer = null;
+            node.prevInTimer = null;
+        }
+    }
+
+    /**
+     * Schedules the {@code node} to expire at its deadline, rescheduling it if
+     * it is already scheduled.
+     *
+     * @param node to schedule.
+     */
+    void schedule(final Node<K,V> node) {
+        deschedule(node);
+        Node<K,V> sentinel = findBucket(node.deadline);
+        node.prevInTimer = sentinel.prevInTimer;
+        node.nextInTimer = sentinel;
+        sentinel.prevInTimer.nextInTimer = node;
+        sentinel.prevInTimer = node;
+    }
+
+    private void expire(final int index, final long previousTicks, final long currentTicks,
+                        final Consumer<Node<K,V>> expirer) {
+        Node<K,V>[] buckets = wheel[index];
+        int mask = buckets.length - 1;
+        int steps = (int) Math.min(1 + currentTicks - previousTicks,buckets.length);
+        int start = (int) (previousTicks & mask);
+        int end = start + steps;
+        for (int i = start; i < end; i++) {
+            Node<K,V> sentinel = buckets[i & mask];
+            Node<K,V> node = sentinel.nextInTimer;
+            sentinel.prevInTimer = sentinel;
+            sentinel.nextInTimer = sentinel;
+            while (node != sentinel) {
+                Node<K,V> next = node.nextInTimer;
+                node.prevInTimer = null;
+                node.nextInTimer = null;
+                if (node.deadline - nanos > 0) schedule(node);
+                else expirer.accept(node);
+                node = next;
+            }
+        }
+    }
+
+    private Node<K,V> findBucket(final long time) {
+        long duration = time - nanos;
+        int length = wheel.length - 1;
+        for (int i = 0; i < length; i++) {
+            if (duration < SPANS[i + 1]) {
+                long ticks = time >>> SHIFT[i];
+                return wheel[i][(int) (ticks & (wheel[i].length - 1))];
+            }
+        }
+        return wheel[length][0];
+    }
+
+    private static long ceilingPowerOfTwo(final long value) {
+        return 1L << -Long.numberOfLeadingZeros(value - 1);
+    }
+}
@@ -0,0 +1,425 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+import java.util.*;
+
+/**
+ * {@link TinyLFUCacheMap} is a cache that implements the {@code Window TinyLFU}
+ * policy, a frequency-aware alternative to the {@link LRUCacheMap}.
+ * <p>
+ * A pure {@code Least Recently Used} policy performs poorly under scans and
+ * "one-hit wonder" traffic, where a burst of keys that are never requested
+ * again flushes the frequently used entries from the cache. This {@code Map}
+ * is split into two regions:
+ * <ol>
+ *     <li>A small {@code window} region, an LRU queue of roughly 1% of the
+ *     {@code capacity}, that admits every new entry. This allows bursts of
+ *     recently used entries to be cached.</li>
+ *     <li>A {@code main} region, a segmented LRU queue composed of a
+ *     {@code probation} segment and a {@code protected} segment of roughly 80%
+ *     of the region. Entries accessed whilst on probation are promoted to the
+ *     protected segment, displacing its least recently used entry back on to
+ *     probation.</li>
+ * </ol>
+ * When an entry is evicted from the {@code window} it becomes a candidate for
+ * the {@code main} region. If the cache is full, the candidate is only admitted
+ * if it has been requested more frequently than the least recently used entry
+ * on probation, the victim, which is then evicted in its place; otherwise the
+ * candidate itself is evicted. Frequencies are estimated with a compact
+ * count-min sketch that ages periodically, so that entries that were once
+ * popular do not remain in the cache indefinitely.
+ * <p>
+ * Lookup, insertion and eviction are all performed in constant time. Iteration
+ * of the {@link TinyLFUCacheMap#entrySet()} is not in any particular order and
+ * does not affect the policy.
+ * <p>
+ * This implementation is not thread-safe.
+ *
+ * @param <K> type of Key
+ * @param <V> type of Value
+ * @see LRUCacheMap
+ */
+public class TinyLFUCacheMap<K,V> extends AbstractMap<K,V> {
+
+    public static final int DEFAULT_CAPACITY = 16;
+
+    static final double WINDOW_PERCENTAGE = 0.01d;
+    static final double PROTECTED_PERCENTAGE = 0.80d;
+
+    private final int capacity;
+    private final int maxWindow;
+    private final int maxProtected;
+    private final Map<K,Node<K,V>> index;
+    private final AccessQueue<K,V> window;
+    private final AccessQueue<K,V> probation;
+    private final AccessQueue<K,V> protection;
+    private final FrequencySketch<K> sketch;
+    private Set<Entry<K,V>> entrySet;
+
+    /**
+     * Constructs this {@link TinyLFUCacheMap} with {@code DEFAULT_CAPACITY} of
+     * 16 entries.
+     */
+    public TinyLFUCacheMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs this {@link TinyLFUCacheMap} with given capacity.
+     * <p>
+     * An {@link IllegalArgumentException} exception is thrown if the capacity
+     * is less than or equal to zero.
+     *
+     * @param capacity Non-zero, positive value.
+     */
+    public TinyLFUCacheMap(final int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Expected > 0 capacity");
+        this.capacity = capacity;
+        this.maxWindow = Math.max(1,(int) (capacity * WINDOW_PERCENTAGE));
+        this.maxProtected = (int) ((capacity - maxWindow) * PROTECTED_PERCENTAGE);
+        this.index = new HashMap<>();
+        this.window = new AccessQueue<>();
+        this.probation = new AccessQueue<>();
+        this.protection = new AccessQueue<>();
+        this.sketch = new FrequencySketch<>(capacity);
+    }
+
+    /**
+     * Returns current capacity of this {@link TinyLFUCacheMap}.
+     *
+     * @return current capacity. This is always a non-zero, positive value.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The estimated frequencies of keys are retained.
+     */
+    @Override
+    public void clear() {
+        index.clear();
+        window.clear();
+        probation.clear();
+        protection.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsKey(final Object key) {
+        return index.containsKey(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Entry<K,V>> entrySet() {
+        Set<Entry<K,V>> result = entrySet;
+        if (result == null)
+            entrySet = result = new EntrySet();
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A successful lookup increments the estimated frequency of the {@code key}
+     * and promotes it within its region.
+     */
+    @Override
+    public V get(final Object key) {
+        Node<K,V> node = index.get(key);
+        if (node == null)
+            return null;
+        onHit(node);
+        return node.value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty() {
+        return index.isEmpty();
+    }
+
+    /**
+     * Similar to the {@link TinyLFUCacheMap#get(Object)}, except the access is
+     * not recorded and therefore the policy is not affected.
+     *
+     * @param key of object.
+     * @return value mapped to {@code key}, or {@code null} if there is no
+     * mapping.
+     */
+    public V peek(final K key) {
+        Node<K,V> node = index.get(key);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * New entries are always admitted into the {@code window} region, which may
+     * cause an entry, possibly this one, to be evicted.
+     */
+    @Override
+    public V put(final K key, final V value) {
+        Node<K,V> node = index.get(key);
+        if (node != null) {
+            V result = node.value;
+            node.value = value;
+            onHit(node);
+            return result;
+        }
+        node = new Node<>(key,value);
+        index.put(key,node);
+        window.addLast(node);
+        sketch.increment(key);
+        evict();
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V remove(final Object key) {
+        Node<K,V> node = index.remove(key);
+        if (node == null)
+            return null;
+        queueOf(node).remove(node);
+        return node.value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    private boolean admit(final K candidate, final K victim) {
+        return sketch.frequency(candidate) > sketch.frequency(victim);
+    }
+
+    private void evict() {
+        while (window.size > maxWindow) {
+            Node<K,V> candidate = window.first;
+            window.remove(candidate);
+            candidate.region = Region.PROBATION;
+            probation.addLast(candidate);
+            if (index.size() > capacity) {
+                Node<K,V> victim = probation.first != candidate ? probation.first : protection.first;
+                evict(victim == null || !admit(candidate.key,victim.key) ? candidate : victim);
+            }
+        }
+    }
+
+    private void evict(final Node<K,V> node) {
+        index.remove(node.key);
+        queueOf(node).remove(node);
+    }
+
+    private void onHit(final Node<K,V> node) {
+        sketch.increment(node.key);
+        switch (node.region) {
+            case WINDOW -> window.moveToLast(node);
+            case PROBATION -> {
+                probation.remove(node);
+                node.region = Region.PROTECTED;
+                protection.addLast(node);
+                if (protection.size > maxProtected) {
+                    Node<K,V> demoted = protection.first;
+                    protection.remove(demoted);
+                    demoted.region = Region.PROBATION;
+                    probation.addLast(demoted);
+                }
+            }
+            case PROTECTED -> protection.moveToLast(node);
+        }
+    }
+
+    private AccessQueue<K,V> queueOf(final Node<K,V> node) {
+        return switch (node.region) {
+            case WINDOW -> window;
+            case PROBATION -> probation;
+            case PROTECTED -> protection;
+        };
+    }
+
+    /*************************** INTERNAL CLASSES *****************************/
+
+    private enum Region { WINDOW, PROBATION, PROTECTED }
+
+    /**
+     * Represents an entry of the {@link TinyLFUCacheMap}, threaded onto the
+     * {@link AccessQueue} of its region.
+     *
+     * @param <K> type of Key
+     * @param <V> type of Value
+     */
+    private static final class Node<K,V> implements Entry<K,V> {
+        private final K key;
+        private V value;
+        private Region region;
+        private Node<K,V> prev;
+        private Node<K,V> next;
+
+        private Node(final K key, final V value) {
+            this.key = key;
+            this.value = value;
+            this.region = Region.WINDOW;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(final V value) {
+            V result = this.value;
+            this.value = value;
+            return result;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof Entry<?,?> e && Objects.equals(key,e.getKey()) && Objects.equals(value,e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /**
+     * An intrusive doubly linked list of {@link Node} objects in access order,
+     * the least recently used being {@code first}.
+     *
+     * @param <K> type of Key
+     * @param <V> type of Value
+     */
+    private static final class AccessQueue<K,V> {
+        private Node<K,V> first;
+        private Node<K,V> last;
+        private int size;
+
+        private void addLast(final Node<K,V> node) {
+            node.prev = last;
+            if (last == null) first = node;
+            else last.next = node;
+            last = node;
+            size++;
+        }
+
+        private void clear() {
+            first = last = null;
+            size = 0;
+        }
+
+        private void moveToLast(final Node<K,V> node) {
+            if (node != last) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        private void remove(final Node<K,V> node) {
+            Node<K,V> prev = node.prev;
+            Node<K,V> next = node.next;
+            if (prev == null) first = next;
+            else prev.next = next;
+            if (next == null) last = prev;
+            else next.prev = prev;
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<K,V>> {
+        @Override
+        public void clear() {
+            TinyLFUCacheMap.this.clear();
+        }
+
+        @Override
+        public boolean contains(final Object o) {
+            if (!(o instanceof Entry<?,?> e)) return false;
+            Node<K,V> node = index.get(e.getKey());
+            return node != null && node.equals(e);
+        }
+
+        @Override
+        public Iterator<Entry<K,V>> iterator() {
+            Iterator<Node<K,V>> iterator = index.values().iterator();
+            return new Iterator<>() {
+                private Node<K,V> current;
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Entry<K,V> next() {
+                    return current = iterator.next();
+                }
+
+                @Override
+                public void remove() {
+                    if (current == null)
+                        throw new IllegalStateException();
+                    iterator.remove();
+                    queueOf(current).remove(current);
+                    current = null;
+                }
+            };
+        }
+
+        @Override
+        public boolean remove(final Object o) {
+            if (!contains(o)) return false;
+            TinyLFUCacheMap.this.remove(((Entry<?,?>) o).getKey());
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return index.size();
+        }
+    }
+}
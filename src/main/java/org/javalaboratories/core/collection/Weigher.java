@@ -0,0 +1,84 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Calculates the weight of a cache entry, typically an estimate of the number
+ * of bytes it occupies.
+ * <p>
+ * Weights are calculated when an entry is written, and are expected to be
+ * zero or positive; weights are not recalculated when the value is mutated
+ * in place.
+ *
+ * @param <K> type of Key
+ * @param <V> type of Value
+ * @see WeightedLRUCacheMap
+ */
+@FunctionalInterface
+public interface Weigher<K,V> {
+
+    /**
+     * Calculates the weight of the entry.
+     *
+     * @param key of entry.
+     * @param value of entry.
+     * @return weight, which must be zero or positive.
+     */
+    long weigh(K key, V value);
+
+    /**
+     * Returns a {@link Weigher} that estimates the size of values in bytes:
+     * <ul>
+     *     <li>{@code byte[]}: the length of the array.</li>
+     *     <li>{@link String}: two bytes per {@code char}, the worst case of the
+     *     internal representation.</li>
+     *     <li>{@link ByteBuffer}: the capacity of the buffer, whether it is
+     *     heap or direct.</li>
+     *     <li>{@code null}: zero.</li>
+     * </ul>
+     * Any other type of value weighs a nominal one byte, and so it is
+     * recommended that a custom {@link Weigher} is provided for them. Keys are
+     * not weighed.
+     *
+     * @param <K> type of Key
+     * @param <V> type of Value
+     * @return a {@link Weigher} of {@code byte[]}, {@link String} and
+     * {@link ByteBuffer} values.
+     */
+    static <K,V> Weigher<K,V> bytes() {
+        return (key, value) -> {
+            if (value == null) return 0L;
+            if (value instanceof byte[] b) return b.length;
+            if (value instanceof String s) return (long) s.length() * Character.BYTES;
+            if (value instanceof ByteBuffer b) return b.capacity();
+            return 1L;
+        };
+    }
+
+    /**
+     * Returns a {@link Weigher} where each entry weighs one, making the total
+     * weight equal to the number of entries.
+     *
+     * @param <K> type of Key
+     * @param <V> type of Value
+     * @return a {@link Weigher} of one per entry.
+     */
+    static <K,V> Weigher<K,V> singleton() {
+        return (key, value) -> 1L;
+    }
+}
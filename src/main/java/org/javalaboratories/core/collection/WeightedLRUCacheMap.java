@@ -0,0 +1,475 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+import java.util.*;
+import java.util.function.BiFunction;
+
+/**
+ * {@link WeightedLRUCacheMap} is a cache that implements the
+ * {@code Least Recently Used} policy, bounded by the total weight of its
+ * entries rather than by their number.
+ * <p>
+ * Each entry is weighed by a {@link Weigher} when it is written, and the sum
+ * of the weights is tracked. Whenever the total weight exceeds the
+ * {@code maximumWeight}, the least recently used entries are evicted until the
+ * total is back within bounds. This allows the capacity of a cache of values
+ * of widely varying sizes to be expressed in bytes, for example with the
+ * {@link Weigher#bytes()} estimator, which is the default.
+ * <p>
+ * The weight of an entry is recalculated when its value is replaced. An entry
+ * that weighs more than the {@code maximumWeight} on its own is not retained.
+ * Replacing a value through {@link Entry#setValue(Object)} never evicts, as
+ * that would disturb an iteration in progress; should the total weight then
+ * exceed the {@code maximumWeight}, entries are evicted on the next
+ * {@code put}.
+ * <p>
+ * Like the {@link LRUCacheMap}, entries are indexed by a {@link HashMap} and
+ * threaded onto a doubly linked list in order of access, so lookup, insertion
+ * and eviction are performed in constant time. Iteration of the
+ * {@link WeightedLRUCacheMap#entrySet()} visits entries from the most to the
+ * least recently used.
+ * <p>
+ * This implementation is not thread-safe.
+ *
+ * @param <K> type of Key
+ * @param <V> type of Value
+ * @see LRUCacheMap
+ * @see Weigher
+ */
+public class WeightedLRUCacheMap<K,V> extends AbstractMap<K,V> {
+
+    private final long maximumWeight;
+    private final Weigher<? super K,? super V> weigher;
+    private final Map<K,Node> index;
+    private Node head;
+    private Node tail;
+    private long weight;
+    private Set<Entry<K,V>> entrySet;
+    private int modCount;
+
+    /**
+     * Constructs this {@link WeightedLRUCacheMap} with given maximum weight, in
+     * bytes, as estimated by {@link Weigher#bytes()}.
+     * <p>
+     * An {@link IllegalArgumentException} exception is thrown if the maximum
+     * weight is less than or equal to zero.
+     *
+     * @param maximumWeight Non-zero, positive value.
+     */
+    public WeightedLRUCacheMap(final long maximumWeight) {
+        this(maximumWeight,Weigher.bytes());
+    }
+
+    /**
+     * Constructs this {@link WeightedLRUCacheMap} with given maximum weight, as
+     * calculated by the {@code weigher}.
+     * <p>
+     * An {@link IllegalArgumentException} exception is thrown if the maximum
+     * weight is less than or equal to zero.
+     *
+     * @param maximumWeight Non-zero, positive value.
+     * @param weigher calculates the weight of each entry.
+     * @throws NullPointerException if {@code weigher} is null.
+     */
+    public WeightedLRUCacheMap(final long maximumWeight, final Weigher<? super K,? super V> weigher) {
+        super();
+        if (maximumWeight < 1)
+            throw new IllegalArgumentException("Expected > 0 maximum weight");
+        this.maximumWeight = maximumWeight;
+        this.weigher = Objects.requireNonNull(weigher,"Expected weigher");
+        this.index = new HashMap<>();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        for (Node node = head; node != null;) {
+            Node nx = node.next;
+            node.prev = null;
+            node.next = null;
+            node = nx;
+        }
+        head = tail = null;
+        index.clear();
+        weight = 0L;
+        modCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsKey(final Object key) {
+        return index.containsKey(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Entries are iterated from the most recently used to the least recently
+     * used. Iterating the entries does not affect the LRU queue.
+     */
+    @Override
+    public Set<Entry<K,V>> entrySet() {
+        Set<Entry<K,V>> result = entrySet;
+        if (result == null)
+            entrySet = result = new EntrySet();
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V get(final Object key) {
+        Node node = index.get(key);
+        if (node == null)
+            return null;
+        moveToFirst(node);
+        return node.value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty() {
+        return index.isEmpty();
+    }
+
+    /**
+     * Returns the maximum total weight of this {@link WeightedLRUCacheMap}.
+     *
+     * @return maximum weight. This is always a non-zero, positive value.
+     */
+    public long maximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * Moves the key to the "front", thus making it the most recently used
+     * {@code key}.
+     *
+     * @param key to nudge
+     * @return true if successfully nudged.
+     */
+    public boolean nudge(final K key) {
+        Node node = index.get(key);
+        if (node == null)
+            return false;
+        moveToFirst(node);
+        return true;
+    }
+
+    /**
+     * Similar to the {@link WeightedLRUCacheMap#get(Object)}, except the LRU
+     * queue is not affected.
+     *
+     * @param key of object.
+     * @return value mapped to {@code key}
+     */
+    public V peek(final K key) {
+        Node node = index.get(key);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Least recently used entries are evicted until the total weight is within
+     * the {@code maximumWeight}. If the entry alone weighs more than the
+     * {@code maximumWeight}, it is not retained, and any existing mapping of
+     * the {@code key} is removed.
+     *
+     * @throws IllegalArgumentException if the weight of the entry is negative.
+     */
+    @Override
+    public V put(final K key, final V value) {
+        long w = weigh(key,value);
+        Node node = index.get(key);
+        V result = node == null ? null : node.value;
+        if (w > maximumWeight) {
+            if (node != null)
+                removeNode(node);
+            return result;
+        }
+        if (node != null) {
+            weight += w - node.weight;
+            node.value = value;
+            node.weight = w;
+            moveToFirst(node);
+        } else {
+            linkFirst(new Node(key,value,w));
+        }
+        evict();
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V remove(final Object key) {
+        Node node = index.get(key);
+        if (node == null)
+            return null;
+        removeNode(node);
+        return node.value;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Once all values have been replaced, least recently used entries are
+     * evicted until the total weight is within the {@code maximumWeight}.
+     * Replacing the values does not affect the LRU queue.
+     *
+     * @throws IllegalArgumentException if the weight of a replacement value is
+     * negative or greater than the {@code maximumWeight}.
+     */
+    @Override
+    public void replaceAll(final BiFunction<? super K,? super V,? extends V> function) {
+        Objects.requireNonNull(function,"Expected function");
+        int expectedModCount = modCount;
+        for (Node node = head; node != null; node = node.next) {
+            node.setValue(function.apply(node.key,node.value));
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+        evict();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(",","[","]");
+        for (Node node = head; node != null; node = node.next)
+            joiner.add(String.format("[%s -> %s]",node.key,node.value == null ? "Null" : node.value));
+        return joiner.toString();
+    }
+
+    /**
+     * Returns the current total weight of the entries of this
+     * {@link WeightedLRUCacheMap}.
+     *
+     * @return total weight, which only exceeds the {@code maximumWeight} after
+     * entries have been re-weighed with {@link Entry#setValue(Object)}, until
+     * the next {@code put}.
+     */
+    public long weight() {
+        return weight;
+    }
+
+    private void evict() {
+        while (weight > maximumWeight)
+            removeNode(tail);
+    }
+
+    private void linkFirst(final Node node) {
+        index.put(node.key,node);
+        node.next = head;
+        if (head == null) tail = node;
+        else head.prev = node;
+        head = node;
+        weight += node.weight;
+        modCount++;
+    }
+
+    private void moveToFirst(final Node node) {
+        if (node != head) {
+            unlink(node);
+            node.next = head;
+            head.prev = node;
+            head = node;
+            modCount++;
+        }
+    }
+
+    private void removeNode(final Node node) {
+        index.remove(node.key);
+        unlink(node);
+        weight -= node.weight;
+        modCount++;
+    }
+
+    private void unlink(final Node node) {
+        Node prev = node.prev;
+        Node next = node.next;
+        if (prev == null) head = next;
+        else prev.next = next;
+        if (next == null) tail = prev;
+        else next.prev = prev;
+        node.prev = null;
+        node.next = null;
+    }
+
+    private long weigh(final K key, final V value) {
+        long result = weigher.weigh(key,value);
+        if (result < 0)
+            throw new IllegalArgumentException("Expected >= 0 weight");
+        return result;
+    }
+
+    /*************************** INTERNAL CLASSES *****************************/
+
+    /**
+     * Represents an entry of the {@link WeightedLRUCacheMap}, and a link of the
+     * doubly linked LRU queue.
+     * <p>
+     * Setting the value of an entry re-weighs it in place. Any eviction this
+     * calls for is deferred to the next {@code put}, so that the LRU queue is
+     * left intact for iterators.
+     */
+    private final class Node implements Entry<K,V> {
+        private final K key;
+        private V value;
+        private long weight;
+        private Node prev;
+        private Node next;
+
+        private Node(final K key, final V value, final long weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(final V value) {
+            long w = weigh(key,value);
+            if (w > maximumWeight)
+                throw new IllegalArgumentException("Expected weight <= maximum weight");
+            V result = this.value;
+            WeightedLRUCacheMap.this.weight += w - this.weight;
+            this.value = value;
+            this.weight = w;
+            return result;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Entry<?,?> e)) return false;
+            return Objects.equals(key,e.getKey()) && Objects.equals(value,e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /**
+     * A view of the entries of this {@link WeightedLRUCacheMap}, ordered from
+     * the most recently used to the least recently used entry.
+     */
+    private final class EntrySet extends AbstractSet<Entry<K,V>> {
+        @Override
+        public void clear() {
+            WeightedLRUCacheMap.this.clear();
+        }
+
+        @Override
+        public boolean contains(final Object o) {
+            if (!(o instanceof Entry<?,?> e)) return false;
+            Node node = index.get(e.getKey());
+            return node != null && Objects.equals(node.value,e.getValue());
+        }
+
+        @Override
+        public Iterator<Entry<K,V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public boolean remove(final Object o) {
+            if (contains(o)) {
+                WeightedLRUCacheMap.this.remove(((Entry<?,?>) o).getKey());
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public int size() {
+            return WeightedLRUCacheMap.this.size();
+        }
+    }
+
+    /**
+     * Iterates the LRU queue from the {@code head} (most recently used) to the
+     * {@code tail}. The iterator is fail-fast.
+     */
+    private final class EntryIterator implements Iterator<Entry<K,V>> {
+        private Node next = head;
+        private Node current;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<K,V> next() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (next == null)
+                throw new NoSuchElementException();
+            current = next;
+            next = next.next;
+            return current;
+        }
+
+        @Override
+        public void remove() {
+            if (current == null)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            removeNode(current);
+            current = null;
+            expectedModCount = modCount;
+        }
+    }
+}
@@ -19,6 +19,12 @@ import org.javalaboratories.core.handlers.Handlers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -27,16 +33,32 @@ import java.util.concurrent.atomic.AtomicReference;
  * <p>
  * They implement the {@link ManagedPromiseService} interface, which manage
  * instances of {@link Promise} objects.
+ * <p>
+ * Operational metrics of tasks submitted to the service are recorded, provided
+ * the implementation instruments them with
+ * {@link AbstractManagedPromiseService#instrument(Runnable)}. They are
+ * available programmatically with
+ * {@link AbstractManagedPromiseService#getSnapshot()} and, once registered
+ * with {@link AbstractManagedPromiseService#registerMBean()}, from the
+ * platform {@code MBeanServer} as a {@link PromiseServiceMXBean}. The
+ * {@link ManagedPromiseServiceFactory} registers the services it creates.
  *
  * @see ManagedThreadPerTaskPromiseExecutor
  * @see ManagedThreadPoolPromiseExecutor
  */
 public abstract class AbstractManagedPromiseService implements ManagedPromiseService {
 
+    public static final String MBEAN_DOMAIN = "org.javalaboratories.core.concurrency";
+
     private static final Logger logger = LoggerFactory.getLogger(AbstractManagedPromiseService.class);
+    private static final AtomicInteger serviceIndex = new AtomicInteger(0);
+
     private final Thread shutdownHook;
     private final AtomicReference<ServiceStates> state;
     private final int capacity;
+    private final ServiceMetrics metrics;
+    private final AtomicReference<ObjectName> objectName;
+    private final HashedWheelTimer timer;
 
     public AbstractManagedPromiseService(final int capacity, final boolean autoShutdown) {
         if ( autoShutdown ) {
@@ -47,12 +69,52 @@ public abstract class AbstractManagedPromiseService implements ManagedPromiseSer
         }
         this.state = new AtomicReference<>(ServiceStates.ACTIVE);
         this.capacity = capacity;
+        this.metrics = new ServiceMetrics();
+        this.objectName = new AtomicReference<>();
+        this.timer = new HashedWheelTimer();
     }
 
     public final int getCapacity() {
         return capacity;
     }
 
+    /**
+     * Returns the number of tasks waiting for a worker.
+     * <p>
+     * Implementations that can determine the size of their queue should
+     * override this method, which otherwise returns zero.
+     *
+     * @return number of tasks waiting for a worker.
+     */
+    public int getQueueSize() {
+        return 0;
+    }
+
+    /**
+     * Returns the number of submissions throttled by an {@link AdmissionPolicy}.
+     * <p>
+     * Implementations that control admission should override this method,
+     * which otherwise returns zero.
+     *
+     * @return number of throttled submissions.
+     */
+    public long getThrottledCount() {
+        return 0L;
+    }
+
+    /**
+     * Returns a snapshot of the operational metrics of this service, which is
+     * inexpensive enough to be taken periodically by monitoring tools.
+     *
+     * @return a snapshot of the metrics of this service.
+     */
+    public final PromiseServiceSnapshot getSnapshot() {
+        return new PromiseServiceSnapshot(getClass().getName(),getState(),capacity,getQueueSize(),
+                metrics.getActiveCount(),metrics.getSubmittedCount(),metrics.getCompletedCount(),
+                metrics.getFailedCount(),metrics.getRejectedCount(),getThrottledCount(),metrics.getWaitTime(),
+                metrics.getRunTime());
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -79,15 +141,84 @@ public abstract class AbstractManagedPromiseService implements ManagedPromiseSer
         if (getState() == ServiceStates.ACTIVE) {
             changeState(ServiceStates.ACTIVE, ServiceStates.CLOSING);
             try {
+                int cancelled = timer.stop();
+                if (cancelled > 0)
+                    logger.info("Cancelled {} pending timers of promises", cancelled);
                 terminate(timeout,retry);
             } catch (InterruptedException e) {
                 logger.error("Termination of threads (promises) interrupted -- promises not kept");
             } finally {
                 changeState(ServiceStates.CLOSING, ServiceStates.INACTIVE);
+                unregisterMBean();
+            }
+        }
+    }
+
+    /**
+     * Registers this service with the platform {@code MBeanServer} as a
+     * {@link PromiseServiceMXBean}, if not already registered. The service is
+     * unregistered once it has stopped.
+     * <p>
+     * The service is named after its class and an index unique within the
+     * JVM, for example
+     * "{@code org.javalaboratories.core.concurrency:type=ManagedPromiseService,name=ManagedThreadPoolPromiseExecutor-1}".
+     *
+     * @return the name under which this service is registered.
+     * @throws IllegalStateException if registration failed.
+     */
+    public final ObjectName registerMBean() {
+        ObjectName result = objectName.get();
+        if (result != null)
+            return result;
+        try {
+            result = ObjectName.getInstance(String.format("%s:type=ManagedPromiseService,name=%s-%d",MBEAN_DOMAIN,
+                    getClass().getSimpleName(),serviceIndex.incrementAndGet()));
+            if (objectName.compareAndSet(null,result)) {
+                ManagementFactory.getPlatformMBeanServer()
+                        .registerMBean(new StandardMBean(new ServiceMXBean(),PromiseServiceMXBean.class,true),result);
+                logger.debug("Promise service registered as MBean {}",result);
             }
+            return objectName.get();
+        } catch (JMException e) {
+            throw new IllegalStateException("Promise service MBean not registered",e);
         }
     }
 
+    /**
+     * Returns the timer of this service, which drives the time-based
+     * operations of the {@link Promises} class, such as
+     * {@link Promises#delay(java.time.Duration)}. Pending timers are cancelled
+     * when this service stops, rejecting the promises awaiting them.
+     *
+     * @return the timer of this service.
+     */
+    final HashedWheelTimer getTimer() {
+        return timer;
+    }
+
+    /**
+     * Returns the {@code command} instrumented to record the operational
+     * metrics of this service. Implementations should instrument every task
+     * submitted for execution, and report rejections of tasks that cannot be
+     * informed of their rejection with
+     * {@link AbstractManagedPromiseService#recordRejection()}.
+     *
+     * @param command submitted for execution.
+     * @return the instrumented command, to be executed in place of the
+     * {@code command}.
+     * @throws NullPointerException if command is null.
+     */
+    protected final Runnable instrument(final Runnable command) {
+        return metrics.instrument(command);
+    }
+
+    /**
+     * Records the rejection of a submitted task.
+     */
+    protected final void recordRejection() {
+        metrics.rejected();
+    }
+
     /**
      * Terminates for the managed service.
      * <p>
@@ -119,6 +250,19 @@ public abstract class AbstractManagedPromiseService implements ManagedPromiseSer
         } while (!state.compareAndSet(from, to));
     }
 
+    private void unregisterMBean() {
+        ObjectName name = objectName.get();
+        if (name == null)
+            return;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name))
+                server.unregisterMBean(name);
+        } catch (JMException e) {
+            logger.warn("Promise service MBean {} not unregistered",name,e);
+        }
+    }
+
     private void logShutdownState(ServiceStates state) {
         switch (state) {
             case ACTIVE:
@@ -132,4 +276,68 @@ public abstract class AbstractManagedPromiseService implements ManagedPromiseSer
                 break;
         }
     }
+
+    /*************************** INTERNAL CLASSES *****************************/
+
+    private final class ServiceMXBean implements PromiseServiceMXBean {
+        @Override
+        public String getServiceClassName() {
+            return AbstractManagedPromiseService.this.getClass().getName();
+        }
+
+        @Override
+        public String getState() {
+            return AbstractManagedPromiseService.this.getState().name();
+        }
+
+        @Override
+        public int getCapacity() {
+            return capacity;
+        }
+
+        @Override
+        public int getQueueSize() {
+            return AbstractManagedPromiseService.this.getQueueSize();
+        }
+
+        @Override
+        public long getActiveCount() {
+            return metrics.getActiveCount();
+        }
+
+        @Override
+        public long getSubmittedCount() {
+            return metrics.getSubmittedCount();
+        }
+
+        @Override
+        public long getCompletedCount() {
+            return metrics.getCompletedCount();
+        }
+
+        @Override
+        public long getFailedCount() {
+            return metrics.getFailedCount();
+        }
+
+        @Override
+        public long getRejectedCount() {
+            return metrics.getRejectedCount();
+        }
+
+        @Override
+        public long getThrottledCount() {
+            return AbstractManagedPromiseService.this.getThrottledCount();
+        }
+
+        @Override
+        public PromiseServiceSnapshot.Latency getWaitTime() {
+            return metrics.getWaitTime();
+        }
+
+        @Override
+        public PromiseServiceSnapshot.Latency getRunTime() {
+            return metrics.getRunTime();
+        }
+    }
 }
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.concurrency;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Policies applied by a {@link ManagedPromiseService} to a submitted task when
+ * it is at capacity and its queue of waiting tasks is full. Such submissions
+ * are said to be throttled.
+ * <p>
+ * The policy of the {@link ManagedThreadPerTaskPromiseExecutor} is configured
+ * with the {@code promise.managed.service.admission.policy} property.
+ *
+ * @see PromiseConfiguration
+ * @see ManagedThreadPerTaskPromiseExecutor
+ */
+public enum AdmissionPolicy {
+    /**
+     * The submitting thread is blocked until there is room in the queue. A
+     * worker thread of the service is never blocked, it runs the task itself
+     * instead, so that the service cannot deadlock on itself.
+     */
+    BLOCK,
+
+    /**
+     * The task is rejected with a {@link RejectedExecutionException} thrown to
+     * the submitting thread.
+     */
+    REJECT,
+
+    /**
+     * The task is run by the submitting thread, which slows down the
+     * submission of further tasks.
+     */
+    CALLER_RUNS,
+
+    /**
+     * The oldest task waiting in the queue is discarded to make room for the
+     * task. If the discarded task is that of a {@link Promise}, the promise is
+     * rejected with a {@link RejectedExecutionException}.
+     */
+    SHED_OLDEST
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.concurrency;
+
+import java.io.Serial;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Exception with which a {@link Promise} created by
+ * {@link Promises#any(List)} is rejected, should all of its constituent
+ * {@link Promise} objects be rejected.
+ * <p>
+ * The exceptions of the constituent {@link Promise} objects are available
+ * with {@link AggregateException#getCauses()}, in the order of the actions,
+ * and are also recorded as suppressed exceptions.
+ */
+public class AggregateException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 8414592781216905713L;
+
+    private final List<Throwable> causes;
+
+    /**
+     * Constructs an instance of this {@code exception} object.
+     *
+     * @param message the message describing the exception.
+     * @param causes the underlying causes of the exception.
+     */
+    public AggregateException(String message, List<? extends Throwable> causes) {
+        super(message);
+        this.causes = List.copyOf(Objects.requireNonNull(causes,"Expected causes"));
+        this.causes.forEach(this::addSuppressed);
+    }
+
+    /**
+     * @return an unmodifiable list of the underlying causes of this exception.
+     */
+    public List<Throwable> getCauses() {
+        return causes;
+    }
+}
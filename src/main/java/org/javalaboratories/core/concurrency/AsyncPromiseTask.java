@@ -20,9 +20,10 @@ import org.javalaboratories.core.Maybe;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.Objects;
-import java.util.UUID;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -38,6 +39,17 @@ import static org.javalaboratories.core.concurrency.Promise.States.REJECTED;
  * fully exposed via the (@link Promise} interface for client use. There is
  * consideration of additional implementations of the {@link Promise} interface
  * where composition backed by this class is likely.
+ * <p>
+ * Actions appended with {@code then} to a promise that is still pending are
+ * fused with the stage they depend on: when that stage completes on a worker
+ * thread of the {@link ManagedPromiseService}, the dependent action is
+ * executed on the same thread within the same executor task, rather than
+ * being queued on the service again. Fusion is bounded to
+ * {@code MAXIMUM_FUSED_STAGES} consecutive stages, after which the next stage
+ * is queued, so that long chains neither overflow the stack nor monopolise a
+ * worker thread. Stages completed by any other thread, such as those of
+ * timeouts, are always queued, as are the stages of a service limited by a
+ * {@link RateLimiter}, each of which takes a permit.
  *
  * @param <T> Type of object returned from asynchronous tasks.
  * @see Promise for full contract details and usage.
@@ -45,14 +57,19 @@ import static org.javalaboratories.core.concurrency.Promise.States.REJECTED;
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 class AsyncPromiseTask<T> implements Promise<T> {
 
+    static final int MAXIMUM_FUSED_STAGES = 32;
+
     private static final Consumer<Throwable> INERT_HANDLER = e -> {};
+    private static final ThreadLocal<FusedStages> FUSED_STAGES = ThreadLocal.withInitial(FusedStages::new);
+    private static final AtomicLong IDENTITIES = new AtomicLong();
     private static final Logger logger = LoggerFactory.getLogger(Promise.class);
 
     private final Action<T> action;
     private final ManagedPromiseService service;
     @EqualsAndHashCode.Include
-    private final String identity;
-    private CompletableFuture<T> future;
+    private final long identity;
+    private String identityString;
+    private volatile CompletableFuture<T> future;
 
     /**
      * This {@link AsyncPromiseTask} constructor is not designed to be called
@@ -90,7 +107,7 @@ class AsyncPromiseTask<T> implements Promise<T> {
         this.service = Objects.requireNonNull(service,"No service?");
         this.action = Objects.requireNonNull(action,"No action object?");
         this.future = future;
-        this.identity = String.format("{%s}", UUID.randomUUID());
+        this.identity = IDENTITIES.incrementAndGet();
     }
 
     /**
@@ -101,15 +118,43 @@ class AsyncPromiseTask<T> implements Promise<T> {
         return handle(INERT_HANDLER);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean cancel() {
+        CompletableFuture<T> f = future;
+        return f != null && (f.cancel(true) || f.isCancelled());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Promise<T> completeOnTimeout(final T value, final Duration timeout) {
+        future.completeOnTimeout(value,toNanos(timeout),TimeUnit.NANOSECONDS);
+        return new AsyncPromiseTask<>(service,action,future);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Promise<T> orTimeout(final Duration timeout) {
+        future.orTimeout(toNanos(timeout),TimeUnit.NANOSECONDS);
+        return new AsyncPromiseTask<>(service,action,future);
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public Promise<T> then(final TaskAction<T> action) {
-        Consumer<T> actionable = doMakeActionable(action);
-        CompletableFuture<Void> future = this.future.thenAcceptAsync(actionable,service)
+        TaskInterrupter interrupter = new TaskInterrupter();
+        Consumer<T> actionable = doMakeActionable(action,interrupter);
+        CompletableFuture<Void> future = interruptible(this.future.thenAcceptAsync(actionable,fusible(interrupter))
                 .whenComplete((value,exception) -> action.getCompletionHandler()
-                        .ifPresent(result -> result.accept(null, exception)));
+                        .ifPresent(result -> result.accept(null, exception))),interrupter);
         // This is okay for now, need to revisit.
         @SuppressWarnings("unchecked")
         CompletableFuture<T> f =  (CompletableFuture<T>) future;
@@ -121,10 +166,11 @@ class AsyncPromiseTask<T> implements Promise<T> {
      */
     @Override
     public <R> Promise<R> then(final TransmuteAction<T,R> action) {
-        Function<T,R> transmutable = doMakeTransmutable(action);
-        CompletableFuture<R> future = this.future.thenApplyAsync(transmutable,service)
+        TaskInterrupter interrupter = new TaskInterrupter();
+        Function<T,R> transmutable = doMakeTransmutable(action,interrupter);
+        CompletableFuture<R> future = interruptible(this.future.thenApplyAsync(transmutable,fusible(interrupter))
                 .whenComplete((newValue,exception) -> action.getCompletionHandler()
-                        .ifPresent(result -> result.accept(newValue, exception)));
+                        .ifPresent(result -> result.accept(newValue, exception))),interrupter);
         return new AsyncPromiseTask<>(service,action,future);
     }
 
@@ -149,7 +195,11 @@ class AsyncPromiseTask<T> implements Promise<T> {
      */
     @Override
     public final String getIdentity() {
-        return identity;
+        // Benign race: identity strings are immutable and always equal.
+        String result = identityString;
+        if (result == null)
+            identityString = result = "{" + identity + "}";
+        return result;
     }
 
     /**
@@ -174,8 +224,10 @@ class AsyncPromiseTask<T> implements Promise<T> {
         Objects.requireNonNull(handler,"No handle object?");
         try {
             future.join();
-        } catch (CompletionException | CancellationException e) {
+        } catch (CompletionException e) {
             handler.accept(e.getCause());
+        } catch (CancellationException e) {
+            handler.accept(e);
         }
         return new AsyncPromiseTask<>(service,action,future);
     }
@@ -195,7 +247,7 @@ class AsyncPromiseTask<T> implements Promise<T> {
      */
     @Override
     public String toString() {
-        return String.format("[identity=%s,state=%s,service=%s]",identity,getState(),service);
+        return String.format("[identity=%s,state=%s,service=%s]",getIdentity(),getState(),service);
     }
 
     /**
@@ -224,16 +276,53 @@ class AsyncPromiseTask<T> implements Promise<T> {
      * @throws NullPointerException if action is null
      */
     protected CompletableFuture<T> invokeAsync(final PrimaryAction<T> action) {
-        Supplier<T> actionable = doMakePrimaryActionable(action);
-        return CompletableFuture.supplyAsync(actionable,service)
+        TaskInterrupter interrupter = new TaskInterrupter();
+        Supplier<T> actionable = doMakePrimaryActionable(action,interrupter);
+        return interruptible(CompletableFuture.supplyAsync(actionable,stage -> submit(stage,interrupter))
                 .whenComplete((value,exception) -> action.getCompletionHandler()
-                        .ifPresent(consumer -> consumer.accept(value, exception)));
+                        .ifPresent(consumer -> consumer.accept(value, exception))),interrupter);
+    }
+
+    /**
+     * Returns an {@link Executor} for a stage appended to this promise, which
+     * fuses the stage with the one it depends on if that completes on a worker
+     * thread of the same {@link ManagedPromiseService} and the fusion limit has
+     * not been reached; otherwise the stage is submitted to the service.
+     * <p>
+     * A stage is never executed on the thread appending it, as is the case if
+     * this promise has already completed.
+     */
+    private Executor fusible(final TaskInterrupter interrupter) {
+        Thread caller = Thread.currentThread();
+        return stage -> {
+            FusedStages fused = FUSED_STAGES.get();
+            if (Thread.currentThread() != caller && fused.service == service && fused.depth < MAXIMUM_FUSED_STAGES
+                    && !(service instanceof RateLimiter.LimitedService)) {
+                fused.depth++;
+                try {
+                    stage.run();
+                } finally {
+                    fused.depth--;
+                }
+            } else {
+                submit(stage,interrupter);
+            }
+        };
     }
 
-    private Supplier<T> doMakePrimaryActionable(final PrimaryAction<T> action) {
+    /**
+     * Submits the {@code stage} to the {@link ManagedPromiseService} as a new
+     * executor task, into which dependent stages may be fused.
+     */
+    private void submit(final Runnable stage, final TaskInterrupter interrupter) {
+        service.execute(new Stage(service,stage,interrupter));
+    }
+
+    private Supplier<T> doMakePrimaryActionable(final PrimaryAction<T> action, final TaskInterrupter interrupter) {
         Objects.requireNonNull(action);
         return () -> {
             Supplier<T> result = action.getTask().orElseThrow();
+            interrupter.begin();
             try {
                 if (logger.isTraceEnabled()) {
                     logger.trace("Promise [{}] starting task of PrimaryAction object",getIdentity());
@@ -243,14 +332,16 @@ class AsyncPromiseTask<T> implements Promise<T> {
                 if (logger.isTraceEnabled()) {
                     logger.trace("Promise [{}] finished task of PrimaryAction object",getIdentity());
                 }
+                interrupter.end();
             }
         };
     }
 
-    private Consumer<T> doMakeActionable(final TaskAction<? super T> action) {
+    private Consumer<T> doMakeActionable(final TaskAction<? super T> action, final TaskInterrupter interrupter) {
         Objects.requireNonNull(action);
         return (value) -> {
             Consumer<? super T> result = action.getTask().orElseThrow();
+            interrupter.begin();
             try {
                 if (logger.isTraceEnabled()) {
                     logger.trace("Promise [{}] starting task of TaskAction object",getIdentity());
@@ -260,14 +351,17 @@ class AsyncPromiseTask<T> implements Promise<T> {
                 if (logger.isTraceEnabled()) {
                     logger.trace("Promise [{}] finished task of TaskAction object",getIdentity());
                 }
+                interrupter.end();
             }
         };
     }
 
-    private <R> Function<T,R> doMakeTransmutable(final TransmuteAction<? super T,? extends R> action) {
+    private <R> Function<T,R> doMakeTransmutable(final TransmuteAction<? super T,? extends R> action,
+                                                 final TaskInterrupter interrupter) {
         Objects.requireNonNull(action);
         return (value) -> {
             Function<? super T,? extends R> result = action.getTask().orElseThrow();
+            interrupter.begin();
             try {
                 if (logger.isTraceEnabled()) {
                     logger.trace("Promise [{}] starting transmutation task of TransmuteAction object",getIdentity());
@@ -277,6 +371,7 @@ class AsyncPromiseTask<T> implements Promise<T> {
                 if (logger.isTraceEnabled()) {
                     logger.trace("Promise [{}] finished transmutation task of TransmuteAction object",getIdentity());
                 }
+                interrupter.end();
             }
         };
     }
@@ -285,4 +380,110 @@ class AsyncPromiseTask<T> implements Promise<T> {
         return future == null ? PENDING : !future.isDone() ? PENDING :
                 future.isCompletedExceptionally() ? REJECTED : FULFILLED;
     }
+
+    /**
+     * Arranges for the task guarded by the {@code interrupter} to be interrupted
+     * when the {@code future} settles before the task finishes, which is the
+     * case when the future is cancelled or timed out, or when a future it
+     * depends on is cancelled.
+     */
+    private static <U> CompletableFuture<U> interruptible(final CompletableFuture<U> future,
+                                                          final TaskInterrupter interrupter) {
+        future.whenComplete((value,exception) -> interrupter.interrupt());
+        return future;
+    }
+
+    private static long toNanos(final Duration timeout) {
+        Objects.requireNonNull(timeout,"No timeout?");
+        if (timeout.isNegative())
+            throw new IllegalArgumentException("Expected positive timeout");
+        try {
+            return timeout.toNanos();
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /*************************** INTERNAL CLASSES *****************************/
+
+    /**
+     * An executor task of a {@link Promise} stage, which rejects the stage
+     * should the {@link ManagedPromiseService} discard it.
+     */
+    private record Stage(ManagedPromiseService service, Runnable stage, TaskInterrupter interrupter)
+            implements RejectableTask {
+        @Override
+        public void run() {
+            FusedStages fused = FUSED_STAGES.get();
+            ManagedPromiseService previousService = fused.service;
+            int previousDepth = fused.depth;
+            fused.service = service;
+            fused.depth = 0;
+            try {
+                stage.run();
+            } finally {
+                fused.service = previousService;
+                fused.depth = previousDepth;
+            }
+        }
+
+        @Override
+        public void reject(final RejectedExecutionException exception) {
+            // Running the stage now only completes it with the rejection
+            interrupter.reject(exception);
+            stage.run();
+        }
+    }
+
+    /**
+     * Records the {@link ManagedPromiseService} whose executor task is running
+     * on the current thread, if any, and the number of stages fused into it.
+     */
+    private static final class FusedStages {
+        private ManagedPromiseService service;
+        private int depth;
+    }
+
+    /**
+     * Guards the execution of a task, so that it may be interrupted whilst
+     * running, or prevented from starting at all.
+     * <p>
+     * The thread of the task is only interrupted whilst it is running the task,
+     * and any pending interrupt is cleared once the task has finished, so that
+     * worker threads of the {@link ManagedPromiseService} are not left
+     * interrupted for subsequent tasks.
+     */
+    private static final class TaskInterrupter {
+        private Thread thread;
+        private boolean interrupted;
+        private RejectedExecutionException rejection;
+
+        /**
+         * @throws CancellationException if interrupted before the task started.
+         * @throws RejectedExecutionException if the task was rejected.
+         */
+        private synchronized void begin() {
+            if (rejection != null)
+                throw rejection;
+            if (interrupted)
+                throw new CancellationException("Promise settled before its task started");
+            thread = Thread.currentThread();
+        }
+
+        private synchronized void end() {
+            if (thread != null && interrupted)
+                Thread.interrupted();
+            thread = null;
+        }
+
+        private synchronized void reject(final RejectedExecutionException exception) {
+            rejection = exception;
+        }
+
+        private synchronized void interrupt() {
+            interrupted = true;
+            if (thread != null)
+                thread.interrupt();
+        }
+    }
 }
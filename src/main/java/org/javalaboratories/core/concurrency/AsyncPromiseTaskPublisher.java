@@ -15,7 +15,6 @@
  */
 package org.javalaboratories.core.concurrency;
 
-import org.javalaboratories.core.Maybe;
 import org.javalaboratories.core.concurrency.PromiseEvent.Actions;
 import org.javalaboratories.core.event.Event;
 import org.javalaboratories.core.event.EventBroadcaster;
@@ -27,14 +26,13 @@ import org.slf4j.LoggerFactory;
 
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.CancellationException;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
-import static org.javalaboratories.core.concurrency.Promise.States.FULFILLED;
-
 /**
  * Class implements the {@link Promise} interface.
  * <p>
@@ -60,7 +58,14 @@ import static org.javalaboratories.core.concurrency.Promise.States.FULFILLED;
  * method.
  * <p>
  * Notification of {@code subscribers} is performed asynchronously to avoid
- * blocking the main/current thread. This is also means when this object
+ * blocking the main/current thread. Notification is chained on the completion
+ * of each action, rather than awaiting it in a thread of the pool, and the
+ * events of a {@code Promise} and its subsequent {@code then} actions are
+ * published in the order of the actions: {@link Actions#PRIMARY_ACTION} before
+ * {@link Actions#TASK_ACTION} and {@link Actions#TRANSMUTE_ACTION} events.
+ * Each {@code subscriber} has its own queue of events, delivered in order
+ * by the thread pool, so that a slow {@code subscriber} delays neither the
+ * promise nor the other {@code subscribers}. This is also means when this object
  * transitions to the {@link States#FULFILLED} state, it is possible to retrieve
  * the result of the asynchronous computation <b>before all</b> the
  * {@link PromiseEventSubscriber} objects are notified of the resultant result
@@ -86,7 +91,10 @@ class AsyncPromiseTaskPublisher<T> extends AsyncPromiseTask<T> implements EventS
 
     private static final Logger logger = LoggerFactory.getLogger(Promise.class);
 
+    private static final int MAXIMUM_DELIVERIES = 64;
+
     private final EventPublisher<PromiseEvent<?>,PromiseEventSubscriber<?>> publisher;
+    private volatile CompletableFuture<Void> notified;
 
     /**
      * Constructs this event-driven {@link Promise} object
@@ -104,7 +112,8 @@ class AsyncPromiseTaskPublisher<T> extends AsyncPromiseTask<T> implements EventS
         super(service,action);
         Arguments.requireNonNull(() -> new IllegalArgumentException("Arguments null?"),service,action,subscribers);
         this.publisher =  new EventBroadcaster<>(this);
-        subscribers.forEach(publisher::subscribe);
+        this.notified = CompletableFuture.completedFuture(null);
+        subscribers.forEach(subscriber -> publisher.subscribe(new IsolatedSubscriber(subscriber)));
     }
 
     /**
@@ -121,13 +130,16 @@ class AsyncPromiseTaskPublisher<T> extends AsyncPromiseTask<T> implements EventS
      *               set to {@code null} until this object is ready to perform the
      *               action asynchronously.
      * @param publisher underlying event publisher.
+     * @param notified completes once subscribers have been notified of the
+     *                 event of the action.
      * @throws NullPointerException if service or action or future or promise is null.
      */
      AsyncPromiseTaskPublisher(final ManagedPromiseService service, final Action<T> action, final CompletableFuture<T> future,
-                               final EventPublisher<PromiseEvent<?>,PromiseEventSubscriber<?>> publisher) {
+                               final EventPublisher<PromiseEvent<?>,PromiseEventSubscriber<?>> publisher,
+                               final CompletableFuture<Void> notified) {
         super(service,action,future);
-        Objects.requireNonNull(publisher);
-        this.publisher = publisher;
+        this.publisher = Objects.requireNonNull(publisher);
+        this.notified = Objects.requireNonNull(notified);
     }
 
     /**
@@ -151,9 +163,9 @@ class AsyncPromiseTaskPublisher<T> extends AsyncPromiseTask<T> implements EventS
      */
     public Promise<T> then(final TaskAction<T> action) {
         Promise<T> promise = super.then(action);
-        async(() -> notifyEvent(promise,Actions.TASK_ACTION));
         CompletableFuture<T> future = ((AsyncPromiseTask<T>) promise).getFuture();
-        return new AsyncPromiseTaskPublisher<>(getService(),action,future,publisher);
+        return new AsyncPromiseTaskPublisher<>(getService(),action,future,publisher,
+                notifyEvent(future,Actions.TASK_ACTION));
     }
 
     /**
@@ -165,9 +177,9 @@ class AsyncPromiseTaskPublisher<T> extends AsyncPromiseTask<T> implements EventS
      */
     public final <R> Promise<R> then(final TransmuteAction<T,R> action) {
         Promise<R> result = super.then(action);
-        async(() -> notifyEvent(result,Actions.TRANSMUTE_ACTION));
         CompletableFuture<R> future = ((AsyncPromiseTask<R>) result).getFuture();
-        return new AsyncPromiseTaskPublisher<>(getService(),action,future,publisher);
+        return new AsyncPromiseTaskPublisher<>(getService(),action,future,publisher,
+                notifyEvent(future,Actions.TRANSMUTE_ACTION));
     }
 
     /**
@@ -180,45 +192,112 @@ class AsyncPromiseTaskPublisher<T> extends AsyncPromiseTask<T> implements EventS
      */
     protected CompletableFuture<T> invokeAsync(final PrimaryAction<T> action) {
         CompletableFuture<T> future = super.invokeAsync(action);
-        async(() -> notifyEvent(future, Actions.PRIMARY_ACTION));
+        notified = notifyEvent(future,Actions.PRIMARY_ACTION);
         return future;
     }
 
     /**
-     * Performs notification of events asynchronously.
+     * Publishes the event of the {@code action} once its {@code future} is
+     * fulfilled, but not before subscribers have been notified of the event of
+     * this object's action, which preserves the order of events.
      * <p>
-     * @param runnable encapsulates underlying task that actually performs
-     *                    the notification.
-     * @return CompletableFuture object that encapsulates current state of
-     * asynchronous process.
-     * @throws NullPointerException if broadcaster parameter is null.
+     * No thread waits on either future: publication is chained on their
+     * completion, and publishing merely queues the event for each subscriber.
+     *
+     * @param future of the action.
+     * @param action type of action.
+     * @return future that completes normally once the event is published, or
+     * skipped because the action was not fulfilled.
      */
-    @SuppressWarnings("UnusedReturnValue")
-    private CompletableFuture<Void> async(final Runnable runnable) {
-        Runnable r = Objects.requireNonNull(runnable,"Expected runnable?");
-        CompletableFuture<Void> result = CompletableFuture
-                .runAsync(r,getService())
-                .whenComplete(this::handleNotifyComplete);
+    private <U> CompletableFuture<Void> notifyEvent(final CompletableFuture<U> future, final Actions action) {
+        Arguments.requireNonNull(future);
         logger.debug("Promise [{}] notifying subscribers",getIdentity());
-        return result;
+        return notified
+                .thenCompose(ignore -> future.<Void>handle((value,exception) -> {
+                    if (exception == null)
+                        publisher.publish(new PromiseEvent<>(action,value));
+                    return null;
+                }))
+                .whenComplete(this::handleNotifyComplete);
     }
 
-    @SuppressWarnings("SameParameterValue")
-    private void notifyEvent(final Future<T> future, final Actions action) {
-        Arguments.requireNonNull(future);
-        try {
-            PromiseEvent<T> event = new PromiseEvent<>(action,future.get());
-            publisher.publish(event);
-        } catch (CancellationException | ExecutionException | InterruptedException e) {
-            // Ignore, return optional object instead.
+    /*************************** INTERNAL CLASSES *****************************/
+
+    /**
+     * Isolates a {@link PromiseEventSubscriber} from the promise and from
+     * other subscribers.
+     * <p>
+     * Events are queued and delivered in order by the thread pool, one task at
+     * a time, so that a slow subscriber only delays its own events. To be
+     * fair to other tasks of the pool, the task yields after
+     * {@code MAXIMUM_DELIVERIES} events, resubmitting itself for the remainder.
+     * A subscriber that raises an exception is considered {@code toxic} and is
+     * unsubscribed.
+     */
+    private final class IsolatedSubscriber implements PromiseEventSubscriber<T> {
+        private final PromiseEventSubscriber<? super T> subscriber;
+        private final Queue<PromiseEvent<?>> events;
+        private final AtomicInteger pending;
+        private volatile boolean canceled;
+
+        private IsolatedSubscriber(final PromiseEventSubscriber<? super T> subscriber) {
+            this.subscriber = Objects.requireNonNull(subscriber,"No subscriber?");
+            this.events = new ConcurrentLinkedQueue<>();
+            this.pending = new AtomicInteger();
+        }
+
+        @Override
+        public void notify(final PromiseEvent<?> event) {
+            events.offer(event);
+            if (pending.getAndIncrement() == 0)
+                schedule();
+        }
+
+        @Override
+        public String toString() {
+            return subscriber.toString();
+        }
+
+        private void deliver(final PromiseEvent<?> event) {
+            if (canceled)
+                return;
+            try {
+                subscriber.notify(event);
+            } catch (Throwable e) {
+                logger.error("Subscriber raised an uncaught exception -- canceled subscription", e);
+                canceled = true;
+                publisher.unsubscribe(this);
+            }
+        }
+
+        private void drain() {
+            int remaining = pending.get();
+            int delivered = 0;
+            int total = 0;
+            while (true) {
+                deliver(events.poll());
+                delivered++;
+                total++;
+                if (delivered == remaining || total == MAXIMUM_DELIVERIES) {
+                    remaining = pending.addAndGet(-delivered);
+                    delivered = 0;
+                    if (remaining == 0)
+                        return;
+                    if (total == MAXIMUM_DELIVERIES) {
+                        schedule();
+                        return;
+                    }
+                }
+            }
         }
-    }
 
-    private <U> void notifyEvent(final Promise<U> promise, final Actions action) {
-        Arguments.requireNonNull(promise);
-        Maybe<U> value = promise.getResult();
-        if (promise.getState() == FULFILLED) {
-            publisher.publish(new PromiseEvent<>(action,value.orElse(null)));
+        private void schedule() {
+            try {
+                getService().execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Service is shutting down, but subscribers are still owed their events
+                drain();
+            }
         }
     }
 }
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.concurrency;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Accumulates elements added by any number of threads into batches, which
+ * are handed to a {@code sink} once they are full or have lingered for long
+ * enough, whichever comes first.
+ * <p>
+ * Adding an element claims a slot of the current batch with a single atomic
+ * increment, without locking. The element that fills a batch seals it and
+ * hands it to the {@code sink} on the adding thread, whereas the first element
+ * of a batch schedules a timeout on the {@link HashedWheelTimer} to seal it
+ * once the {@code linger} has elapsed, to the precision of a tick of the timer.
+ * Sealing a batch stops further slots from being claimed, and replaces it with
+ * a new current batch; a batch is sealed, and therefore handed to the
+ * {@code sink}, only once.
+ * <p>
+ * Should the timer be stopped, batches are sealed as soon as their first
+ * element is added, so that no element is left waiting indefinitely.
+ *
+ * @param <E> type of element
+ */
+final class BatchAccumulator<E> {
+
+    private final int maximumSize;
+    private final long lingerNanos;
+    private final HashedWheelTimer timer;
+    private final Consumer<List<E>> sink;
+    private final AtomicReference<Batch<E>> current;
+
+    /**
+     * Constructs an accumulator.
+     *
+     * @param maximumSize maximum number of elements in a batch.
+     * @param lingerNanos maximum time to wait for a batch to fill, in
+     *                    nanoseconds. If zero, every batch is handed to the
+     *                    {@code sink} as soon as its first element is added.
+     * @param timer measures the {@code linger}.
+     * @param sink receives each sealed batch, whose elements are in the
+     *             order their slots were claimed.
+     * @throws NullPointerException if timer or sink is null.
+     * @throws IllegalArgumentException if maximumSize is less than one or
+     * lingerNanos is negative.
+     */
+    BatchAccumulator(final int maximumSize, final long lingerNanos, final HashedWheelTimer timer,
+                     final Consumer<List<E>> sink) {
+        if (maximumSize < 1)
+            throw new IllegalArgumentException("Expected > 0 batch size");
+        if (lingerNanos < 0)
+            throw new IllegalArgumentException("Expected positive linger");
+        this.maximumSize = maximumSize;
+        this.lingerNanos = lingerNanos;
+        this.timer = Objects.requireNonNull(timer,"No timer?");
+        this.sink = Objects.requireNonNull(sink,"No sink?");
+        this.current = new AtomicReference<>(new Batch<>(maximumSize));
+    }
+
+    /**
+     * Adds the {@code element} to the current batch.
+     * <p>
+     * Should the {@code element} fill the batch, or the {@code linger} be
+     * zero, the batch is handed to the {@code sink} on this thread.
+     *
+     * @param element to add.
+     * @throws NullPointerException if element is null.
+     */
+    void add(final E element) {
+        Objects.requireNonNull(element,"No element?");
+        while (true) {
+            Batch<E> batch = current.get();
+            int slot = batch.claimed.getAndIncrement();
+            if (slot < maximumSize) {
+                batch.elements.set(slot,element);
+                if (slot == maximumSize - 1) {
+                    seal(batch);
+                } else if (slot == 0) {
+                    linger(batch);
+                }
+                return;
+            }
+            current.compareAndSet(batch,new Batch<>(maximumSize));
+        }
+    }
+
+    /**
+     * Seals the current batch, handing it to the {@code sink} if it is not
+     * empty.
+     */
+    void flush() {
+        seal(current.get());
+    }
+
+    /**
+     * @return the maximum number of elements in a batch.
+     */
+    int getMaximumSize() {
+        return maximumSize;
+    }
+
+    private void linger(final Batch<E> batch) {
+        if (lingerNanos == 0) {
+            seal(batch);
+            return;
+        }
+        try {
+            batch.timeout = timer.schedule(RejectableTask.of(() -> seal(batch),e -> seal(batch)),lingerNanos,
+                    TimeUnit.NANOSECONDS);
+            if (batch.sealed.get())
+                batch.timeout.cancel();
+        } catch (RejectedExecutionException e) {
+            seal(batch);
+        }
+    }
+
+    private void seal(final Batch<E> batch) {
+        if (!batch.sealed.compareAndSet(false,true))
+            return;
+        int size = Math.min(batch.claimed.getAndAdd(maximumSize),maximumSize);
+        current.compareAndSet(batch,new Batch<>(maximumSize));
+        HashedWheelTimer.Timeout timeout = batch.timeout;
+        if (timeout != null)
+            timeout.cancel();
+        if (size == 0)
+            return;
+        List<E> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            E element;
+            // A slot claimed, but not yet set by its thread
+            while ((element = batch.elements.get(i)) == null)
+                Thread.onSpinWait();
+            result.add(element);
+        }
+        sink.accept(result);
+    }
+
+    /*************************** INTERNAL CLASSES *****************************/
+
+    private static final class Batch<E> {
+        private final AtomicInteger claimed;
+        private final AtomicBoolean sealed;
+        private final AtomicReferenceArray<E> elements;
+        private volatile HashedWheelTimer.Timeout timeout;
+
+        private Batch(final int maximumSize) {
+            this.claimed = new AtomicInteger();
+            this.sealed = new AtomicBoolean();
+            this.elements = new AtomicReferenceArray<>(maximumSize);
+        }
+    }
+}
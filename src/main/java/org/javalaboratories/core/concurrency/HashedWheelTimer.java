@@ -0,0 +1,366 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.concurrency;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A timer whose pending timeouts are held in a hashed timing wheel, serviced
+ * by a single thread.
+ * <p>
+ * The wheel is a circular array of buckets, each representing a tick of
+ * time. A timeout is placed in the bucket of the tick in which it expires,
+ * together with the number of complete revolutions of the wheel remaining
+ * before it does. On every tick, the thread expires the timeouts of the
+ * current bucket whose revolutions have elapsed. Scheduling and cancelling a
+ * timeout are therefore performed in constant time, without locking, and
+ * millions of pending timeouts cost little more than their memory. In
+ * exchange, timeouts expire with the precision of a tick, which is ample for
+ * the delays and backoffs of {@link Promise} objects.
+ * <p>
+ * Expired tasks run on the thread of the timer, so they should be brief,
+ * typically handing work to a {@link ManagedPromiseService}. The thread is
+ * only started when the first timeout is scheduled. Once the timer is
+ * stopped, its pending timeouts are cancelled and their tasks rejected.
+ */
+final class HashedWheelTimer {
+
+    static final long DEFAULT_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private static final Logger logger = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    private static final int INITIAL = 0;
+    private static final int STARTED = 1;
+    private static final int STOPPED = 2;
+    private static final int MAXIMUM_TRANSFERS = 100_000;
+    private static final AtomicInteger timerIndex = new AtomicInteger(0);
+    private static final String TIMER_THREAD_NAME = "Promise-Timer-%d";
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<Timeout> scheduled;
+    private final AtomicInteger state;
+    private final LongAdder pending;
+    private final Thread worker;
+    private final CountDownLatch startTimePublished;
+    private volatile long startTime;
+    private volatile int cancelled;
+
+    /**
+     * Constructs a timer with a tick of one millisecond and a wheel of 512
+     * buckets.
+     */
+    HashedWheelTimer() {
+        this(DEFAULT_TICK_NANOS,DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * Constructs a timer.
+     *
+     * @param tickNanos duration of a tick in nanoseconds.
+     * @param wheelSize number of buckets, rounded up to a power of two.
+     * @throws IllegalArgumentException if tickNanos or wheelSize is less than
+     * one.
+     */
+    HashedWheelTimer(final long tickNanos, final int wheelSize) {
+        if (tickNanos < 1)
+            throw new IllegalArgumentException("Expected > 0 tick");
+        if (wheelSize < 1 || wheelSize > 1 << 30)
+            throw new IllegalArgumentException("Expected wheel size between 1 and 2^30");
+        int length = wheelSize == 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+        this.tickNanos = tickNanos;
+        this.wheel = new Bucket[length];
+        for (int i = 0; i < length; i++)
+            wheel[i] = new Bucket();
+        this.mask = length - 1;
+        this.scheduled = new ConcurrentLinkedQueue<>();
+        this.state = new AtomicInteger(INITIAL);
+        this.pending = new LongAdder();
+        this.worker = new Thread(this::run,String.format(TIMER_THREAD_NAME,timerIndex.incrementAndGet()));
+        this.worker.setDaemon(true);
+        this.startTimePublished = new CountDownLatch(1);
+    }
+
+    /**
+     * Schedules the {@code task} to run once the {@code delay} has elapsed,
+     * starting the timer thread if necessary.
+     *
+     * @param task to run on expiry, or to reject if the timer is stopped
+     *             beforehand.
+     * @param delay before running the task.
+     * @param unit of the delay.
+     * @return the timeout, which may be cancelled.
+     * @throws NullPointerException if task or unit is null.
+     * @throws RejectedExecutionException if the timer is stopped.
+     */
+    Timeout schedule(final RejectableTask task, final long delay, final TimeUnit unit) {
+        Objects.requireNonNull(task,"No task?");
+        long nanos = Objects.requireNonNull(unit,"No unit?").toNanos(delay);
+        start();
+        long deadline = System.nanoTime() - startTime + Math.max(0L,nanos);
+        // Guard against overflow
+        Timeout result = new Timeout(task,deadline < 0 ? Long.MAX_VALUE : deadline);
+        pending.increment();
+        scheduled.add(result);
+        if (state.get() == STOPPED && result.cancel())
+            throw new RejectedExecutionException("Promise timer stopped -- task rejected");
+        return result;
+    }
+
+    /**
+     * @return number of timeouts that have neither expired nor been
+     * cancelled.
+     */
+    long getPendingCount() {
+        return pending.sum();
+    }
+
+    /**
+     * Stops this timer, cancelling pending timeouts and rejecting their tasks,
+     * once the timer thread has finished running the tasks of the current
+     * tick. This method is idempotent.
+     *
+     * @return number of timeouts cancelled.
+     * @throws InterruptedException if interrupted whilst waiting for the timer
+     * thread to conclude.
+     */
+    int stop() throws InterruptedException {
+        int previous = state.getAndSet(STOPPED);
+        if (previous == INITIAL)
+            // Never started: release schedulers awaiting a start time that will never be published
+            startTimePublished.countDown();
+        if (previous != STARTED || Thread.currentThread() == worker)
+            // Never started, already stopped, or stopped by a task whose thread cancels on its return
+            return 0;
+        // Ensure the worker thread has been started before joining it
+        startTimePublished.await();
+        LockSupport.unpark(worker);
+        worker.join();
+        return cancelled;
+    }
+
+    private void start() {
+        if (state.get() == INITIAL && state.compareAndSet(INITIAL,STARTED)) {
+            long now = System.nanoTime();
+            // Zero denotes a start time yet to be published
+            startTime = now == 0 ? 1 : now;
+            worker.start();
+            startTimePublished.countDown();
+        } else if (startTime == 0) {
+            // Lost the race to start the timer: deadlines are meaningless until the winner publishes the start time
+            awaitStartTime();
+        }
+    }
+
+    private void awaitStartTime() {
+        boolean interrupted = false;
+        while (startTimePublished.getCount() > 0) {
+            try {
+                startTimePublished.await();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    private void run() {
+        long tick = 0;
+        while (state.get() == STARTED) {
+            long now = awaitTick(tick);
+            if (now < 0)
+                break;
+            transfer(tick);
+            wheel[(int) (tick & mask)].expire(now);
+            tick++;
+        }
+        cancelled = cancelAll();
+    }
+
+    private long awaitTick(final long tick) {
+        long deadline = tickNanos * (tick + 1);
+        while (true) {
+            long now = System.nanoTime() - startTime;
+            if (now >= deadline)
+                return now;
+            LockSupport.parkNanos(this,deadline - now);
+            if (state.get() != STARTED)
+                return -1L;
+        }
+    }
+
+    private void transfer(final long tick) {
+        for (int i = 0; i < MAXIMUM_TRANSFERS; i++) {
+            Timeout timeout = scheduled.poll();
+            if (timeout == null)
+                return;
+            if (timeout.isCancelled())
+                continue;
+            long ticks = timeout.deadline / tickNanos;
+            timeout.rounds = Math.max(0L,(ticks - tick) / wheel.length);
+            wheel[(int) (Math.max(ticks,tick) & mask)].add(timeout);
+        }
+    }
+
+    private int cancelAll() {
+        int result = 0;
+        for (Bucket bucket : wheel)
+            result += bucket.cancelAll();
+        Timeout timeout;
+        while ((timeout = scheduled.poll()) != null)
+            result += timeout.reject() ? 1 : 0;
+        return result;
+    }
+
+    /*************************** INTERNAL CLASSES *****************************/
+
+    /**
+     * A pending task of the {@link HashedWheelTimer}, which either expires,
+     * running the task, or is cancelled.
+     */
+    final class Timeout {
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final AtomicInteger status;
+        private final long deadline;
+        private RejectableTask task;
+        private long rounds;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(final RejectableTask task, final long deadline) {
+            this.status = new AtomicInteger(PENDING);
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels this timeout, if pending, in which case its task will never
+         * run. The timeout is discarded from the wheel when its bucket is next
+         * serviced.
+         *
+         * @return {@code true} if cancelled by this call.
+         */
+        boolean cancel() {
+            if (!status.compareAndSet(PENDING,CANCELLED))
+                return false;
+            pending.decrement();
+            // Release the task to the garbage collector ahead of the bucket
+            task = null;
+            return true;
+        }
+
+        boolean isCancelled() {
+            return status.get() == CANCELLED;
+        }
+
+        boolean isExpired() {
+            return status.get() == EXPIRED;
+        }
+
+        private void expire() {
+            RejectableTask t = task;
+            if (!status.compareAndSet(PENDING,EXPIRED))
+                return;
+            pending.decrement();
+            task = null;
+            try {
+                t.run();
+            } catch (Throwable e) {
+                logger.warn("Promise timer task raised an uncaught exception", e);
+            }
+        }
+
+        private boolean reject() {
+            RejectableTask t = task;
+            if (!cancel())
+                return false;
+            try {
+                t.reject(new RejectedExecutionException("Promise timer stopped -- task rejected"));
+            } catch (Throwable e) {
+                logger.warn("Promise timer task raised an uncaught exception on rejection", e);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A doubly linked list of the {@link Timeout} objects expiring in a tick
+     * of the wheel, only accessed by the timer thread.
+     */
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(final Timeout timeout) {
+            timeout.prev = tail;
+            if (tail == null) head = timeout;
+            else tail.next = timeout;
+            tail = timeout;
+        }
+
+        private int cancelAll() {
+            int result = 0;
+            for (Timeout timeout = head; timeout != null; timeout = timeout.next)
+                result += timeout.reject() ? 1 : 0;
+            head = tail = null;
+            return result;
+        }
+
+        private void expire(final long now) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else if (timeout.rounds <= 0 && timeout.deadline <= now) {
+                    remove(timeout);
+                    timeout.expire();
+                } else if (timeout.rounds > 0) {
+                    timeout.rounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        private void remove(final Timeout timeout) {
+            Timeout prev = timeout.prev;
+            Timeout next = timeout.next;
+            if (prev == null) head = next;
+            else prev.next = next;
+            if (next == null) tail = prev;
+            else next.prev = prev;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.concurrency;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent histogram of latencies, in nanoseconds, with a fixed memory
+ * footprint.
+ * <p>
+ * Latencies are counted in buckets whose width grows exponentially: each power
+ * of two is divided into four buckets, so that a percentile is reported to
+ * within 25% of the recorded latency, regardless of its magnitude. Recording is
+ * lock-free and does not allocate, keeping the overhead to a few atomic
+ * increments.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 4;
+    private static final int LINEAR_BUCKETS = SUB_BUCKETS * 2;
+    private static final int BUCKETS = LINEAR_BUCKETS + (Long.SIZE - 4) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets;
+    private final LongAdder total;
+    private final AtomicLong maximum;
+
+    LatencyHistogram() {
+        buckets = new AtomicLongArray(BUCKETS);
+        total = new LongAdder();
+        maximum = new AtomicLong();
+    }
+
+    /**
+     * Records a latency. Negative latencies, which may arise from an
+     * unreliable clock, are recorded as zero.
+     *
+     * @param nanos latency in nanoseconds.
+     */
+    void record(final long nanos) {
+        long value = Math.max(0L,nanos);
+        buckets.incrementAndGet(indexOf(value));
+        total.add(value);
+        long max;
+        while (value > (max = maximum.get()) && !maximum.compareAndSet(max,value));
+    }
+
+    /**
+     * Returns a snapshot of the histogram. As latencies may be recorded
+     * concurrently, the snapshot is an estimate.
+     *
+     * @return a snapshot of this histogram.
+     */
+    PromiseServiceSnapshot.Latency snapshot() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++)
+            count += counts[i] = buckets.get(i);
+        long max = maximum.get();
+        return new PromiseServiceSnapshot.Latency(count,count == 0 ? 0L : total.sum() / count,
+                percentile(counts,count,max,0.50d),percentile(counts,count,max,0.90d),
+                percentile(counts,count,max,0.99d),max);
+    }
+
+    private static long percentile(final long[] counts, final long count, final long max, final double percentile) {
+        long rank = (long) Math.ceil(count * percentile);
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS && rank > 0; i++) {
+            cumulative += counts[i];
+            if (cumulative >= rank)
+                return Math.min(upperBoundOf(i),max);
+        }
+        return max;
+    }
+
+    private static int indexOf(final long value) {
+        if (value < LINEAR_BUCKETS)
+            return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - 2)) & (SUB_BUCKETS - 1);
+        return LINEAR_BUCKETS + (exponent - 3) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBoundOf(final int index) {
+        if (index < LINEAR_BUCKETS)
+            return index;
+        int exponent = (index - LINEAR_BUCKETS) / SUB_BUCKETS + 3;
+        int sub = (index - LINEAR_BUCKETS) % SUB_BUCKETS;
+        long result = ((long) (SUB_BUCKETS + sub + 1) << (exponent - 2)) - 1;
+        return result < 0 ? Long.MAX_VALUE : result;
+    }
+}
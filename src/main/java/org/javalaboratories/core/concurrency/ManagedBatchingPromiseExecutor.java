@@ -0,0 +1,258 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.concurrency;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@code ManagedBatchingPromiseExecutor} is a thread pool designed for use
+ * with {@link Promise} objects whose tasks are too small to be worth handing
+ * to a worker one at a time.
+ * <p>
+ * Handing a task to a worker of the {@link ManagedThreadPoolPromiseExecutor}
+ * involves locking its queue and, often, waking a worker, which costs far more
+ * than a task that completes in less than a microsecond. This pool instead
+ * accumulates submitted tasks into batches without locking, and hands each
+ * batch to a worker, which runs its tasks one after the other. A batch is
+ * dispatched once it holds {@code batchSize} tasks, or once its first task has
+ * lingered for the {@code linger} time, whichever comes first. Hence the cost
+ * of the hand-off is shared by the tasks of a batch, at the expense of the
+ * latency of tasks that wait for their batch to fill: a larger batch size
+ * increases throughput under load, and a shorter linger bounds the latency
+ * when submissions are sparse. The linger is measured by the timer of this
+ * service, with a precision of about a millisecond, and a linger of zero
+ * dispatches every task immediately.
+ * <p>
+ * Tasks of a batch run in the order they were submitted, but batches run in
+ * parallel. As tasks of a batch share a worker, a slow or blocking task delays
+ * the tasks behind it; such tasks are better served by the
+ * {@link ManagedThreadPoolPromiseExecutor}. Requests that may be served
+ * together by a single call, such as a bulk lookup, are better batched with a
+ * {@link PromiseBatcher}.
+ * <p>
+ * To use this pool, configure the {@code promise.managed.service.class}
+ * property of the "{@code promise-configuration.properties}" file with the
+ * name of this class, and the batch size and linger with the
+ * {@code promise.managed.service.batch.size} and
+ * {@code promise.managed.service.batch.linger} properties. When the JVM is
+ * signalled to shut down, tasks that are accumulating are dispatched, and the
+ * pool waits for outstanding tasks as does the
+ * {@link ManagedThreadPoolPromiseExecutor}.
+ *
+ * @see ManagedThreadPoolPromiseExecutor
+ * @see PromiseBatcher
+ * @see ManagedPromiseService
+ */
+public class ManagedBatchingPromiseExecutor extends AbstractManagedPromiseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ManagedBatchingPromiseExecutor.class);
+
+    private static final AtomicInteger workerIndex = new AtomicInteger(0);
+    private static final String WORKER_THREAD_NAME="Promise-Batching-Worker-%d";
+
+    private final ThreadPoolExecutor delegate;
+    private final BatchAccumulator<Runnable> accumulator;
+    private final LongAdder waiting;
+    private final LongAdder batches;
+
+    /**
+     * Constructs an instance of this thread pool with the default batch size
+     * and linger of the {@link PromiseConfiguration}.
+     * <p>
+     * Automatic shutdown management is enabled by default.
+     *
+     * @param capacity Number maximum thread workers to carryout promises. If
+     *                 less than one, the number of available processors.
+     */
+    public ManagedBatchingPromiseExecutor(final int capacity) {
+        this(capacity,PromiseConfiguration.DEFAULT_SERVICE_BATCH_SIZE,
+                Duration.ofMillis(PromiseConfiguration.DEFAULT_SERVICE_BATCH_LINGER));
+    }
+
+    /**
+     * Constructs an instance of this thread pool from the
+     * {@code configuration}.
+     * <p>
+     * Constructor called from the {@link ManagedPromiseServiceFactory}, if
+     * configured to create an instance of this object. Automatic shutdown
+     * management is enabled by default.
+     *
+     * @param configuration provides the capacity, batch size and linger.
+     * @throws NullPointerException if configuration is null.
+     */
+    public ManagedBatchingPromiseExecutor(final PromiseConfiguration configuration) {
+        this(Objects.requireNonNull(configuration,"No configuration?").getServiceCapacity(),
+                configuration.getServiceBatchSize(),Duration.ofMillis(configuration.getServiceBatchLinger()));
+    }
+
+    /**
+     * Constructs an instance of this thread pool. Automatic shutdown
+     * management is enabled by default.
+     *
+     * @param capacity Number maximum thread workers to carryout promises. If
+     *                 less than one, the number of available processors.
+     * @param batchSize Number of maximum tasks dispatched to a worker together.
+     * @param linger Maximum time a task waits for its batch to fill.
+     * @throws IllegalArgumentException if batchSize is less than one or linger
+     * is negative.
+     * @throws NullPointerException if linger is null.
+     */
+    public ManagedBatchingPromiseExecutor(final int capacity, final int batchSize, final Duration linger) {
+        this(capacity,batchSize,linger,true);
+    }
+
+    /**
+     * Constructs an instance of this thread pool with optional automatic
+     * shutdown management.
+     * <p>
+     * Constructor is package level access only for unit testing purposes.
+     *
+     * @param capacity Number maximum thread workers to carryout promises. If
+     *                 less than one, the number of available processors.
+     * @param batchSize Number of maximum tasks dispatched to a worker together.
+     * @param linger Maximum time a task waits for its batch to fill.
+     * @param autoShutdown {@code true} manage automatic shutdown when VM
+     *                                 receives SIGTERM.
+     */
+    ManagedBatchingPromiseExecutor(final int capacity, final int batchSize, final Duration linger,
+                                   final boolean autoShutdown) {
+        // Validated ahead of super constructor, which registers the shutdown hook
+        super(requireBatch(capacity,batchSize,linger),autoShutdown);
+        delegate = new ThreadPoolExecutor(getCapacity(), getCapacity(), 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingDeque<>(),ManagedBatchingPromiseExecutor::newPromiseWorker);
+        accumulator = new BatchAccumulator<>(batchSize,linger.toNanos(),getTimer(),this::dispatch);
+        waiting = new LongAdder();
+        batches = new LongAdder();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The {@code command} is added to the batch that is accumulating, which
+     * is dispatched to a worker on this thread should the {@code command} fill
+     * it.
+     */
+    @Override
+    public void execute(final Runnable command) {
+        Runnable task = instrument(Objects.requireNonNull(command));
+        if (delegate.isShutdown()) {
+            recordRejection();
+            throw new RejectedExecutionException("Promise service shut down -- task rejected");
+        }
+        waiting.increment();
+        accumulator.add(task);
+    }
+
+    /**
+     * Returns the number of batches dispatched to workers, which together with
+     * the number of submitted tasks of the {@link PromiseServiceSnapshot},
+     * gives the mean batch size.
+     *
+     * @return number of dispatched batches.
+     */
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * @return maximum number of tasks dispatched to a worker together.
+     */
+    public int getBatchSize() {
+        return accumulator.getMaximumSize();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The size includes tasks accumulating in a batch as well as those of
+     * batches waiting for a worker.
+     */
+    @Override
+    public int getQueueSize() {
+        return (int) Math.min(waiting.sum(),Integer.MAX_VALUE);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The batch that is accumulating is dispatched before the workers are
+     * shut down.
+     */
+    @Override
+    protected void terminate(long timeout, boolean retry) throws InterruptedException {
+        int i = 0;
+        accumulator.flush();
+        delegate.shutdown();
+        while (!delegate.awaitTermination(timeout, TimeUnit.MILLISECONDS) && retry) {
+            logger.info("Awaiting termination of some promises -- elapsed {} seconds", (++i * timeout) / 1000.0);
+        }
+        if (!delegate.isTerminated()) {
+            delegate.shutdownNow();
+            logger.info("Not all promises kept following shutdown -- forced shutdown");
+        }
+    }
+
+    private void dispatch(final List<Runnable> batch) {
+        try {
+            delegate.execute(() -> run(batch));
+            batches.increment();
+        } catch (RejectedExecutionException e) {
+            waiting.add(-batch.size());
+            // Instrumented tasks record their own rejection
+            batch.forEach(task -> {
+                if (task instanceof RejectableTask t)
+                    t.reject(e);
+            });
+        }
+    }
+
+    private void run(final List<Runnable> batch) {
+        waiting.add(-batch.size());
+        for (Runnable task : batch) {
+            try {
+                task.run();
+            } catch (Throwable e) {
+                logger.error("Batched task raised an unhandled exception",e);
+            }
+        }
+    }
+
+    private static int requireBatch(final int capacity, final int batchSize, final Duration linger) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("Expected > 0 batch size");
+        if (Objects.requireNonNull(linger,"No linger?").isNegative())
+            throw new IllegalArgumentException("Expected positive linger");
+        return capacity < 1 ? Runtime.getRuntime().availableProcessors() : capacity;
+    }
+
+    private static Thread newPromiseWorker(final Runnable runnable) {
+        String name = String.format(WORKER_THREAD_NAME,workerIndex.incrementAndGet());
+        Thread result = new Thread(runnable);
+        result.setName(name);
+        return result;
+    }
+}
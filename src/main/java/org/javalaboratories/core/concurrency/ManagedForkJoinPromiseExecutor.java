@@ -0,0 +1,160 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.concurrency;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code ManagedForkJoinPromiseExecutor} is a work-stealing thread pool
+ * designed for use with {@link Promise} objects.
+ * <p>
+ * Unlike the {@link ManagedThreadPoolPromiseExecutor}, whose workers all take
+ * tasks from a single shared queue, each worker of this pool has its own
+ * double-ended queue. Tasks submitted by a worker, such as the subsequent
+ * {@code then} actions of a {@code Promise}, are pushed on to the worker's own
+ * queue without contention, and idle workers steal tasks from the queues of
+ * busy workers. Tasks submitted by other threads are distributed over shared
+ * submission queues. Queues are processed in first-in-first-out order, which
+ * suits the event-style tasks of promises. This pool therefore scales better
+ * than the {@link ManagedThreadPoolPromiseExecutor} with many cores and many
+ * short-lived tasks.
+ * <p>
+ * To use this pool, configure the {@code promise.managed.service.class}
+ * property of the "{@code promise-configuration.properties}" file with the
+ * name of this class.
+ * <p>
+ * Workers blocked in {@link java.util.concurrent.CompletableFuture#join()} or
+ * {@link java.util.concurrent.CompletableFuture#get()} are compensated with
+ * spare workers, but other blocking operations, such as I/O, are not. Tasks
+ * that mostly block are better served by the
+ * {@link ManagedThreadPerTaskPromiseExecutor}.
+ * <p>
+ * When the JVM is signalled to shut down, whether via SIGTERM or through natural
+ * program termination, the thread pool will wait for any outstanding running
+ * {@code Promise} threads to terminate before concluding, as is the case with
+ * the {@link ManagedThreadPoolPromiseExecutor}.
+ *
+ * @see ManagedThreadPoolPromiseExecutor
+ * @see ManagedThreadPerTaskPromiseExecutor
+ * @see ManagedPromiseService
+ */
+public class ManagedForkJoinPromiseExecutor extends AbstractManagedPromiseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ManagedForkJoinPromiseExecutor.class);
+
+    private static final AtomicInteger workerIndex = new AtomicInteger(0);
+    private static final String WORKER_THREAD_NAME="Promise-ForkJoin-Worker-%d";
+
+    private final ForkJoinPool delegate;
+
+    /**
+     * Constructs an instance of this thread pool.
+     * <p>
+     * Constructor called from the {@link ManagedPromiseServiceFactory}, if
+     * configured to create an instance of this object. Automatic shutdown
+     * management is enabled by default.
+     *
+     * @param capacity Number maximum thread workers to carryout promises. If
+     *                 less than one, the number of available processors.
+     */
+    public ManagedForkJoinPromiseExecutor(final int capacity) {
+        this(capacity,true);
+    }
+
+    /**
+     * Constructs an instance of this thread pool with optional automatic
+     * shutdown management.
+     * <p>
+     * Constructor is package level access only for unit testing purposes. It
+     * is recommended to use
+     * {@link ManagedForkJoinPromiseExecutor#ManagedForkJoinPromiseExecutor(int)}
+     * or the {@link ManagedPromiseServiceFactory} to create an instance of this
+     * thread pool.
+     *
+     * @param capacity Number maximum thread workers to carryout promises. If
+     *                 less than one, the number of available processors.
+     * @param autoShutdown {@code true} manage automatic shutdown when VM
+     *                                 receives SIGTERM.
+     */
+    ManagedForkJoinPromiseExecutor(final int capacity, final boolean autoShutdown) {
+        super(capacity < 1 ? Runtime.getRuntime().availableProcessors() : capacity,autoShutdown);
+        delegate = new ForkJoinPool(getCapacity(),ManagedForkJoinPromiseExecutor::newPromiseWorker,null,true);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void execute(final Runnable command) {
+        try {
+            delegate.execute(instrument(Objects.requireNonNull(command)));
+        } catch (RejectedExecutionException e) {
+            recordRejection();
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The size is an estimate of the tasks queued by workers and by other
+     * threads.
+     */
+    @Override
+    public int getQueueSize() {
+        return (int) Math.min(delegate.getQueuedTaskCount() + delegate.getQueuedSubmissionCount(),Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns an estimate of the number of tasks stolen by workers from the
+     * queues of other workers, which is useful for monitoring purposes.
+     *
+     * @return estimated number of stolen tasks.
+     */
+    public long getStealCount() {
+        return delegate.getStealCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void terminate(long timeout, boolean retry) throws InterruptedException {
+        int i = 0;
+        delegate.shutdown();
+        while (!delegate.awaitTermination(timeout, TimeUnit.MILLISECONDS) && retry) {
+            logger.info("Awaiting termination of some promises -- elapsed {} seconds", (++i * timeout) / 1000.0);
+        }
+        if (!delegate.isTerminated()) {
+            delegate.shutdownNow();
+            logger.info("Not all promises kept following shutdown -- forced shutdown");
+        }
+    }
+
+    private static ForkJoinWorkerThread newPromiseWorker(final ForkJoinPool pool) {
+        ForkJoinWorkerThread result = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        result.setName(String.format(WORKER_THREAD_NAME,workerIndex.incrementAndGet()));
+        return result;
+    }
+}
@@ -0,0 +1,371 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.concurrency;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code ManagedKeyedPromiseExecutor} is a thread pool designed for use with
+ * {@link Promise} objects, which runs the tasks of each key one at a time in
+ * the order they were submitted, whilst running the tasks of different keys in
+ * parallel.
+ * <p>
+ * This suits actions that must be applied to an entity, such as an account, in
+ * order: funnelling them through a single-threaded service preserves their
+ * order, but confines all entities to a single core. Here each key with
+ * outstanding tasks has its own first-in-first-out queue, which takes a turn
+ * on a shared pool of workers only while it has tasks to run, so no thread is
+ * dedicated to a key and a key costs nothing once its queue is empty. A turn
+ * runs a limited number of tasks before the queue yields its worker, so that
+ * a busy key cannot starve the others.
+ * <p>
+ * Tasks are submitted for a key with
+ * {@link ManagedKeyedPromiseExecutor#execute(Object,Runnable)}, or through the
+ * {@link ManagedPromiseService} view returned from
+ * {@link ManagedKeyedPromiseExecutor#forKey(Object)}, which plugs into
+ * {@link Promises#newPromise(PrimaryAction,ManagedPromiseService)}, so that
+ * promises of the same key, and their subsequent {@code then} actions, keep
+ * to the order of the key:
+ * <pre>
+ * {@code
+ *      ManagedPromiseService account = executor.forKey(accountId);
+ *      Promises.newPromise(PrimaryAction.of(() -> debit(accountId,amount)),account)
+ *          .then(TaskAction.of(balance -> notify(accountId,balance)));
+ * }
+ * </pre>
+ * Tasks submitted with {@link ManagedKeyedPromiseExecutor#execute(Runnable)}
+ * inherit the key of the task that submits them, if any, and are otherwise
+ * run without regard to order, as with the
+ * {@link ManagedThreadPoolPromiseExecutor}. Hence this pool may also be
+ * configured as the service of the {@link Promises} factory with the
+ * {@code promise.managed.service.class} property.
+ * <p>
+ * Keys are compared with {@code equals}. Order is that of submission: a
+ * {@code then} action is submitted once its preceding action completes, by
+ * which time other tasks of the same key may already be queued ahead of it.
+ * When the JVM is signalled to shut down, the queues of all keys are drained
+ * before the workers terminate.
+ *
+ * @see ManagedThreadPoolPromiseExecutor
+ * @see ManagedPromiseService
+ */
+public class ManagedKeyedPromiseExecutor extends AbstractManagedPromiseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ManagedKeyedPromiseExecutor.class);
+
+    private static final AtomicInteger workerIndex = new AtomicInteger(0);
+    private static final String WORKER_THREAD_NAME="Promise-Keyed-Worker-%d";
+    private static final int MAXIMUM_TURN_TASKS = 16;
+    private static final ThreadLocal<KeyQueue> CURRENT_QUEUE = new ThreadLocal<>();
+
+    private final ThreadPoolExecutor delegate;
+    private final ConcurrentHashMap<Object,KeyQueue> queues;
+    private final AtomicInteger queued;
+
+    /**
+     * Constructs an instance of this thread pool.
+     * <p>
+     * Constructor called from the {@link ManagedPromiseServiceFactory}, if
+     * configured to create an instance of this object. Automatic shutdown
+     * management is enabled by default.
+     *
+     * @param capacity Number maximum thread workers to carryout promises. If
+     *                 less than one, the number of available processors.
+     */
+    public ManagedKeyedPromiseExecutor(final int capacity) {
+        this(capacity,true);
+    }
+
+    /**
+     * Constructs an instance of this thread pool with optional automatic
+     * shutdown management.
+     * <p>
+     * Constructor is package level access only for unit testing purposes. It
+     * is recommended to use
+     * {@link ManagedKeyedPromiseExecutor#ManagedKeyedPromiseExecutor(int)}
+     * or the {@link ManagedPromiseServiceFactory} to create an instance of this
+     * thread pool.
+     *
+     * @param capacity Number maximum thread workers to carryout promises. If
+     *                 less than one, the number of available processors.
+     * @param autoShutdown {@code true} manage automatic shutdown when VM
+     *                                 receives SIGTERM.
+     */
+    ManagedKeyedPromiseExecutor(final int capacity, final boolean autoShutdown) {
+        super(capacity < 1 ? Runtime.getRuntime().availableProcessors() : capacity,autoShutdown);
+        delegate = new ThreadPoolExecutor(getCapacity(), getCapacity(), 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingDeque<>(),ManagedKeyedPromiseExecutor::newPromiseWorker);
+        queues = new ConcurrentHashMap<>();
+        queued = new AtomicInteger();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If called from a task of a key, the {@code command} is queued behind
+     * the other tasks of that key; otherwise it is run without regard to order.
+     */
+    @Override
+    public void execute(final Runnable command) {
+        KeyQueue current = CURRENT_QUEUE.get();
+        if (current != null && current.owner() == this) {
+            execute(current.key,command);
+            return;
+        }
+        try {
+            delegate.execute(instrument(Objects.requireNonNull(command)));
+        } catch (RejectedExecutionException e) {
+            recordRejection();
+            throw e;
+        }
+    }
+
+    /**
+     * Executes the {@code command} once all the tasks previously submitted for
+     * the {@code key} have run.
+     *
+     * @param key the key whose order the {@code command} is to keep.
+     * @param command the task to run.
+     * @throws NullPointerException if key or command is null.
+     * @throws RejectedExecutionException if the workers have been shut down.
+     */
+    public void execute(final Object key, final Runnable command) {
+        Objects.requireNonNull(key,"No key?");
+        Objects.requireNonNull(command);
+        if (delegate.isShutdown()) {
+            recordRejection();
+            throw new RejectedExecutionException("Promise service shut down -- task rejected");
+        }
+        Runnable task = instrument(command);
+        boolean[] created = new boolean[1];
+        KeyQueue queue = queues.compute(key,(k,q) -> {
+            KeyQueue result = q;
+            if (result == null) {
+                result = new KeyQueue(k);
+                created[0] = true;
+            }
+            result.tasks.add(task);
+            return result;
+        });
+        queued.incrementAndGet();
+        if (created[0])
+            schedule(queue,task);
+    }
+
+    /**
+     * Returns a {@link ManagedPromiseService} that submits all its tasks to
+     * this pool for the given {@code key}.
+     * <p>
+     * The lifecycle of the returned service is that of this pool: its state is
+     * the state of this pool, and stopping it stops this pool.
+     *
+     * @param key the key whose order tasks of the service are to keep.
+     * @return a view of this pool for the {@code key}.
+     * @throws NullPointerException if key is null.
+     */
+    public ManagedPromiseService forKey(final Object key) {
+        return new KeyedService(Objects.requireNonNull(key,"No key?"));
+    }
+
+    /**
+     * Returns the number of keys with tasks that are waiting or running, which
+     * is useful for monitoring purposes.
+     *
+     * @return number of active keys.
+     */
+    public int getKeyCount() {
+        return queues.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The size is an estimate of the tasks waiting in the queues of keys and
+     * in the queue of the workers.
+     */
+    @Override
+    public int getQueueSize() {
+        return queued.get() + delegate.getQueue().size();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The queues of keys are drained before the workers are shut down.
+     */
+    @Override
+    protected void terminate(long timeout, boolean retry) throws InterruptedException {
+        int i = 0;
+        while (!awaitQueues(timeout) && retry) {
+            logger.info("Awaiting keyed promises -- elapsed {} seconds", (++i * timeout) / 1000.0);
+        }
+        i = 0;
+        delegate.shutdown();
+        while (!delegate.awaitTermination(timeout, TimeUnit.MILLISECONDS) && retry) {
+            logger.info("Awaiting termination of some promises -- elapsed {} seconds", (++i * timeout) / 1000.0);
+        }
+        if (!delegate.isTerminated()) {
+            delegate.shutdownNow();
+            logger.info("Not all promises kept following shutdown -- forced shutdown");
+        }
+    }
+
+    private boolean awaitQueues(final long timeout) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeout;
+        while (!queues.isEmpty()) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0)
+                return false;
+            Thread.sleep(Math.min(remaining,MIN_WAIT_TIMEOUT));
+        }
+        return true;
+    }
+
+    private void schedule(final KeyQueue queue) {
+        schedule(queue,null);
+    }
+
+    /**
+     * Schedules a turn of the {@code queue}. Should the workers refuse it, the
+     * tasks of the queue are rejected, except the {@code submitted} task,
+     * whose rejection is thrown to the submitting thread instead.
+     */
+    private void schedule(final KeyQueue queue, final Runnable submitted) {
+        try {
+            delegate.execute(queue);
+        } catch (RejectedExecutionException e) {
+            boolean withdrawn = submitted != null && queue.tasks.remove(submitted);
+            if (withdrawn) {
+                queued.decrementAndGet();
+                recordRejection();
+            }
+            // Instrumented tasks record their own rejection
+            queue.reject(e);
+            if (withdrawn)
+                throw e;
+        }
+    }
+
+    private static Thread newPromiseWorker(final Runnable runnable) {
+        String name = String.format(WORKER_THREAD_NAME,workerIndex.incrementAndGet());
+        Thread result = new Thread(runnable);
+        result.setName(name);
+        return result;
+    }
+
+    /*************************** INTERNAL CLASSES *****************************/
+
+    /**
+     * The first-in-first-out queue of the tasks of a key, which runs a turn
+     * of them on a worker whenever it is scheduled.
+     * <p>
+     * Tasks are added and the queue retired within {@code compute} of the map
+     * of queues, hence a task is never added to a retired queue, and at most
+     * one turn of a queue is ever scheduled.
+     */
+    private final class KeyQueue implements Runnable {
+        private final Object key;
+        private final Queue<Runnable> tasks;
+
+        private KeyQueue(final Object key) {
+            this.key = key;
+            this.tasks = new ConcurrentLinkedQueue<>();
+        }
+
+        @Override
+        public void run() {
+            CURRENT_QUEUE.set(this);
+            try {
+                for (int i = 0; i < MAXIMUM_TURN_TASKS; i++) {
+                    Runnable task = tasks.poll();
+                    if (task == null)
+                        break;
+                    queued.decrementAndGet();
+                    try {
+                        task.run();
+                    } catch (Throwable e) {
+                        logger.error("Keyed task raised an unhandled exception -- key={}",key,e);
+                    }
+                }
+            } finally {
+                CURRENT_QUEUE.remove();
+            }
+            if (queues.computeIfPresent(key,(k,q) -> q.tasks.isEmpty() ? null : q) != null)
+                schedule(this);
+        }
+
+        private ManagedKeyedPromiseExecutor owner() {
+            return ManagedKeyedPromiseExecutor.this;
+        }
+
+        private void reject(final RejectedExecutionException exception) {
+            queues.remove(key,this);
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                queued.decrementAndGet();
+                if (task instanceof RejectableTask t)
+                    t.reject(exception);
+            }
+        }
+    }
+
+    /**
+     * A view of this pool that submits tasks for a single key.
+     */
+    private final class KeyedService implements ManagedPromiseService {
+        private final Object key;
+
+        private KeyedService(final Object key) {
+            this.key = key;
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            ManagedKeyedPromiseExecutor.this.execute(key,command);
+        }
+
+        @Override
+        public ServiceStates getState() {
+            return ManagedKeyedPromiseExecutor.this.getState();
+        }
+
+        @Override
+        public boolean isShutdownEnabled() {
+            return ManagedKeyedPromiseExecutor.this.isShutdownEnabled();
+        }
+
+        @Override
+        public void stop(final long timeout, final boolean retry) {
+            ManagedKeyedPromiseExecutor.this.stop(timeout,retry);
+        }
+
+        @Override
+        public String toString() {
+            return "[key=" + key + ",service=" + ManagedKeyedPromiseExecutor.this + "]";
+        }
+    }
+}
@@ -18,7 +18,6 @@ package org.javalaboratories.core.concurrency;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Objects;
 import java.util.concurrent.locks.ReentrantLock;
@@ -58,6 +57,11 @@ public final class ManagedPromiseServiceFactory<T extends ManagedPromiseService>
      * This is essentially a managed pool of threads, managed in the sense that
      * the pool will automatically clean up resources including outstanding running
      * threads at application termination.
+     * <p>
+     * The service is constructed with the {@link PromiseConfiguration} if it has
+     * a public constructor accepting one, otherwise with its capacity. Services
+     * inheriting from {@link AbstractManagedPromiseService} are registered with the
+     * platform {@code MBeanServer}.
      *
      * @return an implementation of {@link ManagedPromiseService}
      * @see ManagedPromiseService
@@ -74,15 +78,17 @@ public final class ManagedPromiseServiceFactory<T extends ManagedPromiseService>
                     Class<?> clazz = Class.forName(className);
                     if (!ManagedPromiseService.class.isAssignableFrom(clazz))
                         clazz = Class.forName(PromiseConfiguration.DEFAULT_MANAGED_SERVICE_CLASSNAME);
-                    // Attempt to instantiate custom managed promise service
-                    @SuppressWarnings("unchecked")
-                    Constructor<T> constructor = (Constructor<T>) clazz.getConstructor(int.class);
-                    instance = constructor.newInstance(capacity);
+                    // Attempt to instantiate custom managed promise service, preferably from configuration
+                    instance = hasConstructor(clazz,PromiseConfiguration.class)
+                            ? (ManagedPromiseService) clazz.getConstructor(PromiseConfiguration.class).newInstance(configuration)
+                            : (ManagedPromiseService) clazz.getConstructor(int.class).newInstance(capacity);
                     logger.debug("Promise service {} created and initialised with capacity {} successfully", clazz, capacity);
+                    if (instance instanceof AbstractManagedPromiseService service)
+                        registerMBean(service);
                 } catch (ClassCastException e) {
                     logger.error("Promise service {} class needs to inherit from {} class", className, ManagedThreadPoolPromiseExecutor.class);
                 } catch (NoSuchMethodException e) {
-                    logger.error("Promise service {} class needs to have a constructor with a single int parameter", className);
+                    logger.error("Promise service {} class needs to have a constructor with a single int or PromiseConfiguration parameter", className);
                 } catch (InvocationTargetException e) {
                     logger.error("Promise service {} class constructor could not be invoked", className);
                 } catch (ClassNotFoundException e) {
@@ -100,4 +106,22 @@ public final class ManagedPromiseServiceFactory<T extends ManagedPromiseService>
         T result = (T) instance;
         return result;
     }
+
+    private void registerMBean(final AbstractManagedPromiseService service) {
+        try {
+            service.registerMBean();
+        } catch (IllegalStateException e) {
+            // Metrics are still available from the service
+            logger.warn("Promise service {} not registered with MBean server", service.getClass(), e);
+        }
+    }
+
+    private static boolean hasConstructor(final Class<?> clazz, final Class<?> parameterType) {
+        try {
+            clazz.getConstructor(parameterType);
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
 }
@@ -19,11 +19,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Objects;
+import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * {@code ManagedVirtualPromiseExecutor} is a custom thread "pool" executor
@@ -35,6 +39,18 @@ import java.util.concurrent.atomic.AtomicInteger;
  * therefore scalable. The capacity is really used to control and protect
  * backend services, such as database connections or file handles.
  * <p>
+ * Admission is controlled before a virtual thread is created: a task is only
+ * given a thread if fewer than {@code capacity} tasks are running, otherwise
+ * it waits in a queue bounded to {@code queueCapacity} tasks, without a
+ * thread. When a running task concludes, the task at the head of the queue is
+ * given a thread. If the queue is full, the submission is throttled and the
+ * {@link AdmissionPolicy} applies, which may block the submitting thread,
+ * reject the task, run the task in the submitting thread or discard the
+ * oldest waiting task. The number of throttled submissions is reported by
+ * {@link ManagedThreadPerTaskPromiseExecutor#getThrottledCount()}. Both the
+ * queue capacity and the policy are configurable in the
+ * {@link PromiseConfiguration}.
+ * <p>
  * If required, it is possible to provide an alternative thread pool. Achieving
  * this involves configuring the "{@code promise-configuration.properties}" file,
  * but it is required that the thread pool must inherit from the
@@ -65,6 +81,10 @@ public class ManagedThreadPerTaskPromiseExecutor extends AbstractManagedPromiseS
 
     private final ExecutorService delegate;
     private final Semaphore semaphore;
+    private final BlockingDeque<Runnable> queue;
+    private final AdmissionPolicy policy;
+    private final LongAdder throttled;
+    private final ThreadLocal<Boolean> worker;
 
     /**
      * Constructs an instance of this virtual thread "pool".
@@ -77,13 +97,47 @@ public class ManagedThreadPerTaskPromiseExecutor extends AbstractManagedPromiseS
      * <p>
      * Constructor called from the {@link ManagedPromiseServiceFactory}, if
      * configured to create an instance of this object. Automatic shutdown
-     * management is enabled by default.
+     * management is enabled by default. The queue capacity and admission
+     * policy are the defaults of the {@link PromiseConfiguration}.
      *
      * @param capacity Number of maximum virtual thread workers to carryout
      *                 promises.
      */
     public ManagedThreadPerTaskPromiseExecutor(final int capacity) {
-        this(capacity,true);
+        this(capacity,PromiseConfiguration.DEFAULT_SERVICE_QUEUE_CAPACITY,PromiseConfiguration.DEFAULT_SERVICE_ADMISSION_POLICY);
+    }
+
+    /**
+     * Constructs an instance of this virtual thread "pool" from the
+     * {@code configuration}.
+     * <p>
+     * Constructor called from the {@link ManagedPromiseServiceFactory}, if
+     * configured to create an instance of this object. Automatic shutdown
+     * management is enabled by default.
+     *
+     * @param configuration provides the capacity, queue capacity and
+     *                      admission policy.
+     * @throws NullPointerException if configuration is null.
+     */
+    public ManagedThreadPerTaskPromiseExecutor(final PromiseConfiguration configuration) {
+        this(Objects.requireNonNull(configuration,"No configuration?").getServiceCapacity(),
+                configuration.getServiceQueueCapacity(),configuration.getServiceAdmissionPolicy());
+    }
+
+    /**
+     * Constructs an instance of this virtual thread "pool" with admission
+     * control. Automatic shutdown management is enabled by default.
+     *
+     * @param capacity Number of maximum virtual thread workers to carryout
+     *                 promises.
+     * @param queueCapacity Number of maximum tasks waiting for a virtual
+     *                      thread worker.
+     * @param policy applied to submissions when the queue is full.
+     * @throws IllegalArgumentException if queueCapacity is less than one.
+     * @throws NullPointerException if policy is null.
+     */
+    public ManagedThreadPerTaskPromiseExecutor(final int capacity, final int queueCapacity, final AdmissionPolicy policy) {
+        this(capacity,queueCapacity,policy,true);
     }
 
     /**
@@ -105,27 +159,88 @@ public class ManagedThreadPerTaskPromiseExecutor extends AbstractManagedPromiseS
      *                                 receives SIGTERM.
      */
     ManagedThreadPerTaskPromiseExecutor(final int capacity, final boolean autoShutdown) {
-        super(capacity,autoShutdown);
+        this(capacity,PromiseConfiguration.DEFAULT_SERVICE_QUEUE_CAPACITY,PromiseConfiguration.DEFAULT_SERVICE_ADMISSION_POLICY,
+                autoShutdown);
+    }
+
+    ManagedThreadPerTaskPromiseExecutor(final int capacity, final int queueCapacity, final AdmissionPolicy policy,
+                                        final boolean autoShutdown) {
+        // Validated ahead of super constructor, which registers the shutdown hook
+        super(requireAdmission(capacity,queueCapacity,policy),autoShutdown);
         delegate = Executors.newThreadPerTaskExecutor(ManagedThreadPerTaskPromiseExecutor::newVirtualPromiseWorker);
         semaphore = new Semaphore(getCapacity() < 1 ? DEFAULT_VIRTUAL_THREADS : capacity);
+        queue = new LinkedBlockingDeque<>(queueCapacity);
+        this.policy = policy;
+        throttled = new LongAdder();
+        worker = new ThreadLocal<>();
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * The {@code command} is given a virtual thread if there is spare capacity,
+     * otherwise it is queued. If the queue is full, the {@link AdmissionPolicy}
+     * of this executor applies.
+     *
+     * @throws RejectedExecutionException if the command is rejected by the
+     * {@link AdmissionPolicy#REJECT} policy, or if the submitting thread is
+     * interrupted whilst blocked by the {@link AdmissionPolicy#BLOCK} policy.
      */
     @Override
     public void execute(final Runnable command) {
-        Runnable r = Objects.requireNonNull(command);
-        delegate.execute(() -> {
+        Runnable r = instrument(Objects.requireNonNull(command));
+        if (semaphore.tryAcquire()) {
             try {
-                semaphore.acquire();
-                r.run();
-            } catch (InterruptedException e) {
-                throw new IllegalStateException(e);
-            } finally {
-                semaphore.release();
+                start(r);
+            } catch (RejectedExecutionException e) {
+                recordRejection();
+                throw e;
+            }
+            return;
+        }
+        if (!queue.offerLast(r)) {
+            throttled.increment();
+            switch (policy) {
+                case BLOCK -> block(r);
+                case REJECT -> {
+                    recordRejection();
+                    throw new RejectedExecutionException("Promise service at capacity -- task rejected");
+                }
+                case CALLER_RUNS -> {
+                    r.run();
+                    return;
+                }
+                case SHED_OLDEST -> shed(r);
             }
-        });
+        }
+        // Capacity may have become available whilst queueing
+        drain();
+    }
+
+    /**
+     * @return the admission policy applied to throttled submissions.
+     */
+    public AdmissionPolicy getAdmissionPolicy() {
+        return policy;
+    }
+
+    /**
+     * @return number of tasks waiting for a virtual thread worker.
+     */
+    @Override
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the number of submissions that found the queue full and were
+     * therefore subject to the {@link AdmissionPolicy}, whatever its outcome.
+     *
+     * @return number of throttled submissions.
+     */
+    @Override
+    public long getThrottledCount() {
+        return throttled.sum();
     }
 
     /**
@@ -134,7 +249,11 @@ public class ManagedThreadPerTaskPromiseExecutor extends AbstractManagedPromiseS
     @Override
     protected void terminate(long timeout, boolean retry) throws InterruptedException {
         int i = 0;
+        while (!awaitQueue(timeout) && retry) {
+            logger.info("Awaiting admission of some virtual promises  -- elapsed {} seconds", (++i * timeout) / 1000.0);
+        }
         delegate.shutdown();
+        discard();
         while (!delegate.awaitTermination(timeout, TimeUnit.MILLISECONDS) && retry) {
             logger.info("Awaiting termination of some virtual promises  -- elapsed {} seconds", (++i * timeout) / 1000.0);
         }
@@ -144,6 +263,89 @@ public class ManagedThreadPerTaskPromiseExecutor extends AbstractManagedPromiseS
         }
     }
 
+    private boolean awaitQueue(final long timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        while (!queue.isEmpty()) {
+            if (System.nanoTime() - deadline >= 0)
+                return false;
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+        return true;
+    }
+
+    private static int requireAdmission(final int capacity, final int queueCapacity, final AdmissionPolicy policy) {
+        Objects.requireNonNull(policy,"No policy?");
+        if (queueCapacity < 1)
+            throw new IllegalArgumentException("Expected > 0 queue capacity");
+        return capacity;
+    }
+
+    private void block(final Runnable command) {
+        if (worker.get() != null) {
+            // Blocking a worker could deadlock this service
+            command.run();
+            return;
+        }
+        try {
+            queue.putLast(command);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            recordRejection();
+            throw new RejectedExecutionException("Interrupted whilst awaiting admission",e);
+        }
+    }
+
+    private void discard() {
+        Runnable command;
+        while ((command = queue.pollFirst()) != null)
+            reject(command,new RejectedExecutionException("Promise service shut down -- task discarded"));
+    }
+
+    private void drain() {
+        while (!queue.isEmpty() && semaphore.tryAcquire()) {
+            Runnable command = queue.pollFirst();
+            if (command == null) {
+                semaphore.release();
+                continue;
+            }
+            try {
+                start(command);
+            } catch (RejectedExecutionException e) {
+                reject(command,e);
+            }
+        }
+    }
+
+    private void reject(final Runnable command, final RejectedExecutionException exception) {
+        if (command instanceof RejectableTask task)
+            task.reject(exception);
+    }
+
+    private void shed(final Runnable command) {
+        while (!queue.offerLast(command)) {
+            Runnable oldest = queue.pollFirst();
+            if (oldest != null)
+                reject(oldest,new RejectedExecutionException("Promise service at capacity -- task shed"));
+        }
+    }
+
+    private void start(final Runnable command) {
+        try {
+            delegate.execute(() -> {
+                worker.set(Boolean.TRUE);
+                try {
+                    command.run();
+                } finally {
+                    semaphore.release();
+                    drain();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            semaphore.release();
+            throw e;
+        }
+    }
+
     private static Thread newVirtualPromiseWorker(final Runnable command) {
         Thread.Builder.OfVirtual ofVirtual = Thread.ofVirtual()
                 .name(String.format(WORKER_THREAD_NAME,workerIndex.incrementAndGet()));
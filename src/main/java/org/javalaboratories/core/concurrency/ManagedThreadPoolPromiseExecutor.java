@@ -19,6 +19,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -97,7 +98,20 @@ public class ManagedThreadPoolPromiseExecutor extends AbstractManagedPromiseServ
      */
     @Override
     public void execute(Runnable command) {
-        delegate.execute(command);
+        try {
+            delegate.execute(instrument(command));
+        } catch (RejectedExecutionException e) {
+            recordRejection();
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getQueueSize() {
+        return delegate.getQueue().size();
     }
 
     /**
@@ -17,8 +17,11 @@ package org.javalaboratories.core.concurrency;
 
 import org.javalaboratories.core.Maybe;
 
+import java.time.Duration;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -65,7 +68,8 @@ import java.util.function.Function;
  * In the above example, both the {@link Promise#then} method and the
  * {@link TaskAction} object are introduced to illustrate subsequent asynchronous
  * processing of action objects. The {@code then} method executes the action
- * in a separate thread as soon as the previous action completes. There is
+ * asynchronously as soon as the previous action completes, typically on the
+ * same worker thread, thus avoiding a hand-off to another. There is
  * no restriction on the number of subsequent {@code then} methods -- the
  * underlying thread pool {@link ManagedThreadPoolPromiseExecutor} will manage the processes.
  * The {@link TaskAction} object is useful for scenarios where the value is not
@@ -125,6 +129,20 @@ import java.util.function.Function;
  *          .handle(e -> logger.error("Houston we have a problem!",e));
  * }
  * </pre>
+ * <b>Cancellation and Timeouts</b>
+ * <p>
+ * A {@code Promise} may be cancelled with {@link Promise#cancel()}, or bounded
+ * in time with {@link Promise#orTimeout(Duration)} and
+ * {@link Promise#completeOnTimeout(Object, Duration)}. Either way, the task
+ * currently running is interrupted and subsequent {@code then} actions are
+ * not executed. For example:
+ * <pre>
+ * {@code
+ *      Promise<Integer> promise = Promises
+ *          .newPromise(PrimaryAction.of(() -> doLongRunningTask("Reading integer value from database")))
+ *          .completeOnTimeout(-1,Duration.ofSeconds(5));
+ * }
+ * </pre>
  * This covers the main behavior fo the {@code Promise} object. Explore the method
  * documentation for more information.
  *
@@ -164,6 +182,54 @@ public interface Promise<T> extends Invocable<T> {
      */
     Promise<T> await();
 
+    /**
+     * Cancels this {@link Promise}, rejecting it with a
+     * {@link CancellationException} if it has not already settled.
+     * <p>
+     * Cancellation propagates down the chain of {@code then} actions: the
+     * {@link Promise} objects that depend on this one are also rejected and
+     * their tasks never started. If the task of this {@code Promise} is
+     * running, its thread is interrupted; if the task has not yet started, it
+     * will not be started, thus freeing capacity of the
+     * {@link ManagedPromiseService}. Promises upstream of this one are not
+     * affected.
+     *
+     * @return true if this {@link Promise} is now cancelled.
+     */
+    boolean cancel();
+
+    /**
+     * Rejects this {@link Promise} with a {@link TimeoutException} if it has not
+     * settled before the given {@code timeout}, interrupting its task and
+     * propagating the rejection down the chain of {@code then} actions.
+     * <p>
+     * Timeouts of all {@code Promise} objects are driven by a single shared
+     * scheduler, which is not a worker thread of the
+     * {@link ManagedPromiseService}.
+     *
+     * @param timeout the time to wait before rejecting this {@code Promise}.
+     * @return a new {@link Promise} object.
+     * @throws NullPointerException if {@code timeout} is null.
+     * @throws IllegalArgumentException if {@code timeout} is negative.
+     */
+    Promise<T> orTimeout(final Duration timeout);
+
+    /**
+     * Fulfils this {@link Promise} with the given {@code value} if it has not
+     * settled before the given {@code timeout}, interrupting its task.
+     * <p>
+     * Timeouts of all {@code Promise} objects are driven by a single shared
+     * scheduler, which is not a worker thread of the
+     * {@link ManagedPromiseService}.
+     *
+     * @param value the value to fulfil this {@code Promise} with on timeout.
+     * @param timeout the time to wait before fulfilling this {@code Promise}.
+     * @return a new {@link Promise} object.
+     * @throws NullPointerException if {@code timeout} is null.
+     * @throws IllegalArgumentException if {@code timeout} is negative.
+     */
+    Promise<T> completeOnTimeout(final T value, final Duration timeout);
+
     /**
      * Having completed the previous {@code promise}, now execute {@link Consumer}
      * action asynchronously, and return a new {@link Promise} object to manage the
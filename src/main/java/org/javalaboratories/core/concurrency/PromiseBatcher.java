@@ -0,0 +1,152 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.concurrency;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * {@code PromiseBatcher} serves many requests, each with its own
+ * {@link Promise}, with a single call of a batched handler, such as a bulk
+ * lookup of a database or a remote service.
+ * <p>
+ * Requests submitted with {@link PromiseBatcher#submit(Object)} are
+ * accumulated into batches without locking. A batch is handed to the
+ * {@code handler} on a worker of the {@link ManagedPromiseService} once it
+ * holds {@code batchSize} requests, or once its first request has lingered
+ * for the {@code linger} time, whichever comes first. For example:
+ * <pre>
+ * {@code
+ *      PromiseBatcher<Long,User> users = Promises.newBatcher(ids -> repository.findAllById(ids),
+ *              100,Duration.ofMillis(5));
+ *
+ *      Promise<User> user = users.submit(id);
+ * }
+ * </pre>
+ * The {@code handler} must return a {@link List} of values of the same size as
+ * the requests, the value at each index fulfilling the {@code Promise} of the
+ * request at that index. Should the {@code handler} throw an exception, or
+ * return a list of the wrong size, the promises of the whole batch are
+ * rejected. Promises cancelled before their batch is handled are left out of
+ * the batch.
+ * <p>
+ * Unlike the {@link ManagedBatchingPromiseExecutor}, which shares the cost of
+ * handing tasks to workers, a {@code PromiseBatcher} shares the cost of the
+ * work itself. This class is thread-safe.
+ *
+ * @param <R> Type of request.
+ * @param <V> Type of value with which the promise of a request is fulfilled.
+ * @see Promises#newBatcher(Function,int,Duration)
+ * @see ManagedBatchingPromiseExecutor
+ */
+public final class PromiseBatcher<R,V> {
+
+    private final ManagedPromiseService service;
+    private final Function<? super List<R>,? extends List<? extends V>> handler;
+    private final BatchAccumulator<Request<R,V>> accumulator;
+
+    /**
+     * Constructs a batcher whose batches are handled on the {@code service}.
+     * <p>
+     * Use the {@link Promises#newBatcher(Function,int,Duration)} factory method
+     * to create a batcher.
+     *
+     * @param service the thread pool service.
+     * @param timer measures the linger of batches.
+     * @param handler serves a batch of requests with a single call.
+     * @param batchSize maximum number of requests in a batch.
+     * @param linger maximum time a request waits for its batch to fill.
+     * @throws NullPointerException if any argument is null.
+     * @throws IllegalArgumentException if batchSize is less than one or linger
+     * is negative.
+     */
+    PromiseBatcher(final ManagedPromiseService service, final HashedWheelTimer timer,
+                   final Function<? super List<R>,? extends List<? extends V>> handler, final int batchSize,
+                   final Duration linger) {
+        this.service = Objects.requireNonNull(service,"No service?");
+        this.handler = Objects.requireNonNull(handler,"No handler?");
+        if (Objects.requireNonNull(linger,"No linger?").isNegative())
+            throw new IllegalArgumentException("Expected positive linger");
+        this.accumulator = new BatchAccumulator<>(batchSize,linger.toNanos(),timer,this::dispatch);
+    }
+
+    /**
+     * Dispatches the batch that is accumulating to the {@code handler}
+     * without waiting for it to fill.
+     */
+    public void flush() {
+        accumulator.flush();
+    }
+
+    /**
+     * Submits the {@code request} to be served with the batch that is
+     * accumulating.
+     *
+     * @param request to be served by the {@code handler}.
+     * @return a {@link Promise} object that promises the value of the
+     * {@code request}.
+     */
+    public Promise<V> submit(final R request) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        accumulator.add(new Request<>(request,future));
+        return new AsyncPromiseTask<>(service,PrimaryAction.of(future::join),future);
+    }
+
+    @Override
+    public String toString() {
+        return "[batchSize=" + accumulator.getMaximumSize() + ",service=" + service + "]";
+    }
+
+    private void dispatch(final List<Request<R,V>> batch) {
+        try {
+            service.execute(RejectableTask.of(() -> handle(batch),e -> batch.forEach(r -> r.future.completeExceptionally(e))));
+        } catch (RejectedExecutionException e) {
+            batch.forEach(request -> request.future.completeExceptionally(e));
+        }
+    }
+
+    private void handle(final List<Request<R,V>> batch) {
+        List<Request<R,V>> pending = new ArrayList<>(batch.size());
+        List<R> requests = new ArrayList<>(batch.size());
+        for (Request<R,V> request : batch) {
+            if (!request.future.isDone()) {
+                pending.add(request);
+                requests.add(request.request);
+            }
+        }
+        if (pending.isEmpty())
+            return;
+        try {
+            List<? extends V> values = handler.apply(requests);
+            if (values == null || values.size() != pending.size())
+                throw new IllegalStateException("Expected " + pending.size() + " values from batch handler, but was " +
+                        (values == null ? "null" : values.size()));
+            for (int i = 0; i < pending.size(); i++)
+                pending.get(i).future.complete(values.get(i));
+        } catch (Throwable e) {
+            pending.forEach(request -> request.future.completeExceptionally(e));
+        }
+    }
+
+    /*************************** INTERNAL CLASSES *****************************/
+
+    private record Request<R,V>(R request, CompletableFuture<V> future) {}
+}
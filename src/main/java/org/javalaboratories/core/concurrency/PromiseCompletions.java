@@ -0,0 +1,286 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.concurrency;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code PromiseCompletions} streams the settled {@link Promise} objects of a
+ * fan-out in the order in which they settle, rather than the order in which
+ * they were created.
+ * <p>
+ * Unlike {@link Promises#all(List)}, which is only fulfilled once every
+ * {@code Promise} has settled, each {@code Promise} is handed to the consumer
+ * as soon as it is fulfilled or rejected, so that a single straggler does not
+ * hold up the processing of the results that are already available. The
+ * completions may be consumed either with a blocking {@link Iterator}:
+ * <pre>
+ * {@code
+ *      for (Promise<User> promise : Promises.completionOrder(lookups)) {
+ *          promise.getResult().ifPresent(this::process);
+ *      }
+ * }
+ * </pre>
+ * or with a {@link Flow.Subscriber}, whose demand governs how many settled
+ * promises are delivered to it: promises that settle before they are
+ * requested wait in the order they settled. Only the settled promises not
+ * yet consumed are held, so a consumer that keeps pace holds no more than a
+ * few of them at any one time.
+ * <p>
+ * The completions may be consumed only once, by either a single iterator or
+ * a single subscriber. A rejected {@code Promise} is delivered as any other,
+ * and does not end the stream; its state and exception are examined with the
+ * usual methods of {@code Promise}. This class is thread-safe.
+ *
+ * @param <T> Type of value returned from the asynchronous tasks.
+ * @see Promises#completionOrder(List)
+ */
+public final class PromiseCompletions<T> implements Iterable<Promise<T>>, Flow.Publisher<Promise<T>> {
+
+    private final List<Promise<T>> promises;
+    private final BlockingQueue<Promise<T>> settled;
+    private final AtomicBoolean consumed;
+    private volatile Runnable listener;
+
+    /**
+     * Constructs completions of the given {@code promises}, which must already
+     * have been invoked.
+     * <p>
+     * Use the {@link Promises#completionOrder(List)} factory method to create
+     * the completions.
+     *
+     * @param promises the promises of the fan-out.
+     * @throws NullPointerException if promises is null.
+     */
+    PromiseCompletions(final List<Promise<T>> promises) {
+        this.promises = List.copyOf(Objects.requireNonNull(promises,"No promises?"));
+        this.settled = new LinkedBlockingQueue<>();
+        this.consumed = new AtomicBoolean();
+        this.promises.forEach(promise -> Promises.futureOf(promise)
+                .whenComplete((value,exception) -> settle(promise)));
+    }
+
+    /**
+     * Cancels all of the promises that have yet to settle.
+     * <p>
+     * Cancelled promises settle as rejected, and are still delivered to the
+     * consumer.
+     */
+    public void cancel() {
+        promises.forEach(Promise::cancel);
+    }
+
+    /**
+     * Returns the {@link Promise} objects of the fan-out, in the order they were
+     * created.
+     *
+     * @return an unmodifiable list of promises.
+     */
+    public List<Promise<T>> getPromises() {
+        return promises;
+    }
+
+    /**
+     * Returns an {@link Iterator} of the {@link Promise} objects in the order
+     * in which they settle.
+     * <p>
+     * {@link Iterator#next()} blocks until the next {@code Promise} settles,
+     * and should the waiting thread be interrupted, a
+     * {@link CancellationException} is thrown with the interrupt status of the
+     * thread restored.
+     *
+     * @return a blocking iterator of settled promises.
+     * @throws IllegalStateException if the completions have already been
+     * consumed.
+     */
+    @Override
+    public Iterator<Promise<T>> iterator() {
+        consume();
+        return new Iterator<>() {
+            private int delivered;
+
+            @Override
+            public boolean hasNext() {
+                return delivered < promises.size();
+            }
+
+            @Override
+            public Promise<T> next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                try {
+                    Promise<T> result = settled.take();
+                    delivered++;
+                    return result;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CancellationException("Interrupted whilst awaiting completion");
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns the number of {@link Promise} objects in the fan-out.
+     *
+     * @return total number of promises.
+     */
+    public int size() {
+        return promises.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Settled promises are delivered on the thread that requests them or on the
+     * thread that settles them, but never concurrently. Cancelling the
+     * subscription cancels the promises that have yet to settle, there being
+     * no one left to consume them. Should the completions have already been
+     * consumed, the subscriber is signalled with an
+     * {@link IllegalStateException}.
+     *
+     * @param subscriber the subscriber of the settled promises.
+     * @throws NullPointerException if subscriber is null.
+     */
+    @Override
+    public void subscribe(final Flow.Subscriber<? super Promise<T>> subscriber) {
+        Objects.requireNonNull(subscriber,"No subscriber?");
+        try {
+            consume();
+        } catch (IllegalStateException e) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override public void request(long n) {}
+                @Override public void cancel() {}
+            });
+            subscriber.onError(e);
+            return;
+        }
+        CompletionSubscription subscription = new CompletionSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        subscription.drain();
+    }
+
+    @Override
+    public String toString() {
+        return "[size=" + promises.size() + ",settled=" + promises.stream().filter(promise -> promise.getState() != Promise.States.PENDING).count() + "]";
+    }
+
+    private void consume() {
+        if (!consumed.compareAndSet(false,true))
+            throw new IllegalStateException("Completions already consumed");
+    }
+
+    private void settle(final Promise<T> promise) {
+        settled.add(promise);
+        Runnable listener = this.listener;
+        if (listener != null)
+            listener.run();
+    }
+
+    /*************************** INTERNAL CLASSES *****************************/
+
+    /**
+     * Delivers settled promises to a {@link Flow.Subscriber} as demand allows.
+     * <p>
+     * Delivery is serialised with a work-in-progress counter: whichever thread
+     * increments it from zero drains the settled promises, and any other thread
+     * signalling more demand or another settlement merely leaves the draining
+     * thread another pass to make. This also prevents unbounded recursion
+     * should the subscriber request more from within {@code onNext}.
+     */
+    private final class CompletionSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super Promise<T>> subscriber;
+        private final AtomicLong demand;
+        private final AtomicInteger pending;
+        private int delivered;
+        private volatile boolean cancelled;
+        private volatile Throwable error;
+
+        private CompletionSubscription(final Flow.Subscriber<? super Promise<T>> subscriber) {
+            this.subscriber = subscriber;
+            this.demand = new AtomicLong();
+            this.pending = new AtomicInteger();
+            listener = this::drain;
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0)
+                error = new IllegalArgumentException("Expected positive request, but was " + n);
+            else
+                demand.getAndAccumulate(n,(current,x) -> current + x < 0 ? Long.MAX_VALUE : current + x);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                listener = null;
+                PromiseCompletions.this.cancel();
+            }
+        }
+
+        private void drain() {
+            if (pending.getAndIncrement() != 0)
+                return;
+            int missed = 1;
+            do {
+                if (deliver())
+                    return;
+                missed = pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private boolean deliver() {
+            if (cancelled)
+                return true;
+            Throwable e = error;
+            if (e != null) {
+                cancel();
+                subscriber.onError(e);
+                return true;
+            }
+            while (delivered < promises.size() && demand.get() > 0) {
+                Promise<T> promise = settled.poll();
+                if (promise == null)
+                    break;
+                delivered++;
+                demand.decrementAndGet();
+                subscriber.onNext(promise);
+                if (cancelled)
+                    return true;
+            }
+            if (delivered == promises.size()) {
+                cancelled = true;
+                listener = null;
+                subscriber.onComplete();
+                return true;
+            }
+            return false;
+        }
+    }
+}
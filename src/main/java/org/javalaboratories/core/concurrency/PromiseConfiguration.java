@@ -39,11 +39,21 @@ import java.util.function.Predicate;
  *     {@code
  *          promise.managed.service.class=org.javalaboratories.core.concurrency.ManagedPromisePoolExecutor
  *          promise.managed.service.capacity=-1
+ *          promise.managed.service.queue.capacity=8192
+ *          promise.managed.service.admission.policy=BLOCK
+ *          promise.managed.service.batch.size=64
+ *          promise.managed.service.batch.linger=1
  *     }
  * </pre>
  * Setting the property value {@code promise.pool.service.capacity} to -1
  * informs the {@link PromiseConfiguration} to calculate the capacity.
  * <p>
+ * The queue capacity and {@link AdmissionPolicy} apply to services that
+ * control admission, such as the {@link ManagedThreadPerTaskPromiseExecutor}.
+ * The batch size and linger, in milliseconds, apply to services that batch
+ * submissions, such as the {@link ManagedBatchingPromiseExecutor}. Invalid
+ * values are ignored in favour of the defaults.
+ * <p>
  * If the configuration file is unavailable and system properties unspecified,
  * the above configuration property values will apply. The properties are derived
  * in the following priority, from left to right, leftmost has the highest
@@ -60,8 +70,16 @@ public class PromiseConfiguration {
 
     public static final String PROMISE_MANAGED_SERVICE_CAPACITY_PROPERTY ="promise.managed.service.capacity";
     public static final String PROMISE_MANAGED_SERVICE_CLASS_PROPERTY ="promise.managed.service.class";
+    public static final String PROMISE_MANAGED_SERVICE_QUEUE_CAPACITY_PROPERTY ="promise.managed.service.queue.capacity";
+    public static final String PROMISE_MANAGED_SERVICE_ADMISSION_POLICY_PROPERTY ="promise.managed.service.admission.policy";
+    public static final String PROMISE_MANAGED_SERVICE_BATCH_SIZE_PROPERTY ="promise.managed.service.batch.size";
+    public static final String PROMISE_MANAGED_SERVICE_BATCH_LINGER_PROPERTY ="promise.managed.service.batch.linger";
 
     public static final String DEFAULT_MANAGED_SERVICE_CLASSNAME ="org.javalaboratories.core.concurrency.ManagedThreadPoolPromiseExecutor";
+    public static final int DEFAULT_SERVICE_QUEUE_CAPACITY = 8192;
+    public static final AdmissionPolicy DEFAULT_SERVICE_ADMISSION_POLICY = AdmissionPolicy.BLOCK;
+    public static final int DEFAULT_SERVICE_BATCH_SIZE = 64;
+    public static final int DEFAULT_SERVICE_BATCH_LINGER = 1;
 
     private static final String PROMISE_CONFIGURATION_FILE= "promise-configuration.properties";
     private static final int MINIMUM_CAPACITY = 1;
@@ -74,6 +92,10 @@ public class PromiseConfiguration {
 
     int serviceCapacity;
     String serviceClassName;
+    int serviceQueueCapacity;
+    AdmissionPolicy serviceAdmissionPolicy;
+    int serviceBatchSize;
+    int serviceBatchLinger;
 
     /**
      * Constructs an instance of this object.
@@ -121,6 +143,22 @@ public class PromiseConfiguration {
         serviceClassName = getValue(PROMISE_MANAGED_SERVICE_CLASS_PROPERTY, DEFAULT_MANAGED_SERVICE_CLASSNAME);
         int capacity = getValue(PROMISE_MANAGED_SERVICE_CAPACITY_PROPERTY,-1);
         serviceCapacity = capacity < MINIMUM_CAPACITY ? Runtime.getRuntime().availableProcessors() : capacity;
+        Object queueCapacity = this.<Object>getValue(PROMISE_MANAGED_SERVICE_QUEUE_CAPACITY_PROPERTY,DEFAULT_SERVICE_QUEUE_CAPACITY);
+        serviceQueueCapacity = queueCapacity instanceof Integer i && i >= MINIMUM_CAPACITY ? i : DEFAULT_SERVICE_QUEUE_CAPACITY;
+        Object policy = this.<Object>getValue(PROMISE_MANAGED_SERVICE_ADMISSION_POLICY_PROPERTY,DEFAULT_SERVICE_ADMISSION_POLICY.name());
+        serviceAdmissionPolicy = toAdmissionPolicy(String.valueOf(policy));
+        Object batchSize = this.<Object>getValue(PROMISE_MANAGED_SERVICE_BATCH_SIZE_PROPERTY,DEFAULT_SERVICE_BATCH_SIZE);
+        serviceBatchSize = batchSize instanceof Integer i && i >= MINIMUM_CAPACITY ? i : DEFAULT_SERVICE_BATCH_SIZE;
+        Object batchLinger = this.<Object>getValue(PROMISE_MANAGED_SERVICE_BATCH_LINGER_PROPERTY,DEFAULT_SERVICE_BATCH_LINGER);
+        serviceBatchLinger = batchLinger instanceof Integer i && i >= 0 ? i : DEFAULT_SERVICE_BATCH_LINGER;
+    }
+
+    private AdmissionPolicy toAdmissionPolicy(final String value) {
+        try {
+            return AdmissionPolicy.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return DEFAULT_SERVICE_ADMISSION_POLICY;
+        }
     }
 
     private <T> T getValue(String property, T value) {
@@ -0,0 +1,327 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.concurrency;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A {@code PromiseScope} confines a group of {@link Promise} objects to a block
+ * of code, modelled on the {@code StructuredTaskScope} of the JDK with a
+ * shutdown-on-failure policy.
+ * <p>
+ * Promises are forked into the scope with {@link PromiseScope#fork(PrimaryAction)},
+ * joined together with {@link PromiseScope#join()} and cannot outlive the
+ * scope: {@link PromiseScope#close()} cancels any that are still pending and
+ * waits for their tasks to finish. Should any of the forked promises be
+ * rejected, or the deadline of the scope pass, the scope is shut down: all of
+ * the other forked promises are cancelled, interrupting their running tasks
+ * and never starting those that are waiting, so that no work is wasted on
+ * results that nobody will read. For example:
+ * <pre>
+ * {@code
+ *      try (PromiseScope scope = Promises.newScope(Duration.ofSeconds(5))) {
+ *          Promise<User> user = scope.fork(PrimaryAction.of(() -> findUser(id)));
+ *          Promise<Order> order = scope.fork(PrimaryAction.of(() -> fetchOrder(id)));
+ *
+ *          scope.join();
+ *          return new Summary(user.getResult().orElseThrow(),order.getResult().orElseThrow());
+ *      }
+ * }
+ * </pre>
+ * Only the first rejection is reported by {@code join}; the cancellation of the
+ * other promises that follows it is not considered a failure. Forked promises
+ * run on the {@link ManagedPromiseService} of the scope, whether it is the
+ * pooled {@link ManagedThreadPoolPromiseExecutor} or the virtual-thread
+ * {@link ManagedThreadPerTaskPromiseExecutor}.
+ * <p>
+ * A scope is intended to be opened, joined and closed by the same thread, with
+ * the try-with-resources statement. Promises may be forked by that thread or
+ * by the tasks of the scope. This class is thread-safe.
+ *
+ * @see Promises#newScope()
+ * @see Promises#newScope(Duration)
+ */
+public final class PromiseScope implements AutoCloseable {
+
+    private final ManagedPromiseService service;
+    private final CompletableFuture<Void> deadline;
+    private final ReentrantLock lock;
+    private final Condition changed;
+    private final List<AsyncPromiseTask<?>> promises;
+    private int unsettled;
+    private int running;
+    private boolean shutdown;
+    private boolean cancelled;
+    private boolean closed;
+    private Throwable failure;
+
+    /**
+     * Constructs a scope whose promises run on the given {@code service}.
+     * <p>
+     * Use the {@link Promises#newScope()} factory methods to create a scope.
+     *
+     * @param service the thread pool service.
+     * @param timeout time after which the scope is shut down, or {@code null}
+     *                for no deadline.
+     * @throws NullPointerException if service is null.
+     * @throws IllegalArgumentException if timeout is negative.
+     */
+    PromiseScope(final ManagedPromiseService service, final Duration timeout) {
+        this.service = Objects.requireNonNull(service,"No service?");
+        this.lock = new ReentrantLock();
+        this.changed = lock.newCondition();
+        this.promises = new ArrayList<>();
+        this.deadline = new CompletableFuture<>();
+        if (timeout != null) {
+            if (timeout.isNegative())
+                throw new IllegalArgumentException("Expected positive timeout");
+            deadline.orTimeout(toNanos(timeout),TimeUnit.NANOSECONDS)
+                    .whenComplete((value,exception) -> {
+                        if (exception instanceof TimeoutException)
+                            shutdown(exception);
+                    });
+        }
+    }
+
+    /**
+     * Forks a {@link Promise} in this scope, executing the task of the
+     * {@code action} asynchronously.
+     * <p>
+     * If this scope has already been shut down, the returned {@code Promise} is
+     * cancelled and its task never started.
+     *
+     * @param action a {@link PrimaryAction} encapsulating the task to be
+     *               executed asynchronously.
+     * @param <T> Type of value returned from asynchronous task.
+     * @return a new {@link Promise} object confined to this scope.
+     * @throws NullPointerException if action is null.
+     * @throws IllegalStateException if this scope is closed.
+     * @throws RejectedExecutionException if the service refused the task, in
+     * which case the promise is not forked in this scope.
+     */
+    public <T> Promise<T> fork(final PrimaryAction<T> action) {
+        Objects.requireNonNull(action,"No action?");
+        Supplier<T> task = action.getTask().orElseThrow();
+        AsyncPromiseTask<T> result = new AsyncPromiseTask<>(service,action);
+        lock.lock();
+        try {
+            if (closed)
+                throw new IllegalStateException("Scope closed");
+            promises.add(result);
+            unsettled++;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            result.invoke(PrimaryAction.of(() -> run(task),action.getCompletionHandler().orElse(null)));
+        } catch (RejectedExecutionException e) {
+            // The promise will never settle, so it is withdrawn from the scope
+            lock.lock();
+            try {
+                promises.remove(result);
+                unsettled--;
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+        result.getFuture().whenComplete((value,exception) -> settle(exception));
+        if (isShutdown())
+            result.cancel();
+        return result;
+    }
+
+    /**
+     * @return {@code true} if this scope has been shut down, following a
+     * rejection, its deadline or {@link PromiseScope#shutdown()}.
+     */
+    public boolean isShutdown() {
+        lock.lock();
+        try {
+            return shutdown;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits for all of the promises forked in this scope to settle, or for
+     * this scope to be shut down, whichever happens first.
+     * <p>
+     * This is a blocking call. If this scope was shut down explicitly, with
+     * {@link PromiseScope#shutdown()}, this method returns normally; this is
+     * useful when a task has found the result it was looking for.
+     *
+     * @return this scope.
+     * @throws CompletionException if a forked promise was rejected, with its
+     * exception as the cause, or if the deadline of this scope passed, with a
+     * {@link TimeoutException} as the cause.
+     * @throws CancellationException if the current thread was interrupted
+     * whilst waiting.
+     * @throws IllegalStateException if this scope is closed.
+     */
+    public PromiseScope join() {
+        lock.lock();
+        try {
+            if (closed)
+                throw new IllegalStateException("Scope closed");
+            while (unsettled > 0 && !cancelled)
+                changed.await();
+            if (failure != null)
+                throw new CompletionException(failure);
+            return this;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted whilst joining scope");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Shuts down this scope, cancelling all of its pending promises, and
+     * preventing the tasks of further promises from starting. Any thread
+     * waiting in {@link PromiseScope#join()} is released.
+     * <p>
+     * This method is idempotent.
+     */
+    public void shutdown() {
+        shutdown(null);
+    }
+
+    /**
+     * Closes this scope, shutting it down if necessary and waiting for the
+     * running tasks of its promises to finish, so that none outlives the scope.
+     * <p>
+     * This method is idempotent.
+     */
+    @Override
+    public void close() {
+        shutdown();
+        boolean interrupted = false;
+        lock.lock();
+        try {
+            closed = true;
+            while (running > 0) {
+                try {
+                    changed.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        deadline.complete(null);
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    /**
+     * @return a {@link String} object describing this {@link PromiseScope} object.
+     */
+    @Override
+    public String toString() {
+        lock.lock();
+        try {
+            return String.format("[promises=%d,unsettled=%d,running=%d,shutdown=%s,closed=%s,service=%s]",
+                    promises.size(),unsettled,running,shutdown,closed,service);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private <T> T run(final Supplier<T> task) {
+        lock.lock();
+        try {
+            if (shutdown)
+                throw new CancellationException("Scope shut down before task started");
+            running++;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            return task.get();
+        } finally {
+            lock.lock();
+            try {
+                running--;
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void settle(final Throwable exception) {
+        Throwable cause = exception instanceof CompletionException && exception.getCause() != null
+                ? exception.getCause() : exception;
+        if (cause != null && !(cause instanceof CancellationException))
+            shutdown(cause);
+        lock.lock();
+        try {
+            unsettled--;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void shutdown(final Throwable cause) {
+        List<AsyncPromiseTask<?>> pending;
+        lock.lock();
+        try {
+            if (shutdown)
+                return;
+            shutdown = true;
+            failure = cause;
+            pending = List.copyOf(promises);
+        } finally {
+            lock.unlock();
+        }
+        // Cancelled outside of the lock, as cancellation settles promises
+        pending.forEach(AsyncPromiseTask::cancel);
+        lock.lock();
+        try {
+            // Joiners are released only once the pending promises are cancelled
+            cancelled = true;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static long toNanos(final Duration timeout) {
+        try {
+            return timeout.toNanos();
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.concurrency;
+
+/**
+ * Management interface of a {@link ManagedPromiseService}, published to the
+ * platform {@code MBeanServer} with
+ * {@link AbstractManagedPromiseService#registerMBean()}.
+ * <p>
+ * Attributes are read-only and correspond to those of the
+ * {@link PromiseServiceSnapshot}. Latencies are in nanoseconds.
+ */
+public interface PromiseServiceMXBean {
+
+    String getServiceClassName();
+
+    String getState();
+
+    int getCapacity();
+
+    int getQueueSize();
+
+    long getActiveCount();
+
+    long getSubmittedCount();
+
+    long getCompletedCount();
+
+    long getFailedCount();
+
+    long getRejectedCount();
+
+    long getThrottledCount();
+
+    PromiseServiceSnapshot.Latency getWaitTime();
+
+    PromiseServiceSnapshot.Latency getRunTime();
+}
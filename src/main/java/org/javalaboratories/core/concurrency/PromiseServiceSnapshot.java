@@ -0,0 +1,112 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.concurrency;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * An immutable snapshot of the operational metrics of a
+ * {@link ManagedPromiseService}, taken with
+ * {@link AbstractManagedPromiseService#getSnapshot()}.
+ * <p>
+ * Counters are cumulative from the creation of the service. As metrics are
+ * recorded concurrently with taking the snapshot, the values are estimates
+ * that may be marginally inconsistent with one another. A task that has been
+ * submitted, but has neither concluded nor been rejected, is either waiting
+ * for a worker or running.
+ */
+@Value
+@AllArgsConstructor(access=AccessLevel.PACKAGE)
+public class PromiseServiceSnapshot {
+    /**
+     * Class name of the service.
+     */
+    String serviceClassName;
+
+    /**
+     * State of the service.
+     */
+    ManagedPromiseService.ServiceStates state;
+
+    /**
+     * Configured capacity of the service.
+     */
+    int capacity;
+
+    /**
+     * Number of tasks waiting for a worker, if known, otherwise zero.
+     */
+    int queueSize;
+
+    /**
+     * Number of tasks running.
+     */
+    long activeCount;
+
+    /**
+     * Number of tasks submitted.
+     */
+    long submittedCount;
+
+    /**
+     * Number of tasks run to conclusion.
+     */
+    long completedCount;
+
+    /**
+     * Number of tasks that terminated with an exception.
+     */
+    long failedCount;
+
+    /**
+     * Number of tasks rejected, shed or discarded without being run.
+     */
+    long rejectedCount;
+
+    /**
+     * Number of submissions throttled by the {@link AdmissionPolicy}, if
+     * admission is controlled by the service, otherwise zero.
+     */
+    long throttledCount;
+
+    /**
+     * Latencies of tasks from submission to the start of their run.
+     */
+    Latency waitTime;
+
+    /**
+     * Latencies of tasks from the start to the conclusion of their run.
+     */
+    Latency runTime;
+
+    /**
+     * An immutable summary of a latency distribution, in nanoseconds.
+     * <p>
+     * Percentiles are estimated to within 25% of the recorded latencies.
+     */
+    @Value
+    @AllArgsConstructor(access=AccessLevel.PACKAGE)
+    public static class Latency {
+        long count;
+        long meanNanos;
+        long p50Nanos;
+        long p90Nanos;
+        long p99Nanos;
+        long maxNanos;
+    }
+}
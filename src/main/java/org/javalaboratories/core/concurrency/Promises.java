@@ -15,14 +15,27 @@
  */
 package org.javalaboratories.core.concurrency;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * This is a factory for creating {@link Promise} objects.
@@ -102,12 +115,18 @@ public final class Promises {
      * case, an {@code action} task object will remain in the queue until a worker
      * becomes available.
      * <p>
-     * A {@link Promise} object is immediately returned, providing a reference
-     * to an asynchronous process that is currently waiting completion of the all
-     * the {@code actions} objects. However, if any of the {@code Promise} objects
-     * fail, the first rejection encountered will be returned encapsulated as a
-     * {@link Promise} object. Use the {@link Promise#handle(Consumer)} to catch
-     * or handle the exception thrown asynchronously.
+     * A {@link Promise} object is immediately returned, which is fulfilled
+     * with the {@code Promise} objects of the {@code actions}, in the same
+     * order, once they have all been fulfilled. However, if any of the
+     * {@code Promise} objects fail, the returned {@link Promise} is rejected
+     * as soon as the first rejection occurs, with its exception. Use the
+     * {@link Promise#handle(Consumer)} to catch or handle the exception thrown
+     * asynchronously.
+     * <p>
+     * No worker thread waits on the {@code actions}: the returned
+     * {@link Promise} is completed by whichever worker completes the last of
+     * them, hence any number of aggregations may be pending without consuming
+     * the capacity of the {@link ManagedPromiseService}.
      *
      * @param actions a {@link List} of {@link PrimaryAction} objects to be queued
      * @param <T> Type of value returned from asynchronous task.
@@ -129,9 +148,14 @@ public final class Promises {
      * case, an {@code action} task object will remain in the queue until a worker
      * becomes available.
      * <p>
-     * A {@link Promise} object is immediately returned, providing a reference
-     * to an asynchronous process that is currently waiting completion of the all
-     * the {@code actions} objects.
+     * A {@link Promise} object is immediately returned, which is fulfilled
+     * with the {@code Promise} objects of the {@code actions}, in the same
+     * order, once they have concluded.
+     * <p>
+     * No worker thread waits on the {@code actions}: the returned
+     * {@link Promise} is completed by whichever worker completes the last of
+     * them, hence any number of aggregations may be pending without consuming
+     * the capacity of the {@link ManagedPromiseService}.
      *
      * @param actions a {@link List} of {@link PrimaryAction} objects to be queued
      * @param settle {@code true} all promises will either resolve or reject, but
@@ -147,17 +171,270 @@ public final class Promises {
 
         List<Promise<T>> promises = all(actions,(action) -> () -> new AsyncPromiseTask<>(managedService,action));
 
-        // Start new thread process that will wait on aforementioned asynchronous
-        // processes
-        PrimaryAction<List<Promise<T>>> action = PrimaryAction.of(() -> {
-            promises.forEach(p -> {
-                if (settle) p.await();
-                else p.handle(Promise.DEFAULT_EXCEPTION_HANDLER);
+        // Count down completions of the aforementioned asynchronous processes,
+        // rather than wait on them.
+        CompletableFuture<List<Promise<T>>> future = new CompletableFuture<>();
+        AtomicInteger remaining = new AtomicInteger(promises.size());
+        if (promises.isEmpty())
+            future.complete(promises);
+        promises.forEach(p -> futureOf(p).whenComplete((value,exception) -> {
+            if (exception != null && !settle)
+                future.completeExceptionally(unwrap(exception));
+            else if (remaining.decrementAndGet() == 0)
+                future.complete(promises);
+        }));
+
+        return new AsyncPromiseTask<>(managedService,PrimaryAction.of(() -> promises),future);
+    }
+
+    /**
+     * Queues all {@link PrimaryAction} objects for processing, returning a
+     * {@link Promise} that is fulfilled with the value of the first of them to
+     * be fulfilled.
+     * <p>
+     * This is typically used to hedge a request over several replicas, where
+     * the quickest response is taken. Once a {@link PrimaryAction} has been
+     * fulfilled, the {@code Promise} objects of the others are cancelled: their
+     * running tasks are interrupted and those not yet started are never started,
+     * releasing capacity of the {@link ManagedPromiseService}. Rejections are ignored unless all
+     * of the {@code actions} are rejected, in which case the returned
+     * {@link Promise} is rejected with an {@link AggregateException} of their
+     * exceptions.
+     * <p>
+     * No worker thread waits on the {@code actions}.
+     *
+     * @param actions a {@link List} of {@link PrimaryAction} objects to be queued
+     * @param <T> Type of value returned from asynchronous task.
+     * @return a {@link Promise} object that promises the value of the first
+     * fulfilled {@code action}.
+     * @throws NullPointerException if {@code actions} is null
+     * @throws IllegalArgumentException if {@code actions} is empty
+     * @see Promises#race(List)
+     */
+    public static <T> Promise<T> any(final List<PrimaryAction<T>> actions) {
+        List<Promise<T>> promises = all(requireActions(actions),(action) -> () -> new AsyncPromiseTask<>(managedService,action));
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        AtomicInteger remaining = new AtomicInteger(promises.size());
+        Throwable[] causes = new Throwable[promises.size()];
+        for (int i = 0; i < promises.size(); i++) {
+            int index = i;
+            Promise<T> promise = promises.get(i);
+            futureOf(promise).whenComplete((value,exception) -> {
+                if (exception == null) {
+                    if (future.complete(value))
+                        cancelLosers(promises,promise);
+                } else {
+                    causes[index] = unwrap(exception);
+                    if (remaining.decrementAndGet() == 0)
+                        future.completeExceptionally(new AggregateException("All promises were rejected",
+                                Arrays.asList(causes)));
+                }
             });
-            return promises;
-        });
+        }
+
+        return new AsyncPromiseTask<>(managedService,PrimaryAction.of(future::join),future);
+    }
+
+    /**
+     * Queues all {@link PrimaryAction} objects for processing, returning their
+     * {@link Promise} objects in the order in which they settle.
+     * <p>
+     * Each {@code Promise} is available to the consumer as soon as it is
+     * fulfilled or rejected, rather than once all of them have settled as with
+     * {@link Promises#all(List)}. The returned {@link PromiseCompletions} may
+     * be consumed once, either as a blocking {@link java.util.Iterator} or as
+     * a {@link java.util.concurrent.Flow.Publisher} with demand-based
+     * backpressure.
+     *
+     * @param actions a {@link List} of {@link PrimaryAction} objects to be queued
+     * @param <T> Type of value returned from asynchronous task.
+     * @return the completions of the promises, in settlement order.
+     * @throws NullPointerException if {@code actions} is null
+     * @throws IllegalArgumentException if {@code actions} is empty
+     * @see PromiseCompletions
+     */
+    public static <T> PromiseCompletions<T> completionOrder(final List<PrimaryAction<T>> actions) {
+        return new PromiseCompletions<>(all(requireActions(actions),(action) -> () -> new AsyncPromiseTask<>(managedService,action)));
+    }
+
+    /**
+     * Returns a {@link Promise} that is fulfilled, with a {@code null} value,
+     * once the {@code delay} has elapsed.
+     * <p>
+     * No worker thread waits for the {@code delay}: it is measured by the
+     * hashed timing wheel of the {@link ManagedPromiseService}, a single
+     * thread that is capable of holding millions of pending timers cheaply,
+     * to a precision of a millisecond or so. Subsequent actions, appended with
+     * the {@code then} methods, are submitted to the
+     * {@link ManagedPromiseService} as usual. Cancelling the returned
+     * {@code Promise} cancels its timer, and should the service stop before
+     * the {@code delay} has elapsed, the {@code Promise} is rejected.
+     *
+     * @param delay duration to wait.
+     * @return a {@link Promise} object that is fulfilled after the
+     * {@code delay}.
+     * @throws NullPointerException if {@code delay} is null
+     * @throws IllegalArgumentException if {@code delay} is negative
+     * @see Promises#schedule(PrimaryAction, Duration)
+     */
+    public static Promise<Void> delay(final Duration delay) {
+        long nanos = toNanos(delay);
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        try {
+            HashedWheelTimer.Timeout timeout = timerOf(managedService)
+                    .schedule(RejectableTask.of(() -> future.complete(null),future::completeExceptionally),nanos,
+                            TimeUnit.NANOSECONDS);
+            future.whenComplete((value,exception) -> timeout.cancel());
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return new AsyncPromiseTask<>(managedService,PrimaryAction.of(future::join),future);
+    }
+
+    /**
+     * Maps each of the {@code inputs} through the {@code mapper} asynchronously,
+     * with no more than {@code parallelism} tasks in flight at any one time.
+     * <p>
+     * Equivalent to {@link Promises#map(Iterator,Function,int,int)} with the
+     * iterator of the {@code inputs} and a chunk size of one.
+     *
+     * @param inputs a {@link Collection} of inputs to be mapped.
+     * @param mapper function to apply to each input.
+     * @param parallelism maximum number of tasks in flight.
+     * @param <E> Type of input.
+     * @param <T> Type of value returned from the {@code mapper}.
+     * @return a {@link Promise} object that promises the mapped values, in the
+     * order of the {@code inputs}.
+     * @throws NullPointerException if {@code inputs} or {@code mapper} is null
+     * @throws IllegalArgumentException if {@code parallelism} is less than one
+     */
+    public static <E,T> Promise<List<T>> map(final Collection<? extends E> inputs,
+                                             final Function<? super E,? extends T> mapper, final int parallelism) {
+        return map(Objects.requireNonNull(inputs,"No inputs?").iterator(),mapper,parallelism,1);
+    }
+
+    /**
+     * Maps each of the {@code inputs} through the {@code mapper} asynchronously,
+     * with no more than {@code parallelism} tasks in flight at any one time.
+     * <p>
+     * Equivalent to {@link Promises#map(Iterator,Function,int,int)} with the
+     * iterator of the {@code inputs} and a chunk size of one. The
+     * {@link Stream} is consumed lazily, and closed once the returned
+     * {@link Promise} settles.
+     *
+     * @param inputs a {@link Stream} of inputs to be mapped.
+     * @param mapper function to apply to each input.
+     * @param parallelism maximum number of tasks in flight.
+     * @param <E> Type of input.
+     * @param <T> Type of value returned from the {@code mapper}.
+     * @return a {@link Promise} object that promises the mapped values, in the
+     * order of the {@code inputs}.
+     * @throws NullPointerException if {@code inputs} or {@code mapper} is null
+     * @throws IllegalArgumentException if {@code parallelism} is less than one
+     */
+    public static <E,T> Promise<List<T>> map(final Stream<? extends E> inputs,
+                                             final Function<? super E,? extends T> mapper, final int parallelism) {
+        Stream<? extends E> stream = Objects.requireNonNull(inputs,"No inputs?");
+        Promise<List<T>> result = map(stream.iterator(),mapper,parallelism,1);
+        futureOf(result).whenComplete((value,exception) -> stream.close());
+        return result;
+    }
+
+    /**
+     * Maps each of the {@code inputs} through the {@code mapper} asynchronously,
+     * with no more than {@code parallelism} tasks in flight at any one time.
+     * <p>
+     * Equivalent to {@link Promises#map(Iterator,Function,int,int)} with a
+     * chunk size of one.
+     *
+     * @param inputs an {@link Iterator} of inputs to be mapped.
+     * @param mapper function to apply to each input.
+     * @param parallelism maximum number of tasks in flight.
+     * @param <E> Type of input.
+     * @param <T> Type of value returned from the {@code mapper}.
+     * @return a {@link Promise} object that promises the mapped values, in the
+     * order of the {@code inputs}.
+     * @throws NullPointerException if {@code inputs} or {@code mapper} is null
+     * @throws IllegalArgumentException if {@code parallelism} is less than one
+     */
+    public static <E,T> Promise<List<T>> map(final Iterator<? extends E> inputs,
+                                             final Function<? super E,? extends T> mapper, final int parallelism) {
+        return map(inputs,mapper,parallelism,1);
+    }
+
+    /**
+     * Maps each of the {@code inputs} through the {@code mapper} asynchronously,
+     * with no more than {@code parallelism} tasks in flight at any one time.
+     * <p>
+     * Unlike {@link Promises#all(List)}, which queues every action at once,
+     * inputs are pulled from the {@link Iterator} lazily: only once a task has
+     * completed is the next chunk of {@code chunkSize} inputs pulled and
+     * queued, each task applying the {@code mapper} to every input of its
+     * chunk in turn. Hence, however many inputs there are, no more than
+     * {@code parallelism} tasks occupy the queue of the
+     * {@link ManagedPromiseService} or the resources they call upon, and only
+     * the mapped values are retained. Larger chunks reduce the overhead of a
+     * task per input when the {@code mapper} is cheap.
+     * <p>
+     * The returned {@link Promise} is fulfilled with the mapped values in the
+     * order of the {@code inputs}. Should the {@code mapper} or the
+     * {@code Iterator} throw an exception, it is rejected with that exception,
+     * no further inputs are pulled and the tasks in flight are cancelled, as
+     * they are should the returned {@code Promise} be cancelled. No worker
+     * thread waits on the tasks in flight.
+     *
+     * @param inputs an {@link Iterator} of inputs to be mapped.
+     * @param mapper function to apply to each input.
+     * @param parallelism maximum number of tasks in flight.
+     * @param chunkSize number of inputs mapped by each task.
+     * @param <E> Type of input.
+     * @param <T> Type of value returned from the {@code mapper}.
+     * @return a {@link Promise} object that promises the mapped values, in the
+     * order of the {@code inputs}.
+     * @throws NullPointerException if {@code inputs} or {@code mapper} is null
+     * @throws IllegalArgumentException if {@code parallelism} or
+     * {@code chunkSize} is less than one
+     */
+    public static <E,T> Promise<List<T>> map(final Iterator<? extends E> inputs,
+                                             final Function<? super E,? extends T> mapper, final int parallelism,
+                                             final int chunkSize) {
+        Objects.requireNonNull(inputs,"No inputs?");
+        Objects.requireNonNull(mapper,"No mapper?");
+        if (parallelism < 1)
+            throw new IllegalArgumentException("Expected > 0 parallelism");
+        if (chunkSize < 1)
+            throw new IllegalArgumentException("Expected > 0 chunk size");
+        BoundedMap<E,T> map = new BoundedMap<>(managedService,inputs,mapper,parallelism,chunkSize);
+        map.pump();
+        return new AsyncPromiseTask<>(managedService,PrimaryAction.of(map.future::join),map.future);
+    }
 
-        return (Promise<List<Promise<T>>>) newInvocable(action,() -> new AsyncPromiseTask<>(managedService,action));
+    /**
+     * Creates a {@link PromiseBatcher} that serves many requests, each with its
+     * own {@link Promise}, with a single call of the batched {@code handler}.
+     * <p>
+     * Requests are accumulated into batches of up to {@code batchSize}
+     * requests, and a batch is handed to the {@code handler} on a worker of the
+     * {@link ManagedPromiseService} once it is full, or once its first request
+     * has lingered for the {@code linger} time.
+     *
+     * @param handler serves a batch of requests, returning their values in the
+     *                order of the requests.
+     * @param batchSize maximum number of requests in a batch.
+     * @param linger maximum time a request waits for its batch to fill.
+     * @param <R> Type of request.
+     * @param <V> Type of value with which the promise of a request is
+     *           fulfilled.
+     * @return a new {@link PromiseBatcher}.
+     * @throws NullPointerException if {@code handler} or {@code linger} is null
+     * @throws IllegalArgumentException if {@code batchSize} is less than one
+     * or {@code linger} is negative
+     * @see PromiseBatcher
+     */
+    public static <R,V> PromiseBatcher<R,V> newBatcher(final Function<? super List<R>,? extends List<? extends V>> handler,
+                                                      final int batchSize, final Duration linger) {
+        return new PromiseBatcher<>(managedService,timerOf(managedService),handler,batchSize,linger);
     }
 
     /**
@@ -195,6 +472,64 @@ public final class Promises {
     public static <T> Promise<T> newPromise(final PrimaryAction<T> action) {
         return (Promise<T>) newInvocable(action, () -> new AsyncPromiseTask<>(managedService,action));
     }
+
+    /**
+     * Factory method to create instances of {@link Promise} objects, whose
+     * tasks are executed by the given {@code service} rather than the service
+     * of this factory.
+     * <p>
+     * The {@code action} and any subsequent actions appended with the
+     * {@code then} methods are executed by the {@code service}, for example a
+     * key of the {@link ManagedKeyedPromiseExecutor} so that the promises of
+     * the same key are kept in order. The lifecycle of the {@code service} is
+     * the responsibility of the caller.
+     *
+     * @param action a {@link PrimaryAction} encapsulating the task to be
+     *               executed asynchronously.
+     * @param service the service to execute the tasks of the promise.
+     * @param <T> Type of value returned from asynchronous task.
+     * @return a new {@link Promise} object.
+     * @throws NullPointerException if {@code action} or {@code service} is null
+     * @see ManagedKeyedPromiseExecutor#forKey(Object)
+     */
+    public static <T> Promise<T> newPromise(final PrimaryAction<T> action, final ManagedPromiseService service) {
+        Objects.requireNonNull(service,"No service?");
+        return (Promise<T>) newInvocable(action, () -> new AsyncPromiseTask<>(service,action));
+    }
+
+    /**
+     * Factory method to create instances of {@link Promise} objects, whose
+     * task is executed once the {@code limiter} grants it a permit.
+     * <p>
+     * Should the permit be due, the task is executed immediately, as with
+     * {@link Promises#newPromise(PrimaryAction)}; otherwise it is scheduled
+     * to execute when the permit is due, as with
+     * {@link Promises#schedule(PrimaryAction,Duration)}, so that no worker
+     * thread waits for it. Subsequent actions, appended with the {@code then}
+     * methods, do not take permits. Should the permit be refused, because it
+     * is not due within the maximum wait of the {@code limiter}, the returned
+     * {@code Promise} is rejected with a {@link RejectedExecutionException}.
+     *
+     * @param action a {@link PrimaryAction} encapsulating the task to be
+     *               executed asynchronously.
+     * @param limiter grants the permit of the task.
+     * @param <T> Type of value returned from asynchronous task.
+     * @return a new {@link Promise} object.
+     * @throws NullPointerException if {@code action} or {@code limiter} is null
+     * @see RateLimiter
+     */
+    public static <T> Promise<T> newPromise(final PrimaryAction<T> action, final RateLimiter limiter) {
+        Objects.requireNonNull(action,"Cannot keep promise -- no action?");
+        long delay = Objects.requireNonNull(limiter,"No limiter?").reserve();
+        if (delay == 0L)
+            return newPromise(action);
+        if (delay > 0L)
+            return schedule(action,Duration.ofNanos(delay));
+        RejectedExecutionException exception = new RejectedExecutionException("Rate limit exceeded -- promise rejected");
+        action.getCompletionHandler().ifPresent(handler -> handler.accept(null,exception));
+        return new AsyncPromiseTask<>(managedService,action,CompletableFuture.failedFuture(exception));
+    }
+
     /**
      * Factory method to create instances of event-driven {@link Promise}
      * objects.
@@ -257,6 +592,129 @@ public final class Promises {
         return (Promise<T>) newInvocable(action, () -> new AsyncPromiseTaskPublisher<>(managedService,action,subscribers));
     }
 
+    /**
+     * Factory method to create a {@link PromiseScope}, in which promises are
+     * forked, joined and cancelled together.
+     * <p>
+     * The scope has no deadline. Should any of its promises be rejected, the
+     * others are cancelled.
+     *
+     * @return a new {@link PromiseScope} object.
+     * @see PromiseScope
+     */
+    public static PromiseScope newScope() {
+        return new PromiseScope(managedService,null);
+    }
+
+    /**
+     * Factory method to create a {@link PromiseScope}, in which promises are
+     * forked, joined and cancelled together.
+     * <p>
+     * Should any of its promises be rejected, or the {@code timeout} elapse
+     * before the scope is closed, the others are cancelled.
+     *
+     * @param timeout time after which the scope is shut down.
+     * @return a new {@link PromiseScope} object.
+     * @throws NullPointerException if {@code timeout} is null
+     * @throws IllegalArgumentException if {@code timeout} is negative
+     * @see PromiseScope
+     */
+    public static PromiseScope newScope(final Duration timeout) {
+        return new PromiseScope(managedService,Objects.requireNonNull(timeout,"No timeout?"));
+    }
+
+    /**
+     * Queues all {@link PrimaryAction} objects for processing, returning a
+     * {@link Promise} that settles as the first of them settles: it is either
+     * fulfilled with the value of the first to be fulfilled, or rejected with
+     * the exception of the first to be rejected, whichever happens first.
+     * <p>
+     * Once the first {@link PrimaryAction} has settled, the {@code Promise}
+     * objects of the others are cancelled: their running tasks are interrupted
+     * and those not yet started are never started, releasing capacity of the
+     * {@link ManagedPromiseService}.
+     * <p>
+     * No worker thread waits on the {@code actions}.
+     *
+     * @param actions a {@link List} of {@link PrimaryAction} objects to be queued
+     * @param <T> Type of value returned from asynchronous task.
+     * @return a {@link Promise} object that promises the outcome of the first
+     * {@code action} to settle.
+     * @throws NullPointerException if {@code actions} is null
+     * @throws IllegalArgumentException if {@code actions} is empty
+     * @see Promises#any(List)
+     */
+    public static <T> Promise<T> race(final List<PrimaryAction<T>> actions) {
+        List<Promise<T>> promises = all(requireActions(actions),(action) -> () -> new AsyncPromiseTask<>(managedService,action));
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        promises.forEach(promise -> futureOf(promise).whenComplete((value,exception) -> {
+            boolean settled = exception == null ? future.complete(value) : future.completeExceptionally(unwrap(exception));
+            if (settled)
+                cancelLosers(promises,promise);
+        }));
+
+        return new AsyncPromiseTask<>(managedService,PrimaryAction.of(future::join),future);
+    }
+
+    /**
+     * Queues the {@link PrimaryAction} for processing, retrying it according to
+     * the {@code policy} should it be rejected.
+     * <p>
+     * The returned {@link Promise} is fulfilled with the value of the first
+     * attempt to be fulfilled. Should an attempt be rejected with an exception
+     * the {@code policy} does not retry, or should the maximum number of
+     * attempts be reached, the {@code Promise} is rejected with the exception
+     * of the last attempt. The completion handler of the {@code action}, if
+     * any, is called once with the final outcome.
+     * <p>
+     * Retries are delayed with exponential backoff and jitter, measured by the
+     * timer of the {@link ManagedPromiseService}, hence no worker thread waits
+     * between attempts. Cancelling the returned {@code Promise} cancels the
+     * current attempt or the pending retry.
+     *
+     * @param action a {@link PrimaryAction} to be attempted.
+     * @param policy describes the number of attempts and delays between them.
+     * @param <T> Type of value returned from asynchronous task.
+     * @return a {@link Promise} object that promises the value of the first
+     * fulfilled attempt.
+     * @throws NullPointerException if {@code action} or {@code policy} is null
+     * @see RetryPolicy
+     */
+    public static <T> Promise<T> retry(final PrimaryAction<T> action, final RetryPolicy policy) {
+        Objects.requireNonNull(action,"Cannot keep promise -- no action?");
+        Retry<T> retry = new Retry<>(managedService,action,Objects.requireNonNull(policy,"No policy?"));
+        retry.attempt();
+        return new AsyncPromiseTask<>(managedService,action,retry.future);
+    }
+
+    /**
+     * Queues the {@link PrimaryAction} for processing once the {@code delay}
+     * has elapsed.
+     * <p>
+     * No worker thread waits for the {@code delay}, which is measured as with
+     * {@link Promises#delay(Duration)}. Cancelling the returned
+     * {@link Promise} before the {@code delay} has elapsed cancels its timer,
+     * and the {@code action} never runs.
+     *
+     * @param action a {@link PrimaryAction} to be processed after the delay.
+     * @param delay duration to wait before processing the action.
+     * @param <T> Type of value returned from asynchronous task.
+     * @return a {@link Promise} object that promises the value of the
+     * {@code action}.
+     * @throws NullPointerException if {@code action} or {@code delay} is null
+     * @throws IllegalArgumentException if {@code delay} is negative
+     */
+    public static <T> Promise<T> schedule(final PrimaryAction<T> action, final Duration delay) {
+        PrimaryAction<T> a = Objects.requireNonNull(action,"Cannot keep promise -- no action?");
+        Supplier<T> task = a.getTask().orElseThrow();
+        Promise<Void> timer = delay(delay);
+        Promise<T> result = timer.then(TransmuteAction.of(ignore -> task.get(),
+                (value,exception) -> a.getCompletionHandler().ifPresent(handler -> handler.accept(value,exception))));
+        futureOf(result).whenComplete((value,exception) -> timer.cancel());
+        return result;
+    }
+
     /**
      * Queues all {@link PrimaryAction} objects for processing with a specified
      * implementation of {@link Promise}.
@@ -328,6 +786,12 @@ public final class Promises {
         return result;
     }
 
+    static <T> CompletableFuture<T> futureOf(final Promise<T> promise) {
+        if (promise instanceof AsyncPromiseTask<T> task)
+            return task.getFuture();
+        throw new IllegalArgumentException("Unsupported promise implementation " + promise.getClass().getName());
+    }
+
     static void setManagedService(final ManagedPromiseService managedService) {
         ManagedPromiseService service = Objects.requireNonNull(managedService);
         try {
@@ -338,5 +802,235 @@ public final class Promises {
         }
     }
 
+    static HashedWheelTimer timerOf(final ManagedPromiseService service) {
+        if (service instanceof AbstractManagedPromiseService s)
+            return s.getTimer();
+        throw new IllegalStateException("Promise service " + service.getClass().getName() + " has no timer");
+    }
+
+    private static <T> void cancelLosers(final List<Promise<T>> promises, final Promise<T> winner) {
+        promises.forEach(promise -> {
+            if (promise != winner)
+                promise.cancel();
+        });
+    }
+
+    private static <T> List<PrimaryAction<T>> requireActions(final List<PrimaryAction<T>> actions) {
+        Objects.requireNonNull(actions,"Expected actions");
+        if (actions.isEmpty())
+            throw new IllegalArgumentException("Expected at least one action");
+        return actions;
+    }
+
+    private static long toNanos(final Duration delay) {
+        Objects.requireNonNull(delay,"No delay?");
+        if (delay.isNegative())
+            throw new IllegalArgumentException("Expected positive delay");
+        try {
+            return delay.toNanos();
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static Throwable unwrap(final Throwable exception) {
+        return exception instanceof CompletionException && exception.getCause() != null ? exception.getCause() : exception;
+    }
+
     private Promises() {}
+
+    /*************************** INTERNAL CLASSES *****************************/
+
+    /**
+     * Maps the inputs of an {@link Iterator} through a function with a bounded
+     * number of tasks in flight, pulling the next chunk of inputs only when a
+     * task completes.
+     * <p>
+     * Pulling and queueing of chunks is serialised with a work-in-progress
+     * counter, so that the {@code Iterator} is only ever accessed by one thread
+     * at a time and tasks that complete on the calling thread do not recurse.
+     */
+    private static final class BoundedMap<E,T> {
+        private final ManagedPromiseService service;
+        private final Iterator<? extends E> inputs;
+        private final Function<? super E,? extends T> mapper;
+        private final int parallelism;
+        private final int chunkSize;
+        private final CompletableFuture<List<T>> future;
+        private final List<T> results;
+        private final ReentrantLock lock;
+        private final Set<Promise<List<T>>> running;
+        private final AtomicInteger inFlight;
+        private final AtomicInteger pending;
+        private boolean exhausted;
+
+        private BoundedMap(final ManagedPromiseService service, final Iterator<? extends E> inputs,
+                           final Function<? super E,? extends T> mapper, final int parallelism, final int chunkSize) {
+            this.service = service;
+            this.inputs = inputs;
+            this.mapper = mapper;
+            this.parallelism = parallelism;
+            this.chunkSize = chunkSize;
+            this.future = new CompletableFuture<>();
+            this.results = new ArrayList<>();
+            this.lock = new ReentrantLock();
+            this.running = ConcurrentHashMap.newKeySet();
+            this.inFlight = new AtomicInteger();
+            this.pending = new AtomicInteger();
+            future.whenComplete((value,exception) -> {
+                if (exception != null)
+                    running.forEach(Promise::cancel);
+            });
+        }
+
+        private void pump() {
+            if (pending.getAndIncrement() != 0)
+                return;
+            int missed = 1;
+            do {
+                while (!exhausted && !future.isDone() && inFlight.get() < parallelism) {
+                    List<E> chunk = pull();
+                    if (!chunk.isEmpty())
+                        launch(chunk);
+                }
+                if (exhausted && inFlight.get() == 0)
+                    complete();
+                missed = pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private List<E> pull() {
+            List<E> result = new ArrayList<>(chunkSize);
+            try {
+                while (result.size() < chunkSize && inputs.hasNext())
+                    result.add(inputs.next());
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+                exhausted = true;
+                return Collections.emptyList();
+            }
+            exhausted = result.size() < chunkSize;
+            return result;
+        }
+
+        private void launch(final List<E> chunk) {
+            int offset;
+            lock.lock();
+            try {
+                offset = results.size();
+                for (int i = 0; i < chunk.size(); i++)
+                    results.add(null);
+            } finally {
+                lock.unlock();
+            }
+            inFlight.incrementAndGet();
+            PrimaryAction<List<T>> action = PrimaryAction.of(() -> {
+                List<T> values = new ArrayList<>(chunk.size());
+                for (E input : chunk)
+                    values.add(mapper.apply(input));
+                return values;
+            });
+            AsyncPromiseTask<List<T>> promise = new AsyncPromiseTask<>(service,action);
+            running.add(promise);
+            promise.invoke(action);
+            if (future.isDone())
+                promise.cancel();
+            promise.getFuture().whenComplete((values,exception) -> {
+                running.remove(promise);
+                if (exception == null) {
+                    store(offset,values);
+                } else {
+                    future.completeExceptionally(unwrap(exception));
+                }
+                inFlight.decrementAndGet();
+                pump();
+            });
+        }
+
+        private void store(final int offset, final List<T> values) {
+            lock.lock();
+            try {
+                for (int i = 0; i < values.size(); i++)
+                    results.set(offset + i,values.get(i));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void complete() {
+            lock.lock();
+            try {
+                future.complete(Collections.unmodifiableList(results));
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Attempts a {@link PrimaryAction} until it is fulfilled or its
+     * {@link RetryPolicy} concludes, scheduling each retry on the timer of the
+     * {@link ManagedPromiseService}.
+     * <p>
+     * Either the promise of the current attempt or the timeout of the pending
+     * retry is held, so that cancelling the {@code future} cancels whichever
+     * is outstanding.
+     */
+    private static final class Retry<T> {
+        private final ManagedPromiseService service;
+        private final PrimaryAction<T> action;
+        private final RetryPolicy policy;
+        private final CompletableFuture<T> future;
+        private final AtomicReference<Object> outstanding;
+        private final AtomicInteger attempts;
+
+        private Retry(final ManagedPromiseService service, final PrimaryAction<T> action, final RetryPolicy policy) {
+            this.service = service;
+            this.action = PrimaryAction.of(action.getTask().orElseThrow());
+            this.policy = policy;
+            this.future = new CompletableFuture<>();
+            this.outstanding = new AtomicReference<>();
+            this.attempts = new AtomicInteger();
+            future.whenComplete((value,exception) -> {
+                action.getCompletionHandler().ifPresent(handler -> handler.accept(value,exception));
+                cancel();
+            });
+        }
+
+        private void attempt() {
+            if (future.isDone())
+                return;
+            int attempt = attempts.incrementAndGet();
+            AsyncPromiseTask<T> promise = new AsyncPromiseTask<>(service,action);
+            outstanding.set(promise);
+            promise.invoke(action);
+            promise.getFuture().whenComplete((value,exception) -> {
+                if (exception == null) {
+                    future.complete(value);
+                    return;
+                }
+                Throwable cause = unwrap(exception);
+                if (attempt >= policy.getMaxAttempts() || !policy.isRetryable(cause)) {
+                    future.completeExceptionally(cause);
+                    return;
+                }
+                try {
+                    outstanding.set(timerOf(service).schedule(RejectableTask.of(this::attempt,future::completeExceptionally),
+                            policy.delayNanos(attempt),TimeUnit.NANOSECONDS));
+                } catch (RejectedExecutionException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+            if (future.isDone())
+                cancel();
+        }
+
+        private void cancel() {
+            Object o = outstanding.get();
+            if (o instanceof Promise<?> promise)
+                promise.cancel();
+            else if (o instanceof HashedWheelTimer.Timeout timeout)
+                timeout.cancel();
+        }
+    }
 }
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.concurrency;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free rate limiter that grants {@code permits} per {@code period},
+ * with bursts of up to {@code burst} permits, implementing the Generic Cell
+ * Rate Algorithm, the continuous form of a token bucket.
+ * <p>
+ * Rather than counting tokens, the limiter holds a single theoretical arrival
+ * time: the time at which the next permit would be granted were permits
+ * spaced evenly, one every {@code period / permits}. A permit is reserved by
+ * advancing that time with a single compare-and-set, and is due once the
+ * time, less the tolerance of the {@code burst}, has passed. Hence the
+ * limiter is accurate to the nanosecond, needs no thread to refill it, and
+ * recovers its burst after a period of idleness.
+ * <p>
+ * A {@link RateLimiter} may be attached to a {@link ManagedPromiseService}
+ * with {@link RateLimiter#limit(ManagedPromiseService)}, or to individual
+ * promises with {@link Promises#newPromise(PrimaryAction,RateLimiter)}. A task
+ * whose permit is not yet due is not run on a worker that sleeps until it is,
+ * but is handed to the worker by the timer of the service when it is due, so
+ * throttled tasks occupy no thread whilst they wait. Should a permit not be
+ * due within the {@code maximumWait}, it is refused and its task rejected with
+ * a {@link RejectedExecutionException}, which protects against an
+ * ever-growing backlog of waiting tasks when demand persistently exceeds the
+ * rate.
+ * <p>
+ * The number of permits granted, those throttled and for how long, and those
+ * refused are recorded for monitoring purposes. This class is thread-safe.
+ */
+public final class RateLimiter {
+
+    @Getter
+    private final long permits;
+    @Getter
+    private final Duration period;
+    @Getter
+    private final int burst;
+    private final Duration maximumWait;
+
+    private final long interval;
+    private final long tolerance;
+    private final long maximumWaitNanos;
+    private final long origin;
+    private final AtomicLong arrival;
+    private final LongAdder granted;
+    private final LongAdder throttled;
+    private final LongAdder throttledNanos;
+    private final LongAdder refused;
+
+    /**
+     * Returns a limiter that grants {@code permits} per {@code period}, evenly
+     * spaced and without bursts, however long a task waits for its permit.
+     *
+     * @param permits number of permits granted per period.
+     * @param period over which the permits are granted.
+     * @return a new {@link RateLimiter}.
+     * @throws NullPointerException if period is null.
+     * @throws IllegalArgumentException if permits is less than one, or the
+     * period is not positive.
+     */
+    public static RateLimiter of(final long permits, final Duration period) {
+        return of(permits,period,1);
+    }
+
+    /**
+     * Returns a limiter that grants {@code permits} per {@code period}, with
+     * bursts of up to {@code burst} permits, however long a task waits for its
+     * permit.
+     *
+     * @param permits number of permits granted per period.
+     * @param period over which the permits are granted.
+     * @param burst maximum number of permits granted at once.
+     * @return a new {@link RateLimiter}.
+     * @throws NullPointerException if period is null.
+     * @throws IllegalArgumentException if permits or burst is less than one,
+     * or the period is not positive.
+     */
+    public static RateLimiter of(final long permits, final Duration period, final int burst) {
+        return new RateLimiter(permits,period,burst,null);
+    }
+
+    /**
+     * Returns a limiter that grants {@code permits} per {@code period}, with
+     * bursts of up to {@code burst} permits, refusing permits that are not due
+     * within the {@code maximumWait}.
+     *
+     * @param permits number of permits granted per period.
+     * @param period over which the permits are granted.
+     * @param burst maximum number of permits granted at once.
+     * @param maximumWait maximum time a task waits for its permit.
+     * @return a new {@link RateLimiter}.
+     * @throws NullPointerException if period or maximumWait is null.
+     * @throws IllegalArgumentException if permits or burst is less than one,
+     * the period is not positive, or the maximumWait is negative.
+     */
+    public static RateLimiter of(final long permits, final Duration period, final int burst,
+                                 final Duration maximumWait) {
+        return new RateLimiter(permits,period,burst,Objects.requireNonNull(maximumWait,"No maximum wait?"));
+    }
+
+    private RateLimiter(final long permits, final Duration period, final int burst, final Duration maximumWait) {
+        Objects.requireNonNull(period,"No period?");
+        if (permits < 1)
+            throw new IllegalArgumentException("Expected > 0 permits");
+        if (burst < 1)
+            throw new IllegalArgumentException("Expected > 0 burst");
+        if (period.isNegative() || period.isZero())
+            throw new IllegalArgumentException("Expected positive period");
+        if (maximumWait != null && maximumWait.isNegative())
+            throw new IllegalArgumentException("Expected positive maximum wait");
+        this.permits = permits;
+        this.period = period;
+        this.burst = burst;
+        this.maximumWait = maximumWait;
+        this.interval = Math.max(1L,toNanos(period) / permits);
+        this.tolerance = Math.min(interval * (burst - 1),Long.MAX_VALUE / 4);
+        this.maximumWaitNanos = maximumWait == null ? Long.MAX_VALUE : toNanos(maximumWait);
+        this.origin = System.nanoTime();
+        this.arrival = new AtomicLong();
+        this.granted = new LongAdder();
+        this.throttled = new LongAdder();
+        this.throttledNanos = new LongAdder();
+        this.refused = new LongAdder();
+    }
+
+    /**
+     * Returns a {@link ManagedPromiseService} that submits every task to the
+     * {@code service} once this limiter grants it a permit.
+     * <p>
+     * A task whose permit is due is submitted immediately, otherwise it is
+     * submitted by the timer of the {@code service} when it is due. Should its
+     * permit be refused, a {@link RejectedExecutionException} is thrown.
+     * Every task submitted takes a permit, including the subsequent
+     * {@code then} actions of promises created with the returned service,
+     * which are never fused with the stage they depend on. To limit only the
+     * task of each promise, use
+     * {@link Promises#newPromise(PrimaryAction,RateLimiter)}. The lifecycle
+     * of the returned service is that of the {@code service}.
+     *
+     * @param service the service to limit, which must provide a timer, as do
+     *                services inheriting from
+     *                {@link AbstractManagedPromiseService}.
+     * @return a rate-limited view of the {@code service}.
+     * @throws NullPointerException if service is null.
+     * @throws IllegalStateException if service has no timer.
+     */
+    public ManagedPromiseService limit(final ManagedPromiseService service) {
+        Objects.requireNonNull(service,"No service?");
+        return new LimitedService(service,Promises.timerOf(service));
+    }
+
+    /**
+     * Acquires a permit if it is due now, without waiting.
+     *
+     * @return {@code true} if a permit was acquired.
+     */
+    public boolean tryAcquire() {
+        return reserve(0L) == 0L;
+    }
+
+    /**
+     * @return maximum time a task waits for its permit, if bounded.
+     */
+    public Optional<Duration> getMaximumWait() {
+        return Optional.ofNullable(maximumWait);
+    }
+
+    /**
+     * @return number of permits granted, whether immediately or after a wait.
+     */
+    public long getGrantedCount() {
+        return granted.sum();
+    }
+
+    /**
+     * @return number of permits granted that were not due when requested.
+     */
+    public long getThrottledCount() {
+        return throttled.sum();
+    }
+
+    /**
+     * @return total time throttled permits waited to become due.
+     */
+    public Duration getThrottledTime() {
+        return Duration.ofNanos(throttledNanos.sum());
+    }
+
+    /**
+     * @return number of permits refused, including those not acquired by
+     * {@link RateLimiter#tryAcquire()}.
+     */
+    public long getRefusedCount() {
+        return refused.sum();
+    }
+
+    /**
+     * Reserves a permit, unless it would not be due within the
+     * {@code maximumWait}.
+     *
+     * @return time in nanoseconds until the permit is due, or -1 if it is
+     * refused.
+     */
+    long reserve() {
+        return reserve(maximumWaitNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "[permits=" + permits + ",period=" + period + ",burst=" + burst +
+                (maximumWait == null ? "" : ",maximumWait=" + maximumWait) + "]";
+    }
+
+    private long reserve(final long maximumWait) {
+        long now = System.nanoTime() - origin;
+        while (true) {
+            long current = arrival.get();
+            long start = Math.max(current,now);
+            long delay = start - tolerance - now;
+            if (delay > maximumWait) {
+                refused.increment();
+                return -1L;
+            }
+            if (arrival.compareAndSet(current,start + interval)) {
+                granted.increment();
+                if (delay <= 0L)
+                    return 0L;
+                throttled.increment();
+                throttledNanos.add(delay);
+                return delay;
+            }
+        }
+    }
+
+    private static long toNanos(final Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /*************************** INTERNAL CLASSES *****************************/
+
+    /**
+     * A view of a {@link ManagedPromiseService} that submits its tasks once
+     * their permits are due.
+     */
+    final class LimitedService implements ManagedPromiseService {
+        private final ManagedPromiseService service;
+        private final HashedWheelTimer timer;
+
+        private LimitedService(final ManagedPromiseService service, final HashedWheelTimer timer) {
+            this.service = service;
+            this.timer = timer;
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            Objects.requireNonNull(command);
+            long delay = reserve();
+            if (delay < 0L)
+                throw new RejectedExecutionException("Rate limit exceeded -- task rejected");
+            if (delay == 0L) {
+                service.execute(command);
+                return;
+            }
+            timer.schedule(RejectableTask.of(() -> submit(command),e -> reject(command,e)),delay,TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public ServiceStates getState() {
+            return service.getState();
+        }
+
+        @Override
+        public boolean isShutdownEnabled() {
+            return service.isShutdownEnabled();
+        }
+
+        @Override
+        public void stop(final long timeout, final boolean retry) {
+            service.stop(timeout,retry);
+        }
+
+        @Override
+        public String toString() {
+            return "[limiter=" + RateLimiter.this + ",service=" + service + "]";
+        }
+
+        private void submit(final Runnable command) {
+            try {
+                service.execute(command);
+            } catch (RejectedExecutionException e) {
+                reject(command,e);
+            }
+        }
+
+        private void reject(final Runnable command, final RejectedExecutionException exception) {
+            if (command instanceof RejectableTask task)
+                task.reject(exception);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.concurrency;
+
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * A task submitted to a {@link ManagedPromiseService} that is to be informed
+ * when the service discards it without running it, for example when shedding
+ * load, so that whoever is waiting on its outcome is not left waiting forever.
+ * <p>
+ * Tasks of {@link Promise} objects implement this interface, rejecting their
+ * promise.
+ */
+interface RejectableTask extends Runnable {
+    /**
+     * Informs this task that it will not be run.
+     *
+     * @param exception the reason for rejection.
+     */
+    void reject(final RejectedExecutionException exception);
+
+    /**
+     * Returns a {@link RejectableTask} composed of the {@code task} to run and
+     * the {@code rejection} handler.
+     *
+     * @param task to run.
+     * @param rejection informed of the rejection of the task.
+     * @return a new {@link RejectableTask}.
+     * @throws NullPointerException if task or rejection is null.
+     */
+    static RejectableTask of(final Runnable task, final Consumer<RejectedExecutionException> rejection) {
+        Objects.requireNonNull(task,"No task?");
+        Objects.requireNonNull(rejection,"No rejection?");
+        return new RejectableTask() {
+            @Override
+            public void run() {
+                task.run();
+            }
+
+            @Override
+            public void reject(final RejectedExecutionException exception) {
+                rejection.accept(exception);
+            }
+        };
+    }
+}
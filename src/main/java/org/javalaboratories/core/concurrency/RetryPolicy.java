@@ -0,0 +1,154 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.concurrency;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * Describes how {@link Promises#retry(PrimaryAction, RetryPolicy)} retries a
+ * {@link PrimaryAction} that is rejected.
+ * <p>
+ * The delay before each retry grows exponentially from the
+ * {@code initialDelay} by the {@code multiplier}, up to the
+ * {@code maximumDelay}. To prevent clients that failed together from retrying
+ * together, the delay is randomised by the {@code jitter}: a fraction of the
+ * delay, between zero and one, that is subtracted at random. The default of
+ * one, known as "full jitter", draws the delay uniformly between zero and
+ * the exponential delay; zero disables randomisation.
+ * <p>
+ * By default, any exception other than a {@link CancellationException} is
+ * retried. This object is immutable.
+ */
+@Getter
+public final class RetryPolicy {
+
+    public static final double DEFAULT_MULTIPLIER = 2.0d;
+    public static final double DEFAULT_JITTER = 1.0d;
+
+    private final int maxAttempts;
+    private final Duration initialDelay;
+    private final Duration maximumDelay;
+    private final double multiplier;
+    private final double jitter;
+    @Getter(AccessLevel.NONE)
+    private final Predicate<? super Throwable> retryable;
+
+    /**
+     * Returns a policy that attempts an action up to {@code maxAttempts} times,
+     * with exponential backoff and full jitter between attempts.
+     *
+     * @param maxAttempts maximum number of attempts, including the first.
+     * @param initialDelay delay before the first retry, before jitter.
+     * @param maximumDelay maximum delay before any retry, before jitter.
+     * @return a new {@link RetryPolicy}.
+     * @throws NullPointerException if initialDelay or maximumDelay is null.
+     * @throws IllegalArgumentException if maxAttempts is less than one, or a
+     * delay is negative, or the maximumDelay is less than the initialDelay.
+     */
+    public static RetryPolicy of(final int maxAttempts, final Duration initialDelay, final Duration maximumDelay) {
+        return new RetryPolicy(maxAttempts,initialDelay,maximumDelay,DEFAULT_MULTIPLIER,DEFAULT_JITTER,
+                exception -> !(exception instanceof CancellationException));
+    }
+
+    private RetryPolicy(final int maxAttempts, final Duration initialDelay, final Duration maximumDelay,
+                        final double multiplier, final double jitter, final Predicate<? super Throwable> retryable) {
+        Objects.requireNonNull(initialDelay,"No initial delay?");
+        Objects.requireNonNull(maximumDelay,"No maximum delay?");
+        if (maxAttempts < 1)
+            throw new IllegalArgumentException("Expected > 0 attempts");
+        if (initialDelay.isNegative() || maximumDelay.compareTo(initialDelay) < 0)
+            throw new IllegalArgumentException("Expected 0 <= initial delay <= maximum delay");
+        if (!(multiplier >= 1.0d))
+            throw new IllegalArgumentException("Expected >= 1 multiplier");
+        if (!(jitter >= 0.0d && jitter <= 1.0d))
+            throw new IllegalArgumentException("Expected jitter between 0 and 1");
+        this.maxAttempts = maxAttempts;
+        this.initialDelay = initialDelay;
+        this.maximumDelay = maximumDelay;
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+        this.retryable = Objects.requireNonNull(retryable,"No predicate?");
+    }
+
+    /**
+     * @param multiplier by which the delay grows with each retry, at least one.
+     * @return a copy of this policy with the {@code multiplier}.
+     * @throws IllegalArgumentException if multiplier is less than one.
+     */
+    public RetryPolicy withMultiplier(final double multiplier) {
+        return new RetryPolicy(maxAttempts,initialDelay,maximumDelay,multiplier,jitter,retryable);
+    }
+
+    /**
+     * @param jitter fraction of the delay randomised, between zero and one.
+     * @return a copy of this policy with the {@code jitter}.
+     * @throws IllegalArgumentException if jitter is not between zero and one.
+     */
+    public RetryPolicy withJitter(final double jitter) {
+        return new RetryPolicy(maxAttempts,initialDelay,maximumDelay,multiplier,jitter,retryable);
+    }
+
+    /**
+     * @param retryable decides whether the exception of a rejected attempt is
+     *                  retried; otherwise the retries conclude with it.
+     * @return a copy of this policy with the {@code retryable} predicate.
+     * @throws NullPointerException if retryable is null.
+     */
+    public RetryPolicy retryIf(final Predicate<? super Throwable> retryable) {
+        return new RetryPolicy(maxAttempts,initialDelay,maximumDelay,multiplier,jitter,retryable);
+    }
+
+    /**
+     * @param exception of a rejected attempt.
+     * @return {@code true} if the attempt may be retried.
+     */
+    boolean isRetryable(final Throwable exception) {
+        return retryable.test(exception);
+    }
+
+    /**
+     * Returns the delay before the {@code retry}, including jitter.
+     *
+     * @param retry number of the retry, the first being one.
+     * @return delay in nanoseconds.
+     */
+    long delayNanos(final int retry) {
+        double delay = Math.min(toNanos(initialDelay) * Math.pow(multiplier,retry - 1),toNanos(maximumDelay));
+        double random = jitter == 0.0d ? 0.0d : ThreadLocalRandom.current().nextDouble();
+        return (long) (delay * (1.0d - jitter * random));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[maxAttempts=%d,initialDelay=%s,maximumDelay=%s,multiplier=%s,jitter=%s]",maxAttempts,
+                initialDelay,maximumDelay,multiplier,jitter);
+    }
+
+    private static double toNanos(final Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
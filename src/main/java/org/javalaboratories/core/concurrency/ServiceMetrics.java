@@ -0,0 +1,136 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.concurrency;
+
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the operational metrics of a {@link ManagedPromiseService}: the
+ * number of tasks submitted, running, completed, failed and rejected, and the
+ * latencies of tasks waiting for a worker and running.
+ * <p>
+ * Tasks are instrumented on submission, after which their outcome is recorded
+ * without locking. Counters are implemented with {@link LongAdder} objects to
+ * avoid contention between workers.
+ */
+final class ServiceMetrics {
+
+    private final LongAdder submitted;
+    private final LongAdder active;
+    private final LongAdder completed;
+    private final LongAdder failed;
+    private final LongAdder rejected;
+    private final LatencyHistogram waitTime;
+    private final LatencyHistogram runTime;
+
+    ServiceMetrics() {
+        submitted = new LongAdder();
+        active = new LongAdder();
+        completed = new LongAdder();
+        failed = new LongAdder();
+        rejected = new LongAdder();
+        waitTime = new LatencyHistogram();
+        runTime = new LatencyHistogram();
+    }
+
+    /**
+     * Returns the {@code command} instrumented to record its wait and run
+     * times and its outcome when run, or its rejection if rejected.
+     *
+     * @param command submitted to the service.
+     * @return the instrumented command.
+     * @throws NullPointerException if command is null.
+     */
+    Runnable instrument(final Runnable command) {
+        Objects.requireNonNull(command);
+        submitted.increment();
+        return new InstrumentedTask(command,System.nanoTime());
+    }
+
+    /**
+     * Records the rejection of a task that has not been instrumented, or
+     * whose rejection is not reported to it.
+     */
+    void rejected() {
+        rejected.increment();
+    }
+
+    long getActiveCount() {
+        return active.sum();
+    }
+
+    long getSubmittedCount() {
+        return submitted.sum();
+    }
+
+    long getCompletedCount() {
+        return completed.sum();
+    }
+
+    long getFailedCount() {
+        return failed.sum();
+    }
+
+    long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    PromiseServiceSnapshot.Latency getWaitTime() {
+        return waitTime.snapshot();
+    }
+
+    PromiseServiceSnapshot.Latency getRunTime() {
+        return runTime.snapshot();
+    }
+
+    /*************************** INTERNAL CLASSES *****************************/
+
+    private final class InstrumentedTask implements RejectableTask {
+        private final Runnable command;
+        private final long submittedAt;
+
+        private InstrumentedTask(final Runnable command, final long submittedAt) {
+            this.command = command;
+            this.submittedAt = submittedAt;
+        }
+
+        @Override
+        public void run() {
+            long started = System.nanoTime();
+            waitTime.record(started - submittedAt);
+            active.increment();
+            boolean successful = false;
+            try {
+                command.run();
+                successful = true;
+            } finally {
+                active.decrement();
+                runTime.record(System.nanoTime() - started);
+                if (successful) completed.increment();
+                else failed.increment();
+            }
+        }
+
+        @Override
+        public void reject(final RejectedExecutionException exception) {
+            rejected.increment();
+            if (command instanceof RejectableTask task)
+                task.reject(exception);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+import org.javalaboratories.core.concurrency.utils.Floodgate;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheStatsTest {
+
+    @Test
+    public void testEmpty_Pass() {
+        // Given
+        CacheStats stats = CacheStats.empty();
+
+        // Then
+        assertEquals(0,stats.getRequestCount());
+        assertEquals(1.0d,stats.getHitRate());
+        assertEquals(0.0d,stats.getMissRate());
+        assertEquals(0.0d,stats.getAverageLoadPenalty());
+        assertEquals(0,stats.getEvictionCount());
+        assertEquals(0,stats.getEvictionCount(EvictionCause.EXPIRED));
+    }
+
+    @Test
+    public void testMinus_Pass() {
+        // Given
+        CacheStats earlier = new CacheStats(10,5,2,1,300,Map.of(EvictionCause.CAPACITY,4L));
+        CacheStats later = new CacheStats(18,7,4,1,500,Map.of(EvictionCause.CAPACITY,6L,EvictionCause.EXPIRED,3L));
+
+        // When
+        CacheStats delta = later.minus(earlier);
+        CacheStats reversed = earlier.minus(later);
+
+        // Then
+        assertEquals(new CacheStats(8,2,2,0,200,Map.of(EvictionCause.CAPACITY,2L,EvictionCause.EXPIRED,3L)),delta);
+        assertEquals(0.8d,delta.getHitRate(),0.0001d);
+        assertEquals(100.0d,delta.getAverageLoadPenalty(),0.0001d);
+        assertEquals(5,delta.getEvictionCount());
+        assertEquals(CacheStats.empty(),reversed);
+        assertEquals(later,earlier.plus(delta));
+    }
+
+    @Test
+    public void testConstructor_Fail() {
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> new CacheStats(-1,0,0,0,0,Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> new CacheStats(0,0,0,0,0,Map.of(EvictionCause.CAPACITY,-1L)));
+        assertThrows(NullPointerException.class, () -> new CacheStats(0,0,0,0,0,null));
+        assertThrows(UnsupportedOperationException.class, () -> CacheStats.empty().getEvictionCounts().clear());
+    }
+
+    @Test
+    public void testDisabled_Pass() {
+        // Given
+        StatsCounter counter = StatsCounter.disabled();
+
+        // When
+        counter.recordHits(10);
+        counter.recordMisses(10);
+        counter.recordLoadSuccess(100);
+        counter.recordEviction(EvictionCause.CAPACITY);
+
+        // Then
+        assertSame(counter,StatsCounter.disabled());
+        assertEquals(CacheStats.empty(),counter.snapshot());
+    }
+
+    @Test
+    public void testStriped_Concurrency_Pass() {
+        // Given
+        StatsCounter counter = StatsCounter.striped();
+        Floodgate<Integer> floodgate = new Floodgate<>(StatsCounter.class,8,1000, () -> {
+            counter.recordHits(1);
+            counter.recordMisses(2);
+            counter.recordLoadSuccess(10);
+            counter.recordLoadFailure(5);
+            counter.recordEviction(EvictionCause.EXPIRED);
+            return 0;
+        });
+
+        // When
+        floodgate.open();
+        floodgate.flood();
+
+        // Then
+        CacheStats stats = counter.snapshot();
+        assertEquals(8000,stats.getHitCount());
+        assertEquals(16000,stats.getMissCount());
+        assertEquals(8000,stats.getLoadSuccessCount());
+        assertEquals(8000,stats.getLoadFailureCount());
+        assertEquals(120000,stats.getTotalLoadTime());
+        assertEquals(8000,stats.getEvictionCount(EvictionCause.EXPIRED));
+        assertEquals(0,stats.getEvictionCount(EvictionCause.CAPACITY));
+    }
+}
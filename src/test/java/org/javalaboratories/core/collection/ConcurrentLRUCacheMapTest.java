@@ -0,0 +1,275 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+import org.javalaboratories.core.concurrency.utils.Floodgate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.javalaboratories.core.concurrency.utils.ResourceFloodStability.States;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentLRUCacheMapTest {
+
+    private static final int FLOOD_WORKERS = 8;
+    private static final int FLOOD_ITERATIONS = 20_000;
+
+    private ConcurrentLRUCacheMap<Integer,String> cache;
+
+    @BeforeEach
+    public void setup() {
+        cache = new ConcurrentLRUCacheMap<>(3);
+        cache.put(1,"Alan");
+        cache.put(2,"Brian");
+    }
+
+    @Test
+    public void testConstructor_Pass() {
+        // Given
+        ConcurrentLRUCacheMap<Integer,String> cache2 = new ConcurrentLRUCacheMap<>();
+
+        // Then
+        assertEquals(ConcurrentLRUCacheMap.DEFAULT_CAPACITY,cache2.capacity());
+        assertEquals(3,cache.capacity());
+        assertEquals(2,cache.size());
+        assertTrue(cache2.isEmpty());
+    }
+
+    @Test
+    public void testConstructor_Fail() {
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentLRUCacheMap<>(0));
+    }
+
+    @Test
+    public void testPut_Eviction_Pass() {
+        // When
+        cache.put(3,"James");
+        cache.put(4,"Jane");
+
+        // Then
+        assertEquals(3,cache.size());
+        assertFalse(cache.containsKey(1));
+        assertEquals("Brian",cache.get(2));
+    }
+
+    @Test
+    public void testGet_Eviction_Pass() {
+        // Given
+        cache.put(3,"James");
+
+        // When
+        cache.get(1);
+        cache.put(4,"Jane");
+
+        // Then
+        assertEquals(3,cache.size());
+        assertTrue(cache.containsKey(1));
+        assertFalse(cache.containsKey(2));
+    }
+
+    @Test
+    public void testPeek_Eviction_Pass() {
+        // Given
+        cache.put(3,"James");
+
+        // When
+        String value = cache.peek(1);
+        cache.put(4,"Jane");
+
+        // Then
+        assertEquals("Alan",value);
+        assertFalse(cache.containsKey(1));
+    }
+
+    @Test
+    public void testNudge_Pass() {
+        // Given
+        cache.put(3,"James");
+
+        // When
+        boolean nudged = cache.nudge(1);
+        boolean missing = cache.nudge(5);
+        cache.put(4,"Jane");
+
+        // Then
+        assertTrue(nudged);
+        assertFalse(missing);
+        assertTrue(cache.containsKey(1));
+        assertFalse(cache.containsKey(2));
+    }
+
+    @Test
+    public void testConcurrentMap_Operations_Pass() {
+        // When
+        String absent = cache.putIfAbsent(3,"James");
+        String present = cache.putIfAbsent(1,"Albert");
+        String replaced = cache.replace(2,"Bob");
+        boolean replacedIf = cache.replace(3,"James","Jim");
+        boolean removedIf = cache.remove(1,"Albert");
+        String removed = cache.remove(3);
+
+        // Then
+        assertNull(absent);
+        assertEquals("Alan",present);
+        assertEquals("Brian",replaced);
+        assertTrue(replacedIf);
+        assertFalse(removedIf);
+        assertEquals("Jim",removed);
+        assertEquals(Map.of(1,"Alan",2,"Bob"),cache);
+    }
+
+    @Test
+    public void testNullKeyValue_Fail() {
+        // Then
+        assertThrows(NullPointerException.class, () -> cache.put(null,"Alan"));
+        assertThrows(NullPointerException.class, () -> cache.put(5,null));
+    }
+
+    @Test
+    public void testEntrySet_Pass() {
+        // Given
+        Iterator<Map.Entry<Integer,String>> iterator = cache.entrySet().iterator();
+
+        // When
+        Map.Entry<Integer,String> entry = iterator.next();
+        entry.setValue("Changed");
+        iterator.remove();
+
+        // Then
+        assertEquals(1,cache.size());
+        assertFalse(cache.containsKey(entry.getKey()));
+    }
+
+    @Test
+    public void testClear_Pass() {
+        // When
+        cache.clear();
+        cache.put(3,"James");
+
+        // Then
+        assertEquals(1,cache.size());
+        assertEquals("James",cache.get(3));
+    }
+
+    @Test
+    public void testFlood_ReadContention_Pass() {
+        // Given
+        ConcurrentLRUCacheMap<Integer,Integer> cache = new ConcurrentLRUCacheMap<>(100);
+        for (int i = 0; i < 100; i++)
+            cache.put(i,i);
+        AtomicInteger errors = new AtomicInteger();
+        Floodgate<Integer> floodgate = new Floodgate<>(ConcurrentLRUCacheMap.class, FLOOD_WORKERS, FLOOD_ITERATIONS, () -> {
+            int key = ThreadLocalRandom.current().nextInt(100);
+            Integer value = cache.get(key);
+            if (value == null || value != key)
+                errors.incrementAndGet();
+            return value;
+        });
+
+        // When
+        floodgate.open();
+        List<Integer> results = floodgate.flood();
+        cache.cleanUp();
+
+        // Then
+        assertEquals(States.FLOODED,floodgate.getState());
+        assertEquals(FLOOD_WORKERS,results.size());
+        assertEquals(0,errors.get());
+        assertEquals(100,cache.size());
+    }
+
+    @Test
+    public void testFlood_WriteContention_Pass() {
+        // Given
+        ConcurrentLRUCacheMap<Integer,Integer> cache = new ConcurrentLRUCacheMap<>(100);
+        AtomicInteger errors = new AtomicInteger();
+        Floodgate<Integer> floodgate = new Floodgate<>(ConcurrentLRUCacheMap.class, FLOOD_WORKERS, FLOOD_ITERATIONS, () -> {
+            int key = ThreadLocalRandom.current().nextInt(1000);
+            cache.put(key,key * 2);
+            Integer value = cache.get(key);
+            if (value != null && value != key * 2)
+                errors.incrementAndGet();
+            return value;
+        });
+
+        // When
+        floodgate.open();
+        floodgate.flood();
+        cache.cleanUp();
+
+        // Then
+        assertEquals(States.FLOODED,floodgate.getState());
+        assertEquals(0,errors.get());
+        assertEquals(100,cache.size());
+        cache.forEach((k,v) -> assertEquals(k * 2,v));
+    }
+
+    @Test
+    public void testFlood_MixedContention_Pass() {
+        // Given
+        ConcurrentLRUCacheMap<Integer,Integer> cache = new ConcurrentLRUCacheMap<>(50);
+        Floodgate<Integer> floodgate = new Floodgate<>(ConcurrentLRUCacheMap.class, FLOOD_WORKERS, FLOOD_ITERATIONS, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int key = random.nextInt(200);
+            return switch (random.nextInt(4)) {
+                case 0 -> cache.remove(key);
+                case 1 -> cache.putIfAbsent(key,key);
+                case 2 -> cache.replace(key,key);
+                default -> cache.get(key);
+            };
+        });
+
+        // When
+        floodgate.open();
+        floodgate.flood();
+        cache.cleanUp();
+
+        // Then
+        assertEquals(States.FLOODED,floodgate.getState());
+        assertTrue(cache.size() <= cache.capacity());
+        assertEquals(cache.size(),cache.entrySet().stream().count());
+        cache.forEach((k,v) -> assertEquals(k,v));
+    }
+
+    @Test
+    public void testFlood_HotKeyRetention_Pass() {
+        // Given
+        ConcurrentLRUCacheMap<Integer,Integer> cache = new ConcurrentLRUCacheMap<>(100);
+        Floodgate<Integer> floodgate = new Floodgate<>(ConcurrentLRUCacheMap.class, FLOOD_WORKERS, FLOOD_ITERATIONS, () -> {
+            // Key 0 is read constantly while a scan of unique keys churns the cache
+            cache.putIfAbsent(0,0);
+            cache.get(0);
+            int key = 1 + ThreadLocalRandom.current().nextInt(100_000);
+            return cache.put(key,key);
+        });
+
+        // When
+        floodgate.open();
+        floodgate.flood();
+        cache.cleanUp();
+
+        // Then
+        assertEquals(100,cache.size());
+        assertTrue(cache.containsKey(0));
+    }
+}
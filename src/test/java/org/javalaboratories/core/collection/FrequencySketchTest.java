@@ -0,0 +1,71 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrequencySketchTest {
+
+    @Test
+    public void testIncrement_Pass() {
+        // Given
+        FrequencySketch<String> sketch = new FrequencySketch<>(64);
+
+        // When
+        for (int i = 0; i < 5; i++)
+            sketch.increment("Alan");
+        sketch.increment("Brian");
+
+        // Then
+        assertEquals(5,sketch.frequency("Alan"));
+        assertEquals(1,sketch.frequency("Brian"));
+        assertEquals(0,sketch.frequency("James"));
+    }
+
+    @Test
+    public void testIncrement_Saturation_Pass() {
+        // Given
+        FrequencySketch<String> sketch = new FrequencySketch<>(64);
+
+        // When
+        for (int i = 0; i < 100; i++)
+            sketch.increment("Alan");
+
+        // Then
+        assertEquals(FrequencySketch.MAXIMUM_FREQUENCY,sketch.frequency("Alan"));
+    }
+
+    @Test
+    public void testIncrement_Aging_Pass() {
+        // Given
+        FrequencySketch<Integer> sketch = new FrequencySketch<>(16);
+        for (int i = 0; i < 8; i++)
+            sketch.increment(-1);
+
+        // When
+        int sampled, key = 0;
+        do {
+            sampled = sketch.sampled();
+            sketch.increment(key++);
+        } while (sketch.sampled() > sampled);
+
+        // Then
+        assertTrue(sketch.frequency(-1) < 8);
+        assertThrows(IllegalArgumentException.class, () -> new FrequencySketch<>(0));
+    }
+}
@@ -17,11 +17,31 @@ package org.javalaboratories.core.collection;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 public class LRUCacheMapTest {
 
+    private static final Logger logger = LoggerFactory.getLogger(LRUCacheMapTest.class);
+
     private LRUCacheMap<Integer,String> cache, cache2;
 
     @BeforeEach
@@ -171,6 +191,45 @@ public class LRUCacheMapTest {
         assertThrows(IndexOutOfBoundsException.class,() -> cache.peekAt(9));
     }
 
+    @Test
+    public void testIndexOf_Pass() {
+        // Given
+        cache.put(3,"James");
+        cache.get(1);
+
+        // Then
+        assertEquals(0,cache.indexOf(1));
+        assertEquals(1,cache.indexOf(3));
+        assertEquals(2,cache.indexOf(2));
+        assertEquals(-1,cache.indexOf(4));
+    }
+
+    @Test
+    public void testPeekAt_Random_Pass() {
+        // Given
+        LRUCacheMap<Integer,Integer> cache = new LRUCacheMap<>(200);
+        Random random = new Random(42);
+
+        // When
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(400);
+            switch (random.nextInt(3)) {
+                case 0 -> cache.remove(key);
+                case 1 -> cache.get(key);
+                default -> cache.put(key,key);
+            }
+
+            // Then
+            if (i % 100 == 0) {
+                List<Integer> keys = new ArrayList<>(cache.keySet());
+                for (int j = 0; j < keys.size(); j++) {
+                    assertEquals(keys.get(j),cache.peekAt(j));
+                    assertEquals(j,cache.indexOf(keys.get(j)));
+                }
+            }
+        }
+    }
+
     @Test
     public void testRemove_Pass() {
         // Given
@@ -236,4 +295,314 @@ public class LRUCacheMapTest {
         assertEquals(0,cache.size());
         assertEquals(3,cache.capacity());
     }
+
+    @Test
+    public void testEntrySet_Order_Pass() {
+        // Given
+        cache.put(3,"James");
+        cache.get(1); // Alan promoted
+        List<Integer> keys = new ArrayList<>();
+
+        // When
+        cache.entrySet().forEach(e -> keys.add(e.getKey()));
+
+        // Then
+        assertEquals(List.of(1,3,2),keys);
+        assertEquals("Alan",cache.peekAt(0)); // Iteration does not affect LRU queue
+    }
+
+    @Test
+    public void testEntrySet_IteratorRemove_Pass() {
+        // Given
+        cache.put(3,"James");
+        Iterator<Map.Entry<Integer,String>> iter = cache.entrySet().iterator();
+
+        // When
+        iter.next();
+        iter.remove(); // James removed
+
+        // Then
+        assertEquals(2,cache.size());
+        assertFalse(cache.containsKey(3));
+        assertEquals("Brian",cache.peekAt(0));
+        assertThrows(IllegalStateException.class,iter::remove);
+    }
+
+    @Test
+    public void testEntrySet_ConcurrentModification_Fail() {
+        // Given
+        Iterator<Map.Entry<Integer,String>> iter = cache.entrySet().iterator();
+
+        // When
+        iter.next();
+        cache.put(3,"James");
+
+        // Then
+        assertThrows(java.util.ConcurrentModificationException.class,iter::next);
+    }
+
+    @Test
+    public void testPut_LargeEviction_Pass() {
+        // Given
+        LRUCacheMap<Integer,Integer> cache = new LRUCacheMap<>(1000);
+
+        // When
+        for (int i = 0; i < 100_000; i++) {
+            cache.put(i,i);
+            cache.get(i - 500); // Keep touching older keys
+        }
+
+        // Then
+        assertEquals(1000,cache.size());
+        assertEquals(99_499,cache.peekAt(0));
+        assertEquals(99_999,cache.peekAt(1));
+        assertFalse(cache.containsKey(0));
+    }
+
+    @Test
+    public void testSerialization_Pass() throws IOException, ClassNotFoundException {
+        // Given
+        cache.put(3,"James");
+        cache.get(1);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        // When
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(cache);
+        }
+        Object copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = in.readObject();
+        }
+
+        // Then
+        assertEquals(cache,copy);
+        assertEquals("[[1 -> Alan],[3 -> James],[2 -> Brian]]",copy.toString());
+    }
+
+    @Test
+    public void testExpireAfterWrite_Pass() {
+        // Given
+        AtomicLong ticker = new AtomicLong();
+        LRUCacheMap<Integer,String> cache = new LRUCacheMap<>(3,Expiry.afterWrite(Duration.ofSeconds(10)),ticker::get);
+        cache.put(1,"Alan");
+        cache.put(2,"Brian");
+
+        // When
+        ticker.addAndGet(Duration.ofSeconds(8).toNanos());
+        String value = cache.get(1);
+        cache.put(2,"Bob");
+        ticker.addAndGet(Duration.ofSeconds(4).toNanos());
+
+        // Then
+        assertEquals("Alan",value);
+        assertNull(cache.get(1));
+        assertEquals("Bob",cache.get(2));
+        assertEquals(1,cache.size());
+        assertEquals(Expiry.afterWrite(Duration.ofSeconds(10)),cache.expiry());
+    }
+
+    @Test
+    public void testExpireAfterAccess_Pass() {
+        // Given
+        AtomicLong ticker = new AtomicLong();
+        LRUCacheMap<Integer,String> cache = new LRUCacheMap<>(3,Expiry.afterAccess(Duration.ofSeconds(10)),ticker::get);
+        cache.put(1,"Alan");
+        cache.put(2,"Brian");
+
+        // When
+        ticker.addAndGet(Duration.ofSeconds(8).toNanos());
+        cache.get(1);
+        cache.peek(2);
+        ticker.addAndGet(Duration.ofSeconds(8).toNanos());
+
+        // Then
+        assertTrue(cache.containsKey(1));
+        assertFalse(cache.containsKey(2));
+        assertEquals("[[1 -> Alan]]",cache.toString());
+    }
+
+    @Test
+    public void testPut_PerEntryExpiry_Pass() {
+        // Given
+        AtomicLong ticker = new AtomicLong();
+        LRUCacheMap<Integer,String> cache = new LRUCacheMap<>(3,Expiry.never(),ticker::get);
+
+        // When
+        cache.put(1,"Alan",Expiry.afterWrite(Duration.ofMinutes(1)));
+        cache.put(2,"Brian");
+        cache.put(3,"James",Expiry.afterWrite(Duration.ofDays(10)));
+        ticker.addAndGet(Duration.ofDays(9).toNanos());
+        List<Integer> keys = new ArrayList<>(cache.keySet());
+        ticker.addAndGet(Duration.ofDays(2).toNanos());
+
+        // Then
+        assertEquals(List.of(3,2),keys);
+        assertEquals(1,cache.size());
+        assertEquals("Brian",cache.get(2));
+    }
+
+    @Test
+    public void testExpiry_CleanUpWithoutReads_Pass() {
+        // Given
+        AtomicLong ticker = new AtomicLong();
+        LRUCacheMap<Integer,Integer> cache = new LRUCacheMap<>(10_000,Expiry.afterWrite(Duration.ofMinutes(1)),ticker::get);
+        for (int i = 0; i < 10_000; i++) {
+            cache.put(i,i);
+            ticker.addAndGet(Duration.ofMillis(1).toNanos());
+        }
+
+        // When
+        ticker.addAndGet(Duration.ofHours(2).toNanos());
+        cache.put(-1,-1);
+
+        // Then
+        assertEquals(1,cache.size());
+        assertEquals(-1,cache.peekAt(0));
+    }
+
+    @Test
+    public void testExpiry_Fail() {
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> Expiry.afterWrite(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> Expiry.afterAccess(Duration.ofSeconds(-1)));
+        assertThrows(NullPointerException.class, () -> new LRUCacheMap<>(3,null));
+        assertThrows(NullPointerException.class, () -> cache.put(3,"James",null));
+    }
+
+    @Test
+    public void testStats_Pass() {
+        // Given
+        AtomicLong ticker = new AtomicLong();
+        LRUCacheMap<Integer,String> cache = new LRUCacheMap<>(2,Expiry.afterWrite(Duration.ofMinutes(1)),ticker::get);
+        cache.recordStats();
+        cache.put(1,"Alan");
+        cache.put(2,"Brian");
+        CacheStats before = cache.stats();
+
+        // When
+        cache.get(1);
+        cache.get(3);
+        cache.put(3,"James");
+        ticker.addAndGet(Duration.ofMinutes(2).toNanos());
+        cache.get(1);
+
+        // Then
+        CacheStats delta = cache.stats().minus(before);
+        assertEquals(1,delta.getHitCount());
+        assertEquals(2,delta.getMissCount());
+        assertEquals(1,delta.getEvictionCount(EvictionCause.CAPACITY));
+        assertEquals(2,delta.getEvictionCount(EvictionCause.EXPIRED));
+        assertEquals(1.0d / 3,delta.getHitRate(),0.0001d);
+    }
+
+    @Test
+    public void testStats_Disabled_Pass() {
+        // When
+        cache.get(1);
+        cache.put(3,"James");
+        cache.put(4,"Andy");
+
+        // Then
+        assertEquals(CacheStats.empty(),cache.stats());
+        assertThrows(NullPointerException.class, () -> cache.recordStats(null));
+    }
+
+    @Test
+    public void testSnapshot_Restore_Pass() throws IOException {
+        // Given
+        Path file = Files.createTempFile("lru-cache-map",".snapshot");
+        cache.put(3,null);
+        cache.get(1);
+
+        try {
+            // When
+            cache.snapshot(file,Serializer.integers(),Serializer.strings());
+            LRUCacheMap<Integer,String> restored = LRUCacheMap.restore(file,Serializer.integers(),Serializer.strings());
+            restored.put(4,"James");
+
+            // Then
+            assertEquals(List.of(4,1,3),new ArrayList<>(restored.keySet()));
+            assertEquals(3,restored.capacity());
+            assertEquals("Alan",restored.peek(1));
+            assertTrue(restored.containsKey(3));
+            assertNull(restored.get(3));
+            assertFalse(Files.exists(file.resolveSibling(file.getFileName() + ".tmp")));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testSnapshot_RestoreExpiry_Pass() throws IOException {
+        // Given
+        Path file = Files.createTempFile("lru-cache-map",".snapshot");
+        AtomicLong ticker = new AtomicLong();
+        LRUCacheMap<Integer,String> cache = new LRUCacheMap<>(10,Expiry.afterWrite(Duration.ofMinutes(10)),ticker::get);
+        cache.put(1,"Alan");
+        ticker.addAndGet(Duration.ofMinutes(5).toNanos());
+        cache.put(2,"Brian");
+        cache.put(3,"James",Expiry.never());
+
+        try {
+            // When
+            cache.snapshot(file,Serializer.integers(),Serializer.strings());
+            AtomicLong ticker2 = new AtomicLong(Duration.ofDays(1).toNanos());
+            LRUCacheMap<Integer,String> restored = LRUCacheMap.restore(file,Serializer.integers(),Serializer.strings(),
+                    ticker2::get);
+            ticker2.addAndGet(Duration.ofMinutes(6).toNanos());
+
+            // Then
+            assertEquals(Expiry.afterWrite(Duration.ofMinutes(10)),restored.expiry());
+            assertEquals(List.of(3,2),new ArrayList<>(restored.keySet()));
+            ticker2.addAndGet(Duration.ofDays(365).toNanos());
+            assertEquals(Map.of(3,"James"),Map.copyOf(restored));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testSnapshot_RestoreLarge_Pass() throws IOException {
+        // Given
+        Path file = Files.createTempFile("lru-cache-map",".snapshot");
+        LRUCacheMap<Integer,Integer> cache = new LRUCacheMap<>(1_000_000);
+        for (int i = 0; i < 1_000_000; i++)
+            cache.put(i,i);
+
+        try {
+            // When
+            cache.snapshot(file,Serializer.integers(),Serializer.integers());
+            long start = System.nanoTime();
+            LRUCacheMap<Integer,Integer> restored = LRUCacheMap.restore(file,Serializer.integers(),Serializer.integers());
+            long elapsed = System.nanoTime() - start;
+
+            // Then
+            logger.info("Restored {} entries from {} bytes in {} ms",restored.size(),Files.size(file),elapsed / 1_000_000);
+            assertEquals(cache,restored);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testSnapshot_Restore_Fail() throws IOException {
+        // Given
+        Path file = Files.createTempFile("lru-cache-map",".snapshot");
+
+        try {
+            // When
+            cache.snapshot(file,Serializer.integers(),Serializer.strings());
+            byte[] bytes = Files.readAllBytes(file);
+            Files.write(file,Arrays.copyOf(bytes,bytes.length - 6));
+
+            // Then
+            assertThrows(IOException.class, () -> LRUCacheMap.restore(file,Serializer.integers(),Serializer.strings()));
+            Files.write(file,new byte[] {1,2,3,4,5,6,7,8});
+            assertThrows(IOException.class, () -> LRUCacheMap.restore(file,Serializer.integers(),Serializer.strings()));
+            assertThrows(NullPointerException.class, () -> cache.snapshot(file,null,Serializer.strings()));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
 }
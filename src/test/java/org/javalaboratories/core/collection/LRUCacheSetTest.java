@@ -18,6 +18,11 @@ package org.javalaboratories.core.collection;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 
@@ -144,6 +149,86 @@ public class LRUCacheSetTest {
         assertThrows(IndexOutOfBoundsException.class, () -> cache.peekAt(99));
     }
 
+    @Test
+    public void testIndexOf_Pass() {
+        // Given
+        cache.add("James");
+        cache.get("Alan");
+
+        // Then
+        assertEquals(0,cache.indexOf("Alan"));
+        assertEquals(1,cache.indexOf("James"));
+        assertEquals(2,cache.indexOf("Brian"));
+        assertEquals(-1,cache.indexOf("Andy"));
+    }
+
+    @Test
+    public void testIndexOf_SequencedMethods_Pass() {
+        // Given
+        cache.add("James");
+        assertEquals(2,cache.indexOf("Alan"));
+
+        // When
+        cache.addLast("Alan");
+
+        // Then
+        assertEquals("Alan",cache.peekAt(0));
+        assertEquals(0,cache.indexOf("Alan"));
+
+        // When
+        cache.addFirst("Alan");
+
+        // Then
+        assertEquals("James",cache.peekAt(0));
+        assertEquals(2,cache.indexOf("Alan"));
+
+        // When
+        cache.addFirst("Andy");
+
+        // Then
+        assertEquals(3,cache.size());
+        assertFalse(cache.contains("Alan"));
+        assertEquals(2,cache.indexOf("Andy"));
+
+        // When
+        String eldest = cache.removeFirst();
+        String youngest = cache.removeLast();
+
+        // Then
+        assertEquals("Andy",eldest);
+        assertEquals("James",youngest);
+        assertEquals("Brian",cache.peekAt(0));
+        assertEquals(0,cache.indexOf("Brian"));
+    }
+
+    @Test
+    public void testPeekAt_Random_Pass() {
+        // Given
+        LRUCacheSet<Integer> cache = new LRUCacheSet<>(200);
+        Random random = new Random(42);
+
+        // When
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(400);
+            switch (random.nextInt(4)) {
+                case 0 -> cache.remove(key);
+                case 1 -> cache.get(key);
+                case 2 -> cache.removeIf(k -> k == key + 1);
+                default -> cache.add(key);
+            }
+
+            // Then
+            if (i % 100 == 0) {
+                List<Integer> keys = new ArrayList<>(cache);
+                Collections.reverse(keys);
+                for (int j = 0; j < keys.size(); j++) {
+                    assertEquals(keys.get(j),cache.peekAt(j));
+                    assertEquals(j,cache.indexOf(keys.get(j)));
+                }
+            }
+        }
+    }
+
     @Test
     public void testToString_Pass() {
         // Given:
@@ -152,4 +237,24 @@ public class LRUCacheSetTest {
         // Then
         assertEquals("[Brian,Alan]",s);
     }
+
+    @Test
+    public void testStats_Pass() {
+        // Given
+        cache.recordStats();
+
+        // When
+        cache.get("Alan");
+        cache.get("James");
+        cache.add("James");
+        cache.add("Andy");
+
+        // Then
+        CacheStats stats = cache.stats();
+        assertEquals(1,stats.getHitCount());
+        assertEquals(1,stats.getMissCount());
+        assertEquals(1,stats.getEvictionCount(EvictionCause.CAPACITY));
+        assertEquals(0,stats.getEvictionCount(EvictionCause.EXPIRED));
+        assertEquals(CacheStats.empty(),new LRUCacheSet<>(cache).stats());
+    }
 }
@@ -0,0 +1,335 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+import org.awaitility.Awaitility;
+import org.javalaboratories.core.concurrency.AdmissionPolicy;
+import org.javalaboratories.core.concurrency.ManagedPromiseService;
+import org.javalaboratories.core.concurrency.ManagedThreadPerTaskPromiseExecutor;
+import org.javalaboratories.core.concurrency.utils.Floodgate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoadingLRUCacheTest {
+
+    private AtomicInteger loads;
+    private AtomicInteger batches;
+    private CacheLoader<Integer,String> loader;
+
+    @BeforeEach
+    public void setup() {
+        loads = new AtomicInteger();
+        batches = new AtomicInteger();
+        loader = new CacheLoader<>() {
+            @Override
+            public String load(final Integer key) {
+                loads.incrementAndGet();
+                sleep(64);
+                return key < 0 ? null : "Value" + key + "-" + loads.get();
+            }
+
+            @Override
+            public Map<Integer,String> loadAll(final Set<? extends Integer> keys) {
+                batches.incrementAndGet();
+                Map<Integer,String> result = new HashMap<>();
+                keys.forEach(key -> result.put(key,"Value" + key));
+                return result;
+            }
+        };
+    }
+
+    @Test
+    public void testConstructor_Fail() {
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> new LoadingLRUCache<>(0,loader));
+        assertThrows(IllegalArgumentException.class, () -> new LoadingLRUCache<>(3,Duration.ofSeconds(-1),loader));
+        assertThrows(NullPointerException.class, () -> new LoadingLRUCache<Integer,String>(3,null));
+    }
+
+    @Test
+    public void testGet_Pass() {
+        // Given
+        LoadingLRUCache<Integer,String> cache = new LoadingLRUCache<>(3,loader);
+
+        // When
+        String value = cache.get(1);
+        String value2 = cache.get(1);
+        String missing = cache.get(-1);
+
+        // Then
+        assertEquals("Value1-1",value);
+        assertEquals("Value1-1",value2);
+        assertNull(missing);
+        assertEquals(2,loads.get());
+        assertEquals(1,cache.size());
+    }
+
+    @Test
+    public void testGet_HotKeyStorm_Pass() {
+        // Given
+        LoadingLRUCache<Integer,String> cache = new LoadingLRUCache<>(3,key -> {
+            loads.incrementAndGet();
+            sleep(500);
+            return "Hot";
+        });
+        Floodgate<String> floodgate = new Floodgate<>(LoadingLRUCache.class,16,1,() -> cache.get(1));
+
+        // When
+        floodgate.open();
+        List<String> results = floodgate.flood();
+
+        // Then
+        assertEquals(16,results.size());
+        assertTrue(results.stream().allMatch("Hot"::equals));
+        assertEquals(1,loads.get());
+    }
+
+    @Test
+    public void testGet_LoaderException_Fail() {
+        // Given
+        LoadingLRUCache<Integer,String> cache = new LoadingLRUCache<>(3,key -> {
+            throw new IllegalStateException("Database unavailable");
+        });
+
+        // When
+        CacheLoaderException exception = assertThrows(CacheLoaderException.class, () -> cache.get(1));
+
+        // Then
+        assertInstanceOf(IllegalStateException.class,exception.getCause());
+        assertEquals(0,cache.size());
+    }
+
+    @Test
+    public void testStats_Pass() {
+        // Given
+        AtomicLong ticker = new AtomicLong();
+        LoadingLRUCache<Integer,String> cache = new LoadingLRUCache<>(3,Duration.ZERO,key -> {
+            ticker.addAndGet(100);
+            if (key == 2) throw new IllegalStateException("Database unavailable");
+            return "Value" + key;
+        },ticker::get);
+        cache.recordStats();
+
+        // When
+        cache.get(1);
+        cache.get(1);
+        assertThrows(CacheLoaderException.class, () -> cache.get(2));
+        cache.getAll(List.of(1,3));
+
+        // Then
+        CacheStats stats = cache.stats();
+        assertEquals(2,stats.getHitCount());
+        assertEquals(3,stats.getMissCount());
+        assertEquals(2,stats.getLoadSuccessCount());
+        assertEquals(1,stats.getLoadFailureCount());
+        assertEquals(100.0d,stats.getAverageLoadPenalty(),0.0001d);
+    }
+
+    @Test
+    public void testGetAll_Batched_Pass() {
+        // Given
+        LoadingLRUCache<Integer,String> cache = new LoadingLRUCache<>(10,loader);
+        cache.put(2,"Cached2");
+
+        // When
+        Map<Integer,String> values = cache.getAll(List.of(3,2,1,4));
+
+        // Then
+        assertEquals(List.of(3,2,1,4),new ArrayList<>(values.keySet()));
+        assertEquals("Cached2",values.get(2));
+        assertEquals("Value4",values.get(4));
+        assertEquals(1,batches.get());
+        assertEquals(0,loads.get());
+        assertEquals(4,cache.size());
+    }
+
+    @Test
+    public void testGetAll_SingleFlight_Pass() throws InterruptedException {
+        // Given
+        Map<Integer,AtomicInteger> loaded = new ConcurrentHashMap<>();
+        CountDownLatch loading = new CountDownLatch(1);
+        LoadingLRUCache<Integer,String> cache = new LoadingLRUCache<>(10,new CacheLoader<>() {
+            @Override
+            public String load(final Integer key) {
+                loaded.computeIfAbsent(key,k -> new AtomicInteger()).incrementAndGet();
+                loading.countDown();
+                sleep(64);
+                return "Value" + key;
+            }
+
+            @Override
+            public Map<Integer,String> loadAll(final Set<? extends Integer> keys) {
+                Map<Integer,String> result = new HashMap<>();
+                keys.forEach(key -> {
+                    loaded.computeIfAbsent(key,k -> new AtomicInteger()).incrementAndGet();
+                    result.put(key,"Value" + key);
+                });
+                return result;
+            }
+        });
+        StatsCounter delegate = StatsCounter.striped();
+        List<Thread> requesters = new ArrayList<>();
+        cache.recordStats(new StatsCounter() {
+            @Override
+            public void recordHits(final int count) {
+                delegate.recordHits(count);
+            }
+
+            @Override
+            public void recordMisses(final int count) {
+                delegate.recordMisses(count);
+                // Another thread requests a key between the lookup of getAll and its batch load
+                if (requesters.isEmpty()) {
+                    Thread requester = new Thread(() -> cache.get(1));
+                    requesters.add(requester);
+                    requester.start();
+                    try {
+                        loading.await(500,TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+
+            @Override
+            public void recordLoadSuccess(final long loadTime) {
+                delegate.recordLoadSuccess(loadTime);
+            }
+
+            @Override
+            public void recordLoadFailure(final long loadTime) {
+                delegate.recordLoadFailure(loadTime);
+            }
+
+            @Override
+            public void recordEviction(final EvictionCause cause) {
+                delegate.recordEviction(cause);
+            }
+
+            @Override
+            public CacheStats snapshot() {
+                return delegate.snapshot();
+            }
+        });
+
+        // When
+        Map<Integer,String> values = cache.getAll(List.of(1,2));
+        for (Thread requester : requesters)
+            requester.join();
+
+        // Then
+        assertEquals(Map.of(1,"Value1",2,"Value2"),values);
+        assertEquals(1,loaded.get(1).get());
+        assertEquals(1,loaded.get(2).get());
+    }
+
+    @Test
+    public void testRefreshAfterWrite_Pass() {
+        // Given
+        AtomicLong ticker = new AtomicLong();
+        LoadingLRUCache<Integer,String> cache = new LoadingLRUCache<>(3,Duration.ofMinutes(1),loader,ticker::get);
+        cache.get(1);
+
+        // When
+        ticker.addAndGet(Duration.ofMinutes(2).toNanos());
+        String stale = cache.get(1);
+        Awaitility.await()
+                .atMost(5,TimeUnit.SECONDS)
+                .until(() -> "Value1-2".equals(cache.getIfPresent(1)));
+
+        // Then
+        assertEquals("Value1-1",stale);
+        assertEquals("Value1-2",cache.get(1));
+        assertEquals(2,loads.get());
+    }
+
+    @Test
+    public void testRefreshAfterWrite_Rejected_Pass() throws InterruptedException {
+        // Given
+        AtomicLong ticker = new AtomicLong();
+        ManagedPromiseService service = new ManagedThreadPerTaskPromiseExecutor(1,1,AdmissionPolicy.REJECT);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            LoadingLRUCache<Integer,String> cache = new LoadingLRUCache<>(3,Duration.ofMinutes(1),loader,
+                    ticker::get,service);
+            cache.put(1,"Stale");
+            // Occupy the worker and the queue, so that the service refuses the refresh
+            for (int i = 0; i < 2; i++)
+                service.execute(() -> {
+                    try {
+                        release.await(5,TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+
+            // When
+            ticker.addAndGet(Duration.ofMinutes(2).toNanos());
+            String stale = cache.get(1);
+            release.countDown();
+            Awaitility.await()
+                    .atMost(5,TimeUnit.SECONDS)
+                    .until(() -> {
+                        // Once the service has capacity again, the key is refreshed
+                        cache.get(1);
+                        return "Value1-1".equals(cache.getIfPresent(1));
+                    });
+
+            // Then
+            assertEquals("Stale",stale);
+            assertEquals(1,loads.get());
+        } finally {
+            release.countDown();
+            service.signalTerm();
+        }
+    }
+
+    @Test
+    public void testInvalidate_Pass() {
+        // Given
+        LoadingLRUCache<Integer,String> cache = new LoadingLRUCache<>(3,loader);
+        cache.get(1);
+        cache.get(2);
+
+        // When
+        cache.invalidate(1);
+        String value = cache.getIfPresent(1);
+        cache.invalidateAll();
+
+        // Then
+        assertNull(value);
+        assertEquals(0,cache.size());
+        assertEquals("Value1-3",cache.get(1));
+    }
+
+    private void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
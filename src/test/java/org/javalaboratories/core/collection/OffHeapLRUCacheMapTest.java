@@ -0,0 +1,200 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapLRUCacheMapTest {
+
+    private OffHeapLRUCacheMap<Integer,String> cache;
+
+    @BeforeEach
+    public void setup() {
+        cache = new OffHeapLRUCacheMap<>(3,1024,Serializer.integers(),Serializer.strings());
+        cache.put(1,"Alan");
+        cache.put(2,"Brian");
+    }
+
+    @Test
+    public void testConstructor_Pass() {
+        // Then
+        assertEquals(3,cache.capacity());
+        assertEquals(1024,cache.maximumMemory());
+        assertEquals(2 * OffHeapLRUCacheMap.DEFAULT_BLOCK_SIZE,cache.memoryUsed());
+        assertEquals(2,cache.size());
+        assertEquals(Map.of(1,"Alan",2,"Brian"),cache);
+    }
+
+    @Test
+    public void testConstructor_Fail() {
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapLRUCacheMap<>(0,1024,Serializer.integers(),Serializer.strings()));
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapLRUCacheMap<>(3,8,Serializer.integers(),Serializer.strings()));
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapLRUCacheMap<>(3,1024,8,Serializer.integers(),Serializer.strings()));
+        assertThrows(NullPointerException.class, () -> new OffHeapLRUCacheMap<>(3,1024,null,Serializer.strings()));
+    }
+
+    @Test
+    public void testPut_Eviction_Pass() {
+        // When
+        cache.get(1);
+        cache.put(3,"James");
+        cache.put(4,"Andy");
+
+        // Then
+        assertEquals(3,cache.size());
+        assertEquals(List.of(4,3,1),new ArrayList<>(cache.keySet()));
+        assertNull(cache.get(2));
+    }
+
+    @Test
+    public void testPut_MemoryEviction_Pass() {
+        // Given
+        OffHeapLRUCacheMap<Integer,String> cache = new OffHeapLRUCacheMap<>(100,256,32,Serializer.integers(),Serializer.strings());
+        String value = "x".repeat(50); // 54 bytes with key, two blocks of 28-byte payload
+
+        // When
+        for (int i = 0; i < 10; i++)
+            cache.put(i,value + i);
+
+        // Then
+        assertEquals(4,cache.size());
+        assertEquals(256,cache.memoryUsed());
+        assertEquals(List.of(9,8,7,6),new ArrayList<>(cache.keySet()));
+        assertEquals(value + 6,cache.peek(6));
+    }
+
+    @Test
+    public void testPut_Oversized_Pass() {
+        // When
+        String result = cache.put(1,"x".repeat(2048));
+
+        // Then
+        assertEquals("Alan",result);
+        assertFalse(cache.containsKey(1));
+        assertEquals(Map.of(2,"Brian"),cache);
+    }
+
+    @Test
+    public void testPut_Replace_Pass() {
+        // When
+        String result = cache.put(1,"Albert".repeat(40));
+
+        // Then
+        assertEquals("Alan",result);
+        assertEquals("Albert".repeat(40),cache.get(1));
+        assertEquals(2,cache.size());
+        assertThrows(NullPointerException.class, () -> cache.put(null,"James"));
+        assertThrows(NullPointerException.class, () -> cache.put(3,null));
+    }
+
+    @Test
+    public void testGet_Pass() {
+        // Then
+        assertEquals("Alan",cache.get(1));
+        assertNull(cache.get(3));
+        assertNull(cache.get(null));
+        assertNull(cache.get("Alan"));
+        assertFalse(cache.containsKey(3));
+    }
+
+    @Test
+    public void testRemove_Pass() {
+        // When
+        String result = cache.remove(1);
+        String result2 = cache.remove(3);
+        cache.put(3,"James");
+
+        // Then
+        assertEquals("Alan",result);
+        assertNull(result2);
+        assertEquals(Map.of(2,"Brian",3,"James"),cache);
+        assertEquals(2 * OffHeapLRUCacheMap.DEFAULT_BLOCK_SIZE,cache.memoryUsed());
+    }
+
+    @Test
+    public void testEntrySet_IteratorRemove_Pass() {
+        // Given
+        Iterator<Map.Entry<Integer,String>> iterator = cache.entrySet().iterator();
+
+        // When
+        Map.Entry<Integer,String> entry = iterator.next();
+        iterator.remove();
+
+        // Then
+        assertEquals(Map.entry(2,"Brian"),entry);
+        assertEquals(Map.of(1,"Alan"),cache);
+        assertThrows(IllegalStateException.class, iterator::remove);
+        assertThrows(UnsupportedOperationException.class, () -> iterator.next().setValue("Albert"));
+    }
+
+    @Test
+    public void testClear_Pass() {
+        // When
+        cache.clear();
+        cache.put(3,"James");
+
+        // Then
+        assertEquals(Map.of(3,"James"),cache);
+        assertEquals(OffHeapLRUCacheMap.DEFAULT_BLOCK_SIZE,cache.memoryUsed());
+    }
+
+    @Test
+    public void testSerializer_Java_Pass() {
+        // Given
+        OffHeapLRUCacheMap<String,ArrayList<Integer>> cache = new OffHeapLRUCacheMap<>(10,4096,Serializer.strings(),
+                Serializer.java());
+
+        // When
+        cache.put("primes",new ArrayList<>(List.of(2,3,5,7)));
+        List<Integer> result = cache.get("primes");
+        result.add(11);
+
+        // Then
+        assertEquals(List.of(2,3,5,7),cache.get("primes"));
+    }
+
+    @Test
+    public void testPut_Random_Pass() {
+        // Given
+        OffHeapLRUCacheMap<Integer,String> cache = new OffHeapLRUCacheMap<>(500,1 << 20,32,Serializer.integers(),
+                Serializer.strings());
+        LRUCacheMap<Integer,String> expected = new LRUCacheMap<>(500);
+        Random random = new Random(42);
+
+        // When
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(2_000);
+            switch (random.nextInt(4)) {
+                case 0 -> assertEquals(expected.remove(key),cache.remove(key));
+                case 1 -> assertEquals(expected.get(key),cache.get(key));
+                default -> {
+                    String value = "v".repeat(random.nextInt(100)) + i;
+                    assertEquals(expected.put(key,value),cache.put(key,value));
+                }
+            }
+        }
+
+        // Then
+        assertEquals(new ArrayList<>(expected.keySet()),new ArrayList<>(cache.keySet()));
+        assertEquals(new HashMap<>(expected),new HashMap<>(cache));
+    }
+}
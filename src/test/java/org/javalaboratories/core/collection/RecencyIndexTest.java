@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecencyIndexTest {
+
+    @Test
+    public void testAdd_Pass() {
+        // Given
+        RecencyIndex<String> index = new RecencyIndex<>((element,stamp) -> {});
+
+        // When
+        int alan = index.add("Alan");
+        int brian = index.add("Brian");
+        index.add(null);
+
+        // Then
+        assertEquals(3,index.size());
+        assertNull(index.get(0));
+        assertEquals("Brian",index.get(1));
+        assertEquals("Alan",index.get(2));
+        assertEquals(2,index.rank(alan));
+        assertEquals(1,index.rank(brian));
+    }
+
+    @Test
+    public void testPromote_Renumber_Pass() {
+        // Given
+        Map<Integer,Integer> stamps = new HashMap<>();
+        RecencyIndex<Integer> index = new RecencyIndex<>(stamps::put);
+        for (int i = 0; i < 10; i++)
+            stamps.put(i,index.add(i));
+
+        // When
+        for (int i = 0; i < 1_000; i++) {
+            int element = i % 10 == 9 ? 0 : (i * 7) % 10;
+            stamps.put(element,index.promote(stamps.get(element)));
+        }
+        index.remove(stamps.remove(5));
+
+        // Then
+        assertEquals(9,index.size());
+        for (int rank = 0; rank < index.size(); rank++) {
+            Integer element = index.get(rank);
+            assertEquals(rank,index.rank(stamps.get(element)));
+        }
+    }
+}
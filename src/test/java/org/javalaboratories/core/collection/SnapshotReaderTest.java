@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotReaderTest {
+
+    @Test
+    public void testRead_AcrossWindows_Pass() throws IOException {
+        // Given
+        Path file = Files.createTempFile("snapshot-reader",".bin");
+        try {
+            try (SnapshotWriter writer = new SnapshotWriter(file)) {
+                for (int i = 0; i < 100; i++) {
+                    writer.putByte((byte) i);
+                    writer.putInt(i);
+                    writer.putLong(i * 31L);
+                    writer.putBytes(i % 10 == 0 ? null : new byte[i]);
+                }
+            }
+
+            // When
+            try (SnapshotReader reader = new SnapshotReader(file,16)) {
+                for (int i = 0; i < 100; i++) {
+                    // Then
+                    assertEquals((byte) i,reader.getByte());
+                    assertEquals(i,reader.getInt());
+                    assertEquals(i * 31L,reader.getLong());
+                    byte[] bytes = reader.getBytes();
+                    if (i % 10 == 0) assertNull(bytes);
+                    else assertEquals(i,bytes.length);
+                }
+                assertThrows(EOFException.class,reader::getInt);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+import org.javalaboratories.core.collection.LRUCacheMap.Node;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimerWheelTest {
+
+    @Test
+    public void testAdvance_Pass() {
+        // Given
+        TimerWheel<Integer,Integer> wheel = new TimerWheel<>(0L);
+        List<Integer> expired = new ArrayList<>();
+        wheel.schedule(node(1,Duration.ofMillis(500)));
+        wheel.schedule(node(2,Duration.ofMinutes(30)));
+        wheel.schedule(node(3,Duration.ofDays(20)));
+
+        // When
+        wheel.advance(Duration.ofSeconds(2).toNanos(),n -> expired.add(n.key));
+        List<Integer> first = new ArrayList<>(expired);
+        wheel.advance(Duration.ofHours(1).toNanos(),n -> expired.add(n.key));
+        List<Integer> second = new ArrayList<>(expired);
+        wheel.advance(Duration.ofDays(30).toNanos(),n -> expired.add(n.key));
+
+        // Then
+        assertEquals(List.of(1),first);
+        assertEquals(List.of(1,2),second);
+        assertEquals(List.of(1,2,3),expired);
+    }
+
+    @Test
+    public void testDeschedule_Pass() {
+        // Given
+        TimerWheel<Integer,Integer> wheel = new TimerWheel<>(0L);
+        List<Integer> expired = new ArrayList<>();
+        Node<Integer,Integer> node = node(1,Duration.ofSeconds(5));
+        wheel.schedule(node);
+
+        // When
+        wheel.deschedule(node);
+        wheel.deschedule(node);
+        wheel.advance(Duration.ofMinutes(1).toNanos(),n -> expired.add(n.key));
+
+        // Then
+        assertTrue(expired.isEmpty());
+    }
+
+    @Test
+    public void testAdvance_NeverEarly_Pass() {
+        // Given
+        TimerWheel<Integer,Integer> wheel = new TimerWheel<>(0L);
+        Random random = new Random(7);
+        Set<Integer> expired = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            Node<Integer,Integer> node = new Node<>(i,i);
+            node.deadline = (long) (random.nextDouble() * Duration.ofDays(15).toNanos());
+            wheel.schedule(node);
+        }
+
+        // When
+        long now = 0;
+        while (expired.size() < 10_000 && now < Duration.ofDays(30).toNanos()) {
+            now += (long) (random.nextDouble() * Duration.ofHours(3).toNanos());
+            long time = now;
+            wheel.advance(time,n -> {
+                assertTrue(n.deadline <= time);
+                assertTrue(expired.add(n.key));
+            });
+        }
+
+        // Then
+        assertEquals(10_000,expired.size());
+    }
+
+    private Node<Integer,Integer> node(final int key, final Duration duration) {
+        Node<Integer,Integer> result = new Node<>(key,key);
+        result.deadline = duration.toNanos();
+        return result;
+    }
+}
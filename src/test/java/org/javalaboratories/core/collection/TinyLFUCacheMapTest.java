@@ -0,0 +1,168 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TinyLFUCacheMapTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TinyLFUCacheMapTest.class);
+
+    private TinyLFUCacheMap<Integer,String> cache;
+
+    @BeforeEach
+    public void setup() {
+        cache = new TinyLFUCacheMap<>(3);
+        cache.put(1,"Alan");
+        cache.put(2,"Brian");
+    }
+
+    @Test
+    public void testConstructor_Pass() {
+        // Given
+        TinyLFUCacheMap<Integer,String> cache2 = new TinyLFUCacheMap<>();
+
+        // Then
+        assertEquals(TinyLFUCacheMap.DEFAULT_CAPACITY,cache2.capacity());
+        assertEquals(3,cache.capacity());
+        assertEquals(2,cache.size());
+        assertTrue(cache2.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new TinyLFUCacheMap<>(0));
+    }
+
+    @Test
+    public void testPut_Capacity_Pass() {
+        // When
+        for (int i = 3; i < 100; i++)
+            cache.put(i,"Key" + i);
+
+        // Then
+        assertEquals(3,cache.size());
+    }
+
+    @Test
+    public void testPut_Replace_Pass() {
+        // When
+        String result = cache.put(1,"Albert");
+
+        // Then
+        assertEquals("Alan",result);
+        assertEquals("Albert",cache.get(1));
+        assertEquals(2,cache.size());
+    }
+
+    @Test
+    public void testPut_FrequentKeysRetained_Pass() {
+        // Given
+        TinyLFUCacheMap<Integer,String> cache = new TinyLFUCacheMap<>(100);
+        for (int i = 0; i < 10; i++)
+            cache.put(i,"Key" + i);
+        for (int j = 0; j < 5; j++) {
+            for (int i = 0; i < 10; i++)
+                cache.get(i);
+        }
+
+        // When
+        for (int i = 1000; i < 2000; i++)
+            cache.put(i,"Key" + i);
+
+        // Then
+        for (int i = 0; i < 10; i++)
+            assertTrue(cache.containsKey(i));
+        assertEquals(100,cache.size());
+    }
+
+    @Test
+    public void testPeek_Pass() {
+        // Then
+        assertEquals("Alan",cache.peek(1));
+        assertNull(cache.peek(3));
+    }
+
+    @Test
+    public void testRemove_Pass() {
+        // When
+        String result = cache.remove(1);
+        String result2 = cache.remove(3);
+
+        // Then
+        assertEquals("Alan",result);
+        assertNull(result2);
+        assertEquals(Map.of(2,"Brian"),cache);
+    }
+
+    @Test
+    public void testEntrySet_IteratorRemove_Pass() {
+        // Given
+        Iterator<Map.Entry<Integer,String>> iterator = cache.entrySet().iterator();
+
+        // When
+        iterator.next();
+        iterator.remove();
+        for (int i = 3; i < 10; i++)
+            cache.put(i,"Key" + i);
+
+        // Then
+        assertEquals(3,cache.size());
+    }
+
+    @Test
+    public void testClear_Pass() {
+        // When
+        cache.clear();
+        cache.put(3,"James");
+
+        // Then
+        assertEquals(1,cache.size());
+        assertEquals("James",cache.get(3));
+    }
+
+    @Test
+    public void testReplay_ZipfTrace_Pass() {
+        // Given
+        int[] trace = TraceReplay.zipf(10_000,0.9,200_000,42);
+
+        // When
+        double lru = TraceReplay.replay(new LRUCacheMap<>(500),trace);
+        double tinyLfu = TraceReplay.replay(new TinyLFUCacheMap<>(500),trace);
+
+        // Then
+        logger.info("Zipf trace hit ratio: LRUCacheMap={}, TinyLFUCacheMap={}",lru,tinyLfu);
+        assertTrue(tinyLfu > lru);
+    }
+
+    @Test
+    public void testReplay_ScanTrace_Pass() {
+        // Given
+        int[] trace = TraceReplay.scan(10_000,0.9,200_000,2_000,1_000,42);
+
+        // When
+        double lru = TraceReplay.replay(new LRUCacheMap<>(500),trace);
+        double tinyLfu = TraceReplay.replay(new TinyLFUCacheMap<>(500),trace);
+
+        // Then
+        logger.info("Scan trace hit ratio: LRUCacheMap={}, TinyLFUCacheMap={}",lru,tinyLfu);
+        assertTrue(tinyLfu > lru * 1.25);
+    }
+}
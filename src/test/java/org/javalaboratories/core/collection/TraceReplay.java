@@ -0,0 +1,102 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates synthetic access traces and replays them against a cache,
+ * reporting the hit ratio.
+ * <p>
+ * Traces are generated from a fixed seed so that replays are repeatable.
+ */
+final class TraceReplay {
+
+    private TraceReplay() {}
+
+    /**
+     * Replays the {@code trace} against the {@code cache}. A miss is followed by
+     * a {@code put} of the key, as a read-through cache would.
+     *
+     * @param cache to replay trace against.
+     * @param trace sequence of keys requested.
+     * @return ratio of hits to requests.
+     */
+    static double replay(final Map<Integer,Integer> cache, final int[] trace) {
+        int hits = 0;
+        for (int key : trace) {
+            if (cache.get(key) != null) hits++;
+            else cache.put(key,key);
+        }
+        return (double) hits / trace.length;
+    }
+
+    /**
+     * Generates a trace of keys drawn from a Zipf distribution, where key
+     * {@code 0} is the most popular.
+     *
+     * @param items number of distinct keys.
+     * @param exponent skew of the distribution, typically close to 1.
+     * @param length number of requests.
+     * @param seed of the random generator.
+     * @return sequence of keys.
+     */
+    static int[] zipf(final int items, final double exponent, final int length, final long seed) {
+        double[] cdf = new double[items];
+        double sum = 0;
+        for (int i = 0; i < items; i++) {
+            sum += 1.0d / Math.pow(i + 1,exponent);
+            cdf[i] = sum;
+        }
+        Random random = new Random(seed);
+        int[] result = new int[length];
+        for (int i = 0; i < length; i++) {
+            int index = Arrays.binarySearch(cdf,random.nextDouble() * sum);
+            result[i] = index < 0 ? Math.min(-index - 1,items - 1) : index;
+        }
+        return result;
+    }
+
+    /**
+     * Generates a Zipf trace interrupted periodically by a sequential scan of
+     * keys that are never requested again, emulating a batch job.
+     *
+     * @param items number of distinct keys in the Zipf distribution.
+     * @param exponent skew of the distribution, typically close to 1.
+     * @param length number of Zipf requests.
+     * @param period number of Zipf requests between scans.
+     * @param scan number of keys in each scan.
+     * @param seed of the random generator.
+     * @return sequence of keys.
+     */
+    static int[] scan(final int items, final double exponent, final int length, final int period, final int scan,
+                      final long seed) {
+        int[] zipf = zipf(items,exponent,length,seed);
+        int[] result = new int[length + (length / period) * scan];
+        int next = items;
+        int j = 0;
+        for (int i = 0; i < length; i++) {
+            result[j++] = zipf[i];
+            if ((i + 1) % period == 0) {
+                for (int k = 0; k < scan; k++)
+                    result[j++] = next++;
+            }
+        }
+        return result;
+    }
+}
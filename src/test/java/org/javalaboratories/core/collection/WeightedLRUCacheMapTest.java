@@ -0,0 +1,241 @@
+/*
+ * Copyright 2020 Kevin Henry
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.javalaboratories.core.collection;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WeightedLRUCacheMapTest {
+
+    private WeightedLRUCacheMap<Integer,byte[]> cache;
+
+    @BeforeEach
+    public void setup() {
+        cache = new WeightedLRUCacheMap<>(100);
+        cache.put(1,new byte[30]);
+        cache.put(2,new byte[30]);
+    }
+
+    @Test
+    public void testConstructor_Pass() {
+        // Then
+        assertEquals(100,cache.maximumWeight());
+        assertEquals(60,cache.weight());
+        assertEquals(2,cache.size());
+    }
+
+    @Test
+    public void testConstructor_Fail() {
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> new WeightedLRUCacheMap<>(0));
+        assertThrows(NullPointerException.class, () -> new WeightedLRUCacheMap<>(10,null));
+    }
+
+    @Test
+    public void testPut_Eviction_Pass() {
+        // Given
+        cache.get(1);
+
+        // When
+        cache.put(3,new byte[50]);
+
+        // Then
+        assertEquals(80,cache.weight());
+        assertTrue(cache.containsKey(1));
+        assertFalse(cache.containsKey(2));
+        assertTrue(cache.containsKey(3));
+    }
+
+    @Test
+    public void testPut_EvictsUntilWithinWeight_Pass() {
+        // When
+        cache.put(3,new byte[90]);
+
+        // Then
+        assertEquals(90,cache.weight());
+        assertEquals(1,cache.size());
+        assertTrue(cache.containsKey(3));
+    }
+
+    @Test
+    public void testPut_Replace_Pass() {
+        // When
+        byte[] result = cache.put(1,new byte[60]);
+
+        // Then
+        assertEquals(30,result.length);
+        assertEquals(90,cache.weight());
+        assertEquals(2,cache.size());
+
+        // When
+        cache.put(2,new byte[10]);
+
+        // Then
+        assertEquals(70,cache.weight());
+    }
+
+    @Test
+    public void testPut_Overweight_Pass() {
+        // When
+        byte[] result = cache.put(1,new byte[101]);
+
+        // Then
+        assertEquals(30,result.length);
+        assertFalse(cache.containsKey(1));
+        assertTrue(cache.containsKey(2));
+        assertEquals(30,cache.weight());
+    }
+
+    @Test
+    public void testPut_NegativeWeight_Fail() {
+        // Given
+        WeightedLRUCacheMap<Integer,String> cache = new WeightedLRUCacheMap<>(10,(k,v) -> -1);
+
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> cache.put(1,"Alan"));
+    }
+
+    @Test
+    public void testRemove_Pass() {
+        // When
+        cache.remove(1);
+
+        // Then
+        assertEquals(30,cache.weight());
+        assertEquals(1,cache.size());
+    }
+
+    @Test
+    public void testEntrySet_SetValue_Pass() {
+        // Given
+        Iterator<Map.Entry<Integer,byte[]>> iterator = cache.entrySet().iterator();
+
+        // When
+        Map.Entry<Integer,byte[]> entry = iterator.next();
+        entry.setValue(new byte[5]);
+
+        // Then
+        assertEquals(2,entry.getKey());
+        assertEquals(35,cache.weight());
+        assertThrows(IllegalArgumentException.class, () -> entry.setValue(new byte[101]));
+    }
+
+    @Test
+    public void testEntrySet_SetValueOverweight_Pass() {
+        // Given
+        cache.put(3,new byte[30]);
+        Iterator<Map.Entry<Integer,byte[]>> iterator = cache.entrySet().iterator();
+
+        // When
+        while (iterator.hasNext())
+            iterator.next().setValue(new byte[40]);
+
+        // Then
+        assertEquals(120,cache.weight());
+        assertEquals(3,cache.size());
+
+        // When
+        cache.put(4,new byte[10]);
+
+        // Then
+        assertEquals(90,cache.weight());
+        assertEquals(3,cache.size());
+        assertFalse(cache.containsKey(1));
+    }
+
+    @Test
+    public void testReplaceAll_Overweight_Pass() {
+        // Given
+        cache.put(3,new byte[30]);
+
+        // When
+        cache.replaceAll((k,v) -> new byte[40]);
+
+        // Then
+        assertEquals(80,cache.weight());
+        assertEquals(2,cache.size());
+        assertFalse(cache.containsKey(1));
+        assertEquals(40,cache.peek(3).length);
+        assertEquals(40,cache.peek(2).length);
+    }
+
+    @Test
+    public void testReplaceAll_Fail() {
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> cache.replaceAll((k,v) -> new byte[101]));
+        assertThrows(NullPointerException.class, () -> cache.replaceAll(null));
+    }
+
+    @Test
+    public void testEntrySet_IteratorRemove_Pass() {
+        // Given
+        Iterator<Map.Entry<Integer,byte[]>> iterator = cache.entrySet().iterator();
+
+        // When
+        iterator.next();
+        iterator.remove();
+
+        // Then
+        assertEquals(30,cache.weight());
+        assertFalse(cache.containsKey(2));
+    }
+
+    @Test
+    public void testClear_Pass() {
+        // When
+        cache.clear();
+
+        // Then
+        assertEquals(0,cache.weight());
+        assertTrue(cache.isEmpty());
+    }
+
+    @Test
+    public void testWeigher_Bytes_Pass() {
+        // Given
+        Weigher<Integer,Object> weigher = Weigher.bytes();
+
+        // Then
+        assertEquals(16,weigher.weigh(1,new byte[16]));
+        assertEquals(10,weigher.weigh(1,"Hello"));
+        assertEquals(64,weigher.weigh(1,ByteBuffer.allocate(64)));
+        assertEquals(64,weigher.weigh(1,ByteBuffer.allocateDirect(64)));
+        assertEquals(0,weigher.weigh(1,null));
+        assertEquals(1,weigher.weigh(1,42));
+        assertEquals(1,Weigher.singleton().weigh(1,new byte[16]));
+    }
+
+    @Test
+    public void testWeigher_Strings_Pass() {
+        // Given
+        WeightedLRUCacheMap<Integer,String> cache = new WeightedLRUCacheMap<>(20);
+
+        // When
+        cache.put(1,"Alan");
+        cache.put(2,"Brian");
+        cache.put(3,"James");
+
+        // Then
+        assertEquals("[[3 -> James],[2 -> Brian]]",cache.toString());
+        assertEquals(20,cache.weight());
+    }
+}
@@ -0,0 +1,108 @@
+package org.javalaboratories.core.concurrency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchAccumulatorTest {
+
+    private final HashedWheelTimer timer = new HashedWheelTimer();
+    private final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        timer.stop();
+    }
+
+    @Test
+    public void testAdd_Size_Pass() {
+        // Given
+        BatchAccumulator<Integer> accumulator = new BatchAccumulator<>(4,TimeUnit.SECONDS.toNanos(30),timer,batches::add);
+
+        // When
+        for (int i = 0; i < 10; i++)
+            accumulator.add(i);
+
+        // Then
+        assertEquals(List.of(List.of(0,1,2,3),List.of(4,5,6,7)),batches);
+        accumulator.flush();
+        assertEquals(List.of(8,9),batches.get(2));
+        accumulator.flush();
+        assertEquals(3,batches.size());
+    }
+
+    @Test
+    public void testAdd_Linger_Pass() {
+        // Given
+        BatchAccumulator<Integer> accumulator = new BatchAccumulator<>(100,TimeUnit.MILLISECONDS.toNanos(20),timer,batches::add);
+        long start = System.nanoTime();
+
+        // When
+        accumulator.add(1);
+        accumulator.add(2);
+
+        // Then
+        await().atMost(5,TimeUnit.SECONDS).until(() -> batches.size() == 1);
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertEquals(List.of(1,2),batches.get(0));
+    }
+
+    @Test
+    public void testAdd_NoLinger_Pass() {
+        // Given
+        BatchAccumulator<Integer> accumulator = new BatchAccumulator<>(100,0,timer,batches::add);
+
+        // When
+        accumulator.add(1);
+        accumulator.add(2);
+
+        // Then
+        assertEquals(List.of(List.of(1),List.of(2)),batches);
+        assertThrows(IllegalArgumentException.class, () -> new BatchAccumulator<Integer>(0,0,timer,batches::add));
+    }
+
+    @Test
+    public void testAdd_Concurrent_Pass() throws InterruptedException {
+        // Given
+        int threads = 4, count = 25_000;
+        BatchAccumulator<Integer> accumulator = new BatchAccumulator<>(64,TimeUnit.MILLISECONDS.toNanos(1),timer,batches::add);
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] adders = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int base = t * count;
+            adders[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < count; i++)
+                    accumulator.add(base + i);
+            });
+            adders[t].start();
+        }
+
+        // When
+        start.countDown();
+        for (Thread adder : adders)
+            adder.join();
+
+        // Then
+        await().atMost(5,TimeUnit.SECONDS).until(() -> batches.stream().mapToInt(List::size).sum() == threads * count);
+        Set<Integer> elements = new HashSet<>();
+        batches.forEach(batch -> {
+            assertTrue(batch.size() <= 64);
+            elements.addAll(batch);
+        });
+        assertEquals(threads * count,elements.size());
+    }
+}
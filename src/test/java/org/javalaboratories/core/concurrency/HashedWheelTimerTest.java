@@ -0,0 +1,152 @@
+package org.javalaboratories.core.concurrency;
+
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HashedWheelTimerTest {
+
+    private HashedWheelTimer timer;
+
+    @BeforeEach
+    public void setup() {
+        timer = new HashedWheelTimer(TimeUnit.MILLISECONDS.toNanos(1),64);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        timer.stop();
+    }
+
+    @Test
+    public void testSchedule_Order_Pass() {
+        // Given
+        List<Integer> expired = new CopyOnWriteArrayList<>();
+        long start = System.nanoTime();
+
+        // When
+        timer.schedule(RejectableTask.of(() -> expired.add(3),e -> {}),150,TimeUnit.MILLISECONDS);
+        timer.schedule(RejectableTask.of(() -> expired.add(1),e -> {}),10,TimeUnit.MILLISECONDS);
+        timer.schedule(RejectableTask.of(() -> expired.add(2),e -> {}),80,TimeUnit.MILLISECONDS);
+
+        // Then
+        Awaitility.await().atMost(5,TimeUnit.SECONDS).until(() -> expired.size() == 3);
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(150));
+        assertEquals(List.of(1,2,3),expired);
+        assertEquals(0,timer.getPendingCount());
+    }
+
+    @Test
+    public void testSchedule_Rounds_Pass() {
+        // Given
+        AtomicInteger expired = new AtomicInteger();
+        long start = System.nanoTime();
+
+        // When
+        timer.schedule(RejectableTask.of(expired::incrementAndGet,e -> {}),200,TimeUnit.MILLISECONDS);
+
+        // Then
+        Awaitility.await().atMost(5,TimeUnit.SECONDS).until(() -> expired.get() == 1);
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    public void testCancel_Pass() throws InterruptedException {
+        // Given
+        AtomicInteger expired = new AtomicInteger();
+        HashedWheelTimer.Timeout timeout = timer.schedule(RejectableTask.of(expired::incrementAndGet,e -> {}),50,
+                TimeUnit.MILLISECONDS);
+
+        // When
+        boolean cancelled = timeout.cancel();
+
+        // Then
+        Thread.sleep(200);
+        assertTrue(cancelled);
+        assertTrue(timeout.isCancelled());
+        assertFalse(timeout.isExpired());
+        assertFalse(timeout.cancel());
+        assertEquals(0,expired.get());
+    }
+
+    @Test
+    public void testSchedule_Many_Pass() {
+        // Given
+        int count = 100_000;
+        AtomicInteger expired = new AtomicInteger();
+
+        // When
+        for (int i = 0; i < count; i++)
+            timer.schedule(RejectableTask.of(expired::incrementAndGet,e -> {}),i % 200,TimeUnit.MILLISECONDS);
+
+        // Then
+        Awaitility.await().atMost(10,TimeUnit.SECONDS).until(() -> expired.get() == count);
+        assertEquals(0,timer.getPendingCount());
+    }
+
+    @Test
+    public void testSchedule_ConcurrentStart_Pass() throws InterruptedException {
+        for (int round = 0; round < 50; round++) {
+            // Given
+            HashedWheelTimer fresh = new HashedWheelTimer(TimeUnit.MILLISECONDS.toNanos(1),64);
+            int threads = 8;
+            CountDownLatch ready = new CountDownLatch(1);
+            CountDownLatch expired = new CountDownLatch(threads);
+            List<Thread> schedulers = new CopyOnWriteArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                Thread thread = new Thread(() -> {
+                    try {
+                        ready.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    fresh.schedule(RejectableTask.of(expired::countDown,e -> {}),10,TimeUnit.MILLISECONDS);
+                });
+                schedulers.add(thread);
+                thread.start();
+            }
+
+            // When
+            ready.countDown();
+            for (Thread thread : schedulers)
+                thread.join();
+
+            // Then
+            try {
+                assertTrue(expired.await(5,TimeUnit.SECONDS));
+                assertEquals(0,fresh.getPendingCount());
+            } finally {
+                fresh.stop();
+            }
+        }
+    }
+
+    @Test
+    public void testStop_Pass() throws InterruptedException {
+        // Given
+        AtomicReference<RejectedExecutionException> rejected = new AtomicReference<>();
+        timer.schedule(RejectableTask.of(() -> {},rejected::set),30,TimeUnit.SECONDS);
+        timer.schedule(RejectableTask.of(() -> {},e -> {}),30,TimeUnit.SECONDS);
+
+        // When
+        int cancelled = timer.stop();
+
+        // Then
+        assertEquals(2,cancelled);
+        assertNotNull(rejected.get());
+        assertEquals(0,timer.getPendingCount());
+        assertThrows(RejectedExecutionException.class, () -> timer.schedule(RejectableTask.of(() -> {},e -> {}),1,
+                TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,64 @@
+package org.javalaboratories.core.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testSnapshot_Empty_Pass() {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // When
+        PromiseServiceSnapshot.Latency latency = histogram.snapshot();
+
+        // Then
+        assertEquals(0,latency.getCount());
+        assertEquals(0,latency.getMeanNanos());
+        assertEquals(0,latency.getP99Nanos());
+        assertEquals(0,latency.getMaxNanos());
+    }
+
+    @Test
+    public void testSnapshot_Percentiles_Pass() {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // When
+        for (int i = 1; i <= 10_000; i++)
+            histogram.record(i * 1000L);
+        PromiseServiceSnapshot.Latency latency = histogram.snapshot();
+
+        // Then
+        assertEquals(10_000,latency.getCount());
+        assertEquals(5_000_500,latency.getMeanNanos());
+        assertEquals(10_000_000,latency.getMaxNanos());
+        assertWithin(5_000_000,latency.getP50Nanos());
+        assertWithin(9_000_000,latency.getP90Nanos());
+        assertWithin(9_900_000,latency.getP99Nanos());
+    }
+
+    @Test
+    public void testRecord_Extremes_Pass() {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // When
+        histogram.record(-1);
+        histogram.record(3);
+        histogram.record(Long.MAX_VALUE);
+        PromiseServiceSnapshot.Latency latency = histogram.snapshot();
+
+        // Then
+        assertEquals(3,latency.getCount());
+        assertEquals(3,latency.getP50Nanos());
+        assertEquals(Long.MAX_VALUE,latency.getP99Nanos());
+        assertEquals(Long.MAX_VALUE,latency.getMaxNanos());
+    }
+
+    private void assertWithin(final long expected, final long actual) {
+        assertTrue(actual >= expected && actual <= expected * 1.25,"Expected ~" + expected + " but was " + actual);
+    }
+}
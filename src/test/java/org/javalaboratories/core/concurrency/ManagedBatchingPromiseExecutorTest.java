@@ -0,0 +1,193 @@
+package org.javalaboratories.core.concurrency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.awaitility.Awaitility.await;
+import static org.javalaboratories.core.concurrency.ManagedPromiseService.ServiceStates.INACTIVE;
+import static org.javalaboratories.core.concurrency.Promise.States.FULFILLED;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ManagedBatchingPromiseExecutorTest extends AbstractConcurrencyTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ManagedBatchingPromiseExecutorTest.class);
+
+    private ManagedBatchingPromiseExecutor service;
+
+    @BeforeEach
+    public void setup() {
+        service = new ManagedBatchingPromiseExecutor(2,16,Duration.ofMillis(1),false);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        service.signalTerm();
+    }
+
+    @Test
+    public void testNew_Pass() {
+        // Given
+        ManagedBatchingPromiseExecutor service2 = new ManagedBatchingPromiseExecutor(-1,8,Duration.ZERO,false);
+
+        // Then
+        assertEquals(2,service.getCapacity());
+        assertEquals(16,service.getBatchSize());
+        assertEquals(Runtime.getRuntime().availableProcessors(),service2.getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new ManagedBatchingPromiseExecutor(2,0,Duration.ZERO,false));
+        assertThrows(IllegalArgumentException.class, () -> new ManagedBatchingPromiseExecutor(2,8,Duration.ofMillis(-1),false));
+        service2.signalTerm();
+    }
+
+    @Test
+    public void testNew_Factory_Pass() {
+        // Given
+        System.setProperty(PromiseConfiguration.PROMISE_MANAGED_SERVICE_CLASS_PROPERTY,ManagedBatchingPromiseExecutor.class.getName());
+        System.setProperty(PromiseConfiguration.PROMISE_MANAGED_SERVICE_BATCH_SIZE_PROPERTY,"32");
+        try {
+            // When
+            ManagedPromiseService service2 = new ManagedPromiseServiceFactory<>(new PromiseConfiguration()).newService();
+
+            // Then
+            assertInstanceOf(ManagedBatchingPromiseExecutor.class,service2);
+            assertEquals(32,((ManagedBatchingPromiseExecutor) service2).getBatchSize());
+            service2.signalTerm();
+        } finally {
+            System.clearProperty(PromiseConfiguration.PROMISE_MANAGED_SERVICE_CLASS_PROPERTY);
+            System.clearProperty(PromiseConfiguration.PROMISE_MANAGED_SERVICE_BATCH_SIZE_PROPERTY);
+        }
+    }
+
+    @Test
+    public void testExecute_Batched_Pass() throws InterruptedException {
+        // Given
+        CountDownLatch latch = new CountDownLatch(1000);
+
+        // When
+        for (int i = 0; i < 1000; i++)
+            service.execute(latch::countDown);
+
+        // Then
+        assertTrue(latch.await(5,TimeUnit.SECONDS));
+        assertTrue(service.getBatchCount() >= 1000 / 16);
+        assertTrue(service.getBatchCount() < 1000);
+        await().atMost(5,TimeUnit.SECONDS).until(() -> service.getSnapshot().getCompletedCount() == 1000);
+        assertEquals(0,service.getQueueSize());
+    }
+
+    @Test
+    public void testExecute_Linger_Pass() throws InterruptedException {
+        // Given
+        CountDownLatch latch = new CountDownLatch(1);
+
+        // When
+        service.execute(latch::countDown);
+
+        // Then
+        assertTrue(latch.await(5,TimeUnit.SECONDS));
+        assertEquals(1,service.getBatchCount());
+    }
+
+    @Test
+    public void testExecute_Promise_Pass() {
+        // Given
+        AsyncPromiseTask<Integer> promise = new AsyncPromiseTask<>(service,PrimaryAction.of(() -> 5));
+
+        // When
+        promise.invoke(PrimaryAction.of(() -> 5));
+        Promise<Integer> result = promise.then(TransmuteAction.of(value -> value + 2));
+
+        // Then
+        assertEquals(7,result.getResult().orElseThrow());
+        assertEquals(FULFILLED,result.getState());
+    }
+
+    @Test
+    public void testStop_DrainsBatch_Pass() {
+        // Given
+        ManagedBatchingPromiseExecutor service2 = new ManagedBatchingPromiseExecutor(1,100,Duration.ofSeconds(30),false);
+        AtomicInteger count = new AtomicInteger();
+        for (int i = 0; i < 10; i++)
+            service2.execute(count::incrementAndGet);
+
+        // When
+        service2.signalTerm();
+
+        // Then
+        assertEquals(10,count.get());
+        assertEquals(INACTIVE,service2.getState());
+        assertThrows(RejectedExecutionException.class, () -> service2.execute(() -> {}));
+        assertEquals(1,service2.getSnapshot().getRejectedCount());
+    }
+
+    /**
+     * Compares the throughput and latency of tiny tasks submitted to the
+     * {@link ManagedThreadPoolPromiseExecutor} with that of batches of various
+     * sizes. Latency is the time tasks wait for a worker, including the time
+     * they linger in a batch. Each service is warmed up with a separate
+     * instance before it is measured.
+     * <p>
+     * Disabled, as it is a benchmark: only enable it for manual observation,
+     * running this test class exclusively.
+     */
+    @Test
+    @Disabled
+    public void testBenchmark_ThroughputLatency_Pass() throws InterruptedException {
+        // Given
+        int tasks = 200_000;
+        List<Supplier<AbstractManagedPromiseService>> services = List.of(
+                () -> new ManagedThreadPoolPromiseExecutor(2,false),
+                () -> new ManagedBatchingPromiseExecutor(2,1,Duration.ZERO,false),
+                () -> new ManagedBatchingPromiseExecutor(2,16,Duration.ofMillis(1),false),
+                () -> new ManagedBatchingPromiseExecutor(2,64,Duration.ofMillis(1),false),
+                () -> new ManagedBatchingPromiseExecutor(2,256,Duration.ofMillis(5),false)
+        );
+
+        for (Supplier<AbstractManagedPromiseService> supplier : services) {
+            // When
+            AbstractManagedPromiseService warmup = supplier.get();
+            submit(warmup,tasks / 10);
+            warmup.signalTerm();
+            AbstractManagedPromiseService measured = supplier.get();
+            long elapsed = submit(measured,tasks);
+            measured.signalTerm();
+
+            // Then
+            PromiseServiceSnapshot snapshot = measured.getSnapshot();
+            assertEquals(tasks,snapshot.getCompletedCount());
+            logger.info("{} batchSize={}: throughput={} tasks/s, wait p50={} us, p99={} us",
+                    measured.getClass().getSimpleName(),
+                    measured instanceof ManagedBatchingPromiseExecutor b ? b.getBatchSize() : "-",
+                    (long) (tasks / (elapsed / 1e9)),
+                    snapshot.getWaitTime().getP50Nanos() / 1000,
+                    snapshot.getWaitTime().getP99Nanos() / 1000);
+        }
+    }
+
+    private long submit(final ManagedPromiseService service, final int tasks) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(tasks);
+        AtomicInteger sink = new AtomicInteger();
+        long start = System.nanoTime();
+        for (int i = 0; i < tasks; i++) {
+            int value = i;
+            service.execute(() -> {
+                sink.addAndGet(value);
+                latch.countDown();
+            });
+        }
+        assertTrue(latch.await(60,TimeUnit.SECONDS));
+        return System.nanoTime() - start;
+    }
+
+}
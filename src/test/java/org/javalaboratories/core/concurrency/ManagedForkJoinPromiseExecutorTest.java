@@ -0,0 +1,170 @@
+package org.javalaboratories.core.concurrency;
+
+import nl.altindag.log.LogCaptor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.javalaboratories.core.concurrency.ManagedPromiseService.ServiceStates.CLOSING;
+import static org.javalaboratories.core.concurrency.ManagedPromiseService.ServiceStates.INACTIVE;
+import static org.javalaboratories.core.concurrency.Promise.States.FULFILLED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ManagedForkJoinPromiseExecutorTest extends AbstractConcurrencyTest {
+
+    private ManagedForkJoinPromiseExecutor service;
+
+    private static final Logger logger = LoggerFactory.getLogger(ManagedForkJoinPromiseExecutorTest.class);
+
+    @BeforeEach
+    public void setup() {
+        service = new ManagedForkJoinPromiseExecutor(4, false);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        service.signalTerm();
+    }
+
+    @Test
+    public void testNew_Capacity_Pass() {
+        // Given
+        ManagedForkJoinPromiseExecutor service2 = new ManagedForkJoinPromiseExecutor(-1,false);
+
+        // Then
+        assertEquals(4,service.getCapacity());
+        assertEquals(Runtime.getRuntime().availableProcessors(),service2.getCapacity());
+        service2.signalTerm();
+    }
+
+    @Test
+    public void testNew_Factory_Pass() {
+        // Given
+        System.setProperty(PromiseConfiguration.PROMISE_MANAGED_SERVICE_CLASS_PROPERTY,ManagedForkJoinPromiseExecutor.class.getName());
+        try {
+            // When
+            ManagedPromiseService service2 = new ManagedPromiseServiceFactory<>(new PromiseConfiguration()).newService();
+
+            // Then
+            assertTrue(service2 instanceof ManagedForkJoinPromiseExecutor);
+            service2.signalTerm();
+        } finally {
+            System.clearProperty(PromiseConfiguration.PROMISE_MANAGED_SERVICE_CLASS_PROPERTY);
+        }
+    }
+
+    @Test
+    public void testExecute_Promise_Pass() {
+        // Given
+        AsyncPromiseTask<Integer> promise = new AsyncPromiseTask<>(service,PrimaryAction.of(() -> 127));
+        promise.invoke(PrimaryAction.of(() -> 127));
+
+        // When
+        Promise<String> result = promise
+                .then(TransmuteAction.of(value -> value + 1))
+                .then(TransmuteAction.of(value -> Thread.currentThread().getName() + ":" + value));
+
+        // Then
+        assertTrue(result.getResult().orElseThrow().matches("Promise-ForkJoin-Worker-\\d+:128"));
+        assertEquals(FULFILLED,result.getState());
+    }
+
+    @Test
+    public void testStop_Timeout_Pass () {
+        // Given
+        LogCaptor logCaptor = LogCaptor.forClass(ManagedForkJoinPromiseExecutor.class);
+        service.execute(() -> doLongRunningTask("testStop_Timeout_Pass"));
+
+        // When
+        service.stop(64,false);
+
+        // Then
+        assertTrue(logCaptor.getInfoLogs().contains("Not all promises kept following shutdown -- forced shutdown"));
+    }
+
+    @Test
+    public void testStop_InvalidTimeout_Pass () {
+        assertThrows(IllegalArgumentException.class, () -> service.stop(24,false));
+    }
+
+    @Test
+    public void testSignalTerm_Manual_Pass () {
+        // Given
+        service.signalTerm();
+
+        // Then
+        assertEquals(INACTIVE, service.getState());
+    }
+
+    @Test
+    public void testSignalTerm_ProcessShutdownSimulation_Pass () {
+        // Given
+        service.execute(() -> doLongRunningTask("testSignalTerm_ProcessShutdownSimulation_Pass"));
+        fireSigTerm(service);
+
+        // When
+        service.signalTerm();
+
+        // Then
+        assertEquals(CLOSING, service.getState());
+    }
+
+    // Benchmark: only enable for manual observation of behaviour
+    // If enabled, it is recommended to run this test class exclusively
+    @Test
+    @Disabled
+    public void testThroughput_Comparison_Pass() throws InterruptedException {
+        // Given
+        int capacity = Runtime.getRuntime().availableProcessors();
+
+        // When
+        double pool = throughput(c -> new ManagedThreadPoolPromiseExecutor(c,false),capacity);
+        double perTask = throughput(c -> new ManagedThreadPerTaskPromiseExecutor(c,PromiseConfiguration.DEFAULT_SERVICE_QUEUE_CAPACITY,
+                AdmissionPolicy.CALLER_RUNS,false),capacity);
+        double forkJoin = throughput(c -> new ManagedForkJoinPromiseExecutor(c,false),capacity);
+
+        // Then
+        logger.info("Fan-out throughput (tasks/s) with {} workers: ManagedThreadPoolPromiseExecutor={}, " +
+                "ManagedThreadPerTaskPromiseExecutor={}, ManagedForkJoinPromiseExecutor={}",capacity,pool,perTask,forkJoin);
+        assertTrue(pool > 0 && perTask > 0 && forkJoin > 0);
+    }
+
+    /**
+     * Measures the throughput of the service with a fan-out workload: root
+     * tasks submitted by the current thread each submit short child tasks from
+     * the worker thread, as {@code then} actions of promises do.
+     */
+    private double throughput(final IntFunction<AbstractManagedPromiseService> factory, final int capacity)
+            throws InterruptedException {
+        int roots = 200;
+        int children = 100;
+        AbstractManagedPromiseService service = factory.apply(capacity);
+        try {
+            for (int round = 0; round < 2; round++) { // First round warms up
+                CountDownLatch latch = new CountDownLatch(roots * children);
+                long start = System.nanoTime();
+                for (int i = 0; i < roots; i++) {
+                    service.execute(() -> {
+                        for (int j = 0; j < children; j++)
+                            service.execute(latch::countDown);
+                    });
+                }
+                assertTrue(latch.await(60,TimeUnit.SECONDS));
+                if (round == 1)
+                    return (roots * children) / ((System.nanoTime() - start) / 1e9d);
+            }
+            throw new IllegalStateException();
+        } finally {
+            service.signalTerm();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package org.javalaboratories.core.concurrency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.awaitility.Awaitility.await;
+import static org.javalaboratories.core.concurrency.ManagedPromiseService.ServiceStates.INACTIVE;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ManagedKeyedPromiseExecutorTest extends AbstractConcurrencyTest {
+
+    private ManagedKeyedPromiseExecutor service;
+
+    @BeforeEach
+    public void setup() {
+        service = new ManagedKeyedPromiseExecutor(4, false);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        service.signalTerm();
+    }
+
+    @Test
+    public void testNew_Capacity_Pass() {
+        // Given
+        ManagedKeyedPromiseExecutor service2 = new ManagedKeyedPromiseExecutor(-1,false);
+
+        // Then
+        assertEquals(4,service.getCapacity());
+        assertEquals(Runtime.getRuntime().availableProcessors(),service2.getCapacity());
+        service2.signalTerm();
+    }
+
+    @Test
+    public void testExecute_KeyOrder_Pass() {
+        // Given
+        int keys = 10, tasks = 200;
+        List<List<Integer>> results = new ArrayList<>();
+        List<AtomicInteger> running = new ArrayList<>();
+        AtomicBoolean overlapped = new AtomicBoolean();
+        for (int k = 0; k < keys; k++) {
+            results.add(new CopyOnWriteArrayList<>());
+            running.add(new AtomicInteger());
+        }
+
+        // When
+        for (int i = 0; i < tasks; i++) {
+            for (int k = 0; k < keys; k++) {
+                int key = k, value = i;
+                service.execute(key,() -> {
+                    if (running.get(key).incrementAndGet() > 1)
+                        overlapped.set(true);
+                    results.get(key).add(value);
+                    running.get(key).decrementAndGet();
+                });
+            }
+        }
+
+        // Then
+        await().atMost(10,TimeUnit.SECONDS).until(() -> results.stream().allMatch(r -> r.size() == tasks));
+        List<Integer> expected = IntStream.range(0,tasks).boxed().toList();
+        results.forEach(result -> assertEquals(expected,result));
+        assertFalse(overlapped.get());
+        await().atMost(5,TimeUnit.SECONDS).until(() -> service.getKeyCount() == 0);
+        assertEquals(0,service.getQueueSize());
+    }
+
+    @Test
+    public void testExecute_Parallel_Pass() throws InterruptedException {
+        // Given
+        CountDownLatch latch = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+
+        // When
+        service.execute("A",() -> {
+            try {
+                if (latch.await(5,TimeUnit.SECONDS))
+                    done.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        service.execute("B",latch::countDown);
+
+        // Then
+        assertTrue(done.await(5,TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testExecute_InheritKey_Pass() {
+        // Given
+        List<String> results = new CopyOnWriteArrayList<>();
+        CountDownLatch submitted = new CountDownLatch(1);
+
+        // When
+        service.execute("A",() -> {
+            try {
+                // Inherit the key only once "second" is queued behind this task
+                submitted.await(5,TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            service.execute(() -> results.add("inherited"));
+            sleep(50);
+            results.add("first");
+        });
+        service.execute("A",() -> results.add("second"));
+        submitted.countDown();
+
+        // Then
+        await().atMost(5,TimeUnit.SECONDS).until(() -> results.size() == 3);
+        assertEquals(List.of("first","second","inherited"),results);
+    }
+
+    @Test
+    public void testForKey_Promise_Pass() {
+        // Given
+        List<Integer> results = new CopyOnWriteArrayList<>();
+        ManagedPromiseService account = service.forKey("account-1");
+
+        // When
+        List<Promise<Integer>> promises = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            int value = i;
+            promises.add(Promises.newPromise(PrimaryAction.of(() -> {
+                results.add(value);
+                return value;
+            }),account));
+        }
+
+        // Then
+        promises.forEach(Promise::await);
+        assertEquals(IntStream.range(0,50).boxed().toList(),results);
+        assertEquals(service.getState(),account.getState());
+        assertEquals(7,Promises.newPromise(PrimaryAction.of(() -> 5),account)
+                .then(TransmuteAction.of(value -> value + 2))
+                .getResult().orElseThrow());
+    }
+
+    @Test
+    public void testStop_DrainsKeys_Pass() {
+        // Given
+        AtomicInteger count = new AtomicInteger();
+        for (int i = 0; i < 100; i++)
+            service.execute(i % 3,() -> {sleep(1); count.incrementAndGet();});
+
+        // When
+        service.signalTerm();
+
+        // Then
+        assertEquals(100,count.get());
+        assertEquals(INACTIVE,service.getState());
+        assertEquals(0,service.getKeyCount());
+        assertEquals(100,service.getSnapshot().getCompletedCount());
+    }
+
+    @Test
+    public void testExecute_AfterStop_Fail() {
+        // Given
+        AtomicBoolean ran = new AtomicBoolean();
+        service.signalTerm();
+
+        // Then
+        assertThrows(RejectedExecutionException.class, () -> service.execute("A",() -> ran.set(true)));
+        assertThrows(RejectedExecutionException.class, () -> service.forKey("A").execute(() -> ran.set(true)));
+        assertThrows(RejectedExecutionException.class, () -> service.execute(() -> ran.set(true)));
+        assertFalse(ran.get());
+        assertEquals(0,service.getKeyCount());
+        assertEquals(3,service.getSnapshot().getRejectedCount());
+    }
+}
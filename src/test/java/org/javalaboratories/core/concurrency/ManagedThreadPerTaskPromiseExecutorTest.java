@@ -16,12 +16,21 @@
 package org.javalaboratories.core.concurrency;
 
 import nl.altindag.log.LogCaptor;
+import org.awaitility.Awaitility;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.javalaboratories.core.concurrency.ManagedPromiseService.ServiceStates.CLOSING;
 import static org.javalaboratories.core.concurrency.ManagedPromiseService.ServiceStates.INACTIVE;
+import static org.javalaboratories.core.concurrency.Promise.States.REJECTED;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -108,4 +117,142 @@ public class ManagedThreadPerTaskPromiseExecutorTest extends AbstractConcurrency
         // Then
         assertEquals(CLOSING, service.getState());
     }
+
+    @Test
+    public void testExecute_Block_Pass() throws InterruptedException {
+        // Given
+        ManagedThreadPerTaskPromiseExecutor service = new ManagedThreadPerTaskPromiseExecutor(1,1,AdmissionPolicy.BLOCK,false);
+        CountDownLatch gate = new CountDownLatch(1);
+        AtomicInteger count = new AtomicInteger();
+        service.execute(() -> {awaitGate(gate); count.incrementAndGet();});
+        service.execute(count::incrementAndGet);
+
+        // When
+        Thread submitter = new Thread(() -> service.execute(count::incrementAndGet));
+        submitter.start();
+
+        // Then
+        Awaitility.await().atMost(5,TimeUnit.SECONDS).until(() -> submitter.getState() == Thread.State.WAITING);
+        assertEquals(1,service.getThrottledCount());
+        assertEquals(1,service.getQueueSize());
+        gate.countDown();
+        submitter.join(5000);
+        Awaitility.await().atMost(5,TimeUnit.SECONDS).until(() -> count.get() == 3);
+        service.signalTerm();
+    }
+
+    @Test
+    public void testExecute_Reject_Fail() {
+        // Given
+        ManagedThreadPerTaskPromiseExecutor service = new ManagedThreadPerTaskPromiseExecutor(1,1,AdmissionPolicy.REJECT,false);
+        CountDownLatch gate = new CountDownLatch(1);
+        service.execute(() -> awaitGate(gate));
+        service.execute(() -> {});
+
+        // Then
+        assertThrows(RejectedExecutionException.class, () -> service.execute(() -> {}));
+        assertEquals(1,service.getThrottledCount());
+        assertEquals(1,service.getSnapshot().getRejectedCount());
+        assertEquals(1,service.getSnapshot().getThrottledCount());
+        assertEquals(1,service.getSnapshot().getQueueSize());
+        gate.countDown();
+        service.signalTerm();
+    }
+
+    @Test
+    public void testExecute_CallerRuns_Pass() {
+        // Given
+        ManagedThreadPerTaskPromiseExecutor service = new ManagedThreadPerTaskPromiseExecutor(1,1,AdmissionPolicy.CALLER_RUNS,false);
+        CountDownLatch gate = new CountDownLatch(1);
+        AtomicReference<Thread> thread = new AtomicReference<>();
+        service.execute(() -> awaitGate(gate));
+        service.execute(() -> {});
+
+        // When
+        service.execute(() -> thread.set(Thread.currentThread()));
+
+        // Then
+        assertEquals(Thread.currentThread(),thread.get());
+        assertEquals(1,service.getThrottledCount());
+        gate.countDown();
+        service.signalTerm();
+    }
+
+    @Test
+    public void testExecute_ShedOldest_Pass() {
+        // Given
+        ManagedThreadPerTaskPromiseExecutor service = new ManagedThreadPerTaskPromiseExecutor(1,1,AdmissionPolicy.SHED_OLDEST,false);
+        CountDownLatch gate = new CountDownLatch(1);
+        AtomicInteger count = new AtomicInteger();
+        service.execute(() -> awaitGate(gate));
+        AsyncPromiseTask<Integer> shed = new AsyncPromiseTask<>(service,PrimaryAction.of(() -> 127));
+        shed.invoke(PrimaryAction.of(() -> 127));
+
+        // When
+        service.execute(count::incrementAndGet);
+
+        // Then
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> shed.getFuture().get(5,TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class,exception.getCause());
+        assertEquals(REJECTED,shed.getState());
+        assertEquals(1,service.getThrottledCount());
+        assertEquals(1,service.getSnapshot().getRejectedCount());
+        gate.countDown();
+        Awaitility.await().atMost(5,TimeUnit.SECONDS).until(() -> count.get() == 1);
+        service.signalTerm();
+    }
+
+    @Test
+    public void testExecute_Burst_Pass() {
+        // Given
+        ManagedThreadPerTaskPromiseExecutor service = new ManagedThreadPerTaskPromiseExecutor(4,16,AdmissionPolicy.BLOCK,false);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maximum = new AtomicInteger();
+        AtomicInteger count = new AtomicInteger();
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            service.execute(() -> {
+                maximum.accumulateAndGet(running.incrementAndGet(),Math::max);
+                running.decrementAndGet();
+                count.incrementAndGet();
+            });
+            assertTrue(service.getQueueSize() <= 16);
+        }
+
+        // Then
+        Awaitility.await().atMost(10,TimeUnit.SECONDS).until(() -> count.get() == 10_000);
+        assertTrue(maximum.get() <= 4);
+        Awaitility.await().atMost(10,TimeUnit.SECONDS).until(() -> service.getSnapshot().getCompletedCount() == 10_000);
+        assertEquals(10_000,service.getSnapshot().getWaitTime().getCount());
+        assertEquals(0,service.getSnapshot().getActiveCount());
+        service.signalTerm();
+    }
+
+    @Test
+    public void testNew_Configuration_Pass() {
+        // Given
+        System.setProperty(PromiseConfiguration.PROMISE_MANAGED_SERVICE_ADMISSION_POLICY_PROPERTY,"shed_oldest");
+        System.setProperty(PromiseConfiguration.PROMISE_MANAGED_SERVICE_QUEUE_CAPACITY_PROPERTY,"32");
+        try {
+            // When
+            ManagedThreadPerTaskPromiseExecutor service = new ManagedThreadPerTaskPromiseExecutor(new PromiseConfiguration());
+
+            // Then
+            assertEquals(AdmissionPolicy.SHED_OLDEST,service.getAdmissionPolicy());
+            service.signalTerm();
+        } finally {
+            System.clearProperty(PromiseConfiguration.PROMISE_MANAGED_SERVICE_ADMISSION_POLICY_PROPERTY);
+            System.clearProperty(PromiseConfiguration.PROMISE_MANAGED_SERVICE_QUEUE_CAPACITY_PROPERTY);
+        }
+        assertThrows(IllegalArgumentException.class, () -> new ManagedThreadPerTaskPromiseExecutor(1,0,AdmissionPolicy.BLOCK));
+    }
+
+    private void awaitGate(final CountDownLatch gate) {
+        try {
+            gate.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
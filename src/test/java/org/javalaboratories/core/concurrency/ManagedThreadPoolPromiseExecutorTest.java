@@ -7,9 +7,20 @@ import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.javalaboratories.core.concurrency.ManagedPromiseService.ServiceStates.CLOSING;
 import static org.javalaboratories.core.concurrency.ManagedPromiseService.ServiceStates.INACTIVE;
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -98,4 +109,79 @@ public class ManagedThreadPoolPromiseExecutorTest extends AbstractConcurrencyTes
         // Then
         assertEquals(CLOSING, service.getState());
     }
+
+    @Test
+    public void testGetSnapshot_Pass() {
+        // Given
+        for (int i = 0; i < 100; i++)
+            service.execute(() -> sleep(1));
+        service.execute(() -> { throw new IllegalStateException("testGetSnapshot_Pass"); });
+
+        // When
+        await().atMost(5,TimeUnit.SECONDS).until(() -> service.getSnapshot().getCompletedCount() == 100
+                && service.getSnapshot().getFailedCount() == 1);
+        PromiseServiceSnapshot snapshot = service.getSnapshot();
+
+        // Then
+        logger.info("Snapshot: {}",snapshot);
+        assertEquals(ManagedThreadPoolPromiseExecutor.class.getName(),snapshot.getServiceClassName());
+        assertEquals(4,snapshot.getCapacity());
+        assertEquals(101,snapshot.getSubmittedCount());
+        assertEquals(0,snapshot.getActiveCount());
+        assertEquals(0,snapshot.getQueueSize());
+        assertEquals(0,snapshot.getRejectedCount());
+        assertEquals(101,snapshot.getWaitTime().getCount());
+        assertEquals(101,snapshot.getRunTime().getCount());
+        assertTrue(snapshot.getRunTime().getP50Nanos() >= TimeUnit.MILLISECONDS.toNanos(1));
+        assertTrue(snapshot.getRunTime().getP99Nanos() <= snapshot.getRunTime().getMaxNanos());
+    }
+
+    @Test
+    public void testGetSnapshot_Rejected_Pass() {
+        // Given
+        service.signalTerm();
+
+        // When
+        assertThrows(RejectedExecutionException.class, () -> service.execute(() -> {}));
+
+        // Then
+        assertEquals(1,service.getSnapshot().getRejectedCount());
+        assertEquals(INACTIVE,service.getSnapshot().getState());
+    }
+
+    @Test
+    public void testStop_PendingTimers_Pass() {
+        // Given
+        AtomicReference<RejectedExecutionException> rejected = new AtomicReference<>();
+        service.getTimer().schedule(RejectableTask.of(() -> {},rejected::set),30,TimeUnit.SECONDS);
+
+        // When
+        service.signalTerm();
+
+        // Then
+        assertNotNull(rejected.get());
+        assertEquals(0,service.getTimer().getPendingCount());
+        assertThrows(RejectedExecutionException.class, () -> service.getTimer().schedule(RejectableTask.of(() -> {},e -> {}),
+                1,TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testRegisterMBean_Pass() throws Exception {
+        // Given
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        service.execute(() -> sleep(1));
+        await().atMost(5,TimeUnit.SECONDS).until(() -> service.getSnapshot().getCompletedCount() == 1);
+
+        // When
+        ObjectName name = service.registerMBean();
+
+        // Then
+        assertEquals(name,service.registerMBean());
+        assertTrue(server.isRegistered(name));
+        assertEquals(1L,server.getAttribute(name,"CompletedCount"));
+        assertEquals("ACTIVE",server.getAttribute(name,"State"));
+        assertEquals(1L,((CompositeData) server.getAttribute(name,"RunTime")).get("count"));
+        service.signalTerm();
+        assertFalse(server.isRegistered(name));
+    }
 }
@@ -0,0 +1,83 @@
+package org.javalaboratories.core.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.javalaboratories.core.concurrency.Promise.States.REJECTED;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PromiseBatcherTest extends AbstractConcurrencyTest {
+
+    @Test
+    public void testSubmit_Batched_Pass() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        PromiseBatcher<Integer,String> batcher = Promises.newBatcher(ids -> {
+            calls.incrementAndGet();
+            return ids.stream().map(id -> "user-" + id).toList();
+        },10,Duration.ofMillis(50));
+
+        // When
+        List<Promise<String>> promises = new ArrayList<>();
+        for (int i = 0; i < 25; i++)
+            promises.add(batcher.submit(i));
+
+        // Then
+        for (int i = 0; i < 25; i++)
+            assertEquals("user-" + i,promises.get(i).getResult().orElseThrow());
+        assertEquals(3,calls.get());
+    }
+
+    @Test
+    public void testSubmit_Flush_Pass() {
+        // Given
+        PromiseBatcher<Integer,Integer> batcher = Promises.newBatcher(ids -> ids.stream().map(id -> id * 2).toList(),
+                10,Duration.ofSeconds(30));
+
+        // When
+        Promise<Integer> promise = batcher.submit(21);
+        batcher.flush();
+
+        // Then
+        assertEquals(42,promise.getResult().orElseThrow());
+    }
+
+    @Test
+    public void testSubmit_HandlerException_Fail() {
+        // Given
+        AtomicReference<Throwable> cause = new AtomicReference<>();
+        PromiseBatcher<Integer,Integer> batcher = Promises.newBatcher(ids -> {
+            throw new IllegalStateException("testSubmit_HandlerException_Fail");
+        },2,Duration.ofMillis(10));
+
+        // When
+        Promise<Integer> promise = batcher.submit(1).handle(cause::set);
+        Promise<Integer> promise2 = batcher.submit(2);
+
+        // Then
+        assertEquals(REJECTED,promise.getState());
+        promise2.await();
+        assertEquals(REJECTED,promise2.getState());
+        assertEquals("testSubmit_HandlerException_Fail",cause.get().getMessage());
+    }
+
+    @Test
+    public void testSubmit_WrongSize_Fail() {
+        // Given
+        AtomicReference<Throwable> cause = new AtomicReference<>();
+        PromiseBatcher<Integer,Integer> batcher = Promises.newBatcher(ids -> List.of(),2,Duration.ofMillis(10));
+
+        // When
+        Promise<Integer> promise = batcher.submit(1).handle(cause::set);
+
+        // Then
+        assertEquals(REJECTED,promise.getState());
+        assertInstanceOf(IllegalStateException.class,cause.get());
+        assertThrows(IllegalArgumentException.class, () -> Promises.newBatcher(ids -> ids,0,Duration.ZERO));
+    }
+}
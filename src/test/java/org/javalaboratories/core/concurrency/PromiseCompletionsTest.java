@@ -0,0 +1,166 @@
+package org.javalaboratories.core.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.awaitility.Awaitility.await;
+import static org.javalaboratories.core.concurrency.Promise.States.FULFILLED;
+import static org.javalaboratories.core.concurrency.Promise.States.REJECTED;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PromiseCompletionsTest extends AbstractConcurrencyTest {
+
+    @Test
+    public void testIterator_CompletionOrder_Pass() {
+        // Given
+        PromiseCompletions<Integer> completions = new PromiseCompletions<>(Arrays.asList(
+                Promises.schedule(PrimaryAction.of(() -> 3),Duration.ofMillis(300)),
+                Promises.schedule(PrimaryAction.of(() -> 1),Duration.ofMillis(50)),
+                Promises.schedule(PrimaryAction.of(() -> 2),Duration.ofMillis(150))
+        ));
+        List<Integer> results = new ArrayList<>();
+
+        // When
+        for (Promise<Integer> promise : completions)
+            results.add(promise.getResult().orElseThrow());
+
+        // Then
+        assertEquals(List.of(1,2,3),results);
+        assertEquals(3,completions.size());
+        assertEquals(3,completions.getPromises().get(0).getResult().orElseThrow());
+    }
+
+    @Test
+    public void testIterator_Rejected_Pass() {
+        // Given
+        List<PrimaryAction<Integer>> actions = Arrays.asList(
+                PrimaryAction.of(() -> doLongRunningTask("testIterator_Rejected_Pass[0]")),
+                PrimaryAction.of(() -> doLongRunningTaskWithException("testIterator_Rejected_Pass[1]"))
+        );
+
+        // When
+        List<Promise.States> states = new ArrayList<>();
+        Promises.completionOrder(actions).forEach(promise -> states.add(promise.getState()));
+
+        // Then
+        assertEquals(2,states.size());
+        assertTrue(states.containsAll(List.of(FULFILLED,REJECTED)));
+    }
+
+    @Test
+    public void testIterator_Consumed_Fail() {
+        // Given
+        PromiseCompletions<Integer> completions = Promises.completionOrder(List.of(PrimaryAction.of(() -> 127)));
+        Iterator<Promise<Integer>> iterator = completions.iterator();
+
+        // When
+        iterator.next();
+
+        // Then
+        assertFalse(iterator.hasNext());
+        assertThrows(IllegalStateException.class,completions::iterator);
+        assertThrows(IllegalArgumentException.class, () -> Promises.completionOrder(List.of()));
+    }
+
+    @Test
+    public void testSubscribe_Backpressure_Pass() {
+        // Given
+        PromiseCompletions<Integer> completions = new PromiseCompletions<>(Arrays.asList(
+                Promises.schedule(PrimaryAction.of(() -> 2),Duration.ofMillis(100)),
+                Promises.schedule(PrimaryAction.of(() -> 1),Duration.ofMillis(10)),
+                Promises.schedule(PrimaryAction.of(() -> 3),Duration.ofMillis(200))
+        ));
+        TestSubscriber subscriber = new TestSubscriber();
+
+        // When
+        completions.subscribe(subscriber);
+        subscriber.subscription.get().request(1);
+        await().atMost(5,TimeUnit.SECONDS).until(() -> completions.getPromises().stream()
+                .allMatch(promise -> promise.getState() == FULFILLED));
+
+        // Then
+        sleep(50);
+        assertEquals(List.of(1),subscriber.values);
+        assertFalse(subscriber.completed.get());
+        subscriber.subscription.get().request(Long.MAX_VALUE);
+        await().atMost(5,TimeUnit.SECONDS).until(subscriber.completed::get);
+        assertEquals(List.of(1,2,3),subscriber.values);
+        assertTrue(subscriber.completed.get());
+        assertNull(subscriber.error.get());
+    }
+
+    @Test
+    public void testSubscribe_Cancel_Pass() {
+        // Given
+        PromiseCompletions<Integer> completions = new PromiseCompletions<>(Arrays.asList(
+                Promises.schedule(PrimaryAction.of(() -> 1),Duration.ofMillis(10)),
+                Promises.schedule(PrimaryAction.of(() -> 2),Duration.ofSeconds(30))
+        ));
+        TestSubscriber subscriber = new TestSubscriber();
+        completions.subscribe(subscriber);
+        subscriber.subscription.get().request(2);
+        await().atMost(5,TimeUnit.SECONDS).until(() -> subscriber.values.size() == 1);
+
+        // When
+        subscriber.subscription.get().cancel();
+
+        // Then
+        await().atMost(5,TimeUnit.SECONDS).until(() -> completions.getPromises().get(1).getState() == REJECTED);
+        assertEquals(List.of(1),subscriber.values);
+        assertFalse(subscriber.completed.get());
+    }
+
+    @Test
+    public void testSubscribe_InvalidRequest_Fail() {
+        // Given
+        PromiseCompletions<Integer> completions = Promises.completionOrder(List.of(PrimaryAction.of(() -> 127)));
+        TestSubscriber subscriber = new TestSubscriber();
+        TestSubscriber subscriber2 = new TestSubscriber();
+        completions.subscribe(subscriber);
+
+        // When
+        subscriber.subscription.get().request(0);
+        completions.subscribe(subscriber2);
+
+        // Then
+        assertInstanceOf(IllegalArgumentException.class,subscriber.error.get());
+        assertInstanceOf(IllegalStateException.class,subscriber2.error.get());
+    }
+
+    private static class TestSubscriber implements Flow.Subscriber<Promise<Integer>> {
+        private final AtomicReference<Flow.Subscription> subscription = new AtomicReference<>();
+        private final List<Integer> values = new CopyOnWriteArrayList<>();
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription.set(subscription);
+        }
+
+        @Override
+        public void onNext(Promise<Integer> item) {
+            values.add(item.getResult().orElseThrow());
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error.set(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            completed.set(true);
+        }
+    }
+}
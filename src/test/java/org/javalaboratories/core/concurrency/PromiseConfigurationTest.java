@@ -3,8 +3,10 @@ package org.javalaboratories.core.concurrency;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
+import static org.javalaboratories.core.concurrency.PromiseConfiguration.PROMISE_MANAGED_SERVICE_ADMISSION_POLICY_PROPERTY;
 import static org.javalaboratories.core.concurrency.PromiseConfiguration.PROMISE_MANAGED_SERVICE_CAPACITY_PROPERTY;
 import static org.javalaboratories.core.concurrency.PromiseConfiguration.PROMISE_MANAGED_SERVICE_CLASS_PROPERTY;
+import static org.javalaboratories.core.concurrency.PromiseConfiguration.PROMISE_MANAGED_SERVICE_QUEUE_CAPACITY_PROPERTY;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -17,6 +19,8 @@ public class PromiseConfigurationTest {
     public void tearDown() {
         System.clearProperty(PROMISE_MANAGED_SERVICE_CLASS_PROPERTY);
         System.clearProperty(PROMISE_MANAGED_SERVICE_CAPACITY_PROPERTY);
+        System.clearProperty(PROMISE_MANAGED_SERVICE_QUEUE_CAPACITY_PROPERTY);
+        System.clearProperty(PROMISE_MANAGED_SERVICE_ADMISSION_POLICY_PROPERTY);
     }
 
     @Test
@@ -53,4 +57,32 @@ public class PromiseConfigurationTest {
         assertEquals("org.javalaboratories.core.concurrency.ManagedThreadPoolPromiseExecutor",configuration.getServiceClassName());
         assertTrue(configuration.getServiceCapacity() > 0);
     }
+
+    @Test
+    public void testNew_AdmissionSystemProperties_Pass() {
+        // Given
+        System.setProperty(PROMISE_MANAGED_SERVICE_QUEUE_CAPACITY_PROPERTY,"128");
+        System.setProperty(PROMISE_MANAGED_SERVICE_ADMISSION_POLICY_PROPERTY,"caller_runs");
+
+        // When
+        PromiseConfiguration configuration = new PromiseConfiguration();
+
+        // Then
+        assertEquals(128,configuration.getServiceQueueCapacity());
+        assertEquals(AdmissionPolicy.CALLER_RUNS,configuration.getServiceAdmissionPolicy());
+    }
+
+    @Test
+    public void testNew_AdmissionInvalidProperties_Pass() {
+        // Given
+        System.setProperty(PROMISE_MANAGED_SERVICE_QUEUE_CAPACITY_PROPERTY,"none");
+        System.setProperty(PROMISE_MANAGED_SERVICE_ADMISSION_POLICY_PROPERTY,"1");
+
+        // When
+        PromiseConfiguration configuration = new PromiseConfiguration(MALFORMED_PROMISE_CONFIGURATION_FILE);
+
+        // Then
+        assertEquals(PromiseConfiguration.DEFAULT_SERVICE_QUEUE_CAPACITY,configuration.getServiceQueueCapacity());
+        assertEquals(PromiseConfiguration.DEFAULT_SERVICE_ADMISSION_POLICY,configuration.getServiceAdmissionPolicy());
+    }
 }
@@ -6,14 +6,19 @@ import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 
 import static org.javalaboratories.core.concurrency.Promise.States.FULFILLED;
 import static org.javalaboratories.core.concurrency.Promise.States.REJECTED;
+import static org.awaitility.Awaitility.await;
 import static org.javalaboratories.core.concurrency.PromiseEvent.Actions.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -383,6 +388,82 @@ public class PromiseListenerTest extends AbstractConcurrencyTest {
         assertEquals(FULFILLED,promise.getState());
     }
 
+    @Test
+    public void testThen_EventOrder_Pass() {
+        // Given
+        List<PromiseEvent.Actions> actions = Collections.synchronizedList(new ArrayList<>());
+        List<PromiseEventSubscriber<Integer>> subscribers = List.of(event -> actions.add(event.getAction()));
+
+        // When
+        Promise<String> promise = Promises.newPromise(PrimaryAction.of(() -> 127),subscribers)
+                .then(TransmuteAction.of(value -> value + 1))
+                .then(TransmuteAction.of(value -> value + ""))
+                .then(TaskAction.of(value -> {}));
+        promise.await();
+
+        // Then
+        await().atMost(5,TimeUnit.SECONDS).until(() -> actions.size() == 4);
+        assertEquals(List.of(PRIMARY_ACTION,TRANSMUTE_ACTION,TRANSMUTE_ACTION,TASK_ACTION),actions);
+        assertEquals(FULFILLED,promise.getState());
+    }
+
+    @Test
+    public void testNotify_SlowSubscriber_Pass() {
+        // Given
+        ManagedPromiseService service = new ManagedThreadPoolPromiseExecutor(2,false);
+        CountDownLatch gate = new CountDownLatch(1);
+        AtomicInteger slow = new AtomicInteger();
+        AtomicInteger fast = new AtomicInteger();
+        List<PromiseEventSubscriber<Integer>> subscribers = List.of(
+                event -> { awaitGate(gate); slow.incrementAndGet(); },
+                event -> fast.incrementAndGet());
+
+        AsyncPromiseTaskPublisher<Integer> publisher = new AsyncPromiseTaskPublisher<>(service,PrimaryAction.of(() -> 127),subscribers);
+        publisher.invoke(PrimaryAction.of(() -> 127));
+
+        // When
+        Promise<Integer> promise = publisher.then(TransmuteAction.of(value -> value + 1));
+        promise.await();
+
+        // Then
+        await().atMost(5,TimeUnit.SECONDS).until(() -> fast.get() == 2);
+        assertEquals(128,promise.getResult().orElseThrow());
+        assertEquals(0,slow.get());
+        gate.countDown();
+        await().atMost(5,TimeUnit.SECONDS).until(() -> slow.get() == 2);
+        service.signalTerm();
+    }
+
+    @Test
+    public void testNotify_SingleWorker_Pass() {
+        // Given
+        ManagedPromiseService service = new ManagedThreadPoolPromiseExecutor(1,false);
+        List<PromiseEvent.Actions> actions = Collections.synchronizedList(new ArrayList<>());
+        List<PromiseEventSubscriber<Integer>> subscribers = List.of(event -> actions.add(event.getAction()));
+        AsyncPromiseTaskPublisher<Integer> publisher = new AsyncPromiseTaskPublisher<>(service,PrimaryAction.of(() -> 127),subscribers);
+        publisher.invoke(PrimaryAction.of(() -> doLongRunningTask("testNotify_SingleWorker_Pass")));
+
+        // When
+        Promise<Integer> promise = publisher;
+        for (int i = 0; i < 100; i++)
+            promise = promise.then(TransmuteAction.of(value -> value + 1));
+        promise.await();
+
+        // Then
+        await().atMost(5,TimeUnit.SECONDS).until(() -> actions.size() == 101);
+        assertEquals(PRIMARY_ACTION,actions.get(0));
+        assertEquals(227,promise.getResult().orElseThrow());
+        service.signalTerm();
+    }
+
+    private void awaitGate(final CountDownLatch gate) {
+        try {
+            gate.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     private void awaitListeners(int expectedEvents, long await) {
         long start = System.currentTimeMillis();
         long elapsed = 0;
@@ -0,0 +1,227 @@
+package org.javalaboratories.core.concurrency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.javalaboratories.core.concurrency.Promise.States.FULFILLED;
+import static org.javalaboratories.core.concurrency.Promise.States.REJECTED;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PromiseScopeTest extends AbstractConcurrencyTest {
+
+    private List<AbstractManagedPromiseService> services;
+
+    @BeforeEach
+    public void setup() {
+        services = List.of(new ManagedThreadPoolPromiseExecutor(2,false),
+                new ManagedThreadPerTaskPromiseExecutor(2,16,AdmissionPolicy.BLOCK,false));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        services.forEach(ManagedPromiseService::signalTerm);
+    }
+
+    @Test
+    public void testJoin_Pass() {
+        for (ManagedPromiseService service : services) {
+            // Given
+            Promise<Integer> promise;
+            Promise<String> promise2;
+
+            // When
+            try (PromiseScope scope = new PromiseScope(service,null)) {
+                promise = scope.fork(PrimaryAction.of(() -> doLongRunningTask("testJoin_Pass")));
+                promise2 = scope.fork(PrimaryAction.of(() -> "Hello World"));
+                scope.join();
+            }
+
+            // Then
+            assertEquals(127,promise.getResult().orElseThrow());
+            assertEquals("Hello World",promise2.getResult().orElseThrow());
+            assertEquals(FULFILLED,promise.getState());
+        }
+    }
+
+    @Test
+    public void testJoin_SiblingCancelled_Fail() throws InterruptedException {
+        for (ManagedPromiseService service : services) {
+            // Given
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch interrupted = new CountDownLatch(1);
+            Promise<Integer> sibling;
+
+            try (PromiseScope scope = new PromiseScope(service,null)) {
+                sibling = scope.fork(PrimaryAction.of(() -> block(started,interrupted)));
+                scope.fork(PrimaryAction.of(() -> {awaitLatch(started); return doLongRunningTaskWithException("testJoin_SiblingCancelled_Fail");}));
+
+                // When
+                CompletionException exception = assertThrows(CompletionException.class,scope::join);
+
+                // Then
+                assertInstanceOf(IllegalStateException.class,exception.getCause());
+                assertTrue(scope.isShutdown());
+            }
+            assertTrue(interrupted.await(5,TimeUnit.SECONDS));
+            assertEquals(REJECTED,sibling.getState());
+        }
+    }
+
+    @Test
+    public void testJoin_Deadline_Fail() throws InterruptedException {
+        for (ManagedPromiseService service : services) {
+            // Given
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch interrupted = new CountDownLatch(1);
+            Promise<Integer> promise;
+
+            try (PromiseScope scope = new PromiseScope(service,Duration.ofMillis(100))) {
+                promise = scope.fork(PrimaryAction.of(() -> block(started,interrupted)));
+
+                // When
+                CompletionException exception = assertThrows(CompletionException.class,scope::join);
+
+                // Then
+                assertInstanceOf(TimeoutException.class,exception.getCause());
+            }
+            assertTrue(interrupted.await(5,TimeUnit.SECONDS));
+            assertEquals(REJECTED,promise.getState());
+        }
+    }
+
+    @Test
+    public void testJoin_Shutdown_Pass() {
+        for (ManagedPromiseService service : services) {
+            // Given
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch interrupted = new CountDownLatch(1);
+
+            try (PromiseScope scope = new PromiseScope(service,null)) {
+                Promise<Integer> promise = scope.fork(PrimaryAction.of(() -> block(started,interrupted)));
+                scope.fork(PrimaryAction.of(() -> {awaitLatch(started); scope.shutdown(); return 1;}));
+
+                // When
+                scope.join();
+
+                // Then
+                assertTrue(scope.isShutdown());
+                assertEquals(REJECTED,promise.getState());
+            }
+        }
+    }
+
+    @Test
+    public void testClose_OutlivedTask_Pass() {
+        for (ManagedPromiseService service : services) {
+            // Given
+            CountDownLatch started = new CountDownLatch(1);
+            AtomicBoolean finished = new AtomicBoolean();
+
+            // When
+            try (PromiseScope scope = new PromiseScope(service,null)) {
+                scope.fork(PrimaryAction.of(() -> {
+                    started.countDown();
+                    try {
+                        Thread.sleep(60000);
+                    } catch (InterruptedException e) {
+                        // Carry on regardless, but briefly
+                        sleep(128);
+                    }
+                    finished.set(true);
+                    return 1;
+                }));
+                awaitLatch(started);
+            }
+
+            // Then
+            assertTrue(finished.get());
+        }
+    }
+
+    @Test
+    public void testFork_Shutdown_Pass() {
+        for (ManagedPromiseService service : services) {
+            // Given
+            AtomicBoolean ran = new AtomicBoolean();
+
+            try (PromiseScope scope = new PromiseScope(service,null)) {
+                scope.shutdown();
+
+                // When
+                Promise<Boolean> promise = scope.fork(PrimaryAction.of(() -> {ran.set(true); return true;}));
+                promise.await();
+
+                // Then
+                assertEquals(REJECTED,promise.getState());
+                assertFalse(ran.get());
+            }
+        }
+    }
+
+    @Test
+    public void testFork_Rejected_Fail() {
+        // Given
+        ManagedPromiseService service = new ManagedThreadPerTaskPromiseExecutor(1,1,AdmissionPolicy.REJECT,false);
+        CountDownLatch release = new CountDownLatch(1);
+        int rejected = 0;
+
+        // A deadline, so that a scope awaiting a rejected promise fails rather than hangs
+        try (PromiseScope scope = new PromiseScope(service,Duration.ofSeconds(5))) {
+            // When
+            for (int i = 0; i < 10; i++) {
+                try {
+                    scope.fork(PrimaryAction.of(() -> {awaitLatch(release); return 0;}));
+                } catch (RejectedExecutionException e) {
+                    rejected++;
+                }
+            }
+            release.countDown();
+
+            // Then
+            assertTrue(rejected > 0);
+            assertFalse(scope.join().isShutdown());
+        } finally {
+            service.signalTerm();
+        }
+    }
+
+    @Test
+    public void testFork_Closed_Fail() {
+        // Given
+        PromiseScope scope = Promises.newScope();
+        scope.close();
+
+        // Then
+        assertThrows(IllegalStateException.class, () -> scope.fork(PrimaryAction.of(() -> 1)));
+        assertThrows(IllegalStateException.class,scope::join);
+        assertThrows(IllegalArgumentException.class, () -> Promises.newScope(Duration.ofMillis(-1)));
+    }
+
+    private int block(final CountDownLatch started, final CountDownLatch interrupted) {
+        started.countDown();
+        try {
+            Thread.sleep(60000);
+        } catch (InterruptedException e) {
+            interrupted.countDown();
+        }
+        return 0;
+    }
+
+    private void awaitLatch(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -5,14 +5,23 @@ import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 
 import static org.javalaboratories.core.concurrency.Promise.States.FULFILLED;
 import static org.javalaboratories.core.concurrency.Promise.States.REJECTED;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -271,6 +280,154 @@ public class PromiseTest extends AbstractConcurrencyTest {
         assertEquals(127,received.get());
     }
 
+    @Test
+    public void testThen_FusedStages_Pass() throws InterruptedException {
+        // Given
+        CountDownLatch gate = new CountDownLatch(1);
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        Promise<Integer> promise = Promises.newPromise(PrimaryAction.of(() -> {
+            threads.add(Thread.currentThread());
+            awaitGate(gate);
+            return 0;
+        }));
+
+        // When
+        for (int i = 0; i < 10; i++)
+            promise = promise.then(TransmuteAction.of(value -> {threads.add(Thread.currentThread()); return value + 1;}));
+        gate.countDown();
+
+        // Then
+        assertEquals(10,promise.getResult().orElseThrow());
+        assertEquals(1,threads.size());
+    }
+
+    @Test
+    public void testThen_LongChain_Pass() {
+        // Given
+        CountDownLatch gate = new CountDownLatch(1);
+        Promise<Integer> promise = Promises.newPromise(PrimaryAction.of(() -> {awaitGate(gate); return 0;}));
+        int stages = AsyncPromiseTask.MAXIMUM_FUSED_STAGES * 100;
+
+        // When
+        for (int i = 0; i < stages; i++)
+            promise = promise.then(TransmuteAction.of(value -> value + 1));
+        gate.countDown();
+
+        // Then
+        assertEquals(stages,promise.getResult().orElseThrow());
+        assertEquals(FULFILLED,promise.getState());
+    }
+
+    @Test
+    public void testThen_SettledPromise_Pass() {
+        // Given
+        Thread caller = Thread.currentThread();
+        Promise<Integer> promise = Promises.newPromise(PrimaryAction.of(() -> 127)).await();
+
+        // When
+        Promise<Boolean> result = promise.then(TransmuteAction.of(value -> Thread.currentThread() != caller));
+
+        // Then
+        assertTrue(result.getResult().orElseThrow());
+    }
+
+    @Test
+    public void testGetIdentity_Pass() {
+        // Given
+        Promise<Integer> promise = Promises.newPromise(PrimaryAction.of(() -> 127));
+        Promise<Integer> promise2 = promise.then(TransmuteAction.of(value -> value + 1));
+
+        // Then
+        assertTrue(promise.getIdentity().matches("\\{\\d+}"));
+        assertFalse(promise.getIdentity().equals(promise2.getIdentity()));
+        assertEquals(promise.getIdentity(),promise.getIdentity());
+    }
+
+    @Test
+    public void testCancel_Pass() throws InterruptedException {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        AtomicReference<Throwable> exception = new AtomicReference<>();
+        Promise<Integer> promise = Promises.newPromise(PrimaryAction.of(() -> block(started,interrupted)));
+        Promise<Integer> dependent = promise.then(TransmuteAction.of(value -> value + 1));
+
+        // When
+        started.await();
+        boolean cancelled = promise.cancel();
+        dependent.handle(exception::set);
+
+        // Then
+        assertTrue(cancelled);
+        assertTrue(interrupted.await(5,TimeUnit.SECONDS));
+        assertEquals(REJECTED,promise.getState());
+        assertEquals(REJECTED,dependent.getState());
+        assertInstanceOf(CancellationException.class,exception.get());
+        assertFalse(dependent.getResult().isPresent());
+    }
+
+    @Test
+    public void testCancel_Settled_Pass() {
+        // Given
+        Promise<Integer> promise = Promises.newPromise(PrimaryAction.of(() -> 127)).await();
+
+        // When
+        boolean cancelled = promise.cancel();
+
+        // Then
+        assertFalse(cancelled);
+        assertEquals(FULFILLED,promise.getState());
+        assertEquals(127,promise.getResult().orElseThrow());
+    }
+
+    @Test
+    public void testOrTimeout_Fail() throws InterruptedException {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        AtomicReference<Throwable> exception = new AtomicReference<>();
+
+        // When
+        Promise<Integer> promise = Promises.newPromise(PrimaryAction.of(() -> block(started,interrupted)))
+                .orTimeout(Duration.ofMillis(100))
+                .handle(exception::set);
+
+        // Then
+        assertTrue(interrupted.await(5,TimeUnit.SECONDS));
+        assertEquals(REJECTED,promise.getState());
+        assertInstanceOf(TimeoutException.class,exception.get());
+        assertThrows(IllegalArgumentException.class, () -> promise.orTimeout(Duration.ofMillis(-1)));
+        assertThrows(NullPointerException.class, () -> promise.orTimeout(null));
+    }
+
+    @Test
+    public void testOrTimeout_Pass() {
+        // Given
+        Promise<Integer> promise = Promises.newPromise(PrimaryAction.of(() -> doLongRunningTask("testOrTimeout_Pass")))
+                .orTimeout(Duration.ofSeconds(30));
+
+        // Then
+        assertEquals(127,promise.getResult().orElseThrow());
+        assertEquals(FULFILLED,promise.getState());
+    }
+
+    @Test
+    public void testCompleteOnTimeout_Pass() throws InterruptedException {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        // When
+        Promise<Integer> promise = Promises.newPromise(PrimaryAction.of(() -> block(started,interrupted)))
+                .completeOnTimeout(-1,Duration.ofMillis(100))
+                .then(TransmuteAction.of(value -> value * 2));
+
+        // Then
+        assertEquals(-2,promise.getResult().orElseThrow());
+        assertTrue(interrupted.await(5,TimeUnit.SECONDS));
+        assertEquals(FULFILLED,promise.getState());
+    }
+
     @Test
     public void testGetAction_Pass() {
         // Given
@@ -295,4 +452,21 @@ public class PromiseTest extends AbstractConcurrencyTest {
         assertEquals(FULFILLED,promise.getState());
     }
 
+    private int block(final CountDownLatch started, final CountDownLatch interrupted) {
+        started.countDown();
+        try {
+            Thread.sleep(60000);
+        } catch (InterruptedException e) {
+            interrupted.countDown();
+        }
+        return 0;
+    }
+
+    private void awaitGate(final CountDownLatch gate) {
+        try {
+            gate.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
@@ -1,12 +1,24 @@
 package org.javalaboratories.core.concurrency;
 
+import org.awaitility.Awaitility;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.javalaboratories.core.concurrency.Promise.States.FULFILLED;
 import static org.javalaboratories.core.concurrency.Promise.States.REJECTED;
@@ -71,6 +83,368 @@ public class PromisesTest extends AbstractConcurrencyTest {
         assertEquals(REJECTED,promise.getState());
     }
 
+    @Test
+    public void testAll_Order_Pass() {
+        // Given
+        List<PrimaryAction<Integer>> actions = Arrays.asList(
+                PrimaryAction.of(() -> {sleep(256); return 0;}),
+                PrimaryAction.of(() -> 1),
+                PrimaryAction.of(() -> {sleep(64); return 2;})
+        );
+
+        // When
+        List<Promise<Integer>> promises = Promises.all(actions).getResult().orElseThrow();
+
+        // Then
+        assertEquals(3,promises.size());
+        for (int i = 0; i < promises.size(); i++)
+            assertEquals(i,promises.get(i).getResult().orElseThrow());
+        assertEquals(FULFILLED,Promises.all(Collections.<PrimaryAction<Integer>>emptyList()).await().getState());
+    }
+
+    @Test
+    public void testAll_FailFast_Pass() {
+        // Given
+        List<PrimaryAction<Integer>> actions = Arrays.asList(
+                PrimaryAction.of(() -> doLongRunningTaskWithException("testAll_FailFast_Pass[0]")),
+                PrimaryAction.of(() -> {sleep(2000); return 1;})
+        );
+        AtomicReference<Throwable> cause = new AtomicReference<>();
+
+        // When
+        long start = System.nanoTime();
+        Promise<List<Promise<Integer>>> promise = Promises.all(actions).handle(cause::set);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertEquals(REJECTED,promise.getState());
+        assertInstanceOf(IllegalStateException.class,cause.get());
+        assertTrue(elapsed < 2000);
+    }
+
+    @Test
+    public void testAll_Settle_Pass() {
+        // Given
+        List<PrimaryAction<Integer>> actions = Arrays.asList(
+                PrimaryAction.of(() -> doLongRunningTaskWithException("testAll_Settle_Pass[0]")),
+                PrimaryAction.of(() -> doLongRunningTask("testAll_Settle_Pass[1]"))
+        );
+
+        // When
+        List<Promise<Integer>> promises = Promises.all(actions,true).getResult().orElseThrow();
+
+        // Then
+        assertEquals(REJECTED,promises.get(0).getState());
+        assertEquals(FULFILLED,promises.get(1).getState());
+    }
+
+    @Test
+    public void testAll_ConcurrentAggregations_Pass() {
+        // Given
+        int aggregations = Runtime.getRuntime().availableProcessors() * 8;
+        List<Promise<List<Promise<Integer>>>> promises = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < aggregations; i++) {
+            promises.add(Promises.all(Arrays.asList(
+                    PrimaryAction.of(() -> {sleep(16); return 1;}),
+                    PrimaryAction.of(() -> {sleep(16); return 2;}))));
+        }
+
+        // Then
+        Awaitility.await().atMost(30,TimeUnit.SECONDS)
+                .until(() -> promises.stream().allMatch(p -> p.getState() == FULFILLED));
+    }
+
+    @Test
+    public void testRace_Fulfilled_Pass() {
+        // Given
+        int slow = Runtime.getRuntime().availableProcessors() + 4;
+        CountDownLatch gate = new CountDownLatch(1);
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger finished = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger interrupted = new AtomicInteger();
+        List<PrimaryAction<Integer>> actions = new ArrayList<>();
+        actions.add(PrimaryAction.of(() -> 1));
+        for (int i = 0; i < slow; i++)
+            actions.add(PrimaryAction.of(() -> {
+                started.incrementAndGet();
+                try {
+                    if (gate.await(5,TimeUnit.SECONDS))
+                        completed.incrementAndGet();
+                } catch (InterruptedException e) {
+                    // Cancelled loser
+                    interrupted.incrementAndGet();
+                } finally {
+                    finished.incrementAndGet();
+                }
+                return 2;
+            }));
+
+        // When
+        Promise<Integer> promise = Promises.race(actions);
+
+        // Then
+        assertEquals(1,promise.getResult().orElseThrow());
+        sleep(256);
+        // Well within the timeout of the gate, so only cancelled losers have finished
+        Awaitility.await().atMost(2,TimeUnit.SECONDS).until(() -> finished.get() == started.get());
+        gate.countDown();
+        sleep(256);
+        assertEquals(0,completed.get());
+        assertEquals(started.get(),interrupted.get());
+    }
+
+    @Test
+    public void testRace_Rejected_Pass() {
+        // Given
+        List<PrimaryAction<Integer>> actions = Arrays.asList(
+                PrimaryAction.of(() -> doLongRunningTaskWithException("testRace_Rejected_Pass[0]")),
+                PrimaryAction.of(() -> {sleep(1000); return 1;})
+        );
+        AtomicReference<Throwable> cause = new AtomicReference<>();
+
+        // When
+        Promise<Integer> promise = Promises.race(actions).handle(cause::set);
+
+        // Then
+        assertEquals(REJECTED,promise.getState());
+        assertInstanceOf(IllegalStateException.class,cause.get());
+        assertThrows(IllegalArgumentException.class, () -> Promises.race(Collections.<PrimaryAction<Integer>>emptyList()));
+    }
+
+    @Test
+    public void testAny_Pass() {
+        // Given
+        List<PrimaryAction<Integer>> actions = Arrays.asList(
+                PrimaryAction.of(() -> doLongRunningTaskWithException("testAny_Pass[0]")),
+                PrimaryAction.of(() -> doLongRunningTaskWithException("testAny_Pass[1]")),
+                PrimaryAction.of(() -> 2)
+        );
+
+        // When
+        Promise<Integer> promise = Promises.any(actions);
+
+        // Then
+        assertEquals(2,promise.getResult().orElseThrow());
+        assertEquals(FULFILLED,promise.getState());
+    }
+
+    @Test
+    public void testAny_AllRejected_Fail() {
+        // Given
+        List<PrimaryAction<Integer>> actions = Arrays.asList(
+                PrimaryAction.of(() -> doLongRunningTaskWithException("testAny_AllRejected_Fail[0]")),
+                PrimaryAction.of(() -> {throw new UnsupportedOperationException("testAny_AllRejected_Fail[1]");})
+        );
+        AtomicReference<Throwable> cause = new AtomicReference<>();
+
+        // When
+        Promise<Integer> promise = Promises.any(actions).handle(cause::set);
+
+        // Then
+        assertEquals(REJECTED,promise.getState());
+        AggregateException exception = assertInstanceOf(AggregateException.class,cause.get());
+        assertEquals(2,exception.getCauses().size());
+        assertInstanceOf(IllegalStateException.class,exception.getCauses().get(0));
+        assertInstanceOf(UnsupportedOperationException.class,exception.getCauses().get(1));
+        assertEquals(2,exception.getSuppressed().length);
+    }
+
+    @Test
+    public void testDelay_Pass() {
+        // Given
+        long start = System.nanoTime();
+
+        // When
+        Promise<Void> promise = Promises.delay(Duration.ofMillis(100));
+
+        // Then
+        promise.await();
+        assertEquals(FULFILLED,promise.getState());
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+        assertThrows(IllegalArgumentException.class, () -> Promises.delay(Duration.ofMillis(-1)));
+    }
+
+    @Test
+    public void testDelay_Cancel_Pass() {
+        // Given
+        Promise<Void> promise = Promises.delay(Duration.ofSeconds(30));
+
+        // When
+        boolean cancelled = promise.cancel();
+
+        // Then
+        assertTrue(cancelled);
+        assertEquals(REJECTED,promise.getState());
+    }
+
+    @Test
+    public void testSchedule_Pass() {
+        // Given
+        long start = System.nanoTime();
+        AtomicReference<Integer> handled = new AtomicReference<>();
+
+        // When
+        Promise<Integer> promise = Promises.schedule(PrimaryAction.of(() -> 127,(value,exception) -> handled.set(value)),
+                Duration.ofMillis(100));
+
+        // Then
+        assertEquals(127,promise.getResult().orElseThrow());
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(127,handled.get());
+    }
+
+    @Test
+    public void testSchedule_Cancel_Pass() {
+        // Given
+        AtomicInteger invocations = new AtomicInteger();
+        Promise<Integer> promise = Promises.schedule(PrimaryAction.of(invocations::incrementAndGet),Duration.ofMillis(200));
+
+        // When
+        promise.cancel();
+
+        // Then
+        sleep(400);
+        assertEquals(0,invocations.get());
+    }
+
+    @Test
+    public void testRetry_Pass() {
+        // Given
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicInteger handled = new AtomicInteger();
+        RetryPolicy policy = RetryPolicy.of(5,Duration.ofMillis(10),Duration.ofMillis(50));
+
+        // When
+        Promise<Integer> promise = Promises.retry(PrimaryAction.of(() -> {
+            if (attempts.incrementAndGet() < 3)
+                throw new IllegalStateException("testRetry_Pass");
+            return 127;
+        },(value,exception) -> handled.incrementAndGet()),policy);
+
+        // Then
+        assertEquals(127,promise.getResult().orElseThrow());
+        assertEquals(3,attempts.get());
+        assertEquals(1,handled.get());
+    }
+
+    @Test
+    public void testRetry_Exhausted_Fail() {
+        // Given
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicReference<Throwable> cause = new AtomicReference<>();
+        RetryPolicy policy = RetryPolicy.of(3,Duration.ofMillis(10),Duration.ofMillis(50));
+
+        // When
+        Promise<Integer> promise = Promises.retry(PrimaryAction.<Integer>of(() -> {
+            throw new IllegalStateException("testRetry_Exhausted_Fail[" + attempts.incrementAndGet() + "]");
+        }),policy).handle(cause::set);
+
+        // Then
+        assertEquals(REJECTED,promise.getState());
+        assertEquals(3,attempts.get());
+        assertEquals("testRetry_Exhausted_Fail[3]",cause.get().getMessage());
+    }
+
+    @Test
+    public void testRetry_NotRetryable_Fail() {
+        // Given
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicReference<Throwable> cause = new AtomicReference<>();
+        RetryPolicy policy = RetryPolicy.of(3,Duration.ofMillis(10),Duration.ofMillis(50))
+                .retryIf(exception -> !(exception instanceof UnsupportedOperationException));
+
+        // When
+        Promise<Integer> promise = Promises.retry(PrimaryAction.<Integer>of(() -> {
+            attempts.incrementAndGet();
+            throw new UnsupportedOperationException("testRetry_NotRetryable_Fail");
+        }),policy).handle(cause::set);
+
+        // Then
+        assertEquals(REJECTED,promise.getState());
+        assertEquals(1,attempts.get());
+        assertInstanceOf(UnsupportedOperationException.class,cause.get());
+    }
+
+    @Test
+    public void testRetry_Cancel_Pass() {
+        // Given
+        AtomicInteger attempts = new AtomicInteger();
+        RetryPolicy policy = RetryPolicy.of(10,Duration.ofMillis(200),Duration.ofMillis(200)).withJitter(0);
+        Promise<Integer> promise = Promises.retry(PrimaryAction.<Integer>of(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("testRetry_Cancel_Pass");
+        }),policy);
+        Awaitility.await().atMost(5,TimeUnit.SECONDS).until(() -> attempts.get() == 1);
+
+        // When
+        promise.cancel();
+
+        // Then
+        sleep(500);
+        assertEquals(REJECTED,promise.getState());
+        assertEquals(1,attempts.get());
+    }
+
+    @Test
+    public void testMap_Iterator_Pass() {
+        // Given
+        AtomicInteger pulled = new AtomicInteger();
+        AtomicInteger mapped = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        Iterator<Integer> inputs = IntStream.range(0,1000).peek(i -> pulled.incrementAndGet()).iterator();
+
+        // When
+        Promise<List<Integer>> promise = Promises.map(inputs,i -> {
+            maxInFlight.accumulateAndGet(pulled.get() - mapped.get(),Math::max);
+            mapped.incrementAndGet();
+            return i * 2;
+        },4,10);
+
+        // Then
+        List<Integer> results = promise.getResult().orElseThrow();
+        assertEquals(1000,results.size());
+        assertEquals(IntStream.range(0,1000).map(i -> i * 2).boxed().toList(),results);
+        assertTrue(maxInFlight.get() <= 40);
+    }
+
+    @Test
+    public void testMap_Stream_Pass() {
+        // Given
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<String> inputs = Stream.of("a","bb","ccc").onClose(() -> closed.set(true));
+
+        // When
+        Promise<List<Integer>> promise = Promises.map(inputs,String::length,2);
+
+        // Then
+        assertEquals(List.of(1,2,3),promise.getResult().orElseThrow());
+        Awaitility.await().atMost(5,TimeUnit.SECONDS).until(closed::get);
+        assertEquals(List.of(),Promises.map(List.<String>of(),String::length,2).getResult().orElseThrow());
+        assertThrows(IllegalArgumentException.class, () -> Promises.map(List.of(1),i -> i,0));
+    }
+
+    @Test
+    public void testMap_Exception_Fail() {
+        // Given
+        AtomicInteger mapped = new AtomicInteger();
+        AtomicReference<Throwable> cause = new AtomicReference<>();
+
+        // When
+        Promise<List<Integer>> promise = Promises.map(IntStream.range(0,1000).boxed().toList(),i -> {
+            if (mapped.incrementAndGet() == 10)
+                throw new IllegalStateException("testMap_Exception_Fail");
+            return i;
+        },2).handle(cause::set);
+
+        // Then
+        assertEquals(REJECTED,promise.getState());
+        assertEquals("testMap_Exception_Fail",cause.get().getMessage());
+        sleep(100);
+        assertTrue(mapped.get() < 1000);
+    }
 
     // Only enable for manual observation of behaviour
     // If enabled, it is recommended to run this test class exclusively
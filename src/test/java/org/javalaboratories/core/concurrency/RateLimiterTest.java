@@ -0,0 +1,189 @@
+package org.javalaboratories.core.concurrency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.javalaboratories.core.concurrency.Promise.States.REJECTED;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimiterTest extends AbstractConcurrencyTest {
+
+    private ManagedThreadPoolPromiseExecutor service;
+
+    @BeforeEach
+    public void setup() {
+        service = new ManagedThreadPoolPromiseExecutor(1,false);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        service.signalTerm();
+    }
+
+    @Test
+    public void testOf_Pass() {
+        // Given
+        RateLimiter limiter = RateLimiter.of(10,Duration.ofSeconds(1),5,Duration.ofMillis(500));
+
+        // Then
+        assertEquals(10,limiter.getPermits());
+        assertEquals(Duration.ofSeconds(1),limiter.getPeriod());
+        assertEquals(5,limiter.getBurst());
+        assertEquals(Duration.ofMillis(500),limiter.getMaximumWait().orElseThrow());
+        assertTrue(RateLimiter.of(10,Duration.ofSeconds(1)).getMaximumWait().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.of(0,Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.of(1,Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.of(1,Duration.ofSeconds(1),0));
+    }
+
+    @Test
+    public void testTryAcquire_Burst_Pass() {
+        // Given
+        RateLimiter limiter = RateLimiter.of(1,Duration.ofSeconds(10),3);
+
+        // When
+        List<Boolean> acquired = new ArrayList<>();
+        for (int i = 0; i < 5; i++)
+            acquired.add(limiter.tryAcquire());
+
+        // Then
+        assertEquals(List.of(true,true,true,false,false),acquired);
+        assertEquals(3,limiter.getGrantedCount());
+        assertEquals(2,limiter.getRefusedCount());
+        assertEquals(0,limiter.getThrottledCount());
+    }
+
+    @Test
+    public void testReserve_Spacing_Pass() {
+        // Given
+        RateLimiter limiter = RateLimiter.of(10,Duration.ofSeconds(1));
+
+        // When
+        long first = limiter.reserve();
+        long second = limiter.reserve();
+        long third = limiter.reserve();
+
+        // Then
+        assertEquals(0,first);
+        assertTrue(second > TimeUnit.MILLISECONDS.toNanos(90) && second <= TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(third > TimeUnit.MILLISECONDS.toNanos(190) && third <= TimeUnit.MILLISECONDS.toNanos(200));
+        assertEquals(2,limiter.getThrottledCount());
+        assertTrue(limiter.getThrottledTime().toMillis() >= 280);
+    }
+
+    @Test
+    public void testReserve_MaximumWait_Fail() {
+        // Given
+        RateLimiter limiter = RateLimiter.of(10,Duration.ofSeconds(1),1,Duration.ofMillis(150));
+
+        // When
+        limiter.reserve();
+        limiter.reserve();
+        long refused = limiter.reserve();
+
+        // Then
+        assertEquals(-1,refused);
+        assertEquals(2,limiter.getGrantedCount());
+        assertEquals(1,limiter.getRefusedCount());
+    }
+
+    @Test
+    public void testLimit_Service_Pass() throws InterruptedException {
+        // Given
+        RateLimiter limiter = RateLimiter.of(20,Duration.ofSeconds(1));
+        ManagedPromiseService limited = limiter.limit(service);
+        List<Long> times = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(5);
+        long start = System.nanoTime();
+
+        // When
+        for (int i = 0; i < 5; i++)
+            limited.execute(() -> {
+                times.add(System.nanoTime() - start);
+                latch.countDown();
+            });
+        CountDownLatch unlimited = new CountDownLatch(1);
+        service.execute(unlimited::countDown);
+
+        // Then
+        assertTrue(unlimited.await(100,TimeUnit.MILLISECONDS));
+        assertTrue(latch.await(5,TimeUnit.SECONDS));
+        assertTrue(times.get(4) >= TimeUnit.MILLISECONDS.toNanos(200));
+        assertEquals(4,limiter.getThrottledCount());
+        assertEquals(service.getState(),limited.getState());
+    }
+
+    @Test
+    public void testLimit_ThenActions_Pass() {
+        // Given
+        RateLimiter limiter = RateLimiter.of(100,Duration.ofSeconds(1));
+        ManagedPromiseService limited = limiter.limit(service);
+
+        // When
+        Promise<Integer> promise = Promises.newPromise(PrimaryAction.of(() -> {sleep(100); return 1;}),limited)
+                .thenApply(value -> value + 1)
+                .thenApply(value -> value + 1);
+
+        // Then
+        assertEquals(3,promise.getResult().orElseThrow());
+        assertEquals(3,limiter.getGrantedCount());
+    }
+
+    @Test
+    public void testLimit_Refused_Fail() {
+        // Given
+        ManagedPromiseService limited = RateLimiter.of(1,Duration.ofSeconds(10),1,Duration.ZERO).limit(service);
+
+        // When
+        limited.execute(() -> {});
+
+        // Then
+        assertThrows(RejectedExecutionException.class, () -> limited.execute(() -> {}));
+    }
+
+    @Test
+    public void testNewPromise_RateLimiter_Pass() {
+        // Given
+        RateLimiter limiter = RateLimiter.of(10,Duration.ofSeconds(1));
+        long start = System.nanoTime();
+
+        // When
+        List<Promise<Integer>> promises = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            int value = i;
+            promises.add(Promises.newPromise(PrimaryAction.of(() -> value),limiter));
+        }
+
+        // Then
+        for (int i = 0; i < 3; i++)
+            assertEquals(i,promises.get(i).getResult().orElseThrow());
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+        assertEquals(2,limiter.getThrottledCount());
+    }
+
+    @Test
+    public void testNewPromise_RateLimiter_Fail() {
+        // Given
+        RateLimiter limiter = RateLimiter.of(1,Duration.ofSeconds(10),1,Duration.ZERO);
+        AtomicReference<Throwable> cause = new AtomicReference<>();
+        Promises.newPromise(PrimaryAction.of(() -> 1),limiter);
+
+        // When
+        Promise<Integer> promise = Promises.newPromise(PrimaryAction.of(() -> 2,(value,exception) -> cause.set(exception)),
+                limiter);
+
+        // Then
+        assertEquals(REJECTED,promise.getState());
+        assertInstanceOf(RejectedExecutionException.class,cause.get());
+    }
+}